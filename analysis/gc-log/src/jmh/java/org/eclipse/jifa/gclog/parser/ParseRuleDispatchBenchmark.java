@@ -0,0 +1,116 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.gclog.parser;
+
+import org.eclipse.jifa.gclog.parser.ParseRule.FixedContentParseRule;
+import org.eclipse.jifa.gclog.parser.ParseRule.PrefixAndValueParseRule;
+import org.eclipse.jifa.gclog.parser.ParseRule.RegexParseRules;
+import org.eclipse.jifa.gclog.util.Constant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatching the details of the unified g1 test logs to the rules of {@link UnifiedG1GCLogParser}, trying the rules
+ * one by one compared with the compiled rules.
+ * <p>
+ * Consumers of the rules are replaced by ones that do nothing, so that only dispatching is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParseRuleDispatchBenchmark {
+
+    @Param({"11G1Parser.log", "17G1Parser.log"})
+    private String log;
+
+    private String[] details;
+
+    private List<ParseRule> rules;
+
+    private CompiledParseRules compiledRules;
+
+    @Setup
+    public void setup() throws Exception {
+        UnifiedLogLine logLine = new UnifiedLogLine();
+        List<String> withGCID = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(getClass().getClassLoader().getResourceAsStream(log), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (logLine.decode(line) && logLine.getGcid() != Constant.UNKNOWN_INT) {
+                    withGCID.add(logLine.getDetail());
+                }
+            }
+        }
+        details = withGCID.toArray(new String[0]);
+
+        Field field = UnifiedG1GCLogParser.class.getDeclaredField("withGCIDRules");
+        field.setAccessible(true);
+        rules = new ArrayList<>();
+        for (Object rule : (List<?>) field.get(null)) {
+            rules.add(withoutConsumer((ParseRule) rule));
+        }
+        compiledRules = CompiledParseRules.compile(rules);
+    }
+
+    @Benchmark
+    public void sequential(Blackhole blackhole) {
+        for (String detail : details) {
+            boolean parsed = false;
+            for (ParseRule rule : rules) {
+                if (rule.doParse(null, null, detail)) {
+                    parsed = true;
+                    break;
+                }
+            }
+            blackhole.consume(parsed);
+        }
+    }
+
+    @Benchmark
+    public void compiled(Blackhole blackhole) {
+        for (String detail : details) {
+            blackhole.consume(compiledRules.doParse(null, null, detail));
+        }
+    }
+
+    private static ParseRule withoutConsumer(ParseRule rule) {
+        if (rule instanceof PrefixAndValueParseRule prefixRule) {
+            return new PrefixAndValueParseRule(prefixRule.getPrefix(), (parser, context, prefix, value) -> {
+            });
+        } else if (rule instanceof FixedContentParseRule fixedRule) {
+            return new FixedContentParseRule(fixedRule.getContent(), (parser, context) -> {
+            });
+        } else if (rule instanceof RegexParseRules regexRule) {
+            return new RegexParseRules(regexRule.getPattern().pattern(), (parser, context, matcher) -> {
+            });
+        }
+        // rules without a guard are tried for every text in both ways
+        return (parser, context, text) -> false;
+    }
+}
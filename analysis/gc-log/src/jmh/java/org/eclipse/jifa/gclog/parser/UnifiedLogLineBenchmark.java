@@ -0,0 +1,160 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.gclog.parser;
+
+import org.eclipse.jifa.gclog.util.GCLogUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding unified log lines in place, compared with the substring based decoding it replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UnifiedLogLineBenchmark {
+
+    private static final String[] UPTIME_LINES = {
+            "[1.000s][info][gc,start     ] GC(0) Pause Young (Normal) (Metadata GC Threshold)",
+            "[1.000s][info][gc,task      ] GC(0) Using 8 workers of 8 for evacuation",
+            "[1.010s][info][gc,phases    ] GC(0)   Pre Evacuate Collection Set: 0.0ms",
+            "[1.010s][info][gc,heap      ] GC(0) Eden regions: 19->0(33)",
+            "[1.010s][info][gc,metaspace ] GC(0) Metaspace: 20679K->20679K(1069056K)",
+            "[1.010s][info][gc           ] GC(0) Pause Young (Normal) (Metadata GC Threshold) 19M->4M(64M) 9.896ms",
+            "[1.010s][info][gc,cpu       ] GC(0) User=0.02s Sys=0.01s Real=0.01s",
+            "[1.010s][info][safepoint    ] Total time for which application threads were stopped: 0.0101100 seconds, " +
+            "Stopping threads took: 0.0000264 seconds",
+            "[1.011s][debug][gc,heap     ] GC(0) Heap after GC invocations=1 (full 0):",
+    };
+
+    private static final String[] DECORATED_LINES = {
+            "[2021-05-06T11:25:16.508+0800][0.202s][1620271516508ms][202ms][1489353078113131ns][201765461ns]" +
+            "[B-K0S4ML7L-0237.local][45473][14083][info][gc,start     ] GC(0) Pause Young (Normal) (G1 Evacuation Pause)",
+            "[2021-05-06T11:25:16.510+0800][0.204s][1620271516510ms][204ms][1489353080113131ns][203765461ns]" +
+            "[B-K0S4ML7L-0237.local][45473][14083][info][gc,heap      ] GC(0) Eden regions: 19->0(33)",
+            "[2021-05-06T11:25:16.512+0800][0.206s][1620271516512ms][206ms][1489353082113131ns][205765461ns]" +
+            "[B-K0S4ML7L-0237.local][45473][14083][info][gc           ] GC(0) Pause Young (Normal) 19M->4M(64M) 9.896ms",
+    };
+
+    @Param({"uptime", "decorated"})
+    private String decorations;
+
+    private String[] lines;
+
+    private UnifiedLogLine logLine;
+
+    @Setup
+    public void setup() {
+        lines = "uptime".equals(decorations) ? UPTIME_LINES : DECORATED_LINES;
+        logLine = new UnifiedLogLine();
+    }
+
+    @Benchmark
+    public void inPlace(Blackhole blackhole) {
+        for (String line : lines) {
+            if (logLine.decode(line)) {
+                blackhole.consume(logLine.getUptime());
+                blackhole.consume(logLine.getGcid());
+                blackhole.consume(logLine.getDetail());
+            }
+        }
+    }
+
+    @Benchmark
+    public void substrings(Blackhole blackhole) {
+        for (String line : lines) {
+            SubstringLogLine logLine = SubstringLogLine.parse(line);
+            if (logLine.isValid()) {
+                blackhole.consume(logLine.uptime);
+                blackhole.consume(logLine.gcid);
+                blackhole.consume(logLine.detail);
+            }
+        }
+    }
+
+    // the decoding replaced by UnifiedLogLine, numbers are parsed by GCLogUtil in both
+    private static class SubstringLogLine {
+
+        private static final List<String> LEVELS = Arrays.asList(UnifiedLogLine.LEVELS);
+
+        private static final double TEN_YEAR_MILLISECOND = 10 * 365.25 * 24 * 60 * 60 * 1000;
+
+        String timestampString;
+
+        long timestamp = -1;
+
+        double uptime = -1;
+
+        String loglevel;
+
+        List<String> tags;
+
+        int gcid = -1;
+
+        String detail;
+
+        static SubstringLogLine parse(String line) {
+            SubstringLogLine logLine = new SubstringLogLine();
+            int leftBracketIndex = line.indexOf('[');
+            int rightBracketIndex = -1;
+            while (leftBracketIndex != -1) {
+                rightBracketIndex = line.indexOf(']', leftBracketIndex + 1);
+                logLine.parseDecoration(line.substring(leftBracketIndex + 1, rightBracketIndex).trim());
+                leftBracketIndex = line.indexOf('[', rightBracketIndex + 1);
+            }
+            String remains = line.substring(rightBracketIndex + 1).trim();
+            if (remains.startsWith("GC(")) {
+                int right = remains.indexOf(')');
+                logLine.gcid = Integer.parseInt(remains.substring(3, right));
+                logLine.detail = remains.substring(right + 2);
+            } else {
+                logLine.detail = remains;
+            }
+            return logLine;
+        }
+
+        private void parseDecoration(String decoration) {
+            if (GCLogUtil.isDatestamp(decoration)) {
+                timestampString = decoration;
+            } else if (Character.isDigit(decoration.charAt(0)) && decoration.endsWith("s")) {
+                double period = GCLogUtil.toMillisecond(decoration);
+                if (period > TEN_YEAR_MILLISECOND) {
+                    timestamp = (long) period;
+                } else {
+                    uptime = period;
+                }
+            } else if (LEVELS.contains(decoration)) {
+                loglevel = decoration;
+            } else if (decoration.contains("gc")) {
+                tags = Arrays.asList(decoration.trim().split(","));
+            }
+        }
+
+        boolean isValid() {
+            return (timestamp != -1 || timestampString != null || uptime != -1) &&
+                   (loglevel == null || "info".equals(loglevel)) &&
+                   (tags == null || tags.contains("gc"));
+        }
+    }
+}
@@ -17,6 +17,7 @@ import org.eclipse.jifa.analysis.listener.ProgressListener;
 import org.eclipse.jifa.gclog.model.GCModel;
 import org.eclipse.jifa.gclog.parser.GCLogAnalyzer;
 import org.eclipse.jifa.gclog.parser.GCLogParserFactory;
+import org.eclipse.jifa.gclog.parser.IncrementalGCLogAnalyzer;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
@@ -24,13 +25,43 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 public class GCLogAnalysisApiExecutor extends AbstractApiExecutor<GCModel> {
 
+    // targets analyzed with option "incremental" = "true", refreshed when they grow
+    private final Map<Path, IncrementalGCLogAnalyzer> incrementalAnalyzers = new ConcurrentHashMap<>();
+
     @Override
     protected GCModel buildAnalyzer(Path target, Map<String, String> options, ProgressListener listener) throws Throwable {
-        return new GCLogAnalyzer(target.toFile(), listener).parse();
+        IncrementalGCLogAnalyzer incremental = incrementalAnalyzers.get(target);
+        if (incremental == null && options != null && Boolean.parseBoolean(options.get("incremental"))) {
+            incremental = incrementalAnalyzers.computeIfAbsent(target, t -> new IncrementalGCLogAnalyzer(t.toFile(), options));
+        }
+        if (incremental != null) {
+            return incremental.refresh(listener);
+        }
+        return new GCLogAnalyzer(target.toFile(), options, listener).parse();
+    }
+
+    @Override
+    protected boolean isOutdated(Path target, GCModel model) {
+        IncrementalGCLogAnalyzer incremental = incrementalAnalyzers.get(target);
+        return incremental != null && incremental.isOutdated();
+    }
+
+    @Override
+    protected long footprint(Path target, GCModel model) {
+        // the parsed model kept for the next refresh is retained along with the cached one
+        IncrementalGCLogAnalyzer incremental = incrementalAnalyzers.get(target);
+        return super.footprint(target, model) + (incremental != null ? incremental.footprint() : 0);
+    }
+
+    @Override
+    protected void cachedAnalyzerRemoved(GCModel model) {
+        // a replaced model is not the latest one of its incremental analyzer
+        incrementalAnalyzers.values().removeIf(incremental -> incremental.getModel() == model);
     }
 
     @Override
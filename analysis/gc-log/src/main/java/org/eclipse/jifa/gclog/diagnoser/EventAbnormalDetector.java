@@ -13,6 +13,7 @@
 
 package org.eclipse.jifa.gclog.diagnoser;
 
+import org.eclipse.jifa.common.util.ExecutorFactory;
 import org.eclipse.jifa.gclog.event.GCEvent;
 import org.eclipse.jifa.gclog.event.eventInfo.CpuTime;
 import org.eclipse.jifa.gclog.event.eventInfo.GCEventBooleanType;
@@ -21,9 +22,11 @@ import org.eclipse.jifa.gclog.event.eventInfo.MemoryArea;
 import org.eclipse.jifa.gclog.model.GCEventType;
 import org.eclipse.jifa.gclog.model.GCModel;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.ToDoubleFunction;
 
 import static org.eclipse.jifa.gclog.diagnoser.AbnormalType.BAD_CAUSE_FULL_GC;
 import static org.eclipse.jifa.gclog.diagnoser.AbnormalType.BAD_DURATION;
@@ -51,215 +54,380 @@ import static org.eclipse.jifa.gclog.util.Constant.UNKNOWN_INT;
 
 // This class detects abnormals that will be displayed in gc detail in frontend. Their cause and suggestion will
 // be found in the next step in EventSuggestionGenerator.
+// All rules are evaluated on an event before the next one, and events are diagnosed in parallel if there are many.
 public class EventAbnormalDetector {
-    private static List<Method> eventDiagnoseRules = new ArrayList<>();
+    private static final int MIN_EVENTS_TO_PARALLELIZE = 1 << 16;
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    private static final byte GC_EVENT = 1;
+    private static final byte COLLECTION_EVENT = 1 << 1;
+
+    // The order matters: abnormals of an event are found in this order, and cpu time checks the abnormal of duration.
+    private enum Rule {
+        DURATION(new AbnormalType[]{BAD_DURATION},
+                AnalysisConfig::getLongPauseThreshold, AnalysisConfig::getLongConcurrentThreshold),
+        EVENT_TYPE(new AbnormalType[]{BAD_EVENT_TYPE}),
+        GC_CAUSE(new AbnormalType[]{BAD_CAUSE_FULL_GC}),
+        SPECIAL_SITUATION(new AbnormalType[]{TO_SPACE_EXHAUSTED}),
+        MEMORY(new AbnormalType[]{BAD_YOUNG_GEN_CAPACITY, BAD_OLD_GEN_CAPACITY, BAD_OLD_USED, BAD_HUMONGOUS_USED,
+                BAD_HEAP_USED, BAD_METASPACE_USED},
+                AnalysisConfig::getSmallGenerationThreshold, AnalysisConfig::getHighOldUsageThreshold,
+                AnalysisConfig::getHighHumongousUsageThreshold, AnalysisConfig::getHighMetaspaceUsageThreshold),
+        CPU_TIME(new AbnormalType[]{BAD_SYS, BAD_USR},
+                AnalysisConfig::getHighSysThreshold, AnalysisConfig::getLowUsrThreshold),
+        PROMOTION(new AbnormalType[]{BAD_PROMOTION}, AnalysisConfig::getHighPromotionThreshold),
+        INTERVAL(new AbnormalType[]{BAD_INTERVAL},
+                AnalysisConfig::getYoungGCFrequentIntervalThreshold, AnalysisConfig::getOldGCFrequentIntervalThreshold,
+                AnalysisConfig::getFullGCFrequentIntervalThreshold);
+
+        private static final Rule[] RULES = values();
+
+        private final AbnormalType[] types;
+        private final ToDoubleFunction<AnalysisConfig>[] thresholds;
+
+        @SafeVarargs
+        Rule(AbnormalType[] types, ToDoubleFunction<AnalysisConfig>... thresholds) {
+            this.types = types;
+            this.thresholds = thresholds;
+        }
+
+        private boolean thresholdsChanged(AnalysisConfig config, AnalysisConfig previous) {
+            for (ToDoubleFunction<AnalysisConfig> threshold : thresholds) {
+                if (Double.compare(threshold.applyAsDouble(config), threshold.applyAsDouble(previous)) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean finds(AbnormalType type) {
+            for (AbnormalType t : types) {
+                if (t == type) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 
     private GCModel model;
     private AnalysisConfig config;
     private GlobalDiagnoseInfo globalDiagnoseInfo;
+    private GlobalDiagnoseInfo previous;
+
+    // indexed by Rule#ordinal, abnormals of the rule are copied from previous instead of being found again
+    private final boolean[] reused = new boolean[Rule.RULES.length];
+    // events before this id are diagnosed already, see GlobalDiagnoseInfo#getDiagnosedEvents
+    private int diagnosedEvents;
+    // GC_EVENT and COLLECTION_EVENT bits of events, indexed by id - diagnosedEvents
+    private byte[] eventKinds;
+    private List<MemoryArea> areasToCheck;
+    // durations are checked until the first event whose duration is unknown
+    private int durationCheckedEvents;
 
     public EventAbnormalDetector(GCModel model, AnalysisConfig config, GlobalDiagnoseInfo globalDiagnoseInfo) {
+        this(model, config, globalDiagnoseInfo, null);
+    }
+
+    /**
+     * @param previous diagnose info of the same model with another config, may be null. Abnormals found by rules
+     *                 whose thresholds are the same in both configs are taken from it.
+     */
+    public EventAbnormalDetector(GCModel model, AnalysisConfig config, GlobalDiagnoseInfo globalDiagnoseInfo,
+                                 GlobalDiagnoseInfo previous) {
         this.model = model;
         this.config = config;
         this.globalDiagnoseInfo = globalDiagnoseInfo;
+        if (previous != null && previous.getModel() == model &&
+            previous.getEventDiagnoseInfos().length == globalDiagnoseInfo.getEventDiagnoseInfos().length) {
+            this.previous = previous;
+        }
     }
 
     public void diagnose() {
-        callDiagnoseRules();
+        prepare();
+        int size = model.getAllEvents().size();
+        if (size - diagnosedEvents < MIN_EVENTS_TO_PARALLELIZE) {
+            diagnose(diagnosedEvents, size);
+            return;
+        }
+        // each event only changes its own diagnose info, so events can be diagnosed in any order
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int from = diagnosedEvents; from < size; from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE, size);
+            int chunkFrom = from;
+            tasks.add(SharedPool.INSTANCE.submit(() -> diagnose(chunkFrom, to)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
     }
 
-    private void callDiagnoseRules() {
-        // The order matters.
-        duration();
-        eventType();
-        gcCause();
-        specialSituation();
-        memory();
-        cputime();
-        promotion();
-        interval();
-    }
+    private void prepare() {
+        if (previous != null) {
+            AnalysisConfig previousConfig = previous.getConfig();
+            for (Rule rule : Rule.RULES) {
+                reused[rule.ordinal()] = !rule.thresholdsChanged(config, previousConfig);
+            }
+            // cpu time is checked on events with bad duration
+            reused[Rule.CPU_TIME.ordinal()] &= reused[Rule.DURATION.ordinal()];
+        }
 
-    private void addAbnormal(GCEvent event, AbnormalType type) {
-        EventAbnormalSet set = globalDiagnoseInfo.getEventDiagnoseInfo(event).getAbnormals();
-        set.add(new AbnormalPoint(type, event));
-    }
+        List<GCEvent> allEvents = model.getAllEvents();
+        diagnosedEvents = globalDiagnoseInfo.getDiagnosedEvents();
+        eventKinds = new byte[allEvents.size() - diagnosedEvents];
+        markEventKinds(model.getGcEvents(), GC_EVENT);
+        markEventKinds(model.getGcCollectionEvents(), COLLECTION_EVENT);
 
-    private void duration() {
-        for (GCEvent event : model.getAllEvents()) {
-            boolean pause = event.isPause();
-            double threshold = pause ? config.getLongPauseThreshold() : config.getLongConcurrentThreshold();
-            double actual = pause ? event.getPause() : event.getDuration();
-            if (actual == UNKNOWN_DOUBLE) {
-                return;
-            }
-            if (actual >= threshold) {
-                addAbnormal(event, BAD_DURATION);
+        areasToCheck = new ArrayList<>(5);
+        if (model.isGenerational()) {
+            areasToCheck.add(YOUNG);
+            areasToCheck.add(OLD);
+        }
+        if (model.hasHumongousArea()) {
+            areasToCheck.add(HUMONGOUS);
+        }
+        areasToCheck.add(HEAP);
+        areasToCheck.add(METASPACE);
+
+        if (reused[Rule.DURATION.ordinal()]) {
+            durationCheckedEvents = previous.getDurationCheckedEvents();
+        } else {
+            durationCheckedEvents = globalDiagnoseInfo.getDurationCheckedEvents();
+            if (durationCheckedEvents == UNKNOWN_INT) {
+                durationCheckedEvents = allEvents.size();
+                for (int i = diagnosedEvents; i < allEvents.size(); i++) {
+                    GCEvent event = allEvents.get(i);
+                    if ((event.isPause() ? event.getPause() : event.getDuration()) == UNKNOWN_DOUBLE) {
+                        durationCheckedEvents = i;
+                        break;
+                    }
+                }
             }
         }
+        globalDiagnoseInfo.setDurationCheckedEvents(durationCheckedEvents);
     }
 
-    protected void eventType() {
-        for (GCEvent event : model.getAllEvents()) {
-            if (event.getEventType().isBad()) {
-                addAbnormal(event, BAD_EVENT_TYPE);
+    // the list is ordered by start time like all events, so events diagnosed already are at its beginning
+    private void markEventKinds(List<GCEvent> events, byte kind) {
+        List<GCEvent> allEvents = model.getAllEvents();
+        if (diagnosedEvents >= allEvents.size()) {
+            return;
+        }
+        double start = allEvents.get(diagnosedEvents).getStartTime();
+        for (int i = events.size() - 1; i >= 0 && events.get(i).getStartTime() >= start; i--) {
+            int id = events.get(i).getId();
+            if (id >= diagnosedEvents) {
+                eventKinds[id - diagnosedEvents] |= kind;
             }
         }
     }
 
-    protected void gcCause() {
-        for (GCEvent event : model.getGcEvents()) {
-            if (event.getCause() != null && event.isBadFullGC()) {
-                addAbnormal(event, BAD_CAUSE_FULL_GC);
+    private void diagnose(int from, int to) {
+        List<GCEvent> allEvents = model.getAllEvents();
+        for (int i = from; i < to; i++) {
+            GCEvent event = allEvents.get(i);
+            for (Rule rule : Rule.RULES) {
+                if (reused[rule.ordinal()]) {
+                    copyAbnormals(event, rule);
+                    continue;
+                }
+                switch (rule) {
+                    case DURATION -> duration(event, i);
+                    case EVENT_TYPE -> eventType(event);
+                    case GC_CAUSE -> gcCause(event);
+                    case SPECIAL_SITUATION -> specialSituation(event);
+                    case MEMORY -> memory(event);
+                    case CPU_TIME -> cputime(event);
+                    case PROMOTION -> promotion(event);
+                    case INTERVAL -> interval(event);
+                }
             }
         }
-        // todo: we should warn user if humongous or gclocker gc is frequent
     }
 
-    protected void specialSituation() {
-        for (GCEvent event : model.getGcEvents()) {
-            if (event.isTrue(GCEventBooleanType.TO_SPACE_EXHAUSTED)) {
-                addAbnormal(event, TO_SPACE_EXHAUSTED);
+    private void copyAbnormals(GCEvent event, Rule rule) {
+        EventAbnormalSet previousAbnormals = previous.getEventDiagnoseInfo(event).getAbnormals();
+        if (previousAbnormals.isEmpty()) {
+            return;
+        }
+        EventAbnormalSet set = globalDiagnoseInfo.getEventDiagnoseInfo(event).getAbnormals();
+        previousAbnormals.iterate(ab -> {
+            if (rule.finds(ab.getType())) {
+                set.add(ab);
             }
+        });
+    }
+
+    private void addAbnormal(GCEvent event, AbnormalType type) {
+        EventAbnormalSet set = globalDiagnoseInfo.getEventDiagnoseInfo(event).getAbnormals();
+        set.add(new AbnormalPoint(type, event));
+    }
+
+    private boolean is(GCEvent event, byte kind) {
+        return (eventKinds[event.getId() - diagnosedEvents] & kind) != 0;
+    }
+
+    private void duration(GCEvent event, int index) {
+        if (index >= durationCheckedEvents) {
+            return;
+        }
+        boolean pause = event.isPause();
+        double threshold = pause ? config.getLongPauseThreshold() : config.getLongConcurrentThreshold();
+        double actual = pause ? event.getPause() : event.getDuration();
+        if (actual >= threshold) {
+            addAbnormal(event, BAD_DURATION);
         }
     }
 
-    protected void memory() {
-        List<MemoryArea> areasToCheck = new ArrayList<>(5);
-        if (model.isGenerational()) {
-            areasToCheck.add(YOUNG);
-            areasToCheck.add(OLD);
+    protected void eventType(GCEvent event) {
+        if (event.getEventType().isBad()) {
+            addAbnormal(event, BAD_EVENT_TYPE);
         }
-        if (model.hasHumongousArea()) {
-            areasToCheck.add(HUMONGOUS);
+    }
+
+    protected void gcCause(GCEvent event) {
+        if (!is(event, GC_EVENT)) {
+            return;
         }
-        areasToCheck.add(HEAP);
-        areasToCheck.add(METASPACE);
+        if (event.getCause() != null && event.isBadFullGC()) {
+            addAbnormal(event, BAD_CAUSE_FULL_GC);
+        }
+        // todo: we should warn user if humongous or gclocker gc is frequent
+    }
+
+    protected void specialSituation(GCEvent event) {
+        if (!is(event, GC_EVENT)) {
+            return;
+        }
+        if (event.isTrue(GCEventBooleanType.TO_SPACE_EXHAUSTED)) {
+            addAbnormal(event, TO_SPACE_EXHAUSTED);
+        }
+    }
 
+    protected void memory(GCEvent event) {
+        if (!is(event, COLLECTION_EVENT)) {
+            return;
+        }
+        GCMemoryItem heap = event.getMemoryItem(HEAP);
+        long heapCapacity = heap != null ? heap.getPostCapacity() : UNKNOWN_INT;
+        for (MemoryArea area : areasToCheck) {
+            GCMemoryItem memory = event.getMemoryItem(area);
+            if (memory == null) {
+                continue;
+            }
 
-        for (GCEvent event : model.getGcCollectionEvents()) {
-            GCMemoryItem heap = event.getMemoryItem(HEAP);
-            long heapCapacity = heap != null ? heap.getPostCapacity() : UNKNOWN_INT;
-            for (MemoryArea area : areasToCheck) {
-                GCMemoryItem memory = event.getMemoryItem(area);
-                if (memory == null) {
-                    continue;
+            // post capacity
+            long capacity = memory.getPostCapacity();
+            if (capacity != UNKNOWN_INT && heapCapacity != UNKNOWN_INT && (area == YOUNG || area == OLD)) {
+                // only check one case: generation capacity is too small
+                long threshold = (long) (config.getSmallGenerationThreshold() * heapCapacity / 100);
+                if (capacity <= threshold) {
+                    addAbnormal(event, area == YOUNG ? BAD_YOUNG_GEN_CAPACITY : BAD_OLD_GEN_CAPACITY);
                 }
+            }
 
-                // post capacity
-                long capacity = memory.getPostCapacity();
-                if (capacity != UNKNOWN_INT && heapCapacity != UNKNOWN_INT && (area == YOUNG || area == OLD)) {
-                    // only check one case: generation capacity is too small
-                    long threshold = (long) (config.getSmallGenerationThreshold() * heapCapacity / 100);
-                    if (capacity <= threshold) {
-                        addAbnormal(event, area == YOUNG ? BAD_YOUNG_GEN_CAPACITY : BAD_OLD_GEN_CAPACITY);
+            // post used
+            long postUsed = memory.getPostUsed();
+            if (area == YOUNG || postUsed == UNKNOWN_INT) {
+                continue;
+            }
+            // check one case: used is too high after gc
+            if (area == OLD) {
+                // FIXME: in JDK8, printed g1 post capacity may be much smaller than eden preused of the next
+                //  young gc. Maybe we need to improve this check
+                if (capacity != UNKNOWN_INT && (event.isFullGC() || event.isTrue(GC_AT_END_OF_OLD_CYCLE))) {
+                    long threshold = (long) (capacity * config.getHighOldUsageThreshold() / 100);
+                    if (postUsed > threshold) {
+                        addAbnormal(event, BAD_OLD_USED);
                     }
                 }
-
-                // post used
-                long postUsed = memory.getPostUsed();
-                if (area == YOUNG || postUsed == UNKNOWN_INT) {
-                    continue;
-                }
-                // check one case: used is too high after gc
-                if (area == OLD) {
-                    // FIXME: in JDK8, printed g1 post capacity may be much smaller than eden preused of the next
-                    //  young gc. Maybe we need to improve this check
-                    if (capacity != UNKNOWN_INT && (event.isFullGC() || event.isTrue(GC_AT_END_OF_OLD_CYCLE))) {
-                        long threshold = (long) (capacity * config.getHighOldUsageThreshold() / 100);
-                        if (postUsed > threshold) {
-                            addAbnormal(event, BAD_OLD_USED);
-                        }
+            } else if (area == HUMONGOUS) {
+                if (heapCapacity != UNKNOWN_INT) {
+                    long threshold = (long) (heapCapacity * config.getHighHumongousUsageThreshold() / 100);
+                    if (postUsed >= threshold) {
+                        addAbnormal(event, BAD_HUMONGOUS_USED);
                     }
-                } else if (area == HUMONGOUS) {
-                    if (heapCapacity != UNKNOWN_INT) {
-                        long threshold = (long) (heapCapacity * config.getHighHumongousUsageThreshold() / 100);
-                        if (postUsed >= threshold) {
-                            addAbnormal(event, BAD_HUMONGOUS_USED);
-                        }
-                    }
-                } else if (area == HEAP) {
-                    if (capacity != UNKNOWN_INT && (event.isFullGC() || event.isTrue(GC_AT_END_OF_OLD_CYCLE))) {
-                        long threshold = (long) (capacity * config.getHighOldUsageThreshold() / 100);
-                        if (postUsed > threshold) {
-                            addAbnormal(event, BAD_HEAP_USED);
-                        }
+                }
+            } else if (area == HEAP) {
+                if (capacity != UNKNOWN_INT && (event.isFullGC() || event.isTrue(GC_AT_END_OF_OLD_CYCLE))) {
+                    long threshold = (long) (capacity * config.getHighOldUsageThreshold() / 100);
+                    if (postUsed > threshold) {
+                        addAbnormal(event, BAD_HEAP_USED);
                     }
-                } else if (area == METASPACE) {
-                    if (capacity != UNKNOWN_INT && (event.isFullGC() || event.isTrue(GC_AFTER_REMARK))) {
-                        long threshold = (long) (capacity * config.getHighMetaspaceUsageThreshold() / 100);
-                        if (postUsed > threshold) {
-                            addAbnormal(event, BAD_METASPACE_USED);
-                        }
+                }
+            } else if (area == METASPACE) {
+                if (capacity != UNKNOWN_INT && (event.isFullGC() || event.isTrue(GC_AFTER_REMARK))) {
+                    long threshold = (long) (capacity * config.getHighMetaspaceUsageThreshold() / 100);
+                    if (postUsed > threshold) {
+                        addAbnormal(event, BAD_METASPACE_USED);
                     }
                 }
             }
         }
     }
-
-    protected void cputime() {
-        for (GCEvent event : model.getAllEvents()) {
-            CpuTime cpuTime = event.getCpuTime();
-            // we rarely care about cpu time of concurrent phase
-            if (cpuTime == null || event.isPause()) {
-                continue;
-            }
-            if (!globalDiagnoseInfo.getEventDiagnoseInfo(event)
-                    .getAbnormals().contains(BAD_DURATION)) {
-                continue;
-            }
-            double real = cpuTime.getReal();
-            double sys = cpuTime.getSys();
-            double usr = cpuTime.getUser();
-            if (sys / real >= config.getHighSysThreshold() / 100) {
-                addAbnormal(event, BAD_SYS);
-            }
-            if (usr / real <= config.getLowUsrThreshold() / 100) {
-                addAbnormal(event, BAD_USR);
-            }
+    protected void cputime(GCEvent event) {
+        CpuTime cpuTime = event.getCpuTime();
+        // we rarely care about cpu time of concurrent phase
+        if (cpuTime == null || event.isPause()) {
+            return;
+        }
+        if (!globalDiagnoseInfo.getEventDiagnoseInfo(event)
+                .getAbnormals().contains(BAD_DURATION)) {
+            return;
+        }
+        double real = cpuTime.getReal();
+        double sys = cpuTime.getSys();
+        double usr = cpuTime.getUser();
+        if (sys / real >= config.getHighSysThreshold() / 100) {
+            addAbnormal(event, BAD_SYS);
+        }
+        if (usr / real <= config.getLowUsrThreshold() / 100) {
+            addAbnormal(event, BAD_USR);
         }
     }
 
-    protected void promotion() {
-        if (!model.isGenerational()) {
+    protected void promotion(GCEvent event) {
+        if (!model.isGenerational() || !is(event, COLLECTION_EVENT)) {
             return;
         }
-        for (GCEvent event : model.getGcCollectionEvents()) {
-            long promotion = event.getPromotion();
-            if (promotion == UNKNOWN_INT) {
-                continue;
-            }
-            GCMemoryItem old = event.getMemoryItem(OLD);
-            if (old.getPostCapacity() == UNKNOWN_INT) {
-                continue;
-            }
-            long threshold = (long) (old.getPostCapacity() * config.getHighPromotionThreshold() / 100);
-            if (promotion >= threshold) {
-                addAbnormal(event, BAD_PROMOTION);
-            }
+        long promotion = event.getPromotion();
+        if (promotion == UNKNOWN_INT) {
+            return;
+        }
+        GCMemoryItem old = event.getMemoryItem(OLD);
+        if (old.getPostCapacity() == UNKNOWN_INT) {
+            return;
+        }
+        long threshold = (long) (old.getPostCapacity() * config.getHighPromotionThreshold() / 100);
+        if (promotion >= threshold) {
+            addAbnormal(event, BAD_PROMOTION);
         }
     }
 
-    protected void interval() {
-        for (GCEvent event : model.getAllEvents()) {
-            double actual = event.getInterval();
-            if (actual == UNKNOWN_DOUBLE) {
-                continue;
-            }
-            GCEventType eventType = event.getEventType();
-            double threshold;
-            if (eventType.isYoungGC()) {
-                threshold = config.getYoungGCFrequentIntervalThreshold();
-            } else if (eventType.isOldGC()) {
-                threshold = config.getOldGCFrequentIntervalThreshold();
-            } else if (event.isFullGC()) {
-                threshold = config.getFullGCFrequentIntervalThreshold();
-            } else {
-                continue;
-            }
-            if (actual <= threshold) {
-                addAbnormal(event, BAD_INTERVAL);
-            }
+    protected void interval(GCEvent event) {
+        double actual = event.getInterval();
+        if (actual == UNKNOWN_DOUBLE) {
+            return;
+        }
+        GCEventType eventType = event.getEventType();
+        double threshold;
+        if (eventType.isYoungGC()) {
+            threshold = config.getYoungGCFrequentIntervalThreshold();
+        } else if (eventType.isOldGC()) {
+            threshold = config.getOldGCFrequentIntervalThreshold();
+        } else if (event.isFullGC()) {
+            threshold = config.getFullGCFrequentIntervalThreshold();
+        } else {
+            return;
         }
+        if (actual <= threshold) {
+            addAbnormal(event, BAD_INTERVAL);
+        }
+    }
+
+    // bounded by the number of processors, and shared by all detectors
+    private static class SharedPool {
+        static final ForkJoinPool INSTANCE = ExecutorFactory.newForkJoinPool("GC Event Diagnoser");
     }
 }
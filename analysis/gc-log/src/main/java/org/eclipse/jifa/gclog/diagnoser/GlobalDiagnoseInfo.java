@@ -17,6 +17,7 @@ import org.eclipse.jifa.gclog.event.GCEvent;
 import org.eclipse.jifa.gclog.model.GCModel;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.eclipse.jifa.gclog.util.Constant.UNKNOWN_INT;
@@ -25,6 +26,10 @@ public class GlobalDiagnoseInfo {
     private GCModel model;
     private AnalysisConfig config; // time range in this config is ignored
     private EventDiagnoseInfo[] eventDiagnoseInfos;
+    // events before this id are diagnosed already
+    private int diagnosedEvents;
+    // durations are checked until the first event whose duration is unknown, UNKNOWN_INT if not found yet
+    private int durationCheckedEvents = UNKNOWN_INT;
 
     public GlobalDiagnoseInfo(GCModel model, AnalysisConfig config) {
         this.model = model;
@@ -36,6 +41,26 @@ public class GlobalDiagnoseInfo {
         }
     }
 
+    /**
+     * Diagnose info of a model appended to the model of base, see {@link GCModel#append}. The first events are
+     * the same in both models, so their info is taken from base and only the others are diagnosed.
+     *
+     * @param diagnosedEvents the number of the first events whose info is taken from base
+     */
+    public GlobalDiagnoseInfo(GCModel model, AnalysisConfig config, GlobalDiagnoseInfo base, int diagnosedEvents) {
+        this.model = model;
+        this.config = config;
+        int length = model.getAllEvents().size();
+        this.eventDiagnoseInfos = Arrays.copyOf(base.eventDiagnoseInfos, length);
+        for (int i = diagnosedEvents; i < length; i++) {
+            eventDiagnoseInfos[i] = new EventDiagnoseInfo();
+        }
+        this.diagnosedEvents = diagnosedEvents;
+        if (base.durationCheckedEvents < diagnosedEvents) {
+            durationCheckedEvents = base.durationCheckedEvents;
+        }
+    }
+
     public GCModel getModel() {
         return model;
     }
@@ -48,6 +73,18 @@ public class GlobalDiagnoseInfo {
         return eventDiagnoseInfos;
     }
 
+    public int getDiagnosedEvents() {
+        return diagnosedEvents;
+    }
+
+    public int getDurationCheckedEvents() {
+        return durationCheckedEvents;
+    }
+
+    public void setDurationCheckedEvents(int durationCheckedEvents) {
+        this.durationCheckedEvents = durationCheckedEvents;
+    }
+
     public EventDiagnoseInfo getEventDiagnoseInfo(GCEvent event) {
         int id = event.getId();
         if (id == UNKNOWN_INT) {
@@ -116,6 +116,52 @@ public class GCEvent extends TimedEvent {
     public GCEvent() {
     }
 
+    protected GCEvent(GCEvent other) {
+        super(other);
+        gcid = other.gcid;
+        if (other.cpuTime != null) {
+            cpuTime = new CpuTime(other.cpuTime.getUser(), other.cpuTime.getSys(), other.cpuTime.getReal());
+        }
+        if (other.referenceGC != null) {
+            referenceGC = other.referenceGC.copy();
+        }
+        eventType = other.eventType;
+        cause = other.cause;
+        if (other.memory != null) {
+            memory = new GCMemoryItem[other.memory.length];
+            for (int i = 0; i < memory.length; i++) {
+                GCMemoryItem item = other.memory[i];
+                if (item != null) {
+                    memory[i] = new GCMemoryItem(item.getArea(), item.getPreUsed(), item.getPreCapacity(),
+                                                 item.getPostUsed(), item.getPostCapacity());
+                }
+            }
+        }
+        if (other.phases != null) {
+            phases = new ArrayList<>(other.phases.size());
+            for (GCEvent phase : other.phases) {
+                phases.add(phase.copy());
+            }
+        }
+        if (other.booleans != null) {
+            booleans = (BitSet) other.booleans.clone();
+        }
+        pause = other.pause;
+        interval = other.interval;
+        causeInterval = other.causeInterval;
+        promotion = other.promotion;
+        allocation = other.allocation;
+        reclamation = other.reclamation;
+    }
+
+    /**
+     * @return a deep copy of this event, so that the copy can be changed independently, e.g. when derived info is
+     * calculated
+     */
+    public GCEvent copy() {
+        return new GCEvent(this);
+    }
+
     public void setGcid(int gcid) {
         this.gcid = gcid;
     }
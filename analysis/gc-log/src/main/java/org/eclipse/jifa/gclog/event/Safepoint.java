@@ -23,6 +23,16 @@ public class Safepoint extends GCEvent {
         this.setEventType(GCEventType.SAFEPOINT);
     }
 
+    private Safepoint(Safepoint other) {
+        super(other);
+        timeToEnter = other.timeToEnter;
+    }
+
+    @Override
+    public Safepoint copy() {
+        return new Safepoint(this);
+    }
+
     public double getTimeToEnter() {
         return timeToEnter;
     }
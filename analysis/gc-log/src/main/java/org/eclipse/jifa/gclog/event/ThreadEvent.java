@@ -22,6 +22,16 @@ public class ThreadEvent extends GCEvent {
     public ThreadEvent() {
     }
 
+    private ThreadEvent(ThreadEvent other) {
+        super(other);
+        threadName = other.threadName;
+    }
+
+    @Override
+    public ThreadEvent copy() {
+        return new ThreadEvent(this);
+    }
+
     public String getThreadName() {
         return threadName;
     }
@@ -66,6 +66,12 @@ public class TimedEvent {
     public TimedEvent() {
     }
 
+    protected TimedEvent(TimedEvent other) {
+        this.startTime = other.startTime;
+        this.id = other.id;
+        this.duration = other.duration;
+    }
+
     public static TimedEvent fromTimeRange(TimeRange range) {
         return new TimedEvent(range.getStart(), range.length());
     }
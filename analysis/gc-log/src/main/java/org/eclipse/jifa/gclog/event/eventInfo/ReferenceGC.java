@@ -41,4 +41,24 @@ public class ReferenceGC {
 
     private double jniWeakReferenceStartTime = UNKNOWN_DOUBLE;
     private double jniWeakReferencePauseTime = UNKNOWN_DOUBLE;
+
+    public ReferenceGC copy() {
+        ReferenceGC copy = new ReferenceGC();
+        copy.softReferenceStartTime = softReferenceStartTime;
+        copy.softReferenceCount = softReferenceCount;
+        copy.softReferencePauseTime = softReferencePauseTime;
+        copy.weakReferenceStartTime = weakReferenceStartTime;
+        copy.weakReferenceCount = weakReferenceCount;
+        copy.weakReferencePauseTime = weakReferencePauseTime;
+        copy.finalReferenceStartTime = finalReferenceStartTime;
+        copy.finalReferenceCount = finalReferenceCount;
+        copy.finalReferencePauseTime = finalReferencePauseTime;
+        copy.phantomReferenceStartTime = phantomReferenceStartTime;
+        copy.phantomReferenceCount = phantomReferenceCount;
+        copy.phantomReferenceFreedCount = phantomReferenceFreedCount;
+        copy.phantomReferencePauseTime = phantomReferencePauseTime;
+        copy.jniWeakReferenceStartTime = jniWeakReferenceStartTime;
+        copy.jniWeakReferencePauseTime = jniWeakReferencePauseTime;
+        return copy;
+    }
 }
@@ -18,6 +18,8 @@ import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
@@ -48,6 +50,19 @@ public class Context {
         sort();
     }
 
+    // the lines of the sorted context, an element may hold several lines, which are split like toBufferedReader
+    public List<String> getLines() {
+        List<String> lines = new ArrayList<>(context.size());
+        for (String element : context) {
+            if (element.indexOf('\n') >= 0 || element.indexOf('\r') >= 0) {
+                element.lines().forEach(lines::add);
+            } else {
+                lines.add(element);
+            }
+        }
+        return lines;
+    }
+
     public BufferedReader toBufferedReader() {
         String joinedString = String.join("\n", context);
         InputStream inputStream = new ByteArrayInputStream(joinedString.getBytes());
@@ -66,12 +81,28 @@ public class Context {
         throw new RuntimeException("fail to parse timestamp");
     }
 
-    class ContextComparator implements Comparator<String> {
+    // a line and its sort keys, which are extracted once instead of in every comparison
+    private static class Line {
+        private final String text;
+        private final String timestampString;
+        private final double timestamp;
+        private final boolean precedent;
+
+        Line(String text, Pattern timestampPattern) {
+            this.text = text;
+            Matcher matcher = timestampPattern.matcher(text);
+            timestampString = matcher.matches() ? matcher.group(1) : null;
+            timestamp = timestampString != null ? Double.parseDouble(timestampString) : 0;
+            precedent = ContextComparator.isPrecedent(text);
+        }
+    }
+
+    static class ContextComparator implements Comparator<Line> {
 
         static Set<String> precedentPatternSet = new ImmutableSet.Builder<String>()
                 .add("Pause Young", "Pause Initial Mark", "CMS Initial Mark", "Concurrent Cycle", "Concurrent Mark").build();
 
-        boolean isPrecedent(String str) {
+        static boolean isPrecedent(String str) {
             return precedentPatternSet.stream().anyMatch(str::contains);
         }
         /*
@@ -80,15 +111,8 @@ public class Context {
         -1: place string1 in prior to string2
          */
         @Override
-        public int compare(String o1, String o2) {
-            Matcher matcher;
-            String timestampString1 = null, timestampString2 = null;
-            if ((matcher = timestampPattern.matcher(o1)).matches()) {
-                timestampString1 = matcher.group(1);
-            }
-            if ((matcher = timestampPattern.matcher(o2)).matches()) {
-                timestampString2 = matcher.group(1);
-            }
+        public int compare(Line o1, Line o2) {
+            String timestampString1 = o1.timestampString, timestampString2 = o2.timestampString;
             if (timestampString1 == null && timestampString2 == null) {
                 return 0;
             } else if (timestampString1 == null) {
@@ -102,7 +126,7 @@ public class Context {
             }
 
             if (timestampString1.equals(timestampString2)) {
-                boolean string1IsPrecedent = isPrecedent(o1), string2IsPrecedent = isPrecedent(o2);
+                boolean string1IsPrecedent = o1.precedent, string2IsPrecedent = o2.precedent;
                 if (string1IsPrecedent == string2IsPrecedent) {
                     // both string1 and string2 are precedent or
                     // neither one is precedent
@@ -117,13 +141,21 @@ public class Context {
                     }
                 }
             } else {
-                return Double.parseDouble(timestampString1) > Double.parseDouble(timestampString2) ? 1 : -1;
+                return o1.timestamp > o2.timestamp ? 1 : -1;
             }
         }
     }
 
     private void sort() {
-        context.sort(contextComparator);
+        Line[] lines = new Line[context.size()];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = new Line(context.get(i), timestampPattern);
+        }
+        // stable as List#sort
+        Arrays.sort(lines, contextComparator);
+        for (int i = 0; i < lines.length; i++) {
+            context.set(i, lines[i].text);
+        }
     }
 
     // for debug
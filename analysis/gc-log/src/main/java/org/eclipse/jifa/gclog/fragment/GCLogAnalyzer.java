@@ -12,27 +12,43 @@
  ********************************************************************************/
 package org.eclipse.jifa.gclog.fragment;
 
-import lombok.NoArgsConstructor;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jifa.common.util.ExecutorFactory;
 import org.eclipse.jifa.gclog.model.GCModel;
 import org.eclipse.jifa.gclog.parser.GCLogParser;
 import org.eclipse.jifa.gclog.parser.GCLogParserFactory;
 
-import java.io.*;
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
-@NoArgsConstructor
 @Slf4j
 public class GCLogAnalyzer {
-    private final Map<Map<String, String>, GCLogParser> parserMap = new ConcurrentHashMap<>();
+    // parsers of instances not seen for a while are dropped, and so are the least recently used ones
+    public static final long DEFAULT_MAX_CACHED_PARSERS = 10000;
+    public static final Duration DEFAULT_PARSER_EXPIRATION = Duration.ofMinutes(30);
+
+    private final Cache<Map<String, String>, GCLogParser> parserCache;
+
+    public GCLogAnalyzer() {
+        this(DEFAULT_MAX_CACHED_PARSERS, DEFAULT_PARSER_EXPIRATION);
+    }
+
+    public GCLogAnalyzer(long maxCachedParsers, Duration parserExpiration) {
+        parserCache = CacheBuilder.newBuilder()
+                                  .maximumSize(maxCachedParsers)
+                                  .expireAfterAccess(parserExpiration)
+                                  .build();
+    }
 
     public List<Metric> parseToMetrics(List<String> rawContext, Map<String, String> instanceId, long startTime, long endTime) throws Exception {
-        Context context = new Context(rawContext);
-        BufferedReader br = context.toBufferedReader();
-        GCLogParser parser = selectParser(instanceId, br);
-        GCModel model = parser.parse(br);
-        br.close();
+        GCModel model = parse(rawContext, instanceId);
         if (!model.isEmpty()) {
             model.calculateDerivedInfo(null);
             return new GCModelConverter().toMetrics(model, instanceId, startTime, endTime);
@@ -40,14 +56,48 @@ public class GCLogAnalyzer {
         return null;
     }
 
+    /**
+     * Parse fragments of many instances on a shared pool, each instance at most once in the batch is expected.
+     * Fragments that fail to be parsed are skipped.
+     *
+     * @return metrics of all instances, in the order of the fragments
+     */
+    public MetricBatch parseToMetrics(List<Fragment> fragments, long startTime, long endTime) {
+        ForkJoinPool pool = SharedPool.INSTANCE;
+        List<ForkJoinTask<MetricBatch>> tasks = new ArrayList<>(fragments.size());
+        for (Fragment fragment : fragments) {
+            tasks.add(pool.submit(() -> parseToMetricBatch(fragment, startTime, endTime)));
+        }
+        MetricBatch.Builder builder = new MetricBatch.Builder();
+        for (ForkJoinTask<MetricBatch> task : tasks) {
+            MetricBatch batch = task.join();
+            if (batch != null) {
+                builder.addAll(batch);
+            }
+        }
+        return builder.build();
+    }
+
+    private MetricBatch parseToMetricBatch(Fragment fragment, long startTime, long endTime) {
+        try {
+            GCModel model = parse(fragment.getLines(), fragment.getInstanceId());
+            if (model.isEmpty()) {
+                return null;
+            }
+            model.calculateDerivedInfo(null);
+            MetricBatch.Builder builder = new MetricBatch.Builder();
+            new GCModelConverter().toMetrics(model, fragment.getInstanceId(), startTime, endTime, builder);
+            return builder.build();
+        } catch (Exception e) {
+            log.warn("fail to parse fragment of {}: {}", fragment.getInstanceId(), e.getMessage());
+            return null;
+        }
+    }
+
     public GCModel parseToGCModel(List<String> rawContext, Map<String, String> instanceId) {
-        Context context = new Context(rawContext);
-        BufferedReader br = context.toBufferedReader();
         GCModel model = null;
         try {
-            GCLogParser parser = selectParser(instanceId, br);
-            model = parser.parse(br);
-            br.close();
+            model = parse(rawContext, instanceId);
             if (!model.isEmpty()) {
                 model.calculateDerivedInfo(null);
             } else {
@@ -62,18 +112,22 @@ public class GCLogAnalyzer {
         }
     }
 
-    private GCLogParser selectParser(Map<String, String> instanceId, BufferedReader br) throws IOException {
-        GCLogParser parser = parserMap.get(instanceId);
-        if (parser == null) {
-            GCLogParserFactory logParserFactory = new GCLogParserFactory();
-            // max length in hotspot
-            int MAX_SINGLE_LINE_LENGTH = 2048;
-            br.mark(GCLogParserFactory.MAX_ATTEMPT_LINE * MAX_SINGLE_LINE_LENGTH);
-            parser = logParserFactory.getParser(br);
-            br.reset();
-            parserMap.put(instanceId, parser);
+    // lines are sorted in place
+    private GCModel parse(List<String> rawContext, Map<String, String> instanceId) throws ExecutionException {
+        List<String> lines = new Context(rawContext).getLines();
+        GCLogParser parser = selectParser(instanceId, lines);
+        // a parser keeps the state of parsing, so the same instance is parsed one fragment at a time
+        synchronized (parser) {
+            return parser.parse(lines);
         }
-        return parser;
     }
-}
 
+    private GCLogParser selectParser(Map<String, String> instanceId, List<String> lines) throws ExecutionException {
+        return parserCache.get(instanceId, () -> new GCLogParserFactory().getParser(lines));
+    }
+
+    // bounded by the number of processors, and shared by all analyzers
+    private static class SharedPool {
+        static final ForkJoinPool INSTANCE = ExecutorFactory.newForkJoinPool("GC Fragment Analyzer");
+    }
+}
@@ -25,26 +25,41 @@ import java.util.*;
 
 @Slf4j
 public class GCModelConverter {
+    // receives the metrics converted, so that they can be stored without a Metric object each
+    public interface MetricSink {
+        void add(long timestamp, Map<String, String> label, String name, double value);
+    }
+
     public List<Metric> toMetrics(GCModel gcModel, Map<String, String> instanceId, long startTime, long endTime) {
         List<Metric> result = new ArrayList<>();
+        toMetrics(gcModel, instanceId, startTime, endTime,
+                (timestamp, label, name, value) -> result.add(new Metric(timestamp, label, name, value)));
+        return result;
+    }
+
+    public void toMetrics(GCModel gcModel, Map<String, String> instanceId, long startTime, long endTime, MetricSink sink) {
         Map<String, String> sharedLabels = new HashMap<>(instanceId);
         sharedLabels.put("gc_type", gcModel.getCollectorType().getName());
+        GCEventConverter converter = new GCEventConverter(sink);
         for (GCEvent gcEvent : gcModel.getGcEvents()) {
             long timestamp = (long)(gcModel.getReferenceTimestamp() + gcEvent.getStartTime());
             if (timestamp >= startTime && timestamp < endTime) {
-                result.addAll(new GCEventConverter().toMetrics(gcEvent, timestamp, sharedLabels));
+                converter.toMetrics(gcEvent, timestamp, sharedLabels);
             }
         }
-        return result;
     }
 
     private class GCEventConverter {
         private GCEvent gcEvent;
         private long timestamp;
         private Map<String, String> sharedLabels;
-        private List<Metric> result = new ArrayList<>();
+        private final MetricSink result;
+
+        GCEventConverter(MetricSink result) {
+            this.result = result;
+        }
 
-        public List<Metric> toMetrics(GCEvent gcEvent, long timestamp, Map<String, String> sharedLabels) {
+        public void toMetrics(GCEvent gcEvent, long timestamp, Map<String, String> sharedLabels) {
             this.gcEvent = gcEvent;
             this.timestamp = timestamp;
             this.sharedLabels = sharedLabels;
@@ -54,7 +69,6 @@ public class GCModelConverter {
             addMetricPause();
             addMetricPromotion();
             addMetricSubphase();
-            return result;
         }
 
         private Map<String, String> buildLabel() {
@@ -76,21 +90,21 @@ public class GCModelConverter {
             if (gcEvent.getDuration() == Constant.UNKNOWN_DOUBLE) {
                 return;
             }
-            result.add(new Metric(timestamp, buildLabel("type", gcEvent.getEventType().getName()), "GC_COST_TIME", gcEvent.getDuration()));
+            result.add(timestamp, buildLabel("type", gcEvent.getEventType().getName()), "GC_COST_TIME", gcEvent.getDuration());
         }
 
         private void addMetricPause() {
             if (gcEvent.getPause() == Constant.UNKNOWN_DOUBLE) {
                 return;
             }
-            result.add(new Metric(timestamp, buildLabel("type", gcEvent.getEventType().getName()), "GC_PAUSE_TIME", gcEvent.getPause()));
+            result.add(timestamp, buildLabel("type", gcEvent.getEventType().getName()), "GC_PAUSE_TIME", gcEvent.getPause());
         }
 
         private void addMetricPromotion() {
             if (gcEvent.getPromotion() == Constant.UNKNOWN_INT) {
                 return;
             }
-            result.add(new Metric(timestamp, buildLabel(), "GC_PROMOTION", gcEvent.getPromotion()));
+            result.add(timestamp, buildLabel(), "GC_PROMOTION", gcEvent.getPromotion());
         }
 
         private void addMetricCpuTime() {
@@ -99,7 +113,7 @@ public class GCModelConverter {
             }
             final Set<String> typeSet = new ImmutableSet.Builder<String>().add("USER", "SYS", "REAL").build();
             typeSet.forEach(type ->
-                    result.add(new Metric(timestamp, buildLabel("type", type), "GC_CPU_USED", gcEvent.getCpuTime().getValue(type)))
+                    result.add(timestamp, buildLabel("type", type), "GC_CPU_USED", gcEvent.getCpuTime().getValue(type))
             );
         }
 
@@ -113,8 +127,8 @@ public class GCModelConverter {
                     .build();
             memoryAreaMap.forEach((key, value) -> {
                 if (gcEvent.getMemoryItem(value) != null) {
-                    result.add(new Metric(timestamp, buildLabel("type", key), "BEFORE_GC_REGION_SIZE", gcEvent.getMemoryItem(value).getPreUsed()));
-                    result.add(new Metric(timestamp, buildLabel("type", key), "AFTER_GC_REGION_SIZE", gcEvent.getMemoryItem(value).getPostUsed()));
+                    result.add(timestamp, buildLabel("type", key), "BEFORE_GC_REGION_SIZE", gcEvent.getMemoryItem(value).getPreUsed());
+                    result.add(timestamp, buildLabel("type", key), "AFTER_GC_REGION_SIZE", gcEvent.getMemoryItem(value).getPostUsed());
                 }
             });
         }
@@ -124,9 +138,9 @@ public class GCModelConverter {
                 return;
             }
             gcEvent.getPhases().forEach(subphase ->
-                    result.add(new Metric(timestamp,
+                    result.add(timestamp,
                             buildLabel("subphase", subphase.getEventType().getName(), "type", gcEvent.getEventType().getName()),
-                            "GC_SUBPHASE_TIME", subphase.getDuration())));
+                            "GC_SUBPHASE_TIME", subphase.getDuration()));
         }
     }
 }
@@ -0,0 +1,175 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.gclog.fragment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Metrics in columns, for exporting many of them at once.
+ * <p>
+ * Metric i is made of timestamps[i], names[nameIndexes[i]], labels[labelIndexes[i]] and values[i]. Names and label
+ * sets are shared by many metrics, so each distinct one is kept once.
+ */
+public class MetricBatch {
+
+    private final int size;
+
+    private final long[] timestamps;
+
+    private final int[] nameIndexes;
+
+    private final int[] labelIndexes;
+
+    private final double[] values;
+
+    private final List<String> names;
+
+    private final List<Map<String, String>> labels;
+
+    private MetricBatch(Builder builder) {
+        size = builder.size;
+        timestamps = Arrays.copyOf(builder.timestamps, size);
+        nameIndexes = Arrays.copyOf(builder.nameIndexes, size);
+        labelIndexes = Arrays.copyOf(builder.labelIndexes, size);
+        values = Arrays.copyOf(builder.values, size);
+        names = Collections.unmodifiableList(builder.names);
+        labels = Collections.unmodifiableList(builder.labels);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTimestamp(int i) {
+        return timestamps[i];
+    }
+
+    public int getNameIndex(int i) {
+        return nameIndexes[i];
+    }
+
+    public String getName(int i) {
+        return names.get(nameIndexes[i]);
+    }
+
+    public int getLabelIndex(int i) {
+        return labelIndexes[i];
+    }
+
+    public Map<String, String> getLabel(int i) {
+        return labels.get(labelIndexes[i]);
+    }
+
+    public double getValue(int i) {
+        return values[i];
+    }
+
+    // distinct names, indexed by getNameIndex
+    public List<String> getNames() {
+        return names;
+    }
+
+    // distinct label sets, indexed by getLabelIndex
+    public List<Map<String, String>> getLabels() {
+        return labels;
+    }
+
+    public List<Metric> toMetrics() {
+        List<Metric> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new Metric(timestamps[i], getLabel(i), getName(i), values[i]));
+        }
+        return result;
+    }
+
+    public static class Builder implements GCModelConverter.MetricSink {
+
+        private int size;
+
+        private long[] timestamps = new long[16];
+
+        private int[] nameIndexes = new int[16];
+
+        private int[] labelIndexes = new int[16];
+
+        private double[] values = new double[16];
+
+        private final List<String> names = new ArrayList<>();
+
+        private final Map<String, Integer> nameMap = new HashMap<>();
+
+        private final List<Map<String, String>> labels = new ArrayList<>();
+
+        private final Map<Map<String, String>, Integer> labelMap = new HashMap<>();
+
+        @Override
+        public void add(long timestamp, Map<String, String> label, String name, double value) {
+            add(timestamp, labelIndex(label), nameIndex(name), value);
+        }
+
+        public Builder addAll(MetricBatch batch) {
+            // indexes of the batch are translated once for each distinct name and label set
+            int[] nameTranslation = new int[batch.names.size()];
+            for (int i = 0; i < nameTranslation.length; i++) {
+                nameTranslation[i] = nameIndex(batch.names.get(i));
+            }
+            int[] labelTranslation = new int[batch.labels.size()];
+            for (int i = 0; i < labelTranslation.length; i++) {
+                labelTranslation[i] = labelIndex(batch.labels.get(i));
+            }
+            for (int i = 0; i < batch.size; i++) {
+                add(batch.timestamps[i], labelTranslation[batch.labelIndexes[i]], nameTranslation[batch.nameIndexes[i]],
+                    batch.values[i]);
+            }
+            return this;
+        }
+
+        public MetricBatch build() {
+            return new MetricBatch(this);
+        }
+
+        private void add(long timestamp, int labelIndex, int nameIndex, double value) {
+            if (size == timestamps.length) {
+                int capacity = size * 2;
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                nameIndexes = Arrays.copyOf(nameIndexes, capacity);
+                labelIndexes = Arrays.copyOf(labelIndexes, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            timestamps[size] = timestamp;
+            nameIndexes[size] = nameIndex;
+            labelIndexes[size] = labelIndex;
+            values[size] = value;
+            size++;
+        }
+
+        private int nameIndex(String name) {
+            return nameMap.computeIfAbsent(name, key -> {
+                names.add(key);
+                return names.size() - 1;
+            });
+        }
+
+        private int labelIndex(Map<String, String> label) {
+            return labelMap.computeIfAbsent(label, key -> {
+                labels.add(key);
+                return labels.size() - 1;
+            });
+        }
+    }
+}
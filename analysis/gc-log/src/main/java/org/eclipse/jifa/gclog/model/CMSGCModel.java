@@ -37,11 +37,21 @@ import static org.eclipse.jifa.gclog.model.GCEventType.YOUNG_GC;
 @Slf4j
 public class CMSGCModel extends GenerationalGCModel {
     private static GCCollectorType collector = GCCollectorType.CMS;
+    // state of deciding gcs after old gc, see decideGCsAfterOldGC
+    private double lastCMSEndTime = Double.MAX_VALUE;
+    private double lastRemarkEndTime = Double.MAX_VALUE;
 
     public CMSGCModel() {
         super(collector);
     }
 
+    @Override
+    protected void appendFrom(GCModel base, GCModel parsed, boolean last) {
+        super.appendFrom(base, parsed, last);
+        lastCMSEndTime = ((CMSGCModel) base).lastCMSEndTime;
+        lastRemarkEndTime = ((CMSGCModel) base).lastRemarkEndTime;
+    }
+
     private static List<GCEventType> allEventTypes = GCModel.calcAllEventTypes(collector);
     private static List<GCEventType> pauseEventTypes = GCModel.calcPauseEventTypes(collector);
     private static List<GCEventType> mainPauseEventTypes = GCModel.calcMainPauseEventTypes(collector);
@@ -76,14 +86,13 @@ public class CMSGCModel extends GenerationalGCModel {
     }
 
     @Override
-    protected void doAfterCalculatingDerivedInfo() {
-        decideGCsAfterOldGC();
+    protected void doAfterCalculatingDerivedInfo(int from) {
+        decideGCsAfterOldGC(from);
     }
 
-    private void decideGCsAfterOldGC() {
-        double lastCMSEndTime = Double.MAX_VALUE;
-        double lastRemarkEndTime = Double.MAX_VALUE;
-        for (GCEvent event : getGcEvents()) {
+    private void decideGCsAfterOldGC(int from) {
+        for (int i = from; i < getGcEvents().size(); i++) {
+            GCEvent event = getGcEvents().get(i);
             if (event.getEventType() == CMS_CONCURRENT_MARK_SWEPT) {
                 if (!event.containPhase(CMS_CONCURRENT_FAILURE) &&
                         !event.containPhase(CMS_CONCURRENT_INTERRUPTED)) {
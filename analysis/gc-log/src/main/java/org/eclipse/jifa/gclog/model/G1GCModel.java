@@ -49,6 +49,13 @@ import static org.eclipse.jifa.gclog.util.Constant.UNKNOWN_INT;
 public class G1GCModel extends GCModel {
     private long heapRegionSize = UNKNOWN_INT;   // in b
     private boolean regionSizeExact = false;
+    // region size the memory of events has been multiplied by
+    private long adjustedRegionSize = UNKNOWN_INT;
+    // state of deciding gcs after old gc, see decideGCsAfterOldGC
+    private GCEvent lastGCInCycle = null;
+    private double lastRemarkEndTime = Double.MAX_VALUE;
+    private double lastConcCycleEndTime = Double.MAX_VALUE;
+    private boolean concurrentMarkAborted = false;
     private static GCCollectorType collector = GCCollectorType.G1;
 
     public void setRegionSizeExact(boolean regionSizeExact) {
@@ -68,6 +75,30 @@ public class G1GCModel extends GCModel {
         super(collector);
     }
 
+    @Override
+    protected void appendFrom(GCModel base, GCModel parsed, boolean last) {
+        super.appendFrom(base, parsed, last);
+        G1GCModel g1Base = (G1GCModel) base;
+        G1GCModel g1Parsed = (G1GCModel) parsed;
+        heapRegionSize = g1Parsed.heapRegionSize != UNKNOWN_INT ? g1Parsed.heapRegionSize : g1Base.heapRegionSize;
+        regionSizeExact = g1Parsed.regionSizeExact;
+        adjustedRegionSize = g1Base.adjustedRegionSize;
+        lastGCInCycle = g1Base.lastGCInCycle;
+        lastRemarkEndTime = g1Base.lastRemarkEndTime;
+        lastConcCycleEndTime = g1Base.lastConcCycleEndTime;
+        concurrentMarkAborted = g1Base.concurrentMarkAborted;
+    }
+
+    @Override
+    public void appendPart(GCModel part) {
+        super.appendPart(part);
+        G1GCModel g1Part = (G1GCModel) part;
+        if (g1Part.heapRegionSize != UNKNOWN_INT) {
+            heapRegionSize = g1Part.heapRegionSize;
+            regionSizeExact = g1Part.regionSizeExact;
+        }
+    }
+
     private static List<GCEventType> allEventTypes = GCModel.calcAllEventTypes(collector);
     private static List<GCEventType> pauseEventTypes = GCModel.calcPauseEventTypes(collector);
     private static List<GCEventType> mainPauseEventTypes = GCModel.calcMainPauseEventTypes(collector);
@@ -134,11 +165,13 @@ public class G1GCModel extends GCModel {
         }
     }
 
-    private void adjustMemoryInfo() {
+    private void adjustMemoryInfo(int from) {
         if (heapRegionSize == UNKNOWN_INT) {
             return;
         }
-        for (GCEvent event : getGcEvents()) {
+        adjustedRegionSize = heapRegionSize;
+        for (int i = from; i < getGcEvents().size(); i++) {
+            GCEvent event = getGcEvents().get(i);
             if (!collectionResultUsingRegion(event)) {
                 continue;
             }
@@ -151,29 +184,36 @@ public class G1GCModel extends GCModel {
     }
 
     @Override
-    protected void doBeforeCalculatingDerivedInfo() {
+    protected void doBeforeCalculatingDerivedInfo(int from) {
         if (getLogStyle() == GCLogStyle.UNIFIED) {
             inferHeapRegionSize();
-            adjustMemoryInfo();
+            if (from > 0 && heapRegionSize != adjustedRegionSize) {
+                // the earlier events would be counted by another region size
+                earlierEventsChanged();
+                return;
+            }
+            adjustMemoryInfo(from);
         }
     }
 
     @Override
-    protected void doAfterCalculatingDerivedInfo() {
-        decideGCsAfterOldGC();
+    protected void doAfterCalculatingDerivedInfo(int from) {
+        decideGCsAfterOldGC(from);
     }
 
-    private void decideGCsAfterOldGC() {
-        GCEvent lastGCInCycle = null;
-        double lastRemarkEndTime = Double.MAX_VALUE;
-        double lastConcCycleEndTime = Double.MAX_VALUE;
-        for (GCEvent event : getGcEvents()) {
+    private void decideGCsAfterOldGC(int from) {
+        if (concurrentMarkAborted) {
+            return;
+        }
+        for (int i = from; i < getGcEvents().size(); i++) {
+            GCEvent event = getGcEvents().get(i);
             GCEventType type = event.getEventType();
             if (type == G1_CONCURRENT_UNDO_CYCLE) {
                 continue;
             }
             if (type == G1_CONCURRENT_CYCLE) {
                 if (event.containPhase(G1_CONCURRENT_MARK_ABORT)) {
+                    concurrentMarkAborted = true;
                     return;
                 }
                 lastConcCycleEndTime = event.getEndTime();
@@ -202,7 +242,7 @@ public class G1GCModel extends GCModel {
                         }
                     } else if (type == YOUNG_GC) {
                         // we have found the end of mixed gcs
-                        lastGCInCycle.setTrue(GC_AT_END_OF_OLD_CYCLE);
+                        eventToChange(lastGCInCycle).setTrue(GC_AT_END_OF_OLD_CYCLE);
                         lastGCInCycle = null;
                         lastConcCycleEndTime = Double.MAX_VALUE;
                     } else if (type == G1_MIXED_GC) {
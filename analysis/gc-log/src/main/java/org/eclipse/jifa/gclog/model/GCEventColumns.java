@@ -0,0 +1,464 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.gclog.model;
+
+import org.eclipse.jifa.gclog.event.GCEvent;
+import org.eclipse.jifa.gclog.event.eventInfo.GCCause;
+import org.eclipse.jifa.gclog.event.eventInfo.GCMemoryItem;
+import org.eclipse.jifa.gclog.event.eventInfo.MemoryArea;
+import org.eclipse.jifa.gclog.util.Constant;
+import org.eclipse.jifa.gclog.util.DoubleData;
+import org.eclipse.jifa.gclog.util.LongData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Struct-of-arrays copy of the events of a model whose derived info is calculated, so that statistics over a
+ * time range are primitive loops instead of walking event objects.
+ * <p>
+ * There are three tables, one for each event list of {@link GCModel}, and each row keeps the index of its event in
+ * that list. Event types and causes are stored as indexes into {@link #types} and {@link #causes}.
+ * <p>
+ * The tables are kept in addition to the events, which other apis still read. They cost memory on top of the
+ * events, see {@link #footprint()}, and are only built on request, see {@link GCModel#setColumnarStore}.
+ */
+final class GCEventColumns {
+
+    private static final MemoryArea[] AREAS = MemoryArea.values();
+
+    private final GCEventType[] types;
+
+    private final GCCause[] causes;
+
+    // gcEvents, ordered by start time
+    private final double[] startTime;
+    private final double[] duration;
+    private final double[] interval;
+    private final double[] causeInterval;
+    private final short[] type;
+    // -1 if the event has no cause
+    private final short[] cause;
+
+    // phases of gcEvents[i] are phases[phaseFrom[i], phaseFrom[i + 1])
+    private final int[] phaseFrom;
+    private final double[] phaseDuration;
+    private final double[] phaseInterval;
+    private final short[] phaseType;
+
+    // pauses counted by gcEvents[i] are pauses[pauseFrom[i], pauseFrom[i + 1]), see GCEvent#pauseEventOrPhasesDo
+    private final int[] pauseFrom;
+    private final double[] pause;
+    private final short[] pauseType;
+
+    // gcCollectionEvents, ordered by start time
+    private final double[] collectionStartTime;
+    private final double[] collectionEndTime;
+    private final boolean[] collectionFullGC;
+    private final long[] collectionReclamation;
+    // bit i is set if the event has a memory item of AREAS[i]
+    private final int[] collectionAreas;
+    // indexed by area ordinal, null if no event has a memory item of the area
+    private final long[][] preUsed;
+    private final long[][] postUsed;
+    private final long[][] postCapacity;
+
+    // allEvents, ordered by start time
+    private final double[] allStartTime;
+    private final double[] allDuration;
+    private final long[] allPromotion;
+    private final short[] allType;
+
+    private GCEventColumns(List<GCEvent> gcEvents, List<GCEvent> collectionEvents, List<GCEvent> allEvents) {
+        Map<GCEventType, Short> typeIndexes = new IdentityHashMap<>();
+        Map<GCCause, Short> causeIndexes = new IdentityHashMap<>();
+        List<GCEventType> typeList = new ArrayList<>();
+        List<GCCause> causeList = new ArrayList<>();
+
+        int n = gcEvents.size();
+        startTime = new double[n];
+        duration = new double[n];
+        interval = new double[n];
+        causeInterval = new double[n];
+        type = new short[n];
+        cause = new short[n];
+        phaseFrom = new int[n + 1];
+        pauseFrom = new int[n + 1];
+        int phases = 0;
+        for (GCEvent event : gcEvents) {
+            if (event.hasPhases()) {
+                phases += event.getPhases().size();
+            }
+        }
+        phaseDuration = new double[phases];
+        phaseInterval = new double[phases];
+        phaseType = new short[phases];
+        DoubleList pauses = new DoubleList();
+        List<GCEventType> pauseTypes = new ArrayList<>();
+        int phase = 0;
+        for (int i = 0; i < n; i++) {
+            GCEvent event = gcEvents.get(i);
+            startTime[i] = event.getStartTime();
+            duration[i] = event.getDuration();
+            interval[i] = event.getInterval();
+            causeInterval[i] = event.getCauseInterval();
+            type[i] = index(event.getEventType(), typeIndexes, typeList);
+            cause[i] = event.getCause() == null ? -1 : index(event.getCause(), causeIndexes, causeList);
+            phaseFrom[i] = phase;
+            if (event.hasPhases()) {
+                for (GCEvent p : event.getPhases()) {
+                    phaseDuration[phase] = p.getDuration();
+                    phaseInterval[phase] = p.getInterval();
+                    phaseType[phase] = index(p.getEventType(), typeIndexes, typeList);
+                    phase++;
+                }
+            }
+            pauseFrom[i] = pauses.size;
+            event.pauseEventOrPhasesDo(p -> {
+                pauses.add(p.getPause());
+                pauseTypes.add(p.getEventType());
+            });
+        }
+        phaseFrom[n] = phase;
+        pauseFrom[n] = pauses.size;
+        pause = Arrays.copyOf(pauses.values, pauses.size);
+        pauseType = new short[pauses.size];
+        for (int i = 0; i < pauseType.length; i++) {
+            pauseType[i] = index(pauseTypes.get(i), typeIndexes, typeList);
+        }
+
+        int m = collectionEvents.size();
+        collectionStartTime = new double[m];
+        collectionEndTime = new double[m];
+        collectionFullGC = new boolean[m];
+        collectionReclamation = new long[m];
+        collectionAreas = new int[m];
+        preUsed = new long[AREAS.length][];
+        postUsed = new long[AREAS.length][];
+        postCapacity = new long[AREAS.length][];
+        for (int i = 0; i < m; i++) {
+            GCEvent event = collectionEvents.get(i);
+            collectionStartTime[i] = event.getStartTime();
+            collectionEndTime[i] = event.getEndTime();
+            collectionFullGC[i] = event.isFullGC();
+            collectionReclamation[i] = event.getReclamation();
+            for (MemoryArea area : AREAS) {
+                GCMemoryItem memory = event.getMemoryItem(area);
+                if (memory == null) {
+                    continue;
+                }
+                int a = area.ordinal();
+                if (preUsed[a] == null) {
+                    preUsed[a] = new long[m];
+                    postUsed[a] = new long[m];
+                    postCapacity[a] = new long[m];
+                }
+                collectionAreas[i] |= 1 << a;
+                preUsed[a][i] = memory.getPreUsed();
+                postUsed[a][i] = memory.getPostUsed();
+                postCapacity[a][i] = memory.getPostCapacity();
+            }
+        }
+
+        int k = allEvents.size();
+        allStartTime = new double[k];
+        allDuration = new double[k];
+        allPromotion = new long[k];
+        allType = new short[k];
+        for (int i = 0; i < k; i++) {
+            GCEvent event = allEvents.get(i);
+            allStartTime[i] = event.getStartTime();
+            allDuration[i] = event.getDuration();
+            allPromotion[i] = event.getPromotion();
+            allType[i] = index(event.getEventType(), typeIndexes, typeList);
+        }
+
+        types = typeList.toArray(new GCEventType[0]);
+        causes = causeList.toArray(new GCCause[0]);
+    }
+
+    static GCEventColumns build(GCModel model) {
+        return new GCEventColumns(model.getGcEvents(), model.getGcCollectionEvents(), model.getAllEvents());
+    }
+
+    private static <T> short index(T value, Map<T, Short> indexes, List<T> values) {
+        Short index = indexes.get(value);
+        if (index == null) {
+            if (values.size() > Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct values: " + values.size());
+            }
+            index = (short) values.size();
+            indexes.put(value, index);
+            values.add(value);
+        }
+        return index;
+    }
+
+    long footprint() {
+        return startTime.length * 60L + phaseDuration.length * 18L + pause.length * 10L +
+               collectionStartTime.length * (21L + 24L * Long.bitCount(usedAreas())) + allStartTime.length * 26L;
+    }
+
+    private long usedAreas() {
+        long used = 0;
+        for (int a = 0; a < AREAS.length; a++) {
+            if (preUsed[a] != null) {
+                used |= 1L << a;
+            }
+        }
+        return used;
+    }
+
+    /**
+     * @see GCModel#getPhaseStatistics
+     */
+    void phaseStatistics(int from, int to, List<GCEventType> parents, Map<String, DoubleData[]> parentData,
+                         List<Map<String, DoubleData[]>> phaseData, List<Map<String, DoubleData[]>> causeData) {
+        int[] parentIndex = new int[types.length];
+        for (int t = 0; t < types.length; t++) {
+            parentIndex[t] = parents.indexOf(types[t]);
+        }
+        // statistic data of each type and cause, looked up by name only once
+        DoubleData[][] parentSlots = new DoubleData[types.length][];
+        DoubleData[][][] phaseSlots = new DoubleData[parents.size()][types.length][];
+        DoubleData[][][] causeSlots = new DoubleData[parents.size()][causes.length][];
+        for (int i = from; i < to; i++) {
+            int index = parentIndex[type[i]];
+            if (index < 0) {
+                continue;
+            }
+            DoubleData[] data = parentSlots[type[i]];
+            if (data == null) {
+                data = parentSlots[type[i]] = slot(parentData, types[type[i]].getName());
+            }
+            data[0].add(interval[i]);
+            data[1].add(duration[i]);
+            if (cause[i] >= 0) {
+                data = causeSlots[index][cause[i]];
+                if (data == null) {
+                    data = causeSlots[index][cause[i]] = slot(causeData.get(index), causes[cause[i]].getName());
+                }
+                data[0].add(causeInterval[i]);
+                data[1].add(duration[i]);
+            }
+            for (int p = phaseFrom[i]; p < phaseFrom[i + 1]; p++) {
+                data = phaseSlots[index][phaseType[p]];
+                if (data == null) {
+                    data = phaseSlots[index][phaseType[p]] = slot(phaseData.get(index), types[phaseType[p]].getName());
+                }
+                data[0].add(phaseInterval[p]);
+                data[1].add(phaseDuration[p]);
+            }
+        }
+    }
+
+    // DoubleData[] is an array of interval and duration. Put like GCModel#putPhaseStatisticData does, since
+    // computeIfAbsent resizes the map later and the order of the statistics follows the map
+    private static DoubleData[] slot(Map<String, DoubleData[]> map, String name) {
+        DoubleData[] data = map.get(name);
+        if (data == null) {
+            data = new DoubleData[]{new DoubleData(), new DoubleData()};
+            map.put(name, data);
+        }
+        return data;
+    }
+
+    /**
+     * @see GCModel#getPauseStatistics
+     */
+    void pauses(int from, int to, DoubleData data) {
+        for (int p = pauseFrom[from]; p < pauseFrom[to]; p++) {
+            data.add(pause[p]);
+        }
+    }
+
+    /**
+     * @see GCModel#getPauseDistribution
+     */
+    void pauseDistribution(int from, int to, int[] partitions, Map<String, int[]> distribution) {
+        int[][] slots = new int[types.length][];
+        for (int p = pauseFrom[from]; p < pauseFrom[to]; p++) {
+            if (pause[p] < 0) {
+                continue;
+            }
+            int index = Arrays.binarySearch(partitions, (int) pause[p]);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            if (index < 0) {
+                continue;
+            }
+            int[] nums = slots[pauseType[p]];
+            if (nums == null) {
+                nums = slots[pauseType[p]] = distribution.computeIfAbsent(types[pauseType[p]].getName(),
+                                                                          ignored -> new int[partitions.length]);
+            }
+            nums[index]++;
+        }
+    }
+
+    /**
+     * @see GCModel#getMemoryStatistics
+     */
+    void memoryStatistics(int from, int to, MemoryArea[] generations, LongData[][] data) {
+        for (int genIndex = 0; genIndex < generations.length; genIndex++) {
+            MemoryArea generation = generations[genIndex];
+            int a = generation.ordinal();
+            if (preUsed[a] == null) {
+                continue;
+            }
+            long[] pre = preUsed[a], post = postUsed[a], capacity = postCapacity[a];
+            LongData[] d = data[genIndex];
+            boolean afterFullGC = generation != MemoryArea.YOUNG;
+            int bit = 1 << a;
+            for (int i = from; i < to; i++) {
+                if ((collectionAreas[i] & bit) == 0) {
+                    continue;
+                }
+                d[0].add(capacity[i]);
+                d[1].add(Math.max(pre[i], post[i]));
+                if (afterFullGC && collectionFullGC[i]) {
+                    d[2].add(post[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * @see GCModel#getTimeGraphData
+     */
+    List<Object[]> memoryGraph(MemoryArea area, boolean used) {
+        List<Object[]> result = new ArrayList<>();
+        int a = area == null ? -1 : area.ordinal();
+        if (a < 0 || preUsed[a] == null) {
+            return result;
+        }
+        long[] pre = preUsed[a], post = postUsed[a], capacity = postCapacity[a];
+        int bit = 1 << a;
+        for (int i = 0; i < collectionStartTime.length; i++) {
+            if ((collectionAreas[i] & bit) == 0) {
+                continue;
+            }
+            if (used) {
+                if (pre[i] != Constant.UNKNOWN_LONG) {
+                    result.add(new Object[]{(long) collectionStartTime[i], pre[i]});
+                }
+                if (post[i] != Constant.UNKNOWN_LONG) {
+                    result.add(new Object[]{(long) collectionEndTime[i], post[i]});
+                }
+            } else if (capacity[i] != Constant.UNKNOWN_LONG) {
+                result.add(new Object[]{(long) collectionEndTime[i], capacity[i]});
+            }
+        }
+        return result;
+    }
+
+    List<Object[]> promotionGraph() {
+        List<Object[]> result = new ArrayList<>();
+        for (int i = 0; i < allPromotion.length; i++) {
+            if (allPromotion[i] >= 0) {
+                result.add(new Object[]{(long) allStartTime[i], allPromotion[i]});
+            }
+        }
+        return result;
+    }
+
+    List<Object[]> reclamationGraph() {
+        List<Object[]> result = new ArrayList<>();
+        for (int i = 0; i < collectionReclamation.length; i++) {
+            if (collectionReclamation[i] != Constant.UNKNOWN_LONG) {
+                result.add(new Object[]{(long) collectionStartTime[i], collectionReclamation[i]});
+            }
+        }
+        return result;
+    }
+
+    List<Object[]> durationGraph(String phaseName) {
+        boolean[] matched = new boolean[types.length];
+        for (int t = 0; t < types.length; t++) {
+            matched[t] = types[t].getName().equals(phaseName);
+        }
+        List<Object[]> result = new ArrayList<>();
+        for (int i = 0; i < allDuration.length; i++) {
+            if (matched[allType[i]] && allDuration[i] != Constant.UNKNOWN_DOUBLE) {
+                result.add(new Object[]{(long) allStartTime[i], allDuration[i]});
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @see GCModel#iterateEventsWithinTimeRange
+     */
+    int gcEventsFrom(double time, double modelStartTime) {
+        return time <= modelStartTime ? 0 : lowerBound(startTime, startTime.length, time);
+    }
+
+    int gcEventsTo(double time, double modelEndTime) {
+        return time >= modelEndTime ? startTime.length : upperBound(startTime, startTime.length, time);
+    }
+
+    int collectionEventsFrom(double time, double modelStartTime) {
+        return time <= modelStartTime ? 0 : lowerBound(collectionStartTime, collectionStartTime.length, time);
+    }
+
+    int collectionEventsTo(double time, double modelEndTime) {
+        return time >= modelEndTime ? collectionStartTime.length :
+                upperBound(collectionStartTime, collectionStartTime.length, time);
+    }
+
+    // index of the first value >= key
+    private static int lowerBound(double[] values, int size, double key) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // index of the first value > key
+    private static int upperBound(double[] values, int size, double key) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static class DoubleList {
+
+        private double[] values = new double[16];
+
+        private int size;
+
+        void add(double value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -25,7 +25,10 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jifa.analysis.Measurable;
 import org.eclipse.jifa.analysis.annotation.ApiMeta;
+import org.eclipse.jifa.analysis.annotation.ApiParameterMeta;
+import org.eclipse.jifa.analysis.annotation.Exclude;
 import org.eclipse.jifa.analysis.listener.ProgressListener;
 import org.eclipse.jifa.common.domain.request.PagingRequest;
 import org.eclipse.jifa.common.domain.vo.PageView;
@@ -65,11 +68,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -105,7 +109,7 @@ import static org.eclipse.jifa.gclog.model.modeInfo.GCCollectorType.ZGC;
  * GCModel contains all direct information from log and analysed data for query
  */
 @Slf4j
-public abstract class GCModel {
+public abstract class GCModel implements Measurable {
     // These 3 event lists below are used to support events like young/mixed/old/full. Other events. like
     // safepoint, allocation stall will be save in other lists. gcEvents and allEvents may be used in parsing.
     // When calculating derived info, gcEvents may be transformed, and allEvents and gcCollectionEvents will be
@@ -134,8 +138,33 @@ public abstract class GCModel {
     private GCLogMetadata metadata;
 
     private final Cache<AnalysisConfig, GlobalDiagnoseInfo> globalDiagnoseInfoCache = CacheBuilder.newBuilder().maximumSize(3).build();
+    // the latest one calculated, rules whose thresholds are not changed in another config reuse its abnormals
+    private volatile GlobalDiagnoseInfo lastGlobalDiagnoseInfo;
     private boolean metaspaceCapacityReliable = false;
 
+    // optional struct-of-arrays copy of the events used by statistics, built after derived info is calculated
+    private boolean columnarStore = false;
+    private GCEventColumns columns;
+    // pause sketches of large logs, built after derived info is calculated
+    private PauseSketches pauseSketches;
+    // aggregated time graphs, each is built when it's first queried with max points
+    private final Map<String, TimeGraphPyramid> timeGraphPyramids = new ConcurrentHashMap<>();
+
+    // state of derived info after the last event, events appended later continue from it, see append
+    private Map<GCEventType, Double> lastEndTime = new HashMap<>();
+    private Map<GCEventType, Map<GCCause, Double>> lastCauseEndTime = new HashMap<>();
+    private long lastTotalMemory = 0;
+    private List<String> causes = new ArrayList<>();
+    private Set<GCEventType> eventTypesActuallyShowUp = new HashSet<>();
+    // the model this one is appended to, and the number of events in allEvents shared by both models
+    private GCModel base;
+    private int sharedEvents;
+    // events before this id in allEvents have the same derived info in base, so their diagnose info is taken from it
+    private int unchangedEvents;
+    private boolean earlierEventsChanged;
+    // conditions of the events looked up but not found when parsing a part of a log, see setPart
+    private List<Predicate<GCEvent>> missedLookups;
+
     public GCModel() {
     }
 
@@ -143,6 +172,24 @@ public abstract class GCModel {
         this.collectorType = collectorType;
     }
 
+    @Exclude
+    @Override
+    public long footprint() {
+        // an event with its phases, memory items and cause takes a few hundred bytes, all events are known after
+        // derived info is calculated
+        return Math.max(allEvents.size(), gcEvents.size()) * 512L + safepoints.size() * 64L + ooms.size() * 128L +
+               (columns != null ? columns.footprint() : 0) + (pauseSketches != null ? pauseSketches.footprint() : 0);
+    }
+
+    /**
+     * @param columnarStore whether statistics should be calculated from a columnar copy of the events, which is
+     *                      built when derived info is calculated. Events are still available, so the copy costs
+     *                      memory in addition to them and is off by default.
+     */
+    public void setColumnarStore(boolean columnarStore) {
+        this.columnarStore = columnarStore;
+    }
+
     public void setCollectorType(GCCollectorType collectorType) {
         this.collectorType = collectorType;
     }
@@ -212,6 +259,170 @@ public abstract class GCModel {
         this.gcEvents = gcEvents;
     }
 
+    /**
+     * Appends events parsed after the events of this model, which has derived info calculated. The events of this
+     * model and their derived info are shared with the result rather than copied or calculated again: derived info
+     * is only calculated for the appended events, continuing from the state after the events of this model, and
+     * diagnose info is only found for them. This model is not changed, and the result has no columnar store.
+     *
+     * @param parsed the model being parsed, info other than gc events is taken from it
+     * @param events copies of the gc events parsed after the events of this model, in the order they are parsed
+     * @param last   whether the events are the last ones parsed so far. If so, the last event is dropped if it is
+     *               not finished, and diagnose info of the result is found on demand from that of this model.
+     *               Otherwise, the result is to be appended to, diagnose info calculated for this model is extended
+     *               to the result at once, and the result doesn't refer to this model.
+     * @return the model of all events, or null if the appended events would change derived info of the events of
+     * this model, e.g. when they start before the last one of them
+     */
+    public GCModel append(GCModel parsed, List<GCEvent> events, boolean last) {
+        GCModel model = GCModelFactory.getModel(collectorType);
+        model.appendFrom(this, parsed, last);
+        model.gcEvents.addAll(events);
+        if (!model.calculateDerivedInfo(gcEvents.size(), last)) {
+            return null;
+        }
+        model.base = this;
+        if (!last) {
+            for (AnalysisConfig config : globalDiagnoseInfoCache.asMap().keySet()) {
+                model.getGlobalDiagnoseInfo(config);
+            }
+            model.base = null;
+        }
+        return model;
+    }
+
+    // subclass should append its own fields, events and derived info of base are shared, other info is copied
+    // from parsed
+    protected void appendFrom(GCModel base, GCModel parsed, boolean last) {
+        gcEvents = new ArrayList<>(base.gcEvents);
+        allEvents = new ArrayList<>(base.allEvents);
+        gcCollectionEvents = new ArrayList<>(base.gcCollectionEvents);
+        safepoints = new ArrayList<>(base.safepoints);
+        for (int i = safepoints.size(); i < parsed.safepoints.size(); i++) {
+            safepoints.add(parsed.safepoints.get(i).copy());
+        }
+        ooms = new ArrayList<>(base.ooms);
+        for (int i = ooms.size(); i < parsed.ooms.size(); i++) {
+            ooms.add(parsed.ooms.get(i).copy());
+        }
+        startTime = parsed.startTime;
+        endTime = parsed.endTime;
+        parallelThread = parsed.parallelThread;
+        concurrentThread = parsed.concurrentThread;
+        referenceTimestamp = parsed.referenceTimestamp;
+        vmOptions = parsed.vmOptions;
+        logStyle = parsed.logStyle;
+        metaspaceCapacityReliable = parsed.metaspaceCapacityReliable;
+
+        pauseSketches = base.pauseSketches;
+        lastEndTime = new HashMap<>(base.lastEndTime);
+        base.lastCauseEndTime.forEach((type, map) -> lastCauseEndTime.put(type, new HashMap<>(map)));
+        lastTotalMemory = base.lastTotalMemory;
+        causes = new ArrayList<>(base.causes);
+        eventTypesActuallyShowUp = new HashSet<>(base.eventTypesActuallyShowUp);
+        sharedEvents = base.allEvents.size();
+        unchangedEvents = sharedEvents;
+    }
+
+    /**
+     * Events before the appended ones are shared with the model appended to, which must not change. Subclass calls
+     * this before changing derived info of an event when calculating derived info of the appended events.
+     *
+     * @return the event, or a copy of it that replaces the event in this model if it is shared
+     */
+    protected GCEvent eventToChange(GCEvent event) {
+        int id = event.getId();
+        if (id == Constant.UNKNOWN_INT || id >= sharedEvents) {
+            return event;
+        }
+        GCEvent copy = event.copy();
+        replaceEvent(gcEvents, event, copy);
+        replaceCopiedEvent(event, copy);
+        return copy;
+    }
+
+    private void replaceCopiedEvent(GCEvent event, GCEvent copy) {
+        int id = event.getId();
+        if (id != Constant.UNKNOWN_INT && id < allEvents.size() && allEvents.get(id) == event) {
+            allEvents.set(id, copy);
+            unchangedEvents = Math.min(unchangedEvents, id);
+        }
+        if (event.getMemoryItems() != null) {
+            replaceEvent(gcCollectionEvents, event, copy);
+        }
+        if (event.hasPhases()) {
+            for (int i = 0; i < event.getPhases().size(); i++) {
+                replaceCopiedEvent(event.getPhases().get(i), copy.getPhases().get(i));
+            }
+        }
+    }
+
+    // the list is ordered by start time, and the event is usually one of the last ones
+    private static void replaceEvent(List<GCEvent> events, GCEvent event, GCEvent copy) {
+        for (int i = events.size() - 1; i >= 0 && events.get(i).getStartTime() >= event.getStartTime(); i--) {
+            if (events.get(i) == event) {
+                events.set(i, copy);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Subclass calls this when the appended events would change derived info of the events before them, so that
+     * the model can't be appended to, see {@link #append(GCModel, List, boolean)}.
+     */
+    protected void earlierEventsChanged() {
+        earlierEventsChanged = true;
+    }
+
+    /**
+     * Marks this model as the one a part of a log is parsed into, while the parts before it are parsed separately.
+     * The lookups of events that find nothing are recorded, because they may find events of the earlier parts when
+     * the log is parsed as a whole, see {@link #dependsOn(GCModel)}.
+     */
+    public void setPart() {
+        missedLookups = new ArrayList<>();
+    }
+
+    /**
+     * @param earlier the model the earlier parts of the log are parsed into
+     * @return whether the part parsed into this model may be parsed differently after the earlier parts, i.e.
+     * whether any event that was not found when parsing this part is found in the earlier parts
+     */
+    public boolean dependsOn(GCModel earlier) {
+        for (Predicate<GCEvent> condition : missedLookups) {
+            if (earlier.getLastEventWithCondition(condition) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends the info parsed from the next part of the log, which doesn't depend on this model, so that this model
+     * is the same as if both parts were parsed into it. The part is not used any more.
+     */
+    public void appendPart(GCModel part) {
+        gcEvents.addAll(part.gcEvents);
+        allEvents.addAll(part.allEvents);
+        safepoints.addAll(part.safepoints);
+        ooms.addAll(part.ooms);
+        if (startTime == Constant.UNKNOWN_DOUBLE) {
+            startTime = part.startTime;
+        }
+        endTime = Math.max(endTime, part.endTime);
+        if (referenceTimestamp == Constant.UNKNOWN_DOUBLE) {
+            referenceTimestamp = part.referenceTimestamp;
+        }
+        if (part.parallelThread != Constant.UNKNOWN_INT) {
+            parallelThread = part.parallelThread;
+        }
+        if (part.concurrentThread != Constant.UNKNOWN_INT) {
+            concurrentThread = part.concurrentThread;
+        }
+        metaspaceCapacityReliable |= part.metaspaceCapacityReliable;
+    }
+
     public GCEvent createAndGetEvent() {
         GCEvent event = new GCEvent();
         gcEvents.add(event);
@@ -317,18 +528,24 @@ public abstract class GCModel {
             phaseData.add(new HashMap<>());
             causeData.add(new HashMap<>());
         }
-        iterateEventsWithinTimeRange(gcEvents, range, event -> {
-            int index = parents.indexOf(event.getEventType());
-            if (index < 0) {
-                return;
-            }
-            putPhaseStatisticData(event, event.getEventType().getName(), parentData, true);
-            if (event.getCause() != null) {
-                putPhaseStatisticData(event, event.getCause().getName(), causeData.get(index), false);
-            }
-            event.phasesDoDFS(phase -> putPhaseStatisticData(phase, phase.getEventType().getName(),
-                                                             phaseData.get(index), true));
-        });
+        if (columns != null) {
+            columns.phaseStatistics(columns.gcEventsFrom(range.getStart(), getStartTime()),
+                                    columns.gcEventsTo(range.getEnd(), getEndTime()),
+                                    parents, parentData, phaseData, causeData);
+        } else {
+            iterateEventsWithinTimeRange(gcEvents, range, event -> {
+                int index = parents.indexOf(event.getEventType());
+                if (index < 0) {
+                    return;
+                }
+                putPhaseStatisticData(event, event.getEventType().getName(), parentData, true);
+                if (event.getCause() != null) {
+                    putPhaseStatisticData(event, event.getCause().getName(), causeData.get(index), false);
+                }
+                event.phasesDoDFS(phase -> putPhaseStatisticData(phase, phase.getEventType().getName(),
+                                                                 phaseData.get(index), true));
+            });
+        }
         List<ParentStatisticsInfo> result = new ArrayList<>();
         for (int i = 0; i < parents.size(); i++) {
             String name = parents.get(i).getName();
@@ -346,10 +563,7 @@ public abstract class GCModel {
     @ApiMeta("pauseStatistics")
     public PauseStatistics getPauseStatistics(TimeRange range) {
         range = makeValidTimeRange(range);
-        DoubleData pause = new DoubleData(true);
-        iterateEventsWithinTimeRange(gcEvents, range, e -> {
-            e.pauseEventOrPhasesDo(event -> pause.add(event.getPause()));
-        });
+        DoubleData pause = getPauses(range);
         return new PauseStatistics(
                 pause.getN() == 0 ? Constant.UNKNOWN_DOUBLE : 1 - pause.getSum() / range.length(),
                 pause.average(),
@@ -359,11 +573,37 @@ public abstract class GCModel {
                 pause.getMax());
     }
 
+    // percentiles of large ranges are estimated by merging pre-built sketches, the others are exact
+    private DoubleData getPauses(TimeRange range) {
+        if (pauseSketches != null) {
+            int from = binarySearchEventIndex(gcEvents, range.getStart(), true);
+            int to = binarySearchEventIndex(gcEvents, range.getEnd(), false);
+            if (to - from >= PauseSketches.MIN_EVENTS_TO_ESTIMATE) {
+                return pauseSketches.query(gcEvents, from, to);
+            }
+        }
+        DoubleData pause = new DoubleData(true);
+        if (columns != null) {
+            columns.pauses(columns.gcEventsFrom(range.getStart(), getStartTime()),
+                           columns.gcEventsTo(range.getEnd(), getEndTime()), pause);
+        } else {
+            iterateEventsWithinTimeRange(gcEvents, range, e -> {
+                e.pauseEventOrPhasesDo(event -> pause.add(event.getPause()));
+            });
+        }
+        return pause;
+    }
+
     @ApiMeta("pauseDistribution")
     public Map<String, int[]> getPauseDistribution(TimeRange range, int[] partitions) {
         range = makeValidTimeRange(range);
 
         Map<String, int[]> distribution = new HashMap<>();
+        if (columns != null) {
+            columns.pauseDistribution(columns.gcEventsFrom(range.getStart(), getStartTime()),
+                                      columns.gcEventsTo(range.getEnd(), getEndTime()), partitions, distribution);
+            return distribution;
+        }
         iterateEventsWithinTimeRange(gcEvents, range, e -> {
             e.pauseEventOrPhasesDo(event -> {
                 if (event.getPause() >= 0) {
@@ -402,19 +642,24 @@ public abstract class GCModel {
                 data[i][j] = new LongData();
             }
         }
-        iterateEventsWithinTimeRange(gcCollectionEvents, range, event -> {
-            for (int genIndex = 0; genIndex < generations.length; genIndex++) {
-                MemoryArea generation = generations[genIndex];
-                GCMemoryItem memory = event.getMemoryItem(generation);
-                if (memory != null) {
-                    data[genIndex][0].add(memory.getPostCapacity());
-                    data[genIndex][1].add(Math.max(memory.getPreUsed(), memory.getPostUsed()));
-                    if (event.isFullGC() && generation != YOUNG) {
-                        data[genIndex][2].add(memory.getPostUsed());
+        if (columns != null) {
+            columns.memoryStatistics(columns.collectionEventsFrom(range.getStart(), getStartTime()),
+                                     columns.collectionEventsTo(range.getEnd(), getEndTime()), generations, data);
+        } else {
+            iterateEventsWithinTimeRange(gcCollectionEvents, range, event -> {
+                for (int genIndex = 0; genIndex < generations.length; genIndex++) {
+                    MemoryArea generation = generations[genIndex];
+                    GCMemoryItem memory = event.getMemoryItem(generation);
+                    if (memory != null) {
+                        data[genIndex][0].add(memory.getPostCapacity());
+                        data[genIndex][1].add(Math.max(memory.getPreUsed(), memory.getPostUsed()));
+                        if (event.isFullGC() && generation != YOUNG) {
+                            data[genIndex][2].add(memory.getPostUsed());
+                        }
                     }
                 }
-            }
-        });
+            });
+        }
         calculateUsedAvgAfterOldGC(range, data);
 
         // generate result
@@ -456,9 +701,18 @@ public abstract class GCModel {
 
     // decide start and end time using events
     public void autoDecideStartEndTime() {
-        gcEvents.sort(Comparator.comparingDouble(GCEvent::getStartTime));
+        autoDecideStartEndTime(0);
+    }
+
+    // events before from are sorted already, false is returned if the others start before them
+    private boolean autoDecideStartEndTime(int from) {
+        gcEvents.subList(from, gcEvents.size()).sort(Comparator.comparingDouble(GCEvent::getStartTime));
         if (gcEvents.size() == 0) {
-            return;
+            return true;
+        }
+        if (from > 0 && from < gcEvents.size() &&
+            gcEvents.get(from).getStartTime() < gcEvents.get(from - 1).getStartTime()) {
+            return false;
         }
         GCEvent event = gcEvents.get(gcEvents.size() - 1);
         double endTime = event.getEndTime();
@@ -473,29 +727,57 @@ public abstract class GCModel {
             startTime = Math.min(startTime, event.getPhases().get(0).getStartTime());
         }
         setStartTime(Math.min(this.startTime, startTime));
+        return true;
     }
 
-    @ApiMeta("timeGraphData")
+    @Exclude
     public Map<String, List<Object[]>> getTimeGraphData(String[] dataTypes) {
+        return getTimeGraphData(dataTypes, null);
+    }
+
+    /**
+     * @param dataTypes the data types of the graph
+     * @param maxPoints if present, a graph with more points is aggregated by buckets of time, see
+     *                  {@link TimeGraphPyramid#query(int)}
+     * @return points of each data type
+     */
+    @ApiMeta("timeGraphData")
+    public Map<String, List<Object[]>> getTimeGraphData(String[] dataTypes,
+                                                        @ApiParameterMeta(required = false) Integer maxPoints) {
         Map<String, List<Object[]>> result = new LinkedHashMap<>();
         for (String dataType : dataTypes) {
-            if (dataType.endsWith("Used") || dataType.endsWith("Capacity")) {
-                result.put(dataType, getTimeGraphMemoryData(dataType));
-            } else if (dataType.equals("promotion")) {
-                result.put(dataType, getTimeGraphPromotionData());
-            } else if (dataType.equals("reclamation")) {
-                result.put(dataType, getTimeGraphReclamationData());
+            if (maxPoints != null && maxPoints > 0) {
+                TimeGraphPyramid pyramid = timeGraphPyramids.computeIfAbsent(
+                        dataType, type -> new TimeGraphPyramid(getTimeGraphPoints(type), type.endsWith("Capacity")));
+                result.put(dataType, pyramid.query(maxPoints));
             } else {
-                result.put(dataType, getTimeGraphDurationData(dataType));
+                result.put(dataType, getTimeGraphPoints(dataType));
             }
         }
         return result;
     }
 
+    private List<Object[]> getTimeGraphPoints(String dataType) {
+        if (dataType.endsWith("Used") || dataType.endsWith("Capacity")) {
+            return getTimeGraphMemoryData(dataType);
+        } else if (dataType.equals("promotion")) {
+            return getTimeGraphPromotionData();
+        } else if (dataType.equals("reclamation")) {
+            return getTimeGraphReclamationData();
+        } else {
+            return getTimeGraphDurationData(dataType);
+        }
+    }
+
     private List<Object[]> getTimeGraphMemoryData(String dataType) {
         boolean used = dataType.endsWith("Used");
         String areString = dataType.substring(0, dataType.length() - (used ? "Used" : "Capacity").length());
         MemoryArea area = MemoryArea.getMemoryArea(areString);
+        if (columns != null) {
+            List<Object[]> result = columns.memoryGraph(area, used);
+            result.sort(Comparator.comparingLong(d -> (long) d[0]));
+            return result;
+        }
         List<Object[]> result = new ArrayList<>();
         for (GCEvent event : this.gcCollectionEvents) {
             GCMemoryItem memory = event.getMemoryItem(area);
@@ -520,6 +802,9 @@ public abstract class GCModel {
     }
 
     private List<Object[]> getTimeGraphPromotionData() {
+        if (columns != null) {
+            return columns.promotionGraph();
+        }
         return allEvents.stream()
                         .filter(event -> event.getPromotion() >= 0)
                         .map(event -> new Object[]{(long) event.getStartTime(), event.getPromotion()})
@@ -527,6 +812,9 @@ public abstract class GCModel {
     }
 
     private List<Object[]> getTimeGraphReclamationData() {
+        if (columns != null) {
+            return columns.reclamationGraph();
+        }
         return gcCollectionEvents.stream()
                                  .filter(event -> event.getReclamation() != Constant.UNKNOWN_LONG)
                                  .map(event -> new Object[]{(long) event.getStartTime(), event.getReclamation()})
@@ -534,6 +822,9 @@ public abstract class GCModel {
     }
 
     private List<Object[]> getTimeGraphDurationData(String phaseName) {
+        if (columns != null) {
+            return columns.durationGraph(phaseName);
+        }
         return allEvents.stream()
                         .filter(event -> event.getEventType().getName().equals(phaseName)
                                          && event.getDuration() != Constant.UNKNOWN_DOUBLE)
@@ -564,53 +855,90 @@ public abstract class GCModel {
 
     public void calculateDerivedInfo(ProgressListener progressListener) {
         allEvents = null;
+        calculateDerivedInfo(0, true);
+    }
+
+    // derived info of gc events before index from has been calculated, see append. false is returned if it would
+    // be changed by the other events.
+    private boolean calculateDerivedInfo(int from, boolean last) {
         // must be done before other steps
-        filterInvalidEvents();
-        autoDecideStartEndTime();
-        decideAndFixEventInfo();
+        if (last) {
+            filterInvalidEvents(from);
+        }
+        if (!autoDecideStartEndTime(from)) {
+            return false;
+        }
+        decideAndFixEventInfo(from);
 
         // let subclass do something
-        doBeforeCalculatingDerivedInfo();
+        doBeforeCalculatingDerivedInfo(from);
+        if (earlierEventsChanged) {
+            return false;
+        }
 
-        rebuildEventLists();
+        int fromAllEvents = from == 0 ? 0 : allEvents.size();
+        int fromCollectionEvents = gcCollectionEvents.size();
+        if (!rebuildEventLists(from)) {
+            return false;
+        }
         // the structure of gcEvents and allEvents should not change after this line
 
         // calculate derived data for events themselves
-        calculateEventsInterval();
-        calculateEventsMemoryInfo();
+        calculateEventsInterval(fromAllEvents);
+        if (!calculateEventsMemoryInfo(from, fromCollectionEvents)) {
+            return false;
+        }
 
         // let subclass do something
-        doAfterCalculatingDerivedInfo();
+        doAfterCalculatingDerivedInfo(from);
 
         // data in events should not change after this line
         // calculate specific data prepared for route api, order of these calls doesn't matter
-        calculateGcModelMetadata();
+        calculateGcModelMetadata(from, fromAllEvents);
+        if (columnarStore) {
+            columns = GCEventColumns.build(this);
+        }
+        if (gcEvents.size() >= PauseSketches.MIN_EVENTS_TO_ESTIMATE) {
+            pauseSketches = pauseSketches != null ? pauseSketches.extend(gcEvents, from) : PauseSketches.build(gcEvents);
+        }
+        timeGraphPyramids.clear();
+        return true;
     }
 
-    // for implementation
-    protected void doBeforeCalculatingDerivedInfo() {
+    // for implementation, gc events before index from have derived info calculated, see append
+    protected void doBeforeCalculatingDerivedInfo(int from) {
     }
 
-    // for implementation
-    protected void doAfterCalculatingDerivedInfo() {
+    // for implementation, gc events before index from have derived info calculated, see append
+    protected void doAfterCalculatingDerivedInfo(int from) {
     }
 
-    private void rebuildEventLists() {
-        allEvents = new ArrayList<>();
-        for (GCEvent event : gcEvents) {
-            allEvents.add(event);
+    private boolean rebuildEventLists(int from) {
+        List<GCEvent> events = new ArrayList<>();
+        for (int i = from; i < gcEvents.size(); i++) {
+            GCEvent event = gcEvents.get(i);
+            events.add(event);
             if (event.hasPhases()) {
-                allEvents.addAll(event.getPhases());
+                events.addAll(event.getPhases());
             }
         }
-        allEvents.sort(Comparator.comparingDouble(GCEvent::getStartTime));
-        for (int i = 0; i < allEvents.size(); i++) {
-            allEvents.get(i).setId(i);
+        events.sort(Comparator.comparingDouble(GCEvent::getStartTime));
+        if (from == 0) {
+            allEvents = new ArrayList<>(events.size());
+        } else if (!events.isEmpty() && !allEvents.isEmpty() &&
+                   events.get(0).getStartTime() < allEvents.get(allEvents.size() - 1).getStartTime()) {
+            return false;
+        }
+        for (GCEvent event : events) {
+            event.setId(allEvents.size());
+            allEvents.add(event);
         }
+        return true;
     }
 
-    private void decideAndFixEventInfo() {
-        for (GCEvent event : gcEvents) {
+    private void decideAndFixEventInfo(int from) {
+        for (int index = from; index < gcEvents.size(); index++) {
+            GCEvent event = gcEvents.get(index);
             List<GCEvent> phases = event.getPhases();
             if (phases == null) {
                 continue;
@@ -632,14 +960,20 @@ public abstract class GCModel {
      * calculate heap size(young, humongous, old, metaspace,total),
      * object allocation, reclamation and promotion
      */
-    private void calculateEventsMemoryInfo() {
-        for (GCEvent event : gcEvents) {
-            calculateEventMemoryItems(event);
+    private boolean calculateEventsMemoryInfo(int from, int fromCollectionEvents) {
+        for (int i = from; i < gcEvents.size(); i++) {
+            calculateEventMemoryItems(gcEvents.get(i));
+        }
+        gcCollectionEvents.subList(fromCollectionEvents, gcCollectionEvents.size())
+                          .sort(Comparator.comparingDouble(GCEvent::getStartTime));
+        if (fromCollectionEvents > 0 && fromCollectionEvents < gcCollectionEvents.size() &&
+            gcCollectionEvents.get(fromCollectionEvents).getStartTime() <
+            gcCollectionEvents.get(fromCollectionEvents - 1).getStartTime()) {
+            return false;
         }
-        gcCollectionEvents.sort(Comparator.comparingDouble(GCEvent::getStartTime));
 
-        long lastTotalMemory = 0;
-        for (GCEvent event : gcCollectionEvents) {
+        for (int i = fromCollectionEvents; i < gcCollectionEvents.size(); i++) {
+            GCEvent event = gcCollectionEvents.get(i);
             GCMemoryItem young = event.getMemoryItem(YOUNG);
             GCMemoryItem total = event.getMemoryItem(HEAP);
             GCMemoryItem humongous = event.getMemoryItem(HUMONGOUS);
@@ -674,6 +1008,7 @@ public abstract class GCModel {
                 lastTotalMemory = total.getPostUsed();
             }
         }
+        return true;
     }
 
     private long zeroIfUnknownInt(long x) {
@@ -736,11 +1071,11 @@ public abstract class GCModel {
         // so because when class and non class are known, metaspace must have been known
     }
 
-    private void filterInvalidEvents() {
+    private void filterInvalidEvents(int from) {
         // Sometimes the given log is just a part of the complete log. This may lead to some incomplete events at
         // beginning or end of this log. Such event at beginning is likely to have been dealt by parser, so here we try
         // to deal with the last event
-        if (gcEvents.get(gcEvents.size() - 1).getEndTime() == Constant.UNKNOWN_DOUBLE) {
+        if (gcEvents.size() > from && gcEvents.get(gcEvents.size() - 1).getEndTime() == Constant.UNKNOWN_DOUBLE) {
             gcEvents.remove(gcEvents.size() - 1);
         }
     }
@@ -786,6 +1121,9 @@ public abstract class GCModel {
                 return event;
             }
         }
+        if (missedLookups != null) {
+            missedLookups.add(condition);
+        }
         return null;
     }
 
@@ -821,10 +1159,9 @@ public abstract class GCModel {
         return vmOptions == null ? null : vmOptions.getVmOptionResult();
     }
 
-    private void calculateEventsInterval() {
-        Map<GCEventType, Double> lastEndTime = new HashMap<>();
-        Map<GCEventType, Map<GCCause, Double>> lastCauseEndTime = new HashMap<>();
-        for (GCEvent event : allEvents) {
+    private void calculateEventsInterval(int fromAllEvents) {
+        for (int i = fromAllEvents; i < allEvents.size(); i++) {
+            GCEvent event = allEvents.get(i);
             GCEventType eventType = event.getEventType();
             // regard mixed gc as young gc
             if (event.isYoungGC()) {
@@ -915,14 +1252,18 @@ public abstract class GCModel {
                                  .collect(Collectors.toList());
     }
 
-    private void calculateGcModelMetadata() {
+    private void calculateGcModelMetadata(int from, int fromAllEvents) {
+        for (int i = from; i < gcEvents.size(); i++) {
+            GCCause cause = gcEvents.get(i).getCause();
+            if (cause != null && !causes.contains(cause.getName())) {
+                causes.add(cause.getName());
+            }
+        }
+        for (int i = fromAllEvents; i < allEvents.size(); i++) {
+            eventTypesActuallyShowUp.add(allEvents.get(i).getEventType());
+        }
         metadata = new GCLogMetadata();
-        metadata.setCauses(gcEvents.stream()
-                                   .map(GCEvent::getCause)
-                                   .filter(Objects::nonNull)
-                                   .map(GCCause::getName)
-                                   .distinct()
-                                   .collect(Collectors.toList()));
+        metadata.setCauses(causes);
         metadata.setCollector(getCollectorType().toString());
         metadata.setLogStyle(getLogStyle().toString());
         metadata.setPauseless(isPauseless());
@@ -932,9 +1273,6 @@ public abstract class GCModel {
         metadata.setStartTime(getStartTime());
         metadata.setEndTime(getEndTime());
 
-        Set<GCEventType> eventTypesActuallyShowUp = this.allEvents.stream()
-                                                                  .map(GCEvent::getEventType)
-                                                                  .collect(Collectors.toSet());
         metadata.setParentEventTypes(dealEventTypeForMetadata(getParentEventTypes(), eventTypesActuallyShowUp));
         metadata.setImportantEventTypes(dealEventTypeForMetadata(getImportantEventTypes(), eventTypesActuallyShowUp));
         metadata.setPauseEventTypes(dealEventTypeForMetadata(getPauseEventTypes(), eventTypesActuallyShowUp));
@@ -986,9 +1324,16 @@ public abstract class GCModel {
     }
 
     private GlobalDiagnoseInfo calculateGlobalDiagnoseInfo(AnalysisConfig config) {
-        GlobalDiagnoseInfo info = new GlobalDiagnoseInfo(this, config);
-        EventAbnormalDetector abDetector = new EventAbnormalDetector(this, config, info);
+        GlobalDiagnoseInfo info;
+        if (base != null && unchangedEvents > 0) {
+            // only events appended to base are diagnosed
+            info = new GlobalDiagnoseInfo(this, config, base.getGlobalDiagnoseInfo(config), unchangedEvents);
+        } else {
+            info = new GlobalDiagnoseInfo(this, config);
+        }
+        EventAbnormalDetector abDetector = new EventAbnormalDetector(this, config, info, lastGlobalDiagnoseInfo);
         abDetector.diagnose();
+        lastGlobalDiagnoseInfo = info;
         return info;
     }
 
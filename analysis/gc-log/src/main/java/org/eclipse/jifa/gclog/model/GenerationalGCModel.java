@@ -31,19 +31,20 @@ public abstract class GenerationalGCModel extends GCModel {
         super(type);
     }
 
-    private void dealYoungGCThatBecomeFullGCUnified() {
-        List<GCEvent> newEvents = new ArrayList<>();
+    private void dealYoungGCThatBecomeFullGCUnified(int from) {
         List<GCEvent> oldEvents = getGcEvents();
-        boolean remove = false;
-        for (int i = 0; i < oldEvents.size() - 1; i++) {
+        if (from > 0 && from < oldEvents.size() && youngGCBecomeFullGC(oldEvents.get(from - 1), oldEvents.get(from))) {
+            // the young gc before the appended events would be changed
+            earlierEventsChanged();
+            return;
+        }
+        List<GCEvent> newEvents = new ArrayList<>();
+        for (int i = from; i < oldEvents.size(); i++) {
             GCEvent event = oldEvents.get(i);
-            GCEvent nextEvent = oldEvents.get(i + 1);
-            remove = event.getEventType() == YOUNG_GC && nextEvent.getEventType() == FULL_GC &&
-                    event.getStartTime() <= nextEvent.getStartTime() && event.getEndTime() >= nextEvent.getEndTime();
-            if (remove) {
+            if (i + 1 < oldEvents.size() && youngGCBecomeFullGC(event, oldEvents.get(i + 1))) {
                 event.setEventType(FULL_GC);
                 event.setTrue(GCEventBooleanType.YOUNG_GC_BECOME_FULL_GC);
-                event.setPhases(nextEvent.getPhases());
+                event.setPhases(oldEvents.get(i + 1).getPhases());
                 i++; // remove the full gc
             }
             if (event.getEventType() == FULL_GC && event.isTrue(GCEventBooleanType.PROMOTION_FAILED)) {
@@ -51,14 +52,18 @@ public abstract class GenerationalGCModel extends GCModel {
             }
             newEvents.add(event);
         }
-        if (!remove) {
-            newEvents.add(oldEvents.get(oldEvents.size() - 1));
-        }
-        setGcEvents(newEvents);
+        oldEvents.subList(from, oldEvents.size()).clear();
+        oldEvents.addAll(newEvents);
+    }
+
+    private boolean youngGCBecomeFullGC(GCEvent event, GCEvent nextEvent) {
+        return event.getEventType() == YOUNG_GC && nextEvent.getEventType() == FULL_GC &&
+               event.getStartTime() <= nextEvent.getStartTime() && event.getEndTime() >= nextEvent.getEndTime();
     }
 
-    private void dealYoungGCThatBecomeFullGCPreUnified() {
-        for (GCEvent event : getGcEvents()) {
+    private void dealYoungGCThatBecomeFullGCPreUnified(int from) {
+        for (int i = from; i < getGcEvents().size(); i++) {
+            GCEvent event = getGcEvents().get(i);
             // if metaspace is printed, it must be a full gc
             if (event.getEventType() == YOUNG_GC && event.getMemoryItem(MemoryArea.METASPACE) != null) {
                 event.setEventType(FULL_GC);
@@ -70,11 +75,12 @@ public abstract class GenerationalGCModel extends GCModel {
         }
     }
 
-    private void youngGenUsedShouldBeZeroAfterFullGC() {
+    private void youngGenUsedShouldBeZeroAfterFullGC(int from) {
         if (getLogStyle() != GCLogStyle.PRE_UNIFIED) {
             return;
         }
-        for (GCEvent event : getGcEvents()) {
+        for (int i = from; i < getGcEvents().size(); i++) {
+            GCEvent event = getGcEvents().get(i);
             if (event.getEventType() == FULL_GC && event.getMemoryItem(MemoryArea.YOUNG) != null) {
                 event.getMemoryItem(MemoryArea.YOUNG).setPostUsed(0);
             }
@@ -82,12 +88,12 @@ public abstract class GenerationalGCModel extends GCModel {
     }
 
     @Override
-    protected void doBeforeCalculatingDerivedInfo() {
+    protected void doBeforeCalculatingDerivedInfo(int from) {
         if (getLogStyle() == GCLogStyle.UNIFIED) {
-            dealYoungGCThatBecomeFullGCUnified();
+            dealYoungGCThatBecomeFullGCUnified(from);
         } else if (getLogStyle() == GCLogStyle.PRE_UNIFIED) {
-            dealYoungGCThatBecomeFullGCPreUnified();
+            dealYoungGCThatBecomeFullGCPreUnified(from);
         }
-        youngGenUsedShouldBeZeroAfterFullGC();
+        youngGenUsedShouldBeZeroAfterFullGC(from);
     }
 }
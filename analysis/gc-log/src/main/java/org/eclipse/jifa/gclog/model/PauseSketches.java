@@ -0,0 +1,151 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.gclog.model;
+
+import org.eclipse.jifa.gclog.event.GCEvent;
+import org.eclipse.jifa.gclog.util.DoubleData;
+import org.eclipse.jifa.gclog.util.QuantileSketch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pauses of consecutive gc events grouped into buckets, each summarized by a quantile sketch, so that the pause
+ * statistics of a large time range merge a few sketches instead of sorting all pauses.
+ * <p>
+ * Every {@link #FANOUT} buckets of a level are merged into one bucket of the next level, so a range of any length
+ * merges at most 2 * FANOUT buckets per level.
+ * <p>
+ * Buckets hold a fixed number of events rather than a fixed length of time, so that the events on both edges of a
+ * time range, which are added one by one, are bounded whatever the density of the log.
+ */
+final class PauseSketches {
+
+    static final int BUCKET_SIZE = 1024;
+
+    // ranges with fewer events are calculated exactly
+    static final int MIN_EVENTS_TO_ESTIMATE = 8 * BUCKET_SIZE;
+
+    static final int FANOUT = 16;
+
+    // bucket i of level 0 covers gcEvents [i * BUCKET_SIZE, (i + 1) * BUCKET_SIZE),
+    // bucket i of level k covers buckets [i * FANOUT, (i + 1) * FANOUT) of level k - 1
+    private final DoubleData[][] levels;
+
+    private PauseSketches(DoubleData[][] levels) {
+        this.levels = levels;
+    }
+
+    static PauseSketches build(List<GCEvent> gcEvents) {
+        return build(gcEvents, null, 0);
+    }
+
+    /**
+     * @param gcEvents  gc events of the model, ordered by start time
+     * @param unchanged the number of the first events whose pauses are the same as when these sketches were built
+     * @return sketches of the events, which share the buckets of unchanged events with these sketches
+     */
+    PauseSketches extend(List<GCEvent> gcEvents, int unchanged) {
+        return build(gcEvents, this, unchanged);
+    }
+
+    private static PauseSketches build(List<GCEvent> gcEvents, PauseSketches previous, int unchanged) {
+        List<DoubleData[]> levels = new ArrayList<>();
+        // buckets covering unchanged events only are full in the previous sketches, so they are taken from them
+        int reused = previous != null ? unchanged / BUCKET_SIZE : 0;
+        DoubleData[] buckets = new DoubleData[(gcEvents.size() + BUCKET_SIZE - 1) / BUCKET_SIZE];
+        for (int i = 0; i < buckets.length; i++) {
+            if (i < reused) {
+                buckets[i] = previous.levels[0][i];
+                continue;
+            }
+            buckets[i] = newData();
+            addPauses(gcEvents, i * BUCKET_SIZE, Math.min(gcEvents.size(), (i + 1) * BUCKET_SIZE), buckets[i]);
+        }
+        levels.add(buckets);
+        while (buckets.length >= FANOUT) {
+            int level = levels.size();
+            reused = previous != null && level < previous.levels.length ? reused / FANOUT : 0;
+            DoubleData[] upper = new DoubleData[buckets.length / FANOUT];
+            for (int i = 0; i < upper.length; i++) {
+                if (i < reused) {
+                    upper[i] = previous.levels[level][i];
+                    continue;
+                }
+                upper[i] = newData();
+                mergeBuckets(buckets, i * FANOUT, (i + 1) * FANOUT, upper[i]);
+            }
+            levels.add(upper);
+            buckets = upper;
+        }
+        return new PauseSketches(levels.toArray(new DoubleData[0][]));
+    }
+
+    long footprint() {
+        // sketches of pauses from microseconds to minutes have hundreds of buckets at most
+        long buckets = 0;
+        for (DoubleData[] level : levels) {
+            buckets += level.length;
+        }
+        return buckets * 2048L;
+    }
+
+    /**
+     * @param gcEvents gc events of the model, ordered by start time
+     * @param from     index of the first event in the range
+     * @param to       index after the last event in the range
+     * @return pauses of the events, whose percentiles are estimated
+     */
+    DoubleData query(List<GCEvent> gcEvents, int from, int to) {
+        DoubleData result = newData();
+        int firstBucket = (from + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        int lastBucket = to / BUCKET_SIZE;
+        if (firstBucket >= lastBucket) {
+            addPauses(gcEvents, from, to, result);
+            return result;
+        }
+        addPauses(gcEvents, from, firstBucket * BUCKET_SIZE, result);
+        addPauses(gcEvents, lastBucket * BUCKET_SIZE, to, result);
+        from = firstBucket;
+        to = lastBucket;
+        for (int level = 0; from < to; level++) {
+            int upperFrom = (from + FANOUT - 1) / FANOUT;
+            int upperTo = to / FANOUT;
+            if (level == levels.length - 1 || upperFrom >= upperTo) {
+                mergeBuckets(levels[level], from, to, result);
+                break;
+            }
+            mergeBuckets(levels[level], from, upperFrom * FANOUT, result);
+            mergeBuckets(levels[level], upperTo * FANOUT, to, result);
+            from = upperFrom;
+            to = upperTo;
+        }
+        return result;
+    }
+
+    private static void mergeBuckets(DoubleData[] buckets, int from, int to, DoubleData result) {
+        for (int i = from; i < to; i++) {
+            result.merge(buckets[i]);
+        }
+    }
+
+    private static DoubleData newData() {
+        return DoubleData.withSketch(QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    private static void addPauses(List<GCEvent> gcEvents, int from, int to, DoubleData data) {
+        for (int i = from; i < to; i++) {
+            gcEvents.get(i).pauseEventOrPhasesDo(event -> data.add(event.getPause()));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.gclog.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Multi-resolution aggregation of the points of a time graph, so that a graph of any time span is answered with a
+ * bounded number of points.
+ * <p>
+ * Each level groups points into buckets of a fixed length of time, see {@link #RESOLUTIONS}, and keeps the min, max,
+ * average and last value of each non-empty bucket. Every level is built from the previous one.
+ */
+final class TimeGraphPyramid {
+
+    // in ms: 1s, 10s, 1min, 10min, 1h, 6h, 1d
+    static final long[] RESOLUTIONS = {1000, 10_000, 60_000, 600_000, 3_600_000, 21_600_000, 86_400_000};
+
+    private final List<Object[]> points;
+
+    // value of a bucket is its last value rather than its max, e.g. for capacity that changes like steps
+    private final boolean useLast;
+
+    private final boolean integral;
+
+    private final Level[] levels = new Level[RESOLUTIONS.length];
+
+    /**
+     * @param points  points of the graph ordered by time, each is an array of time in ms and value
+     * @param useLast whether the value of a bucket is its last value instead of its max value
+     */
+    TimeGraphPyramid(List<Object[]> points, boolean useLast) {
+        this.points = points;
+        this.useLast = useLast;
+        integral = !points.isEmpty() && points.get(0)[1] instanceof Long;
+        levels[0] = new Level(points, RESOLUTIONS[0]);
+        for (int i = 1; i < levels.length; i++) {
+            levels[i] = new Level(levels[i - 1], RESOLUTIONS[i]);
+        }
+    }
+
+    /**
+     * @param maxPoints the max number of points expected
+     * @return all points if there are not more than maxPoints, otherwise one point per bucket of the finest level
+     * whose buckets are not more than maxPoints (or of the coarsest level). A bucket point is an array of the start
+     * time of the bucket, the value (see {@link #useLast}), min, max and average.
+     */
+    List<Object[]> query(int maxPoints) {
+        if (points.size() <= maxPoints) {
+            return points;
+        }
+        Level level = levels[levels.length - 1];
+        for (Level l : levels) {
+            if (l.size <= maxPoints) {
+                level = l;
+                break;
+            }
+        }
+        List<Object[]> result = new ArrayList<>(level.size);
+        for (int i = 0; i < level.size; i++) {
+            double value = useLast ? level.last[i] : level.max[i];
+            result.add(new Object[]{level.time[i], number(value), number(level.min[i]), number(level.max[i]),
+                    level.sum[i] / level.count[i]});
+        }
+        return result;
+    }
+
+    private Object number(double value) {
+        return integral ? (Object) (long) value : (Object) value;
+    }
+
+    private static class Level {
+
+        private int size;
+
+        private long[] time;
+
+        private double[] min;
+
+        private double[] max;
+
+        private double[] sum;
+
+        private long[] count;
+
+        private double[] last;
+
+        // there are not more buckets than the points or buckets of the lower level
+        private Level(int capacity) {
+            resize(Math.max(capacity, 1));
+        }
+
+        Level(List<Object[]> points, long resolution) {
+            this(points.size());
+            for (Object[] point : points) {
+                double value = ((Number) point[1]).doubleValue();
+                add(bucketOf((long) point[0], resolution), value, value, value, 1, value);
+            }
+            trim();
+        }
+
+        Level(Level lower, long resolution) {
+            this(lower.size);
+            for (int i = 0; i < lower.size; i++) {
+                add(bucketOf(lower.time[i], resolution), lower.min[i], lower.max[i], lower.sum[i], lower.count[i],
+                    lower.last[i]);
+            }
+            trim();
+        }
+
+        private static long bucketOf(long time, long resolution) {
+            return Math.floorDiv(time, resolution) * resolution;
+        }
+
+        // buckets are added in the order of time
+        private void add(long bucket, double min, double max, double sum, long count, double last) {
+            if (size > 0 && time[size - 1] == bucket) {
+                int i = size - 1;
+                this.min[i] = Math.min(this.min[i], min);
+                this.max[i] = Math.max(this.max[i], max);
+                this.sum[i] += sum;
+                this.count[i] += count;
+                this.last[i] = last;
+                return;
+            }
+            if (size == time.length) {
+                resize(size * 2);
+            }
+            time[size] = bucket;
+            this.min[size] = min;
+            this.max[size] = max;
+            this.sum[size] = sum;
+            this.count[size] = count;
+            this.last[size] = last;
+            size++;
+        }
+
+        private void trim() {
+            if (size < time.length) {
+                resize(size);
+            }
+        }
+
+        private void resize(int length) {
+            if (time == null) {
+                time = new long[length];
+                min = new double[length];
+                max = new double[length];
+                sum = new double[length];
+                count = new long[length];
+                last = new double[length];
+                return;
+            }
+            time = Arrays.copyOf(time, length);
+            min = Arrays.copyOf(min, length);
+            max = Arrays.copyOf(max, length);
+            sum = Arrays.copyOf(sum, length);
+            count = Arrays.copyOf(count, length);
+            last = Arrays.copyOf(last, length);
+        }
+    }
+}
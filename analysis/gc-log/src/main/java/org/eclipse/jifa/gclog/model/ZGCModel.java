@@ -45,6 +45,8 @@ public class ZGCModel extends GCModel {
     private List<ZStatistics> statistics = new ArrayList<>();
     private List<GCEvent> allocationStalls = new ArrayList<>();
     private long recommendMaxHeapSize = UNKNOWN_INT;
+    // whether lines of statistics were parsed when there was no statistics, see dependsOn
+    private boolean statisticsMissed = false;
 
 
     private static GCCollectorType collector = GCCollectorType.ZGC;
@@ -54,6 +56,36 @@ public class ZGCModel extends GCModel {
         this.setMetaspaceCapacityReliable(true);
     }
 
+    @Override
+    protected void appendFrom(GCModel base, GCModel parsed, boolean last) {
+        super.appendFrom(base, parsed, last);
+        ZGCModel zBase = (ZGCModel) base;
+        ZGCModel zParsed = (ZGCModel) parsed;
+        statistics = new ArrayList<>(zBase.statistics);
+        // lines of the last statistics may still be parsed
+        int parsedStatistics = last ? zParsed.statistics.size() : zParsed.statistics.size() - 1;
+        for (int i = statistics.size(); i < parsedStatistics; i++) {
+            statistics.add(new ZStatistics(zParsed.statistics.get(i)));
+        }
+        allocationStalls = new ArrayList<>(zBase.allocationStalls);
+        for (int i = allocationStalls.size(); i < zParsed.allocationStalls.size(); i++) {
+            allocationStalls.add(zParsed.allocationStalls.get(i).copy());
+        }
+    }
+
+    @Override
+    public boolean dependsOn(GCModel earlier) {
+        return super.dependsOn(earlier) || statisticsMissed && !((ZGCModel) earlier).statistics.isEmpty();
+    }
+
+    @Override
+    public void appendPart(GCModel part) {
+        super.appendPart(part);
+        ZGCModel zPart = (ZGCModel) part;
+        statistics.addAll(zPart.statistics);
+        allocationStalls.addAll(zPart.allocationStalls);
+    }
+
     private static List<GCEventType> allEventTypes = GCModel.calcAllEventTypes(collector);
     private static List<GCEventType> pauseEventTypes = GCModel.calcPauseEventTypes(collector);
     private static List<GCEventType> mainPauseEventTypes = GCModel.calcMainPauseEventTypes(collector);
@@ -100,6 +132,15 @@ public class ZGCModel extends GCModel {
         return statistics;
     }
 
+    // the statistics being parsed, null if the log is incomplete
+    public ZStatistics getLastStatistics() {
+        if (statistics.isEmpty()) {
+            statisticsMissed = true;
+            return null;
+        }
+        return statistics.get(statistics.size() - 1);
+    }
+
     @Override
     public long getRecommendMaxHeapSize() {
         if (recommendMaxHeapSize == UNKNOWN_INT && !statistics.isEmpty()) {
@@ -134,6 +175,11 @@ public class ZGCModel extends GCModel {
     public static class ZStatistics extends TimedEvent {
         private Map<String, ZStatisticsItem> items = new HashMap<>();
 
+        private ZStatistics(ZStatistics other) {
+            super(other);
+            items = new HashMap<>(other.items);
+        }
+
         public ZStatisticsItem get(String key) {
             return items.getOrDefault(key, null);
         }
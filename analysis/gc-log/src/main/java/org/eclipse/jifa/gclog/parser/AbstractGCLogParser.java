@@ -43,24 +43,44 @@ public abstract class AbstractGCLogParser implements GCLogParser {
 
     // for the sake of performance, will try to use less regular expression
     public final GCModel parse(BufferedReader br) throws Exception {
-        model = GCModelFactory.getModel(metadata.getCollector());
-        model.setLogStyle(metadata.getStyle());
+        beginParsing();
         String line;
         while ((line = br.readLine()) != null) {
-            try {
-                if (line.length() > 0) {
-                    doParseLine(line);
-                }
-            } catch (Exception e) {
-                log.debug("fail to parse \"{}\", {}", line, e.getMessage());
-            }
+            parseLine(line);
+        }
+        return finishParsing();
+    }
+
+    public final GCModel parse(List<String> lines) {
+        beginParsing();
+        for (String line : lines) {
+            parseLine(line);
         }
+        return finishParsing();
+    }
+
+    // also used to parse lines appended to a log, see IncrementalGCLogAnalyzer
+    final void parseLine(String line) {
         try {
-            endParsing();
+            if (line.length() > 0) {
+                doParseLine(line);
+            }
         } catch (Exception e) {
             log.debug("fail to parse \"{}\", {}", line, e.getMessage());
         }
+    }
 
+    protected final void beginParsing() {
+        model = GCModelFactory.getModel(metadata.getCollector());
+        model.setLogStyle(metadata.getStyle());
+    }
+
+    protected final GCModel finishParsing() {
+        try {
+            endParsing();
+        } catch (Exception e) {
+            log.debug("fail to end parsing, {}", e.getMessage());
+        }
         return model;
     }
 
@@ -70,14 +90,9 @@ public abstract class AbstractGCLogParser implements GCLogParser {
     }
 
     // return true if text can be parsed by any rule
-    // order of rules matters
-    protected boolean doParseUsingRules(AbstractGCLogParser parser, ParseRuleContext context, String text, List<ParseRule> rules) {
-        for (ParseRule rule : rules) {
-            if (rule.doParse(parser, context, text)) {
-                return true;
-            }
-        }
-        return false;
+    // order of rules matters, rules are compiled to skip those that can't parse the text
+    protected boolean doParseUsingRules(AbstractGCLogParser parser, ParseRuleContext context, String text, CompiledParseRules rules) {
+        return rules.doParse(parser, context, text);
     }
 
     // Total time for which application threads were stopped: 0.0001215 seconds, Stopping threads took: 0.0000271 seconds
@@ -13,25 +13,30 @@
 
 package org.eclipse.jifa.gclog.parser;
 
-import com.google.common.collect.Sets;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jifa.common.util.ExecutorFactory;
 import org.eclipse.jifa.gclog.model.GCModel;
 import org.eclipse.jifa.gclog.util.Constant;
-import org.eclipse.jifa.gclog.util.GCLogUtil;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import static org.eclipse.jifa.gclog.parser.ParseRule.ParseRuleContext.UPTIME;
 
 /*
  * Currently, we only consider -Xlog:gc*=info. We will continue support for cases in the future.
  */
+@Slf4j
 public abstract class AbstractUnifiedGCLogParser extends AbstractGCLogParser {
     private static List<ParseRule> withoutGCIDRules;
     private static List<ParseRule> withGCIDRules;
@@ -57,142 +62,243 @@ public abstract class AbstractUnifiedGCLogParser extends AbstractGCLogParser {
         // subclass will add more rules
     }
 
+    // reused by lines parsed serially
+    private final UnifiedLogLine logLine = new UnifiedLogLine();
+
     @Override
     protected final void doParseLine(String line) {
-        JDK11LogLine logLine = parseJDK11LogLine(line);
-        if (logLine == null || !logLine.isValid()) {
-            return;
+        if (logLine.decode(line)) {
+            doParseLogLine(logLine);
         }
-        doBeforeParsingLine(logLine);
-        if (logLine.getGcid() == Constant.UNKNOWN_INT) {
-            doParseLineWithoutGCID(logLine.getDetail(), logLine.getUptime());
-        } else {
-            // in jdk11 gcid is always logged
-            doParseLineWithGCID(logLine.getDetail(), logLine.getGcid(), logLine.getUptime());
+    }
+
+    /**
+     * Parse a log file with multiple threads. The result is the same as {@link #parse(BufferedReader)} with a reader
+     * of the default charset.
+     * <p>
+     * The file is read in chunks split at line boundaries, which are decoded concurrently. The lines are then split
+     * into parts at GC id boundaries: a part begins at a line whose GC id is greater than the ones of all lines before
+     * it and not greater than the ones of the following lines in its chunk, so that a GC, as well as a concurrent
+     * cycle with the GCs during it, is rarely split. The parts are parsed concurrently by parsers of their own, and
+     * their events are appended to the model in the order of the file. A part is parsed again after the parts before
+     * it if its lines refer to events of those parts, e.g. an event that is not found in the part is found there,
+     * see {@link GCModel#dependsOn(GCModel)}.
+     * The file is parsed serially if the default charset doesn't allow splitting it at line feed bytes.
+     *
+     * @param file        the log file
+     * @param parallelism the number of parsing threads
+     * @param chunkSize   the approximate size of chunks in bytes
+     * @return the model
+     */
+    public final GCModel parse(File file, int parallelism, int chunkSize) throws Exception {
+        Charset charset = Charset.defaultCharset();
+        if (!ChunkedLineReader.supports(charset)) {
+            try (BufferedReader br = new BufferedReader(new FileReader(file, charset))) {
+                return parse(br);
+            }
         }
+        beginParsing();
+        ForkJoinPool pool = ExecutorFactory.newForkJoinPool("GC Log Parser", parallelism);
+        try {
+            PartParser parts = new PartParser(pool, parallelism);
+            ChunkedLineReader.read(file.toPath(), charset, pool, parallelism, chunkSize, ChunkDecoder::new,
+                                   parts::addChunk);
+            parts.finish();
+        } finally {
+            pool.shutdownNow();
+        }
+        return finishParsing();
     }
 
-    protected abstract void doParseLineWithGCID(String detail, int gcid, double uptime);
+    /**
+     * @return a new parser of the same kind, which parses a part of the log, see {@link #parse(File, int, int)}
+     */
+    protected abstract AbstractUnifiedGCLogParser newParser();
 
-    protected abstract void doParseLineWithoutGCID(String detail, double uptime);
+    // decodes the lines of a chunk in a decoding thread
+    private static class ChunkDecoder implements ChunkedLineReader.LineDecoder<UnifiedLogLine> {
 
-    private void doBeforeParsingLine(JDK11LogLine logLine) {
-        double uptime = logLine.getUptime();
-        GCModel model = getModel();
-        // set model reference timestamp
-        if (model.getReferenceTimestamp() == Constant.UNKNOWN_LONG && logLine.getTimestamp() != Constant.UNKNOWN_LONG) {
-            double startTimestamp = uptime == Constant.UNKNOWN_DOUBLE ? logLine.getTimestamp()
-                    : logLine.getTimestamp() - uptime;
-            model.setReferenceTimestamp(startTimestamp);
-        }
-        // set event start time
-        if (logLine.getUptime() == Constant.UNKNOWN_DOUBLE) {
-            logLine.setUptime(logLine.getTimestamp() - model.getReferenceTimestamp());
+        // reused until a line is valid
+        private UnifiedLogLine logLine = new UnifiedLogLine();
+
+        @Override
+        public UnifiedLogLine decode(CharSequence chunk, int from, int to) {
+            try {
+                if (!logLine.decode(chunk, from, to)) {
+                    return null;
+                }
+                if (logLine.getUptime() == Constant.UNKNOWN_DOUBLE) {
+                    // parse the timestamp ahead, it is needed to compute the uptime
+                    logLine.getTimestamp();
+                }
+                logLine.getDetail();
+            } catch (Exception e) {
+                log.debug("fail to parse \"{}\", {}", chunk.subSequence(from, to), e.getMessage());
+                return null;
+            }
+            UnifiedLogLine decoded = logLine;
+            logLine = new UnifiedLogLine();
+            return decoded;
         }
-        // set model start and end time
-        if (model.getStartTime() == Constant.UNKNOWN_DOUBLE) {
-            model.setStartTime(uptime);
+    }
+
+    // lines of a part of the log, and the model they are parsed into
+    private static class Part {
+        // reference timestamp after the lines before the part
+        private final double referenceTimestamp;
+        private final List<List<UnifiedLogLine>> lines = new ArrayList<>();
+        private Future<GCModel> model;
+
+        Part(double referenceTimestamp) {
+            this.referenceTimestamp = referenceTimestamp;
         }
-        model.setEndTime(Math.max(uptime, model.getEndTime()));
     }
 
-    @Data
-    @AllArgsConstructor
-    @NoArgsConstructor
-    private static class JDK11LogLine {
-        private String timestampString = null;
-        private long timestamp = Constant.UNKNOWN_LONG;
-        private double uptime = Constant.UNKNOWN_DOUBLE;
-        private String loglevel;
-        private List<String> tags;
-        private int gcid = Constant.UNKNOWN_INT;
-        private String detail;
-
-        // parsing timestamp is expensive, do it lazily
-        public long getTimestamp() {
-            if (timestamp == Constant.UNKNOWN_LONG && timestampString != null) {
-                timestamp = GCLogUtil.parseDateStamp(timestampString);
+    // splits the decoded chunks into parts, which are parsed concurrently and appended to the model in order
+    private class PartParser {
+        private final ExecutorService executor;
+        private final int maxParsingParts;
+        private final Deque<Part> parsing = new ArrayDeque<>();
+        private Part current;
+        // of the lines added to parts so far
+        private int maxGcid = Constant.UNKNOWN_INT;
+        private double referenceTimestamp = Constant.UNKNOWN_DOUBLE;
+
+        PartParser(ExecutorService executor, int maxParsingParts) {
+            this.executor = executor;
+            this.maxParsingParts = maxParsingParts;
+        }
+
+        void addChunk(List<UnifiedLogLine> lines) throws IOException, InterruptedException {
+            int split = current == null ? 0 : firstLineOfPart(lines);
+            add(lines.subList(0, split));
+            if (split < lines.size()) {
+                if (current != null) {
+                    parse(current);
+                }
+                current = new Part(referenceTimestamp);
+                add(lines.subList(split, lines.size()));
             }
-            return timestamp;
         }
 
-        public boolean isValid() {
-            if (timestamp == Constant.UNKNOWN_LONG && timestampString == null
-                    && getUptime() == Constant.UNKNOWN_DOUBLE) { // need at least one
-                return false;
+        void finish() throws IOException, InterruptedException {
+            if (current != null) {
+                parse(current);
+                current = null;
             }
-            if (getLoglevel() != null && !"info".equals(getLoglevel())) { // parse info level only now
-                return false;
+            while (!parsing.isEmpty()) {
+                append(parsing.poll());
             }
-            if (getTags() != null && !getTags().contains("gc")) { // need gc tag
-                return false;
+        }
+
+        // the first line a part may begin with, or the size of the lines if none
+        private int firstLineOfPart(List<UnifiedLogLine> lines) {
+            int[] minGcids = new int[lines.size() + 1];
+            minGcids[lines.size()] = Integer.MAX_VALUE;
+            for (int i = lines.size() - 1; i >= 0; i--) {
+                int gcid = lines.get(i).getGcid();
+                minGcids[i] = gcid == Constant.UNKNOWN_INT ? minGcids[i + 1] : Math.min(gcid, minGcids[i + 1]);
             }
-            return true;
+            int max = maxGcid;
+            for (int i = 0; i < lines.size(); i++) {
+                int gcid = lines.get(i).getGcid();
+                if (gcid == Constant.UNKNOWN_INT) {
+                    continue;
+                }
+                if (max < minGcids[i]) {
+                    return i;
+                }
+                max = Math.max(max, gcid);
+            }
+            return lines.size();
         }
-    }
 
-    /**
-     * [2021-05-06T11:25:16.508+0800][2021-05-06T03:25:16.508+0000][0.202s][1620271516508ms][202ms][1489353078113131ns][201765461ns][B-K0S4ML7L-0237.local][45473][14083][info][gc,start     ] GC(0) Pause Young (Normal) (G1 Evacuation Pause)
-     * A line in log may have multiple optimal decorations and some of them are redundant.
-     * timestamp: [2021-05-06T11:25:16.508+0800][2021-05-06T03:25:16.508+0000][1620271516508ms][1489353078113131ns][201765461ns]
-     * uptime: [0.202s][202ms]
-     * logLevel: info
-     * tags: gc,start
-     * detail: GC(0) Pause Young (Normal) (G1 Evacuation Pause)
-     * Either timestamp or uptime is necessary. Detail is necessary.
-     * Other decorations are useless to us.
-     * see https://docs.oracle.com/javase/9/tools/java.htm#JSWOR-GUID-9569449C-525F-4474-972C-4C1F63D5C357    Decorations chapter
-     */
-    private JDK11LogLine parseJDK11LogLine(String line) {
-        if (StringUtils.isBlank(line)) {
-            return null;
-        }
-        JDK11LogLine logLine = new JDK11LogLine();
-        int leftBracketIndex = line.indexOf('[');
-        int rightBracketIndex = -1;
-        while (leftBracketIndex != -1) {
-            rightBracketIndex = line.indexOf(']', leftBracketIndex + 1);
-            String decoration = line.substring(leftBracketIndex + 1, rightBracketIndex).trim();
-            parseDecoration(logLine, decoration);
-            leftBracketIndex = line.indexOf('[', rightBracketIndex + 1);
-        }
-        String remains = line.substring(rightBracketIndex + 1).trim();
-        if (remains.startsWith("GC(")) {
-            int right = remains.indexOf(')');
-            logLine.setGcid(Integer.parseInt(remains.substring(3, right)));
-            logLine.setDetail(remains.substring(right + 2));
-        } else {
-            logLine.setDetail(remains);
+        private void add(List<UnifiedLogLine> lines) {
+            if (lines.isEmpty()) {
+                return;
+            }
+            current.lines.add(lines);
+            for (UnifiedLogLine logLine : lines) {
+                maxGcid = Math.max(maxGcid, logLine.getGcid());
+                if (referenceTimestamp == Constant.UNKNOWN_DOUBLE) {
+                    referenceTimestamp = referenceTimestamp(logLine);
+                }
+            }
+        }
+
+        private void parse(Part part) throws IOException, InterruptedException {
+            part.model = executor.submit(() -> {
+                AbstractUnifiedGCLogParser parser = newParser();
+                parser.setMetadata(getMetadata());
+                parser.beginParsing();
+                GCModel model = parser.getModel();
+                model.setPart();
+                model.setReferenceTimestamp(part.referenceTimestamp);
+                part.lines.forEach(lines -> lines.forEach(parser::parseLogLine));
+                return model;
+            });
+            parsing.add(part);
+            while (parsing.size() > maxParsingParts) {
+                append(parsing.poll());
+            }
         }
-        return logLine;
-    }
 
-    // parse and fill a decoration
-    // return false if there is no need to continue parsing other info
-    private static final double TEN_YEAR_MILLISECOND = 10 * 365.25 * 24 * 60 * 60 * 1000;
-
-    private void parseDecoration(JDK11LogLine logLine, String decoration) {
-        if (GCLogUtil.isDatestamp(decoration)) {
-            logLine.setTimestampString(decoration);
-        } else if (Character.isDigit(decoration.charAt(0)) && decoration.endsWith("s")) {
-            double period = GCLogUtil.toMillisecond(decoration);
-            // this may be either a timestamp or an uptime. we have no way to know which.
-            // just assume period longer than 10 years as timestamp
-            if (period > TEN_YEAR_MILLISECOND) {
-                logLine.setTimestamp((long) period);
+        private void append(Part part) throws IOException, InterruptedException {
+            GCModel model = ChunkedLineReader.get(part.model);
+            if (model.dependsOn(getModel())) {
+                // parse it after the parts before it
+                part.lines.forEach(lines -> lines.forEach(AbstractUnifiedGCLogParser.this::parseLogLine));
             } else {
-                logLine.setUptime(period);
+                getModel().appendPart(model);
             }
-        } else if (isLoglevel(decoration)) {
-            logLine.setLoglevel(decoration);
-        } else if (decoration.contains("gc")) {
-            logLine.setTags(Arrays.asList(decoration.trim().split(",")));
         }
     }
 
-    private final static Set<String> LOG_LEVEL_SET = Sets.newHashSet("error", "warning", "info", "debug", "trace");
+    private void parseLogLine(UnifiedLogLine logLine) {
+        try {
+            doParseLogLine(logLine);
+        } catch (Exception e) {
+            log.debug("fail to parse \"{}\", {}", logLine.getDetail(), e.getMessage());
+        }
+    }
+
+    private void doParseLogLine(UnifiedLogLine logLine) {
+        double uptime = doBeforeParsingLine(logLine);
+        if (logLine.getGcid() == Constant.UNKNOWN_INT) {
+            doParseLineWithoutGCID(logLine.getDetail(), uptime);
+        } else {
+            // in jdk11 gcid is always logged
+            doParseLineWithGCID(logLine.getDetail(), logLine.getGcid(), uptime);
+        }
+    }
+
+    protected abstract void doParseLineWithGCID(String detail, int gcid, double uptime);
 
-    private boolean isLoglevel(String decoration) {
-        return LOG_LEVEL_SET.contains(decoration);
+    protected abstract void doParseLineWithoutGCID(String detail, double uptime);
+
+    // returns the uptime of the line, which is computed from its timestamp if not logged
+    private double doBeforeParsingLine(UnifiedLogLine logLine) {
+        double uptime = logLine.getUptime();
+        GCModel model = getModel();
+        // set model reference timestamp
+        if (model.getReferenceTimestamp() == Constant.UNKNOWN_LONG && logLine.getTimestamp() != Constant.UNKNOWN_LONG) {
+            model.setReferenceTimestamp(referenceTimestamp(logLine));
+        }
+        // set model start and end time
+        if (model.getStartTime() == Constant.UNKNOWN_DOUBLE) {
+            model.setStartTime(uptime);
+        }
+        model.setEndTime(Math.max(uptime, model.getEndTime()));
+        // event start time
+        return uptime == Constant.UNKNOWN_DOUBLE ? logLine.getTimestamp() - model.getReferenceTimestamp() : uptime;
+    }
+
+    // the reference timestamp of the model if it's decided by the line
+    private static double referenceTimestamp(UnifiedLogLine logLine) {
+        if (logLine.getTimestamp() == Constant.UNKNOWN_LONG) {
+            return Constant.UNKNOWN_DOUBLE;
+        }
+        return logLine.getUptime() == Constant.UNKNOWN_DOUBLE ? logLine.getTimestamp()
+                : logLine.getTimestamp() - logLine.getUptime();
     }
 }
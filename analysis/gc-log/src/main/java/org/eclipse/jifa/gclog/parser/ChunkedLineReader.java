@@ -0,0 +1,175 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.gclog.parser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Reads the lines of a file in memory-mapped chunks decoded by multiple threads, and passes the decoded lines of
+ * each chunk to a single consumer in the order of the file.
+ * <p>
+ * Chunks are split right after line feeds, and lines are terminated as by {@link BufferedReader#readLine()}, so
+ * the lines are the same as the ones read by a {@link BufferedReader} of the same charset. This requires a charset
+ * in which a line feed byte is never a part of another character, see {@link #supports(Charset)}.
+ */
+class ChunkedLineReader {
+
+    private static final int SCAN_BUFFER_SIZE = 8192;
+
+    static boolean supports(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) ||
+               charset.equals(StandardCharsets.ISO_8859_1) ||
+               charset.equals(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Decodes the lines of a chunk in a decoding thread. Lines are passed as ranges of the characters of the chunk, so
+     * no string is created for a line unless the decoder needs one.
+     */
+    interface LineDecoder<T> {
+
+        /**
+         * @param chunk the characters of the chunk, which are never changed
+         * @param from  the start of the line
+         * @param to    the end of the line, exclusive of the line terminator
+         * @return the decoded line, or null to drop it
+         */
+        T decode(CharSequence chunk, int from, int to);
+    }
+
+    interface ChunkConsumer<T> {
+
+        /**
+         * @param lines the decoded lines of a chunk
+         */
+        void accept(List<T> lines) throws IOException, InterruptedException;
+    }
+
+    /**
+     * @param file        the file
+     * @param charset     the charset of the file
+     * @param executor    decodes the chunks, the consumer may submit its own tasks to it
+     * @param chunksAhead the number of chunks decoded ahead of the consumer
+     * @param chunkSize   the approximate size of chunks in bytes
+     * @param decoders    creates a decoder for each chunk
+     * @param consumer    consumes the decoded lines of each chunk in the thread calling this method
+     */
+    static <T> void read(Path file, Charset charset, ExecutorService executor, int chunksAhead, int chunkSize,
+                         Supplier<? extends LineDecoder<T>> decoders, ChunkConsumer<T> consumer)
+            throws IOException, InterruptedException {
+        if (!supports(charset)) {
+            throw new IllegalArgumentException("Unsupported charset: " + charset);
+        }
+        Deque<Future<List<T>>> pending = new ArrayDeque<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size || !pending.isEmpty()) {
+                while (position < size && pending.size() < chunksAhead) {
+                    long end = chunkEnd(channel, position, chunkSize, size);
+                    ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, end - position);
+                    pending.add(executor.submit(() -> decode(chunk, charset, decoders.get())));
+                    position = end;
+                }
+                consumer.accept(get(pending.poll()));
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * @return the result of a task, rethrowing its unchecked exception or error as is
+     */
+    static <V> V get(Future<V> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    // the position right after the first line feed from the nominal end of the chunk, or the end of the file
+    private static long chunkEnd(FileChannel channel, long position, int chunkSize, long size) throws IOException {
+        long end = position + chunkSize;
+        if (end >= size) {
+            return size;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long limit = Math.min(size, position + Integer.MAX_VALUE);
+        for (long scan = end - 1; scan < limit; ) {
+            buffer.clear();
+            int read = channel.read(buffer, scan);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return Math.min(scan + i + 1, limit);
+                }
+            }
+            scan += read;
+        }
+        return limit;
+    }
+
+    private static <T> List<T> decode(ByteBuffer chunk, Charset charset, LineDecoder<T> decoder) {
+        CharBuffer chars = charset.decode(chunk);
+        int length = chars.remaining();
+        List<T> lines = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = chars.get(i);
+            if (c == '\n' || c == '\r') {
+                add(lines, decoder.decode(chars, start, i));
+                if (c == '\r' && i + 1 < length && chars.get(i + 1) == '\n') {
+                    i++;
+                }
+                start = i + 1;
+            }
+        }
+        if (start < length) {
+            add(lines, decoder.decode(chars, start, length));
+        }
+        return lines;
+    }
+
+    private static <T> void add(List<T> lines, T decoded) {
+        if (decoded != null) {
+            lines.add(decoded);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.gclog.parser;
+
+import org.eclipse.jifa.gclog.parser.ParseRule.FixedContentParseRule;
+import org.eclipse.jifa.gclog.parser.ParseRule.ParseRuleContext;
+import org.eclipse.jifa.gclog.parser.ParseRule.PrefixAndValueParseRule;
+import org.eclipse.jifa.gclog.parser.ParseRule.RegexParseRules;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A list of rules compiled for dispatching, with the same result as trying the rules one by one in order.
+ * <p>
+ * Rules with a literal guard, i.e. the prefix of {@link PrefixAndValueParseRule}, the content of
+ * {@link FixedContentParseRule} and the literal prefix of the pattern of {@link RegexParseRules}, are put into a trie
+ * of their guards. Each node of the trie knows, in order, the rules that may accept a text reaching the node: rules
+ * without a guard, and rules whose guard is the path to the node or a prefix of it. So a text only walks the trie
+ * along its first characters, and then tries the few rules that may accept it.
+ */
+final class CompiledParseRules {
+
+    private static final String REGEX_META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final ParseRule[] rules;
+
+    private final Node root;
+
+    private CompiledParseRules(ParseRule[] rules, Node root) {
+        this.rules = rules;
+        this.root = root;
+    }
+
+    static CompiledParseRules compile(List<ParseRule> rules) {
+        ParseRule[] array = rules.toArray(new ParseRule[0]);
+        Builder root = new Builder();
+        for (int i = 0; i < array.length; i++) {
+            ParseRule rule = array[i];
+            if (rule instanceof PrefixAndValueParseRule prefixRule) {
+                root.put(prefixRule.getPrefix()).prefixRules.add(i);
+            } else if (rule instanceof FixedContentParseRule fixedRule) {
+                root.put(fixedRule.getContent()).contentRules.add(i);
+            } else if (rule instanceof RegexParseRules regexRule) {
+                root.put(literalPrefix(regexRule.getPattern().pattern())).prefixRules.add(i);
+            } else {
+                root.prefixRules.add(i);
+            }
+        }
+        return new CompiledParseRules(array, root.build(new TreeSet<>()));
+    }
+
+    /**
+     * @return true if any rule can parse the text, see {@link AbstractGCLogParser#doParseUsingRules}
+     */
+    boolean doParse(AbstractGCLogParser parser, ParseRuleContext context, String text) {
+        for (int candidate : candidates(text)) {
+            if (rules[candidate].doParse(parser, context, text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return indexes of the rules that may accept the text, in order
+     */
+    int[] candidates(String text) {
+        Node node = root;
+        int length = text.length();
+        int depth = 0;
+        while (depth < length) {
+            Node child = node.child(text.charAt(depth));
+            if (child == null) {
+                break;
+            }
+            node = child;
+            depth++;
+        }
+        return depth == length ? node.exactCandidates : node.candidates;
+    }
+
+    List<ParseRule> rules() {
+        return List.of(rules);
+    }
+
+    // literal characters that every text matching the pattern starts with
+    static String literalPrefix(String pattern) {
+        if (pattern.indexOf('|') >= 0) {
+            // an alternative may start with anything
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (REGEX_META_CHARACTERS.indexOf(c) >= 0) {
+                // the last literal character may be optional or repeated, e.g. "ab?" or "ab{0,2}"
+                if ((c == '?' || c == '*' || c == '{') && sb.length() > 0) {
+                    sb.setLength(sb.length() - 1);
+                }
+                break;
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static final class Node {
+
+        // sorted
+        private final char[] keys;
+
+        private final Node[] children;
+
+        // rules that may accept a text that passes this node
+        private final int[] candidates;
+
+        // rules that may accept a text that ends at this node
+        private final int[] exactCandidates;
+
+        Node(char[] keys, Node[] children, int[] candidates, int[] exactCandidates) {
+            this.keys = keys;
+            this.children = children;
+            this.candidates = candidates;
+            this.exactCandidates = exactCandidates;
+        }
+
+        Node child(char c) {
+            int low = 0, high = keys.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < c) {
+                    low = mid + 1;
+                } else if (keys[mid] > c) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Builder {
+
+        private final Map<Character, Builder> children = new TreeMap<>();
+
+        // rules whose guard is a prefix of texts passing this node
+        private final List<Integer> prefixRules = new ArrayList<>();
+
+        // rules whose guard is equal to texts ending at this node
+        private final List<Integer> contentRules = new ArrayList<>();
+
+        Builder put(String key) {
+            Builder node = this;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), ignored -> new Builder());
+            }
+            return node;
+        }
+
+        // inherited: rules that may accept texts passing the parent, in order
+        Node build(TreeSet<Integer> inherited) {
+            TreeSet<Integer> candidates = new TreeSet<>(inherited);
+            candidates.addAll(prefixRules);
+            TreeSet<Integer> exactCandidates = new TreeSet<>(candidates);
+            exactCandidates.addAll(contentRules);
+
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Builder> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().build(candidates);
+                i++;
+            }
+            return new Node(keys, nodes, toArray(candidates), toArray(exactCandidates));
+        }
+
+        private static int[] toArray(TreeSet<Integer> set) {
+            return set.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
@@ -23,17 +23,51 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
 
 @Slf4j
 public class GCLogAnalyzer {
     private final File file;
     private final ProgressListener listener;
+    private final int parallelism;
+    private final boolean columnarStore;
 
     private final int MAX_SINGLE_LINE_LENGTH = 2048; // max length in hotspot
 
+    // unified logs larger than this are parsed in chunks by multiple threads
+    private static final long PARALLEL_PARSING_THRESHOLD = 64 * 1024 * 1024;
+    private static final int CHUNK_SIZE = 8 * 1024 * 1024;
+
     public GCLogAnalyzer(File file, ProgressListener listener) {
+        this(file, Collections.emptyMap(), listener);
+    }
+
+    /**
+     * @param file     the log file
+     * @param options  "parallelism": the number of threads parsing a large unified log, 1 to parse it serially.
+     *                 Default is the number of processors.
+     *                 "columnar": "true" to calculate statistics from a columnar copy of the events, which takes
+     *                 more memory. Default is false. See {@link GCModel#setColumnarStore(boolean)}.
+     * @param listener the progress listener
+     */
+    public GCLogAnalyzer(File file, Map<String, String> options, ProgressListener listener) {
         this.file = file;
         this.listener = listener;
+        columnarStore = options != null && Boolean.parseBoolean(options.get("columnar"));
+        String value = options != null ? options.get("parallelism") : null;
+        if (value == null || value.isBlank()) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        } else {
+            try {
+                parallelism = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                throw new CommonException("Invalid parallelism: " + value);
+            }
+            if (parallelism <= 0) {
+                throw new CommonException("Invalid parallelism: " + value);
+            }
+        }
     }
 
     public GCModel parse() throws Exception {
@@ -61,7 +95,14 @@ public class GCLogAnalyzer {
 
             // read original info from log file
             listener.sendUserMessage(ProgressListener.Level.INFO, "Parsing gc log file.", null);
-            GCModel model = parser.parse(br);
+            GCModel model;
+            if (parser instanceof AbstractUnifiedGCLogParser unified && parallelism > 1 &&
+                file.length() > PARALLEL_PARSING_THRESHOLD) {
+                listener.sendUserMessage(ProgressListener.Level.INFO, "Parsing with " + parallelism + " threads.", null);
+                model = unified.parse(file, parallelism, CHUNK_SIZE);
+            } else {
+                model = parser.parse(br);
+            }
             if (model.isEmpty()) {
                 throw new CommonException("Fail to find any gc event in this log.");
             }
@@ -69,6 +110,7 @@ public class GCLogAnalyzer {
 
             // calculate derived info for query from original info
             listener.sendUserMessage(ProgressListener.Level.INFO, "Calculating information from original data.", null);
+            model.setColumnarStore(columnarStore);
             model.calculateDerivedInfo(listener);
 
             return model;
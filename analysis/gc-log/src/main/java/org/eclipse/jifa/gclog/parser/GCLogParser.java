@@ -16,7 +16,11 @@ package org.eclipse.jifa.gclog.parser;
 import org.eclipse.jifa.gclog.model.GCModel;
 
 import java.io.BufferedReader;
+import java.util.List;
 
 public interface GCLogParser {
     GCModel parse(BufferedReader br) throws Exception;
+
+    // parse lines that are already in memory, without joining and reading them again
+    GCModel parse(List<String> lines);
 }
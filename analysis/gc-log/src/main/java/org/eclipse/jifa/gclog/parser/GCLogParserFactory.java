@@ -20,6 +20,8 @@ import org.eclipse.jifa.gclog.model.modeInfo.GCCollectorType;
 import org.eclipse.jifa.gclog.model.modeInfo.GCLogStyle;
 
 import java.io.BufferedReader;
+import java.util.Iterator;
+import java.util.List;
 
 import static org.eclipse.jifa.gclog.model.modeInfo.GCCollectorType.CMS;
 import static org.eclipse.jifa.gclog.model.modeInfo.GCCollectorType.EPSILON;
@@ -74,19 +76,22 @@ public class GCLogParserFactory {
     };
 
     public GCLogParser getParser(BufferedReader br) {
-        GCLogParsingMetadata metadata = getMetadata(br);
+        // lines are read lazily, so no more than needed are consumed
+        GCLogParsingMetadata metadata = getMetadata(br.lines().iterator());
         return createParser(metadata);
     }
 
-    private GCLogParsingMetadata getMetadata(BufferedReader br) {
+    public GCLogParser getParser(List<String> lines) {
+        GCLogParsingMetadata metadata = getMetadata(lines.iterator());
+        return createParser(metadata);
+    }
+
+    private GCLogParsingMetadata getMetadata(Iterator<String> lines) {
         GCLogParsingMetadata result = new GCLogParsingMetadata(GCCollectorType.UNKNOWN, GCLogStyle.UNKNOWN);
         try {
             complete:
-            for (int i = 0; i < MAX_ATTEMPT_LINE; i++) {
-                String line = br.readLine();
-                if (line == null) {
-                    break;
-                }
+            for (int i = 0; i < MAX_ATTEMPT_LINE && lines.hasNext(); i++) {
+                String line = lines.next();
                 // Don't read this line in case users are using wrong arguments
                 if (line.startsWith("CommandLine flags: ")) {
                     continue;
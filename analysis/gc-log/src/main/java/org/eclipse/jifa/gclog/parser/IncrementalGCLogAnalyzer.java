@@ -0,0 +1,300 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.gclog.parser;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jifa.analysis.listener.ProgressListener;
+import org.eclipse.jifa.common.domain.exception.CommonException;
+import org.eclipse.jifa.gclog.event.GCEvent;
+import org.eclipse.jifa.gclog.model.GCEventType;
+import org.eclipse.jifa.gclog.model.GCModel;
+import org.eclipse.jifa.gclog.model.GCModelFactory;
+import org.eclipse.jifa.gclog.util.Constant;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Analyzes a gc log that is still being written.
+ * <p>
+ * The parser and the model it builds are kept between refreshes, so that only the lines appended since the last
+ * refresh are parsed. Deriving info rewrites events, so derived info is calculated on copies of the parsed events.
+ * Events that are finished are settled: their copies are appended to a model kept between refreshes, see
+ * {@link GCModel#append}, so that their derived and diagnose info is calculated once. Each refresh returns a new
+ * model appending copies of the other events to the settled model. The log is parsed from the beginning again if it
+ * is replaced by another file, e.g. rotated, or if it shrinks, e.g. truncated.
+ * <p>
+ * Pre-unified logs are parsed from the beginning on every refresh, because their parsers may queue lines until
+ * the log ends, see {@link AbstractPreUnifiedGCLogParser#endParsing()}.
+ */
+@Slf4j
+public class IncrementalGCLogAnalyzer {
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    // an unfinished event is settled anyway after so many events, e.g. when the jvm exited during it
+    private static final int MAX_EVENTS_AFTER_UNFINISHED_EVENT = 1024;
+
+    private final File file;
+
+    private final Charset charset = Charset.defaultCharset();
+
+    private final Map<String, String> options;
+
+    // identifies the file, e.g. by its inode, null if the file system doesn't provide it
+    private Object fileKey;
+
+    private AbstractGCLogParser parser;
+
+    // always at the beginning of a line
+    private long offset;
+
+    private long scannedLength;
+
+    // gc events of the parsed model before this index are settled
+    private int settledEvents;
+
+    // model of the settled events, not returned
+    private GCModel settled;
+
+    private GCModel model;
+
+    public IncrementalGCLogAnalyzer(File file) {
+        this(file, Collections.emptyMap());
+    }
+
+    /**
+     * @param file    the log file
+     * @param options the options of {@link GCLogAnalyzer}. "parallelism" and "columnar" only apply when the
+     *                whole log is parsed again because appended lines can't be decoded on their own. Appended
+     *                lines are parsed serially by the kept parser, and the columnar store can't be appended to.
+     */
+    public IncrementalGCLogAnalyzer(File file, Map<String, String> options) {
+        this.file = file;
+        this.options = options != null ? options : Collections.emptyMap();
+    }
+
+    /**
+     * @return true if the log has changed since the last refresh
+     */
+    public synchronized boolean isOutdated() {
+        return model == null || file.length() != scannedLength || !Objects.equals(fileKey(), fileKey);
+    }
+
+    /**
+     * @return bytes retained by the parsed model kept for the next refresh, events of the settled model are shared
+     * with the returned model
+     */
+    public synchronized long footprint() {
+        return parser != null ? parser.getModel().footprint() : 0;
+    }
+
+    /**
+     * @return the model of the last refresh, or null if the log has never been refreshed
+     */
+    public synchronized GCModel getModel() {
+        return model;
+    }
+
+    /**
+     * Parse the complete lines appended since the last refresh, and derive info from the events not settled yet.
+     *
+     * @param listener the progress listener
+     * @return a new model containing all complete lines of the log
+     */
+    public synchronized GCModel refresh(ProgressListener listener) throws Exception {
+        Object key = fileKey();
+        long length = file.length();
+        if (!ChunkedLineReader.supports(charset)) {
+            // appended lines can't be decoded on their own, parse the whole log again
+            GCModel full = new GCLogAnalyzer(file, options, listener).parse();
+            fileKey = key;
+            scannedLength = length;
+            return model = full;
+        }
+        listener.beginTask("Paring " + file.getName(), 1000);
+        if (parser == null || length < offset || !Objects.equals(key, fileKey)) {
+            listener.sendUserMessage(ProgressListener.Level.INFO, "Deciding gc log format.", null);
+            parser = createParser();
+            offset = 0;
+            fileKey = key;
+            settled = null;
+            settledEvents = 0;
+        }
+        listener.worked(100);
+
+        listener.sendUserMessage(ProgressListener.Level.INFO, "Parsing appended gc log lines.", null);
+        long parsed = parseAppendedLines(length);
+        log.debug("parsed {} bytes appended to gclog {}", parsed, file.getName());
+        scannedLength = length;
+        listener.worked(400);
+
+        // pre-unified parsers may queue lines until parsing ends, so that lines appended later may complete the
+        // events parsed before, see AbstractPreUnifiedGCLogParser#endParsing
+        boolean unified = parser instanceof AbstractUnifiedGCLogParser;
+        GCModel parsedModel = unified ? parser.getModel() : parser.finishParsing();
+        if (!unified || parsedModel.isEmpty()) {
+            // parse from the beginning next time, the format may also be decided wrongly with too few lines
+            parser = null;
+        }
+        if (parsedModel.isEmpty()) {
+            throw new CommonException("Fail to find any gc event in this log.");
+        }
+
+        listener.sendUserMessage(ProgressListener.Level.INFO, "Calculating information from original data.", null);
+        if (!unified) {
+            parsedModel.calculateDerivedInfo(listener);
+            return model = parsedModel;
+        }
+        int frontier = settleFrontier(parsedModel.getGcEvents());
+        if (settled == null || frontier > settledEvents) {
+            GCModel base = settled != null ? settled : GCModelFactory.getModel(parsedModel.getCollectorType());
+            GCModel next = base.append(parsedModel, copyEvents(parsedModel, settledEvents, frontier), false);
+            if (next == null) {
+                // derived info of the settled events would change, calculate it again
+                next = GCModelFactory.getModel(parsedModel.getCollectorType())
+                                     .append(parsedModel, copyEvents(parsedModel, 0, frontier), false);
+            }
+            settled = next;
+            settledEvents = frontier;
+        }
+        GCModel result = settled.append(parsedModel, copyEvents(parsedModel, frontier,
+                                                                parsedModel.getGcEvents().size()), true);
+        if (result == null) {
+            result = GCModelFactory.getModel(parsedModel.getCollectorType())
+                                   .append(parsedModel, copyEvents(parsedModel, 0, parsedModel.getGcEvents().size()),
+                                           true);
+        }
+        return model = result;
+    }
+
+    // Events before the returned index won't be changed by lines appended later, and the other events start after
+    // them and their phases, so that they can be appended to the settled model. The last event may still get
+    // lines, an unfinished event may get its end, and a young gc may become a full gc that follows it.
+    private int settleFrontier(List<GCEvent> events) {
+        int last = events.size() - 1;
+        int frontier = settledEvents;
+        double latestStartTime = -Double.MAX_VALUE;
+        for (int i = settledEvents; i < last; i++) {
+            GCEvent event = events.get(i);
+            if (event.getEndTime() == Constant.UNKNOWN_DOUBLE && last - i <= MAX_EVENTS_AFTER_UNFINISHED_EVENT) {
+                break;
+            }
+            latestStartTime = Math.max(latestStartTime, latestStartTime(event));
+            if (latestStartTime <= events.get(i + 1).getStartTime()) {
+                frontier = i + 1;
+            }
+        }
+        if (frontier > settledEvents && events.get(frontier - 1).getEventType() == GCEventType.YOUNG_GC &&
+            events.get(frontier).getEventType() == GCEventType.FULL_GC) {
+            frontier--;
+        }
+        return frontier;
+    }
+
+    private static double latestStartTime(GCEvent event) {
+        double startTime = event.getStartTime();
+        if (event.hasPhases()) {
+            for (GCEvent phase : event.getPhases()) {
+                startTime = Math.max(startTime, latestStartTime(phase));
+            }
+        }
+        return startTime;
+    }
+
+    private static List<GCEvent> copyEvents(GCModel model, int from, int to) {
+        List<GCEvent> events = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            events.add(model.getGcEvents().get(i).copy());
+        }
+        return events;
+    }
+
+    private Object fileKey() {
+        try {
+            return Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private AbstractGCLogParser createParser() throws IOException {
+        try (BufferedReader br = new BufferedReader(new FileReader(file, charset))) {
+            GCLogParser parser = new GCLogParserFactory().getParser(br);
+            if (!(parser instanceof AbstractGCLogParser abstractParser)) {
+                throw new CommonException("Unsupported gc log format: " + file.getName());
+            }
+            abstractParser.beginParsing();
+            return abstractParser;
+        }
+    }
+
+    // lines are split like BufferedReader#readLine, the incomplete last line is left to the next refresh
+    private long parseAppendedLines(long length) throws IOException {
+        long begin = offset;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+            long position = offset;
+            boolean skipLineFeed = false;
+            while (position < length) {
+                buffer.clear();
+                if (length - position < buffer.capacity()) {
+                    buffer.limit((int) (length - position));
+                }
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                byte[] bytes = buffer.array();
+                int from = 0;
+                for (int i = 0; i < read; i++) {
+                    byte b = bytes[i];
+                    if (skipLineFeed) {
+                        skipLineFeed = false;
+                        if (b == '\n') {
+                            from = i + 1;
+                            offset = position + i + 1;
+                            continue;
+                        }
+                    }
+                    if (b == '\n' || b == '\r') {
+                        line.write(bytes, from, i - from);
+                        parser.parseLine(line.toString(charset));
+                        line.reset();
+                        from = i + 1;
+                        offset = position + i + 1;
+                        skipLineFeed = b == '\r';
+                    }
+                }
+                line.write(bytes, from, read - from);
+                position += read;
+            }
+        }
+        return offset - begin;
+    }
+}
@@ -67,6 +67,10 @@ public interface ParseRule {
             this.consumer = consumer;
         }
 
+        String getPrefix() {
+            return prefix;
+        }
+
         @Override
         public boolean doParse(AbstractGCLogParser parser, ParseRuleContext context, String text) {
             if (!text.startsWith(prefix)) {
@@ -86,6 +90,10 @@ public interface ParseRule {
             this.consumer = consumer;
         }
 
+        Pattern getPattern() {
+            return pattern;
+        }
+
         @Override
         public boolean doParse(AbstractGCLogParser parser, ParseRuleContext context, String text) {
             Matcher matcher = pattern.matcher(text);
@@ -106,6 +114,10 @@ public interface ParseRule {
             this.consumer = consumer;
         }
 
+        String getContent() {
+            return content;
+        }
+
         @Override
         public boolean doParse(AbstractGCLogParser parser, ParseRuleContext context, String text) {
             if (!text.equals(content)) {
@@ -89,6 +89,8 @@ public class PreUnifiedG1GCLogParser extends AbstractPreUnifiedGCLogParser {
 
     private static List<ParseRule> fullSentenceRules;
     private static List<ParseRule> gcTraceTimeRules;
+    private static CompiledParseRules compiledFullSentenceRules;
+    private static CompiledParseRules compiledGcTraceTimeRules;
 
     static {
         initializeParseRules();
@@ -134,6 +136,9 @@ public class PreUnifiedG1GCLogParser extends AbstractPreUnifiedGCLogParser {
         gcTraceTimeRules.add(new PrefixAndValueParseRule("GC concurrent-cleanup", PreUnifiedG1GCLogParser::parseConcurrentCyclePhase));
         gcTraceTimeRules.add(new PrefixAndValueParseRule("GC pause", PreUnifiedG1GCLogParser::parseYoungMixedFullGC));
         gcTraceTimeRules.add(new PrefixAndValueParseRule("Full GC", PreUnifiedG1GCLogParser::parseYoungMixedFullGC));
+
+        compiledFullSentenceRules = CompiledParseRules.compile(fullSentenceRules);
+        compiledGcTraceTimeRules = CompiledParseRules.compile(gcTraceTimeRules);
     }
 
     private static void parseParallelWorker(AbstractGCLogParser parser, ParseRuleContext context, String prefix, String value) {
@@ -197,14 +202,14 @@ public class PreUnifiedG1GCLogParser extends AbstractPreUnifiedGCLogParser {
 
     @Override
     protected void doParseFullSentence(String sentence) {
-        doParseUsingRules(this, new ParseRuleContext(), sentence, fullSentenceRules);
+        doParseUsingRules(this, new ParseRuleContext(), sentence, compiledFullSentenceRules);
     }
 
     @Override
     protected void doParseGCTraceTime(GCEvent event, String title) {
         ParseRuleContext context = new ParseRuleContext();
         context.put(EVENT, event);
-        doParseUsingRules(this, context, title, gcTraceTimeRules);
+        doParseUsingRules(this, context, title, compiledGcTraceTimeRules);
     }
 
     //     [Ext Root Scanning (ms): Min: 2.6, Avg: 10.1, Max: 17.9, Diff: 15.2, Sum: 40.4]
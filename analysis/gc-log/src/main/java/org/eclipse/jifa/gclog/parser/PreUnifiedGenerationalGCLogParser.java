@@ -66,6 +66,8 @@ public class PreUnifiedGenerationalGCLogParser extends AbstractPreUnifiedGCLogPa
 
     private static List<ParseRule> fullSentenceRules;
     private static List<ParseRule> gcTraceTimeRules;
+    private static CompiledParseRules compiledFullSentenceRules;
+    private static CompiledParseRules compiledGcTraceTimeRules;
 
     static {
         initializeParseRules();
@@ -96,6 +98,9 @@ public class PreUnifiedGenerationalGCLogParser extends AbstractPreUnifiedGCLogPa
 
         gcTraceTimeRules.add(new PrefixAndValueParseRule("GC", PreUnifiedGenerationalGCLogParser::parseYoungFullGC));
         gcTraceTimeRules.add(new PrefixAndValueParseRule("Full GC", PreUnifiedGenerationalGCLogParser::parseYoungFullGC));
+
+        compiledFullSentenceRules = CompiledParseRules.compile(fullSentenceRules);
+        compiledGcTraceTimeRules = CompiledParseRules.compile(gcTraceTimeRules);
     }
 
     private static void parsePromotionFailed(AbstractGCLogParser parser, ParseRuleContext context, String s, String s1) {
@@ -209,14 +214,14 @@ public class PreUnifiedGenerationalGCLogParser extends AbstractPreUnifiedGCLogPa
 
     @Override
     protected void doParseFullSentence(String sentence) {
-        doParseUsingRules(this, new ParseRuleContext(), sentence, fullSentenceRules);
+        doParseUsingRules(this, new ParseRuleContext(), sentence, compiledFullSentenceRules);
     }
 
     @Override
     protected void doParseGCTraceTime(GCEvent event, String title) {
         ParseRuleContext context = new ParseRuleContext();
         context.put(EVENT, event);
-        doParseUsingRules(this, context, title, gcTraceTimeRules);
+        doParseUsingRules(this, context, title, compiledGcTraceTimeRules);
     }
 
     @Override
@@ -112,6 +112,8 @@ public class UnifiedG1GCLogParser extends UnifiedG1OrGenerationalGCLogParser {
      */
     private static List<ParseRule> withoutGCIDRules;
     private static List<ParseRule> withGCIDRules;
+    private static CompiledParseRules compiledWithoutGCIDRules;
+    private static CompiledParseRules compiledWithGCIDRules;
 
     static {
         initializeParseRules();
@@ -147,16 +149,24 @@ public class UnifiedG1GCLogParser extends UnifiedG1OrGenerationalGCLogParser {
         withGCIDRules.add(new PrefixAndValueParseRule("Phase 4: Compact heap", UnifiedG1OrGenerationalGCLogParser::parsePhase));
         withGCIDRules.add(new PrefixAndValueParseRule("Concurrent Mark Abort", UnifiedG1OrGenerationalGCLogParser::parsePhase));
         withGCIDRules.add(new FixedContentParseRule("To-space exhausted", UnifiedG1GCLogParser::parseToSpaceExhausted));
+
+        compiledWithoutGCIDRules = CompiledParseRules.compile(withoutGCIDRules);
+        compiledWithGCIDRules = CompiledParseRules.compile(withGCIDRules);
+    }
+
+    @Override
+    protected AbstractUnifiedGCLogParser newParser() {
+        return new UnifiedG1GCLogParser();
     }
 
     @Override
-    protected List<ParseRule> getWithoutGCIDRules() {
-        return withoutGCIDRules;
+    protected CompiledParseRules getWithoutGCIDRules() {
+        return compiledWithoutGCIDRules;
     }
 
     @Override
-    protected List<ParseRule> getWithGCIDRules() {
-        return withGCIDRules;
+    protected CompiledParseRules getWithGCIDRules() {
+        return compiledWithGCIDRules;
     }
 
     /*
@@ -73,9 +73,9 @@ public abstract class UnifiedG1OrGenerationalGCLogParser extends AbstractUnified
         // subclass will add more rules
     }
 
-    protected abstract List<ParseRule> getWithoutGCIDRules();
+    protected abstract CompiledParseRules getWithoutGCIDRules();
 
-    protected abstract List<ParseRule> getWithGCIDRules();
+    protected abstract CompiledParseRules getWithGCIDRules();
 
     private static boolean parseCpuTime(AbstractGCLogParser parser, ParseRuleContext context, String text) {
         GCModel model = parser.getModel();
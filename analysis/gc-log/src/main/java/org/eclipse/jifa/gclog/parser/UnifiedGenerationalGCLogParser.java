@@ -119,6 +119,8 @@ public class UnifiedGenerationalGCLogParser extends UnifiedG1OrGenerationalGCLog
      */
     private static List<ParseRule> withoutGCIDRules;
     private static List<ParseRule> withGCIDRules;
+    private static CompiledParseRules compiledWithoutGCIDRules;
+    private static CompiledParseRules compiledWithGCIDRules;
 
     static {
         initializeParseRules();
@@ -145,16 +147,24 @@ public class UnifiedGenerationalGCLogParser extends UnifiedG1OrGenerationalGCLog
         withGCIDRules.add(new ParseRule.PrefixAndValueParseRule("Adjust Roots", UnifiedG1OrGenerationalGCLogParser::parsePhase));
         withGCIDRules.add(new ParseRule.PrefixAndValueParseRule("Compaction Phase", UnifiedG1OrGenerationalGCLogParser::parsePhase));
         withGCIDRules.add(new ParseRule.PrefixAndValueParseRule("Post Compact", UnifiedG1OrGenerationalGCLogParser::parsePhase));
+
+        compiledWithoutGCIDRules = CompiledParseRules.compile(withoutGCIDRules);
+        compiledWithGCIDRules = CompiledParseRules.compile(withGCIDRules);
+    }
+
+    @Override
+    protected AbstractUnifiedGCLogParser newParser() {
+        return new UnifiedGenerationalGCLogParser();
     }
 
     @Override
-    protected List<ParseRule> getWithoutGCIDRules() {
-        return withoutGCIDRules;
+    protected CompiledParseRules getWithoutGCIDRules() {
+        return compiledWithoutGCIDRules;
     }
 
     @Override
-    protected List<ParseRule> getWithGCIDRules() {
-        return withGCIDRules;
+    protected CompiledParseRules getWithGCIDRules() {
+        return compiledWithGCIDRules;
     }
 
     private static void parsePromotionFailed(AbstractGCLogParser parser, ParseRule.ParseRuleContext context) {
@@ -0,0 +1,298 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.gclog.parser;
+
+import org.eclipse.jifa.gclog.util.Constant;
+import org.eclipse.jifa.gclog.util.GCLogUtil;
+
+import java.nio.CharBuffer;
+
+/**
+ * A line of unified jvm logging, decoded in place.
+ * <p>
+ * An instance is meant to be reused for the lines of a log. Decorations are scanned over the characters of the line
+ * without creating substrings, level and tags are interned as ids, and the datestamp and the detail are only
+ * materialized when they are asked for. The characters of the line are referenced until the next one is decoded.
+ * <p>
+ * [2021-05-06T11:25:16.508+0800][2021-05-06T03:25:16.508+0000][0.202s][1620271516508ms][202ms][1489353078113131ns][201765461ns][B-K0S4ML7L-0237.local][45473][14083][info][gc,start     ] GC(0) Pause Young (Normal) (G1 Evacuation Pause)
+ * A line in log may have multiple optimal decorations and some of them are redundant.
+ * timestamp: [2021-05-06T11:25:16.508+0800][2021-05-06T03:25:16.508+0000][1620271516508ms][1489353078113131ns][201765461ns]
+ * uptime: [0.202s][202ms]
+ * logLevel: info
+ * tags: gc,start
+ * detail: GC(0) Pause Young (Normal) (G1 Evacuation Pause)
+ * Either timestamp or uptime is necessary. Detail is necessary.
+ * Other decorations are useless to us.
+ * see https://docs.oracle.com/javase/9/tools/java.htm#JSWOR-GUID-9569449C-525F-4474-972C-4C1F63D5C357    Decorations chapter
+ */
+final class UnifiedLogLine {
+
+    static final String[] LEVELS = {"error", "warning", "info", "debug", "trace"};
+
+    static final int LEVEL_INFO = 2;
+
+    // tags used by gc logging, others are interned as TAG_OTHER
+    static final String[] TAGS = {"gc", "start", "heap", "phases", "cpu", "safepoint", "ref", "age", "task",
+                                  "metaspace", "marking", "init", "ergo", "stats", "cds", "alloc", "region"};
+
+    static final int TAG_GC = 0;
+
+    static final int TAG_OTHER = 63;
+
+    // this may be either a timestamp or an uptime. we have no way to know which.
+    // just assume period longer than 10 years as timestamp
+    private static final double TEN_YEAR_MILLISECOND = 10 * 365.25 * 24 * 60 * 60 * 1000;
+
+    private CharSequence line;
+
+    private long timestamp;
+
+    private int datestampFrom;
+
+    private int datestampTo;
+
+    private double uptime;
+
+    private int level;
+
+    // bits of tag ids, 0 if there is no tag decoration
+    private long tags;
+
+    private int gcid;
+
+    private int detailFrom;
+
+    private int detailTo;
+
+    private String detail;
+
+    /**
+     * @param line the line
+     * @return true if the line is a gc line to parse
+     */
+    boolean decode(CharSequence line) {
+        return decode(line, 0, line.length());
+    }
+
+    /**
+     * Decodes the characters of line in [from, to), the characters must not be changed while this line is used.
+     *
+     * @return true if the line is a gc line to parse
+     * @throws NumberFormatException if a decoration looks like a number but is not
+     */
+    boolean decode(CharSequence line, int from, int to) {
+        this.line = line;
+        timestamp = Constant.UNKNOWN_LONG;
+        datestampFrom = -1;
+        uptime = Constant.UNKNOWN_DOUBLE;
+        level = -1;
+        tags = 0;
+        gcid = Constant.UNKNOWN_INT;
+        detail = null;
+
+        if (isBlank(from, to)) {
+            return false;
+        }
+        // brackets are looked for in the whole line, the detail follows the last one
+        int remainsFrom = from;
+        int left = indexOf('[', from, to);
+        while (left != -1) {
+            int right = indexOf(']', left + 1, to);
+            if (right == -1) {
+                return false;
+            }
+            int decorationTo = trimTo(left + 1, right);
+            if (!decodeDecoration(trimFrom(left + 1, decorationTo), decorationTo)) {
+                return false;
+            }
+            remainsFrom = right + 1;
+            left = indexOf('[', remainsFrom, to);
+        }
+
+        int remainsTo = trimTo(remainsFrom, to);
+        remainsFrom = trimFrom(remainsFrom, remainsTo);
+        if (remainsTo - remainsFrom >= 3 && line.charAt(remainsFrom) == 'G' && line.charAt(remainsFrom + 1) == 'C' &&
+            line.charAt(remainsFrom + 2) == '(') {
+            int right = indexOf(')', remainsFrom + 3, remainsTo);
+            // one character after the gcid is skipped
+            if (right == -1 || right + 2 > remainsTo) {
+                return false;
+            }
+            gcid = parseInt(remainsFrom + 3, right);
+            detailFrom = right + 2;
+        } else {
+            detailFrom = remainsFrom;
+        }
+        detailTo = remainsTo;
+        return isValid();
+    }
+
+    private boolean isValid() {
+        if (timestamp == Constant.UNKNOWN_LONG && datestampFrom < 0
+            && uptime == Constant.UNKNOWN_DOUBLE) { // need at least one
+            return false;
+        }
+        if (level >= 0 && level != LEVEL_INFO) { // parse info level only now
+            return false;
+        }
+        return tags == 0 || hasTag(TAG_GC); // need gc tag
+    }
+
+    // return false if the line should be dropped
+    private boolean decodeDecoration(int from, int to) {
+        if (GCLogUtil.isDatestamp(line, from, to)) {
+            datestampFrom = from;
+            datestampTo = to;
+        } else if (from == to) {
+            return false;
+        } else if (Character.isDigit(line.charAt(from)) && line.charAt(to - 1) == 's') {
+            double period = GCLogUtil.toMillisecond(line, from, to);
+            if (period > TEN_YEAR_MILLISECOND) {
+                timestamp = (long) period;
+            } else {
+                uptime = period;
+            }
+        } else {
+            int id = indexOf(LEVELS, from, to);
+            if (id >= 0) {
+                level = id;
+            } else if (contains('g', 'c', from, to)) {
+                decodeTags(from, to);
+            }
+        }
+        return true;
+    }
+
+    private void decodeTags(int from, int to) {
+        tags = 0;
+        int tagFrom = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || line.charAt(i) == ',') {
+                if (i > tagFrom) {
+                    int id = indexOf(TAGS, tagFrom, i);
+                    tags |= 1L << (id >= 0 ? id : TAG_OTHER);
+                }
+                tagFrom = i + 1;
+            }
+        }
+    }
+
+    boolean hasTag(int id) {
+        return (tags & (1L << id)) != 0;
+    }
+
+    double getUptime() {
+        return uptime;
+    }
+
+    // parsing datestamp is relatively expensive, do it lazily
+    long getTimestamp() {
+        if (timestamp == Constant.UNKNOWN_LONG && datestampFrom >= 0) {
+            timestamp = GCLogUtil.parseDateStamp(line, datestampFrom, datestampTo);
+        }
+        return timestamp;
+    }
+
+    int getGcid() {
+        return gcid;
+    }
+
+    String getDetail() {
+        if (detail == null) {
+            detail = text(detailFrom, detailTo);
+        }
+        return detail;
+    }
+
+    private String text(int from, int to) {
+        if (line instanceof CharBuffer buffer && buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + buffer.position() + from, to - from);
+        }
+        return line.subSequence(from, to).toString();
+    }
+
+    private int parseInt(int from, int to) {
+        int length = to - from;
+        if (length > 0 && length < 10) {
+            int value = 0;
+            for (int i = from; i < to; i++) {
+                char c = line.charAt(i);
+                if (c < '0' || c > '9') {
+                    return Integer.parseInt(text(from, to));
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+        return Integer.parseInt(text(from, to));
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(line.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (line.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean contains(char first, char second, int from, int to) {
+        for (int i = from; i < to - 1; i++) {
+            if (line.charAt(i) == first && line.charAt(i + 1) == second) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int indexOf(String[] candidates, int from, int to) {
+        for (int id = 0; id < candidates.length; id++) {
+            String candidate = candidates[id];
+            if (candidate.length() != to - from) {
+                continue;
+            }
+            int i = 0;
+            while (i < candidate.length() && candidate.charAt(i) == line.charAt(from + i)) {
+                i++;
+            }
+            if (i == candidate.length()) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    // the same as String#trim
+    private int trimFrom(int from, int to) {
+        while (from < to && line.charAt(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private int trimTo(int from, int to) {
+        while (to > from && line.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+}
@@ -163,6 +163,8 @@ public class UnifiedZGCLogParser extends AbstractUnifiedGCLogParser {
     private static List<ParseRule> withGCIDRules;
 
     private static List<ParseRule> withoutGCIDRules;
+    private static CompiledParseRules compiledWithGCIDRules;
+    private static CompiledParseRules compiledWithoutGCIDRules;
 
     static {
         initializeParseRules();
@@ -192,6 +194,14 @@ public class UnifiedZGCLogParser extends AbstractUnifiedGCLogParser {
         withGCIDRules.add(new ParseRule.PrefixAndValueParseRule("Allocated", UnifiedZGCLogParser::parseHeap));
         withGCIDRules.add(new ParseRule.PrefixAndValueParseRule("Reclaimed", UnifiedZGCLogParser::parseHeap));
         withGCIDRules.add(new ParseRule.PrefixAndValueParseRule("Garbage Collection", UnifiedZGCLogParser::parseGarbageCollection));
+
+        compiledWithGCIDRules = CompiledParseRules.compile(withGCIDRules);
+        compiledWithoutGCIDRules = CompiledParseRules.compile(withoutGCIDRules);
+    }
+
+    @Override
+    protected AbstractUnifiedGCLogParser newParser() {
+        return new UnifiedZGCLogParser();
     }
 
     @Override
@@ -199,14 +209,14 @@ public class UnifiedZGCLogParser extends AbstractUnifiedGCLogParser {
         ParseRule.ParseRuleContext context = new ParseRule.ParseRuleContext();
         context.put(UPTIME, uptime);
         context.put(GCID, gcid);
-        doParseUsingRules(this, context, detail, withGCIDRules);
+        doParseUsingRules(this, context, detail, compiledWithGCIDRules);
     }
 
     @Override
     protected void doParseLineWithoutGCID(String detail, double uptime) {
         ParseRule.ParseRuleContext context = new ParseRule.ParseRuleContext();
         context.put(UPTIME, uptime);
-        doParseUsingRules(this, context, detail, withoutGCIDRules);
+        doParseUsingRules(this, context, detail, compiledWithoutGCIDRules);
     }
 
     //  [2021-08-31T08:08:17.471+0800] GC(374) Metaspace: 125M used, 128M capacity, 128M committed, 130M reserved
@@ -365,17 +375,14 @@ public class UnifiedZGCLogParser extends AbstractUnifiedGCLogParser {
             // make unit a part of type name to deduplicate
             String type = text.substring(0, text.indexOf('/') - 1 - tokens[length - 13].length()).trim()
                     + " " + tokens[length - 1];
-            List<ZStatistics> statisticsList = model.getStatistics();
             ZStatistics statistics;
             if ("Collector: Garbage Collection Cycle ms".equals(type)) {
                 statistics = new ZStatistics();
                 statistics.setStartTime(context.get(UPTIME));
-                statisticsList.add(statistics);
-            } else if (statisticsList.isEmpty()) {
+                model.getStatistics().add(statistics);
+            } else if ((statistics = model.getLastStatistics()) == null) {
                 // log is incomplete
                 return true;
-            } else {
-                statistics = statisticsList.get(statisticsList.size() - 1);
             }
             ZGCModel.ZStatisticsItem item = new ZGCModel.ZStatisticsItem(
                     Double.parseDouble(tokens[length - 13]),
@@ -28,6 +28,8 @@ public class DoubleData {
     private double max = -Double.MAX_VALUE;
     private List<Double> originalData;
     private boolean dataSorted;
+    // estimates percentiles without recording all data
+    private QuantileSketch sketch;
 
     public DoubleData(boolean recordOriginalData) {
         // recording all data is expensive, only do it if necessary
@@ -40,11 +42,63 @@ public class DoubleData {
         this(false);
     }
 
+    /**
+     * @param relativeAccuracy the relative error of percentiles, see {@link QuantileSketch}
+     * @return data whose percentiles are estimated by a mergeable sketch rather than sorting all data
+     */
+    public static DoubleData withSketch(double relativeAccuracy) {
+        DoubleData data = new DoubleData(false);
+        data.sketch = new QuantileSketch(relativeAccuracy);
+        return data;
+    }
+
+    /**
+     * Merging a sketch into data with original data converts the data to a sketch with the same accuracy, and
+     * merging original data into a sketch adds the data to the sketch.
+     */
+    public void merge(DoubleData other) {
+        if (other.n == 0) {
+            return;
+        }
+        if (sketch == null && other.sketch != null && (originalData != null || n == 0)) {
+            sketch = new QuantileSketch(other.sketch.getRelativeAccuracy());
+            if (originalData != null) {
+                originalData.forEach(sketch::add);
+                originalData = null;
+            }
+        }
+        if (originalData != null) {
+            // should not merge data without original data into data with it
+            originalData.addAll(other.originalData);
+            dataSorted = false;
+        }
+        if (sketch != null) {
+            if (other.sketch != null) {
+                sketch.merge(other.sketch);
+            } else if (other.originalData != null) {
+                other.originalData.forEach(sketch::add);
+            } else {
+                throw new IllegalArgumentException("Data without original data cannot be merged into a sketch");
+            }
+        }
+        sum += other.sum;
+        n += other.n;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
     public double getMedian() {
         return getPercentile(0.5);
     }
 
     public double getPercentile(double percentile) {
+        if (sketch != null) {
+            if (n == 0) {
+                return UNKNOWN_DOUBLE;
+            }
+            // estimated values are kept within the range of data
+            return Math.max(min, Math.min(max, sketch.getPercentile(percentile)));
+        }
         // should not call this method if originalData is null
         if (originalData.size() == 0) {
             return UNKNOWN_DOUBLE;
@@ -72,6 +126,9 @@ public class DoubleData {
             originalData.add(x);
             dataSorted = false;
         }
+        if (sketch != null) {
+            sketch.add(x);
+        }
         sum += x;
         n++;
         min = Math.min(min, x);
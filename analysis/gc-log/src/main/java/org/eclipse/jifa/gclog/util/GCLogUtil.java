@@ -15,7 +15,10 @@ package org.eclipse.jifa.gclog.util;
 
 import org.eclipse.jifa.gclog.event.eventInfo.CpuTime;
 
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -34,67 +37,143 @@ public class GCLogUtil {
      * do not check format, do not consider b(bit)
      */
     public static long toByte(String sizeString, long divideIfNoUnit) {
-        sizeString = sizeString.toLowerCase();
-        int mid;
-        for (mid = 0; mid < sizeString.length(); mid++) {
-            char c = sizeString.charAt(mid);
-            if (!Character.isDigit(c) && c != '.') {
-                break;
-            }
-        }
+        return toByte(sizeString, 0, sizeString.length(), divideIfNoUnit);
+    }
 
-        double size = Double.parseDouble(sizeString.substring(0, mid));
-        String unit = sizeString.substring(mid).trim();
-        switch (unit) {
-            case "b":
+    public static long toByte(String sizeString) {
+        return toByte(sizeString, BYTE_UNIT_GAP);
+    }
+
+    /**
+     * same as {@link #toByte(String, long)} for the characters of s in [from, to), but creates no substring
+     */
+    public static long toByte(CharSequence s, int from, int to, long divideIfNoUnit) {
+        int mid = numberEnd(s, from, to);
+        double size = parseDecimal(s, from, mid);
+        switch (sizeUnit(s, mid, to)) {
+            case 'b':
                 return (long) size;
-            case "k":
-            case "kb":
+            case 'k':
                 return (long) (size * BYTE_UNIT_GAP);
-            case "m":
-            case "mb":
+            case 'm':
                 return (long) (size * BYTE_UNIT_GAP * BYTE_UNIT_GAP);
-            case "g":
-            case "gb":
+            case 'g':
                 return (long) (size * BYTE_UNIT_GAP * BYTE_UNIT_GAP * BYTE_UNIT_GAP);
-            case "t":
-            case "tb":
+            case 't':
                 return (long) (size * (BYTE_UNIT_GAP * BYTE_UNIT_GAP * BYTE_UNIT_GAP * BYTE_UNIT_GAP));
             default:
                 return (long) (size / divideIfNoUnit);
         }
     }
 
-    public static long toByte(String sizeString) {
-        return toByte(sizeString, BYTE_UNIT_GAP);
-    }
-
     /**
      * find the last time and parse it into time in ms
      * e.g. "123ms" -> 123, "12s" -> 12000
      * do not check format
      */
     public static double toMillisecond(String timeString) {
-        int mid;
-        for (mid = 0; mid < timeString.length(); mid++) {
-            char c = timeString.charAt(mid);
+        return toMillisecond(timeString, 0, timeString.length());
+    }
+
+    /**
+     * same as {@link #toMillisecond(String)} for the characters of s in [from, to), but creates no substring
+     */
+    public static double toMillisecond(CharSequence s, int from, int to) {
+        int mid = numberEnd(s, from, to);
+        double number = parseDecimal(s, from, mid);
+        double unit;
+        if (to - mid == 2 && s.charAt(mid + 1) == 's' && s.charAt(mid) == 'n') {
+            unit = 1 / MS2S / MS2S;
+        } else if (to - mid == 2 && s.charAt(mid + 1) == 's' && s.charAt(mid) == 'm') {
+            unit = 1;
+        } else { // default unit is s
+            unit = MS2S;
+        }
+        return number * unit;
+    }
+
+    private static int numberEnd(CharSequence s, int from, int to) {
+        int end;
+        for (end = from; end < to; end++) {
+            char c = s.charAt(end);
             if (!Character.isDigit(c) && c != '.') {
                 break;
             }
         }
-        double number = Double.parseDouble(timeString.substring(0, mid));
-        double unit;
-        switch (timeString.substring(mid)) {
-            case "ns":
-                unit = 1 / MS2S / MS2S;
-                break;
-            case "ms":
-                unit = 1;
+        return end;
+    }
+
+    // exactly representable as double, so are the powers of ten
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * parse digits and dots the same as Double.parseDouble.
+     * the quotient of an exact mantissa and an exact power of ten is correctly rounded, which covers the numbers in
+     * gc logs, others are handed over to Double.parseDouble
+     */
+    private static double parseDecimal(CharSequence s, int from, int to) {
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        boolean exact = true;
+        for (int i = from; i < to && exact; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+                exact = mantissa <= MAX_EXACT_MANTISSA;
+            } else {
+                exact = c == '.' && scale < 0;
+                scale = 0;
+            }
+        }
+        if (!exact || digits == 0 || scale >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(s.subSequence(from, to).toString());
+        }
+        return scale <= 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+    }
+
+    // "k", "KB" -> 'k', 0 if unknown. the unit is trimmed and case-insensitive
+    private static char sizeUnit(CharSequence s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) >= 0x80) {
+                // let String#toLowerCase decide on non-ascii characters
+                s = s.subSequence(from, to).toString().toLowerCase();
+                from = 0;
+                to = s.length();
                 break;
-            default: // default unit is s
-                unit = MS2S;
+            }
         }
-        return number * unit;
+        while (from < to && s.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && s.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        int length = to - from;
+        if (length == 0 || length > 2) {
+            return 0;
+        }
+        char unit = toLowerCaseAscii(s.charAt(from));
+        if (length == 1 && unit == 'b') {
+            return unit;
+        }
+        if (length == 2 && toLowerCaseAscii(s.charAt(from + 1)) != 'b') {
+            return 0;
+        }
+        return unit == 'k' || unit == 'm' || unit == 'g' || unit == 't' ? unit : 0;
+    }
+
+    private static char toLowerCaseAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
     }
 
     /**
@@ -304,13 +383,122 @@ public class GCLogUtil {
                 text.charAt(index + 19) == '.';
     }
 
+    public static boolean isDatestamp(CharSequence text, int from, int to) {
+        return to - from >= DATESTAMP_LENGTH &&
+                text.charAt(from + 4) == '-' &&
+                text.charAt(from + 7) == '-' &&
+                text.charAt(from + 10) == 'T' &&
+                text.charAt(from + 13) == ':' &&
+                text.charAt(from + 19) == '.';
+    }
+
     public static long parseDateStamp(String text) {
+        return parseDateStamp(text, 0, text.length());
+    }
+
+    /**
+     * parse a datestamp like "2021-11-24T23:23:44.225-0800" into epoch milliseconds.
+     * fields are read at fixed offsets, and the epoch of the hour and offset is cached, so only minutes, seconds and
+     * milliseconds are decoded for most lines. anything unusual is handed over to OffsetDateTime
+     */
+    public static long parseDateStamp(CharSequence text, int from, int to) {
+        if (to - from == DATESTAMP_LENGTH && isDatestamp(text, from, to) && text.charAt(from + 16) == ':') {
+            int minute = parseDigits(text, from + 14, 2);
+            int second = parseDigits(text, from + 17, 2);
+            int millisecond = parseDigits(text, from + 20, 3);
+            if (minute >= 0 && minute < 60 && second >= 0 && second < 60 && millisecond >= 0) {
+                long epochOfHour = epochOfHour(text, from);
+                if (epochOfHour != Long.MIN_VALUE) {
+                    return epochOfHour + (minute * 60L + second) * 1000 + millisecond;
+                }
+            }
+        }
+        return parseDateStampSlowly(text.subSequence(from, to).toString());
+    }
+
+    private static long parseDateStampSlowly(String text) {
         // need an additional ':' so that datetime can be correctly parsed
         text = text.substring(0, text.length() - 2) + ":" + text.substring(text.length() - 2);
         OffsetDateTime odt = OffsetDateTime.parse(text);
         return odt.toInstant().toEpochMilli();
     }
 
+    // shared by decoding threads, entries are immutable
+    private static volatile HourEpoch lastHourEpoch;
+
+    private static final class HourEpoch {
+        // "2021-11-24T23" and "-0800"
+        private final char[] key = new char[13 + 5];
+
+        private final long epochMilli;
+
+        private HourEpoch(CharSequence text, int from, long epochMilli) {
+            for (int i = 0; i < 13; i++) {
+                key[i] = text.charAt(from + i);
+            }
+            for (int i = 0; i < 5; i++) {
+                key[13 + i] = text.charAt(from + 23 + i);
+            }
+            this.epochMilli = epochMilli;
+        }
+
+        private boolean matches(CharSequence text, int from) {
+            for (int i = 0; i < 13; i++) {
+                if (key[i] != text.charAt(from + i)) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < 5; i++) {
+                if (key[13 + i] != text.charAt(from + 23 + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // epoch milliseconds of the hour of a datestamp, Long.MIN_VALUE if any field is invalid
+    private static long epochOfHour(CharSequence text, int from) {
+        HourEpoch hourEpoch = lastHourEpoch;
+        if (hourEpoch != null && hourEpoch.matches(text, from)) {
+            return hourEpoch.epochMilli;
+        }
+        int year = parseDigits(text, from, 4);
+        int month = parseDigits(text, from + 5, 2);
+        int day = parseDigits(text, from + 8, 2);
+        int hour = parseDigits(text, from + 11, 2);
+        char sign = text.charAt(from + 23);
+        int offsetHours = parseDigits(text, from + 24, 2);
+        int offsetMinutes = parseDigits(text, from + 26, 2);
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || (sign != '+' && sign != '-') ||
+            offsetHours < 0 || offsetMinutes < 0) {
+            return Long.MIN_VALUE;
+        }
+        long epochMilli;
+        try {
+            ZoneOffset offset = sign == '+' ? ZoneOffset.ofHoursMinutes(offsetHours, offsetMinutes)
+                                            : ZoneOffset.ofHoursMinutes(-offsetHours, -offsetMinutes);
+            epochMilli = LocalDateTime.of(year, month, day, hour, 0).toEpochSecond(offset) * 1000;
+        } catch (DateTimeException e) {
+            return Long.MIN_VALUE;
+        }
+        lastHourEpoch = new HourEpoch(text, from, epochMilli);
+        return epochMilli;
+    }
+
+    // -1 if any character is not an ascii digit
+    private static int parseDigits(CharSequence text, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
     // check text is a decimal from index and there are digitNumberAfterDot after dot
     // return end index if matching, else -1
     public static int isDecimal(String text, int index, int digitNumberAfterDot) {
@@ -24,6 +24,18 @@ public class LongData {
     private BigInteger sum = BigInteger.ZERO;
     private long min = Integer.MAX_VALUE;
     private long max = Integer.MIN_VALUE;
+    // estimates percentiles, null if they are not needed
+    private QuantileSketch sketch;
+
+    /**
+     * @param relativeAccuracy the relative error of percentiles, see {@link QuantileSketch}
+     * @return data whose percentiles are estimated by a mergeable sketch
+     */
+    public static LongData withSketch(double relativeAccuracy) {
+        LongData data = new LongData();
+        data.sketch = new QuantileSketch(relativeAccuracy);
+        return data;
+    }
 
     public void add(long x) {
         if (x == UNKNOWN_INT) {
@@ -31,10 +43,47 @@ public class LongData {
         }
         sum = sum.add(BigInteger.valueOf(x));
         n++;
+        if (sketch != null) {
+            sketch.add(x);
+        }
         min = Math.min(min, x);
         max = Math.max(max, x);
     }
 
+    /**
+     * Data without a sketch records no values, so it can only be merged into a sketch if it is empty. A sketch merged
+     * into empty data is copied.
+     */
+    public void merge(LongData other) {
+        if (other.n == 0) {
+            return;
+        }
+        if (sketch == null && other.sketch != null && n == 0) {
+            sketch = new QuantileSketch(other.sketch.getRelativeAccuracy());
+        }
+        if (sketch != null) {
+            if (other.sketch == null) {
+                throw new IllegalArgumentException("Data without a sketch cannot be merged into a sketch");
+            }
+            sketch.merge(other.sketch);
+        }
+        sum = sum.add(other.sum);
+        n += other.n;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @param percentile in [0, 1]
+     * @return the estimated percentile, should only be called on data created by {@link #withSketch(double)}
+     */
+    public long getPercentile(double percentile) {
+        if (n == 0) {
+            return UNKNOWN_INT;
+        }
+        return Math.max(min, Math.min(max, Math.round(sketch.getPercentile(percentile))));
+    }
+
     public int getN() {
         return n;
     }
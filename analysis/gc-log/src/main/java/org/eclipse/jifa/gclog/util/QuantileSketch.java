@@ -0,0 +1,157 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.gclog.util;
+
+/**
+ * Mergeable quantile sketch with bounded relative error, in the way of DDSketch.
+ * <p>
+ * A positive value x is counted in bucket ceil(log(x) / log(gamma)), where gamma = (1 + a) / (1 - a) and a is the
+ * relative accuracy, so the estimated value of any bucket is within a of every value counted in it. Values that are
+ * not larger than {@link #MIN_INDEXABLE}, including negative ones, are counted as zero.
+ */
+public class QuantileSketch {
+
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    static final double MIN_INDEXABLE = 1e-9;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final double relativeAccuracy;
+
+    private final double gamma;
+
+    private final double logGamma;
+
+    private long zeroCount;
+
+    // counts[i] is the count of bucket offset + i
+    private long[] counts;
+
+    private int offset;
+
+    private long n;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Invalid relative accuracy: " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        logGamma = Math.log(gamma);
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public long getN() {
+        return n;
+    }
+
+    public void add(double x) {
+        n++;
+        if (!(x > MIN_INDEXABLE)) {
+            zeroCount++;
+            return;
+        }
+        int index = (int) Math.ceil(Math.log(x) / logGamma);
+        ensureCapacity(index, index);
+        counts[index - offset]++;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Can't merge sketches with different relative accuracy");
+        }
+        n += other.n;
+        zeroCount += other.zeroCount;
+        if (other.counts == null) {
+            return;
+        }
+        int from = -1, to = -1;
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] != 0) {
+                if (from < 0) {
+                    from = i;
+                }
+                to = i;
+            }
+        }
+        if (from < 0) {
+            return;
+        }
+        ensureCapacity(other.offset + from, other.offset + to);
+        for (int i = from; i <= to; i++) {
+            counts[other.offset + i - offset] += other.counts[i];
+        }
+    }
+
+    /**
+     * The estimated value of rank floor((n - 1) * percentile), interpolated with the next rank in the same way as
+     * {@link DoubleData#getPercentile(double)}.
+     *
+     * @param percentile in [0, 1]
+     * @return the estimated value, or {@link Constant#UNKNOWN_DOUBLE} if the sketch is empty
+     */
+    public double getPercentile(double percentile) {
+        if (n == 0) {
+            return Constant.UNKNOWN_DOUBLE;
+        }
+        double p = (n - 1) * percentile;
+        long i = (long) Math.floor(p);
+        double weight = p - i;
+        if (weight == 0) {
+            return valueOfRank(i);
+        }
+        return weight * valueOfRank(i + 1) + (1 - weight) * valueOfRank(i);
+    }
+
+    private double valueOfRank(long rank) {
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (rank < seen) {
+                return 2 * Math.pow(gamma, offset + i) / (gamma + 1);
+            }
+        }
+        throw new IllegalStateException("Rank out of range: " + rank);
+    }
+
+    private void ensureCapacity(int from, int to) {
+        if (counts == null) {
+            counts = new long[Math.max(INITIAL_CAPACITY, to - from + 1)];
+            offset = from - (counts.length - (to - from + 1)) / 2;
+            return;
+        }
+        if (from >= offset && to < offset + counts.length) {
+            return;
+        }
+        int newFrom = Math.min(from, offset);
+        int newTo = Math.max(to, offset + counts.length - 1);
+        int length = Math.max(newTo - newFrom + 1, counts.length * 2);
+        // leave room on the side that grew
+        int newOffset = from < offset ? newTo - length + 1 : newFrom;
+        long[] newCounts = new long[length];
+        System.arraycopy(counts, 0, newCounts, offset - newOffset, counts.length);
+        counts = newCounts;
+        offset = newOffset;
+    }
+}
@@ -16,6 +16,7 @@ package org.eclipse.jifa.gclog;
 import org.eclipse.jifa.analysis.listener.DefaultProgressListener;
 import org.eclipse.jifa.gclog.diagnoser.AbnormalType;
 import org.eclipse.jifa.gclog.diagnoser.AnalysisConfig;
+import org.eclipse.jifa.gclog.diagnoser.EventAbnormalDetector;
 import org.eclipse.jifa.gclog.diagnoser.EventAbnormalSet;
 import org.eclipse.jifa.gclog.diagnoser.EventDiagnoseInfo;
 import org.eclipse.jifa.gclog.diagnoser.GlobalDiagnoseInfo;
@@ -29,6 +30,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.eclipse.jifa.gclog.TestUtil.stringToBufferedReader;
@@ -102,6 +104,37 @@ public class TestEventDiagnoser {
         Assertions.assertEquals(hit, 2);
     }
 
+    @Test
+    public void testDiagnoseWithChangedConfig() throws Exception {
+        GCLogParser parser = new GCLogParserFactory().getParser(TestUtil.getGCLog("8CMSParser.log"));
+        GCModel model = parser.parse(TestUtil.getGCLog("8CMSParser.log"));
+        model.calculateDerivedInfo(new DefaultProgressListener());
+        AnalysisConfig config = AnalysisConfig.defaultConfig(model);
+        model.getGlobalDiagnoseInfo(config);
+
+        // abnormals of rules whose thresholds are not changed are taken from the last diagnose info
+        AnalysisConfig changed = AnalysisConfig.defaultConfig(model);
+        changed.setLongPauseThreshold(10);
+        changed.setYoungGCFrequentIntervalThreshold(10000);
+        GlobalDiagnoseInfo diagnose = model.getGlobalDiagnoseInfo(changed);
+
+        GlobalDiagnoseInfo expected = new GlobalDiagnoseInfo(model, changed);
+        new EventAbnormalDetector(model, changed, expected).diagnose();
+        long abnormals = 0;
+        for (GCEvent event : model.getAllEvents()) {
+            Assertions.assertEquals(abnormalTypes(expected.getEventDiagnoseInfo(event).getAbnormals()),
+                                    abnormalTypes(diagnose.getEventDiagnoseInfo(event).getAbnormals()));
+            abnormals += expected.getEventDiagnoseInfo(event).getAbnormals().size();
+        }
+        Assertions.assertTrue(abnormals > 0);
+    }
+
+    private List<AbnormalType> abnormalTypes(EventAbnormalSet abs) {
+        List<AbnormalType> types = new ArrayList<>();
+        abs.iterate(ab -> types.add(ab.getType()));
+        return types;
+    }
+
     private void absContainExactTypes(EventAbnormalSet abs, List<AbnormalType> types) {
         Assertions.assertEquals(abs.size(), types.size());
         for (AbnormalType type : types) {
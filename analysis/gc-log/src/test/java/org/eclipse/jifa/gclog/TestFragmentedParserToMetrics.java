@@ -15,8 +15,10 @@ package org.eclipse.jifa.gclog;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jifa.gclog.fragment.Fragment;
 import org.eclipse.jifa.gclog.fragment.GCLogAnalyzer;
 import org.eclipse.jifa.gclog.fragment.Metric;
+import org.eclipse.jifa.gclog.fragment.MetricBatch;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -80,6 +82,38 @@ public class TestFragmentedParserToMetrics {
                 Assertions.assertEquals(Integer.valueOf(parse(TestUtil.generateShuffledGCLog(gclog), 0, Long.MAX_VALUE).size()), size));
     }
 
+    @Test
+    public void testBatch() {
+        List<String> gclogs = List.of("11G1Parser.log", "8CMSParser.log", "8ParallelGCParser.log", "8CMSCPUTime.log");
+        List<Fragment> fragments = new ArrayList<>();
+        for (String gclog : gclogs) {
+            fragments.add(new Fragment(ImmutableMap.of(INSTANCEIDKEY, gclog), TestUtil.generateShuffledGCLog(gclog)));
+        }
+        // an instance that can't be parsed is skipped
+        fragments.add(new Fragment(ImmutableMap.of(INSTANCEIDKEY, "invalid"), new ArrayList<>(List.of("invalid"))));
+        MetricBatch batch = new GCLogAnalyzer().parseToMetrics(fragments, 0, Long.MAX_VALUE);
+
+        List<Metric> metrics = batch.toMetrics();
+        Assertions.assertEquals(batch.size(), metrics.size());
+        for (String gclog : gclogs) {
+            List<String> expected = parse(TestUtil.generateShuffledGCLog(gclog), 0, Long.MAX_VALUE).stream()
+                    .map(TestFragmentedParserToMetrics::describe).sorted().collect(Collectors.toList());
+            List<String> actual = metrics.stream()
+                    .filter(metric -> metric.getLabel().get(INSTANCEIDKEY).equals(gclog))
+                    .map(TestFragmentedParserToMetrics::describe).sorted().collect(Collectors.toList());
+            Assertions.assertEquals(expected, actual);
+        }
+        Assertions.assertTrue(metrics.stream().noneMatch(metric -> metric.getLabel().get(INSTANCEIDKEY).equals("invalid")));
+        Assertions.assertTrue(batch.getLabels().size() < batch.size());
+    }
+
+    // without the instance id, which differs between the batch and the expected metrics
+    private static String describe(Metric metric) {
+        Map<String, String> label = new TreeMap<>(metric.getLabel());
+        label.remove(INSTANCEIDKEY);
+        return metric.getTimestamp() + " " + metric.getName() + " " + label + " " + metric.getValue();
+    }
+
     @Test
     public void testMetricContent() {
         List<Metric> metrics = parse(TestUtil.generateShuffledGCLog("8CMSCPUTime.log"), 1669618629000L, 1669618630000L);
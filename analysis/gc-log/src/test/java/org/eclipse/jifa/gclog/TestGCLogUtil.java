@@ -13,9 +13,15 @@
 package org.eclipse.jifa.gclog;
 
 import org.eclipse.jifa.gclog.util.DoubleData;
+import org.eclipse.jifa.gclog.util.GCLogUtil;
+import org.eclipse.jifa.gclog.util.LongData;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
 import static org.eclipse.jifa.gclog.util.Constant.EPS;
 
 public class TestGCLogUtil {
@@ -35,4 +41,104 @@ public class TestGCLogUtil {
         Assertions.assertEquals(doubleData.getMin(), 0, EPS);
         Assertions.assertEquals(doubleData.getN(), 5, EPS);
     }
+
+    @Test
+    public void testDoubleDataWithSketch() {
+        DoubleData exact = new DoubleData(true);
+        DoubleData[] parts = {DoubleData.withSketch(0.01), DoubleData.withSketch(0.01)};
+        LongData longData = LongData.withSketch(0.01);
+        Random random = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            double x = i % 10 == 0 ? 0 : Math.exp(random.nextGaussian() * 3);
+            exact.add(x);
+            parts[i % 2].add(x);
+            longData.add(i + 1);
+        }
+        DoubleData merged = DoubleData.withSketch(0.01);
+        merged.merge(parts[0]);
+        merged.merge(parts[1]);
+        Assertions.assertEquals(exact.getN(), merged.getN());
+        Assertions.assertEquals(exact.getSum(), merged.getSum(), 1e-6 * exact.getSum());
+        Assertions.assertEquals(exact.getMax(), merged.getMax());
+        Assertions.assertEquals(0, merged.getMin());
+        for (double percentile : new double[]{0, 0.05, 0.5, 0.99, 0.999, 1}) {
+            double expected = exact.getPercentile(percentile);
+            Assertions.assertEquals(expected, merged.getPercentile(percentile), 0.01 * expected + EPS);
+        }
+        Assertions.assertEquals(5000.5, longData.getPercentile(0.5), 0.01 * 5000.5 + 1);
+        Assertions.assertEquals(10000, longData.getPercentile(1), 0.01 * 10000);
+    }
+
+    @Test
+    public void testMergeDataWithSketch() {
+        DoubleData exact = new DoubleData(true);
+        DoubleData sketch = DoubleData.withSketch(0.01);
+        for (int i = 1; i <= 100; i++) {
+            (i % 2 == 0 ? exact : sketch).add(i);
+        }
+
+        DoubleData merged = new DoubleData(true);
+        merged.merge(exact);
+        merged.merge(sketch);
+        Assertions.assertEquals(100, merged.getN());
+        Assertions.assertEquals(5050, merged.getSum(), EPS);
+        Assertions.assertEquals(50.5, merged.getMedian(), 0.01 * 50.5 + 1);
+        Assertions.assertEquals(100, merged.getPercentile(1), EPS);
+
+        merged = DoubleData.withSketch(0.01);
+        merged.merge(sketch);
+        merged.merge(exact);
+        Assertions.assertEquals(100, merged.getN());
+        Assertions.assertEquals(50.5, merged.getMedian(), 0.01 * 50.5 + 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sketch.merge(doubleDataOf(1)));
+
+        LongData longSketch = LongData.withSketch(0.01);
+        longSketch.add(1);
+        LongData empty = new LongData();
+        empty.merge(longSketch);
+        Assertions.assertEquals(1, empty.getPercentile(0.5));
+        LongData plain = new LongData();
+        plain.add(2);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> longSketch.merge(plain));
+    }
+
+    private static DoubleData doubleDataOf(double x) {
+        DoubleData data = new DoubleData();
+        data.add(x);
+        return data;
+    }
+
+    @Test
+    public void testToByteAndToMillisecond() {
+        Assertions.assertEquals(10485760, GCLogUtil.toByte("10m"));
+        Assertions.assertEquals(113664, GCLogUtil.toByte("111 KB"));
+        Assertions.assertEquals(3, GCLogUtil.toByte("3072", 1024));
+        Assertions.assertEquals(2 * 1024, GCLogUtil.toByte("[2kb]", 1, 4, 1024));
+        Assertions.assertEquals(1536, GCLogUtil.toByte("1.5K"));
+        Assertions.assertThrows(NumberFormatException.class, () -> GCLogUtil.toByte("1.2.3M"));
+
+        Assertions.assertEquals(123, GCLogUtil.toMillisecond("123ms"), EPS);
+        Assertions.assertEquals(12000, GCLogUtil.toMillisecond("12s"), EPS);
+        Assertions.assertEquals(201.765461, GCLogUtil.toMillisecond("201765461ns"), EPS);
+        Assertions.assertEquals(202, GCLogUtil.toMillisecond("[0.202s]", 1, 7), EPS);
+        Assertions.assertEquals(Double.parseDouble("0.1234567890123456789") * 1000,
+                                GCLogUtil.toMillisecond("0.1234567890123456789s"));
+    }
+
+    @Test
+    public void testParseDateStamp() {
+        String[] datestamps = {"2021-11-24T23:23:44.225-0800", "2021-11-24T23:59:59.999-0800",
+                               "2021-11-25T00:00:00.000-0800", "2021-11-25T00:00:00.000+0530",
+                               "2024-02-29T12:00:01.001+0000", "2021-11-24T23:23:44.225-0800"};
+        for (String datestamp : datestamps) {
+            long expected = OffsetDateTime.parse(datestamp.substring(0, 26) + ":" + datestamp.substring(26))
+                                          .toInstant().toEpochMilli();
+            Assertions.assertEquals(expected, GCLogUtil.parseDateStamp(datestamp));
+            Assertions.assertEquals(expected, GCLogUtil.parseDateStamp("[" + datestamp + "]", 1, 29));
+        }
+        Assertions.assertThrows(DateTimeParseException.class,
+                                () -> GCLogUtil.parseDateStamp("2023-02-29T12:00:01.001+0000"));
+        Assertions.assertThrows(DateTimeParseException.class,
+                                () -> GCLogUtil.parseDateStamp("2023-01-01T12:60:01.001+0000"));
+    }
 }
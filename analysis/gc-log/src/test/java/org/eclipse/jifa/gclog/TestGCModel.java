@@ -315,4 +315,72 @@ public class TestGCModel {
         }
         Assertions.fail("should find full gc with Allocation Failure");
     }
+
+    @Test
+    public void testAggregatedTimeGraph() {
+        model.calculateDerivedInfo(new DefaultProgressListener());
+        List<Object[]> heapUsed = model.getTimeGraphData(new String[]{"heapUsed"}).get("heapUsed");
+        Assertions.assertEquals(16, heapUsed.size());
+        Assertions.assertEquals(heapUsed.size(), model.getTimeGraphData(new String[]{"heapUsed"}, 16).get("heapUsed").size());
+
+        // all points are within a minute, so they are aggregated into one bucket
+        List<Object[]> aggregated = model.getTimeGraphData(new String[]{"heapUsed"}, 2).get("heapUsed");
+        Assertions.assertEquals(1, aggregated.size());
+        long max = heapUsed.stream().mapToLong(point -> (long) point[1]).max().getAsLong();
+        long min = heapUsed.stream().mapToLong(point -> (long) point[1]).min().getAsLong();
+        double avg = heapUsed.stream().mapToLong(point -> (long) point[1]).average().getAsDouble();
+        Assertions.assertArrayEquals(new Object[]{0L, max, min, max, avg}, aggregated.get(0));
+
+        // capacity is aggregated as its last value
+        List<Object[]> youngCapacity = model.getTimeGraphData(new String[]{"youngCapacity"}).get("youngCapacity");
+        aggregated = model.getTimeGraphData(new String[]{"youngCapacity"}, 1).get("youngCapacity");
+        Assertions.assertEquals(youngCapacity.get(youngCapacity.size() - 1)[1], aggregated.get(0)[1]);
+    }
+
+    @Test
+    public void testColumnarStore() throws Exception {
+        GCModel objects = model;
+        mockModel();
+        GCModel columnar = model;
+        columnar.setColumnarStore(true);
+        objects.calculateDerivedInfo(new DefaultProgressListener());
+        columnar.calculateDerivedInfo(new DefaultProgressListener());
+        assertSameStatistics(objects, columnar);
+
+        for (String name : new String[]{"8CMSParser.log", "8G1GCParser.log", "11G1Parser.log", "17ZGCParser.log"}) {
+            GCLogParser parser = new GCLogParserFactory().getParser(TestUtil.getGCLog(name));
+            objects = parser.parse(TestUtil.getGCLog(name));
+            columnar = new GCLogParserFactory().getParser(TestUtil.getGCLog(name)).parse(TestUtil.getGCLog(name));
+            columnar.setColumnarStore(true);
+            objects.calculateDerivedInfo(new DefaultProgressListener());
+            columnar.calculateDerivedInfo(new DefaultProgressListener());
+            assertSameStatistics(objects, columnar);
+        }
+    }
+
+    private static void assertSameStatistics(GCModel expected, GCModel actual) {
+        TimeRange[] ranges = {null, new TimeRange(10000, 30000), new TimeRange(500, 33000),
+                new TimeRange(expected.getStartTime(), (expected.getStartTime() + expected.getEndTime()) / 2)};
+        for (TimeRange range : ranges) {
+            Assertions.assertEquals(expected.getPauseStatistics(range), actual.getPauseStatistics(range));
+            Assertions.assertEquals(expected.getMemoryStatistics(range), actual.getMemoryStatistics(range));
+            Assertions.assertEquals(expected.getPhaseStatistics(range), actual.getPhaseStatistics(range));
+            int[] partitions = {0, 10, 100, 1000};
+            Map<String, int[]> distribution = expected.getPauseDistribution(range, partitions);
+            Map<String, int[]> actualDistribution = actual.getPauseDistribution(range, partitions);
+            Assertions.assertEquals(distribution.keySet(), actualDistribution.keySet());
+            distribution.forEach((type, nums) -> Assertions.assertArrayEquals(nums, actualDistribution.get(type)));
+        }
+
+        String[] dataTypes = {"youngCapacity", "oldUsed", "heapUsed", "metaspaceUsed", "reclamation", "promotion",
+                YOUNG_GC.getName(), G1_REMARK.getName()};
+        Map<String, List<Object[]>> graph = expected.getTimeGraphData(dataTypes);
+        Map<String, List<Object[]>> actualGraph = actual.getTimeGraphData(dataTypes);
+        for (String dataType : dataTypes) {
+            Assertions.assertEquals(graph.get(dataType).size(), actualGraph.get(dataType).size(), dataType);
+            for (int i = 0; i < graph.get(dataType).size(); i++) {
+                Assertions.assertArrayEquals(graph.get(dataType).get(i), actualGraph.get(dataType).get(i), dataType);
+            }
+        }
+    }
 }
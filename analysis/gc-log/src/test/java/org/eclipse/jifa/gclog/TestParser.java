@@ -14,6 +14,8 @@
 package org.eclipse.jifa.gclog;
 
 import org.eclipse.jifa.analysis.listener.DefaultProgressListener;
+import org.eclipse.jifa.common.domain.exception.CommonException;
+import org.eclipse.jifa.gclog.diagnoser.AnalysisConfig;
 import org.eclipse.jifa.gclog.event.GCEvent;
 import org.eclipse.jifa.gclog.event.Safepoint;
 import org.eclipse.jifa.gclog.event.ThreadEvent;
@@ -28,9 +30,11 @@ import org.eclipse.jifa.gclog.model.ZGCModel;
 import org.eclipse.jifa.gclog.model.modeInfo.GCCollectorType;
 import org.eclipse.jifa.gclog.model.modeInfo.GCLogMetadata;
 import org.eclipse.jifa.gclog.model.modeInfo.GCLogStyle;
+import org.eclipse.jifa.gclog.parser.AbstractUnifiedGCLogParser;
 import org.eclipse.jifa.gclog.parser.GCLogParser;
 import org.eclipse.jifa.gclog.parser.GCLogParserFactory;
 import org.eclipse.jifa.gclog.parser.GCLogParsingMetadata;
+import org.eclipse.jifa.gclog.parser.IncrementalGCLogAnalyzer;
 import org.eclipse.jifa.gclog.parser.PreUnifiedG1GCLogParser;
 import org.eclipse.jifa.gclog.parser.PreUnifiedGenerationalGCLogParser;
 import org.eclipse.jifa.gclog.parser.UnifiedG1GCLogParser;
@@ -41,7 +45,16 @@ import org.eclipse.jifa.gclog.vo.TimeRange;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 
 import static org.eclipse.jifa.gclog.TestUtil.stringToBufferedReader;
 import static org.eclipse.jifa.gclog.event.eventInfo.GCCause.ALLOCATION_FAILURE;
@@ -54,6 +67,8 @@ import static org.eclipse.jifa.gclog.event.eventInfo.GCCause.METADATA_GENERATION
 import static org.eclipse.jifa.gclog.event.eventInfo.GCCause.PROACTIVE;
 import static org.eclipse.jifa.gclog.event.eventInfo.GCCause.PROMOTION_FAILED;
 import static org.eclipse.jifa.gclog.event.eventInfo.GCCause.WARMUP;
+import static org.eclipse.jifa.gclog.event.eventInfo.GCEventBooleanType.GC_AFTER_REMARK;
+import static org.eclipse.jifa.gclog.event.eventInfo.GCEventBooleanType.GC_AT_END_OF_OLD_CYCLE;
 import static org.eclipse.jifa.gclog.event.eventInfo.GCEventBooleanType.TO_SPACE_EXHAUSTED;
 import static org.eclipse.jifa.gclog.event.eventInfo.GCEventBooleanType.YOUNG_GC_BECOME_FULL_GC;
 import static org.eclipse.jifa.gclog.event.eventInfo.MemoryArea.ARCHIVE;
@@ -1150,4 +1165,279 @@ public class TestParser {
             }
         }
     }
+
+    @Test
+    public void testParallelParsingOfUnifiedLogs() throws Exception {
+        String[] names = {"11CMSGCParser.log", "11CMSPrintGC.log", "11CMSScavengeBeforeRemark.log", "11CMSUpTime.log",
+                "11G1Parser.log", "11G1ParserDetectHeapRegionSize.log", "11G1PrintGC.log", "11G1PrintGC2.log",
+                "11GenerationalGCInterleave.log", "11ParallelGCParser.log", "11SerialGCParser.log", "11ZGCParser.log",
+                "17G1InferRegionSize.log", "17G1Parser.log", "17ParallelGCParser.log", "17SerialGCParser.log",
+                "17ZGCParser.log", "IncompleteGCLog.log"};
+        for (String name : names) {
+            File file = File.createTempFile("gclog", ".log");
+            file.deleteOnExit();
+            try (InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream(name)) {
+                Files.copy(Objects.requireNonNull(is), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            GCModel serial = new GCLogParserFactory().getParser(TestUtil.getGCLog(name)).parse(TestUtil.getGCLog(name));
+            serial.calculateDerivedInfo(new DefaultProgressListener());
+            // tiny chunks, so that gcs are split across chunks and parts begin in most of them
+            for (int chunkSize : new int[]{64, 256, 2048}) {
+                AbstractUnifiedGCLogParser parser =
+                        (AbstractUnifiedGCLogParser) new GCLogParserFactory().getParser(TestUtil.getGCLog(name));
+                GCModel parallel = parser.parse(file, 4, chunkSize);
+                parallel.calculateDerivedInfo(new DefaultProgressListener());
+                assertSameParallelModel(serial, parallel, name + ":" + chunkSize);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelParsingOfLongLog() throws Exception {
+        String log = g1Log(300);
+        File file = File.createTempFile("gclog", ".log");
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), log);
+        GCModel serial = new GCLogParserFactory().getParser(stringToBufferedReader(log)).parse(stringToBufferedReader(log));
+        serial.calculateDerivedInfo(new DefaultProgressListener());
+        for (int chunkSize : new int[]{300, 4096, 65536}) {
+            AbstractUnifiedGCLogParser parser =
+                    (AbstractUnifiedGCLogParser) new GCLogParserFactory().getParser(stringToBufferedReader(log));
+            GCModel parallel = parser.parse(file, 3, chunkSize);
+            parallel.calculateDerivedInfo(new DefaultProgressListener());
+            assertSameParallelModel(serial, parallel, String.valueOf(chunkSize));
+        }
+    }
+
+    private static void assertSameParallelModel(GCModel serial, GCModel parallel, String message) {
+        assertSameModel(serial, parallel, message);
+        Assertions.assertEquals(serial.getOoms().size(), parallel.getOoms().size(), message);
+        Assertions.assertEquals(serial.getReferenceTimestamp(), parallel.getReferenceTimestamp(), message);
+        Assertions.assertEquals(serial.getParallelThread(), parallel.getParallelThread(), message);
+        Assertions.assertEquals(serial.getConcurrentThread(), parallel.getConcurrentThread(), message);
+        if (serial instanceof ZGCModel zSerial) {
+            ZGCModel zParallel = (ZGCModel) parallel;
+            Assertions.assertEquals(zSerial.getStatistics().size(), zParallel.getStatistics().size(), message);
+            for (int i = 0; i < zSerial.getStatistics().size(); i++) {
+                ZGCModel.ZStatistics expected = zSerial.getStatistics().get(i);
+                ZGCModel.ZStatistics actual = zParallel.getStatistics().get(i);
+                Assertions.assertEquals(expected.getStartTime(), actual.getStartTime(), message);
+                Assertions.assertEquals(expected.getStatisticItems(), actual.getStatisticItems(), message);
+            }
+            Assertions.assertEquals(zSerial.getAllocationStalls().toString(), zParallel.getAllocationStalls().toString(),
+                                    message);
+        }
+        if (serial instanceof G1GCModel g1Serial) {
+            Assertions.assertEquals(g1Serial.getHeapRegionSize(), ((G1GCModel) parallel).getHeapRegionSize(), message);
+        }
+    }
+
+    @Test
+    public void testIncrementalParsingOfUnifiedLogs() throws Exception {
+        String[] names = {"11CMSGCParser.log", "11G1Parser.log", "11ZGCParser.log", "17G1Parser.log",
+                "17ParallelGCParser.log", "17ZGCParser.log", "11G1ParserDetectHeapRegionSize.log",
+                "17G1InferRegionSize.log", "11SerialGCParser.log", "8G1GCParser.log", "8CMSParser.log"};
+        for (String name : names) {
+            byte[] bytes;
+            try (InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream(name)) {
+                bytes = Objects.requireNonNull(is).readAllBytes();
+            }
+            File file = File.createTempFile("gclog", ".log");
+            file.deleteOnExit();
+            IncrementalGCLogAnalyzer analyzer = new IncrementalGCLogAnalyzer(file);
+
+            // the log is cut in the middle of a line
+            int cut = bytes.length * 2 / 3;
+            Files.write(file.toPath(), Arrays.copyOf(bytes, cut));
+            analyzer.refresh(new DefaultProgressListener());
+            Assertions.assertFalse(analyzer.isOutdated(), name);
+
+            Files.write(file.toPath(), Arrays.copyOfRange(bytes, cut, bytes.length), StandardOpenOption.APPEND);
+            Assertions.assertTrue(analyzer.isOutdated(), name);
+            GCModel incremental = analyzer.refresh(new DefaultProgressListener());
+
+            GCModel full = new GCLogParserFactory().getParser(TestUtil.getGCLog(name)).parse(TestUtil.getGCLog(name));
+            full.calculateDerivedInfo(new DefaultProgressListener());
+            assertSameModel(full, incremental, name);
+        }
+    }
+
+    @Test
+    public void testIncrementalParsingLineByLine() throws Exception {
+        String[] names = {"11CMSGCParser.log", "11G1Parser.log", "11ZGCParser.log", "17G1Parser.log",
+                "17ParallelGCParser.log", "17ZGCParser.log", "17G1InferRegionSize.log",
+                "11GenerationalGCInterleave.log", "8G1GCParser.log", "8CMSParser.log"};
+        for (String name : names) {
+            byte[] bytes;
+            try (InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream(name)) {
+                bytes = Objects.requireNonNull(is).readAllBytes();
+            }
+            File file = File.createTempFile("gclog", ".log");
+            file.deleteOnExit();
+            IncrementalGCLogAnalyzer analyzer = new IncrementalGCLogAnalyzer(file);
+
+            List<Integer> lineEnds = new ArrayList<>();
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] == '\n' || i == bytes.length - 1) {
+                    lineEnds.add(i + 1);
+                }
+            }
+            // each refresh parses a line, and half of the next one is written, the first lines decide the format
+            int written = 0;
+            for (int i = 0; i < lineEnds.size(); i++) {
+                int end = lineEnds.get(i);
+                int cut = end + ((i + 1 < lineEnds.size() ? lineEnds.get(i + 1) : end) - end) / 2;
+                Files.write(file.toPath(), Arrays.copyOfRange(bytes, written, cut), StandardOpenOption.APPEND);
+                written = cut;
+                if (i < 20) {
+                    continue;
+                }
+
+                String parsed = new String(bytes, 0, end);
+                GCModel full = new GCLogParserFactory().getParser(stringToBufferedReader(parsed))
+                                                       .parse(stringToBufferedReader(parsed));
+                if (full.isEmpty()) {
+                    Assertions.assertThrows(CommonException.class, () -> analyzer.refresh(new DefaultProgressListener()));
+                    continue;
+                }
+                full.calculateDerivedInfo(new DefaultProgressListener());
+                assertSameModel(full, analyzer.refresh(new DefaultProgressListener()), name + ":" + (i + 1));
+            }
+        }
+    }
+
+    @Test
+    public void testIncrementalParsingOfLongLog() throws Exception {
+        // line by line, and in pieces when events are enough for pause sketches
+        for (int cycles : new int[]{12, 1200}) {
+            byte[] bytes = g1Log(cycles).getBytes();
+            File file = File.createTempFile("gclog", ".log");
+            file.deleteOnExit();
+            IncrementalGCLogAnalyzer analyzer = new IncrementalGCLogAnalyzer(file);
+            int pieces = cycles < 100 ? bytes.length / 200 : 6;
+            int written = 0;
+            for (int i = 1; i <= pieces; i++) {
+                int cut = (int) ((long) bytes.length * i / pieces);
+                Files.write(file.toPath(), Arrays.copyOfRange(bytes, written, cut), StandardOpenOption.APPEND);
+                written = cut;
+                int end = cut;
+                while (end > 0 && bytes[end - 1] != '\n') {
+                    end--;
+                }
+                String parsed = new String(bytes, 0, end);
+                GCModel full = new GCLogParserFactory().getParser(stringToBufferedReader(parsed))
+                                                       .parse(stringToBufferedReader(parsed));
+                if (full.isEmpty()) {
+                    Assertions.assertThrows(CommonException.class, () -> analyzer.refresh(new DefaultProgressListener()));
+                    continue;
+                }
+                full.calculateDerivedInfo(new DefaultProgressListener());
+                assertSameModel(full, analyzer.refresh(new DefaultProgressListener()), cycles + ":" + i);
+            }
+        }
+    }
+
+    // a jdk17 g1 log with a concurrent cycle followed by mixed gcs in each cycle
+    private static String g1Log(int cycles) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[0.020s][info][gc] Using G1\n");
+        sb.append("[0.022s][info][gc,init] Heap Region Size: 1M\n");
+        int gcid = 0;
+        double time = 1;
+        for (int i = 0; i < cycles; i++) {
+            g1YoungGC(sb, gcid++, "Normal", time, i);
+            g1YoungGC(sb, gcid++, "Concurrent Start", time + 1, i);
+            int cycle = gcid++;
+            sb.append(String.format(Locale.ROOT, "[%.3fs][info][gc          ] GC(%d) Concurrent Mark Cycle\n", time + 1.1, cycle));
+            sb.append(String.format(Locale.ROOT, "[%.3fs][info][gc,marking  ] GC(%d) Concurrent Mark\n", time + 1.1, cycle));
+            g1YoungGC(sb, gcid++, "Normal", time + 1.2, i);
+            sb.append(String.format(Locale.ROOT, "[%.3fs][info][gc,start    ] GC(%d) Pause Remark\n", time + 1.5, cycle));
+            sb.append(String.format(Locale.ROOT, "[%.3fs][info][gc          ] GC(%d) Pause Remark 82M->65M(100M) 0.341ms\n", time + 1.5, cycle));
+            sb.append(String.format(Locale.ROOT, "[%.3fs][info][gc,marking  ] GC(%d) Concurrent Mark 400.000ms\n", time + 1.5, cycle));
+            sb.append(String.format(Locale.ROOT, "[%.3fs][info][gc,start    ] GC(%d) Pause Cleanup\n", time + 1.6, cycle));
+            sb.append(String.format(Locale.ROOT, "[%.3fs][info][gc          ] GC(%d) Pause Cleanup 65M->65M(100M) 0.056ms\n", time + 1.6, cycle));
+            sb.append(String.format(Locale.ROOT, "[%.3fs][info][gc          ] GC(%d) Concurrent Mark Cycle 500.000ms\n", time + 1.6, cycle));
+            g1YoungGC(sb, gcid++, "Prepare Mixed", time + 2, i);
+            g1YoungGC(sb, gcid++, "Mixed", time + 3, i);
+            g1YoungGC(sb, gcid++, "Mixed", time + 4, i);
+            time += 5;
+        }
+        g1YoungGC(sb, gcid, "Normal", time, cycles);
+        return sb.toString();
+    }
+
+    private static void g1YoungGC(StringBuilder sb, int gcid, String type, double time, int cycle) {
+        double pause = 5 + (gcid % 7) * 80;
+        int old = 20 + cycle % 70;
+        sb.append(String.format(Locale.ROOT, "[%.3fs][info][gc,start    ] GC(%d) Pause Young (%s) (G1 Evacuation Pause)\n", time, gcid, type));
+        double end = time + pause / 1000;
+        sb.append(String.format(Locale.ROOT, "[%.3fs][info][gc,heap     ] GC(%d) Eden regions: 10->0(10)\n", end, gcid));
+        sb.append(String.format(Locale.ROOT, "[%.3fs][info][gc,heap     ] GC(%d) Survivor regions: 1->1(2)\n", end, gcid));
+        sb.append(String.format(Locale.ROOT, "[%.3fs][info][gc,heap     ] GC(%d) Old regions: %d->%d\n", end, gcid, old, old + 1));
+        sb.append(String.format(Locale.ROOT, "[%.3fs][info][gc,heap     ] GC(%d) Humongous regions: 1->1\n", end, gcid));
+        sb.append(String.format(Locale.ROOT, "[%.3fs][info][gc          ] GC(%d) Pause Young (%s) (G1 Evacuation Pause) %dM->%dM(100M) %.3fms\n",
+                                end, gcid, type, old + 12, old + 3, pause));
+        sb.append(String.format(Locale.ROOT, "[%.3fs][info][gc,cpu      ] GC(%d) User=0.03s Sys=0.01s Real=0.02s\n", end, gcid));
+    }
+
+    private static void assertSameModel(GCModel expected, GCModel actual, String message) {
+        Assertions.assertEquals(expected.toDebugString(), actual.toDebugString(), message);
+        Assertions.assertEquals(expected.getAllEvents().size(), actual.getAllEvents().size(), message);
+        Assertions.assertEquals(expected.getGcCollectionEvents().size(), actual.getGcCollectionEvents().size(),
+                                message);
+        Assertions.assertEquals(eventFlags(expected), eventFlags(actual), message);
+        Assertions.assertEquals(expected.getSafepoints().toString(), actual.getSafepoints().toString(), message);
+        Assertions.assertEquals(expected.getStartTime(), actual.getStartTime(), message);
+        Assertions.assertEquals(expected.getEndTime(), actual.getEndTime(), message);
+        Assertions.assertEquals(expected.getGcModelMetadata(), actual.getGcModelMetadata(), message);
+        Assertions.assertEquals(expected.getPauseStatistics(null), actual.getPauseStatistics(null), message);
+        Assertions.assertEquals(expected.getMemoryStatistics(null), actual.getMemoryStatistics(null), message);
+        AnalysisConfig config = AnalysisConfig.defaultConfig(expected);
+        Assertions.assertEquals(expected.getGlobalDiagnoseInfo(config).toDebugString(),
+                                actual.getGlobalDiagnoseInfo(config).toDebugString(), message);
+    }
+
+    private static String eventFlags(GCModel model) {
+        StringBuilder sb = new StringBuilder();
+        for (GCEvent event : model.getAllEvents()) {
+            sb.append(event.getId()).append(event.isTrue(GC_AT_END_OF_OLD_CYCLE) ? "E" : "")
+              .append(event.isTrue(GC_AFTER_REMARK) ? "R" : "").append(',');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testIncrementalParsingOfRotatedLog() throws Exception {
+        byte[] first;
+        byte[] second;
+        try (InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream("11G1Parser.log")) {
+            first = Objects.requireNonNull(is).readAllBytes();
+        }
+        try (InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream("17G1Parser.log")) {
+            second = Objects.requireNonNull(is).readAllBytes();
+        }
+        File file = File.createTempFile("gclog", ".log");
+        file.deleteOnExit();
+        File rotated = File.createTempFile("gclog", ".log");
+        rotated.deleteOnExit();
+        IncrementalGCLogAnalyzer analyzer = new IncrementalGCLogAnalyzer(file);
+
+        Files.write(file.toPath(), first);
+        analyzer.refresh(new DefaultProgressListener());
+
+        // replaced by a file that is not shorter
+        byte[] replacement = Arrays.copyOf(second, Math.max(second.length, first.length));
+        Arrays.fill(replacement, second.length, replacement.length, (byte) '\n');
+        Files.write(rotated.toPath(), replacement);
+        Files.move(rotated.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Assertions.assertTrue(analyzer.isOutdated());
+        GCModel incremental = analyzer.refresh(new DefaultProgressListener());
+
+        GCModel full = new GCLogParserFactory().getParser(TestUtil.getGCLog("17G1Parser.log"))
+                                               .parse(TestUtil.getGCLog("17G1Parser.log"));
+        full.calculateDerivedInfo(new DefaultProgressListener());
+        Assertions.assertEquals(full.toDebugString(), incremental.toDebugString());
+        Assertions.assertTrue(analyzer.footprint() > 0);
+    }
 }
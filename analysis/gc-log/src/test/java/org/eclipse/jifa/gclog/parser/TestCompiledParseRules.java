@@ -0,0 +1,191 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.gclog.parser;
+
+import org.eclipse.jifa.gclog.TestUtil;
+import org.eclipse.jifa.gclog.parser.ParseRule.FixedContentParseRule;
+import org.eclipse.jifa.gclog.parser.ParseRule.ParseRuleContext;
+import org.eclipse.jifa.gclog.parser.ParseRule.PrefixAndValueParseRule;
+import org.eclipse.jifa.gclog.parser.ParseRule.RegexParseRules;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class TestCompiledParseRules {
+
+    private final List<Integer> calls = new ArrayList<>();
+
+    private int checkedTexts;
+
+    private List<ParseRule> rules() {
+        calls.clear();
+        List<ParseRule> rules = new ArrayList<>();
+        // ids of rules are their indexes, each rule records its id when it is applied
+        rules.add(new PrefixAndValueParseRule("Pause Young", (parser, context, prefix, value) -> calls.add(0)));
+        rules.add(new FixedContentParseRule("Pause", (parser, context) -> calls.add(1)));
+        rules.add(new PrefixAndValueParseRule("Pause", (parser, context, prefix, value) -> calls.add(2)));
+        // a matched regex rule doesn't stop the dispatch
+        rules.add(new RegexParseRules("Pause Young \\((\\w+)\\).*", (parser, context, m) -> calls.add(3)));
+        rules.add((parser, context, text) -> text.endsWith("ms") && calls.add(4));
+        // shadowed by rule 0
+        rules.add(new PrefixAndValueParseRule("Pause Young (Normal)", (parser, context, prefix, value) -> calls.add(5)));
+        rules.add(new FixedContentParseRule("Pause Young", (parser, context) -> calls.add(6)));
+        rules.add(new RegexParseRules("P.*", (parser, context, m) -> calls.add(7)));
+        rules.add(new RegexParseRules("Pause Y?oung", (parser, context, m) -> calls.add(8)));
+        rules.add(new RegexParseRules("Other|Pause", (parser, context, m) -> calls.add(9)));
+        rules.add(new PrefixAndValueParseRule("", (parser, context, prefix, value) -> calls.add(10)));
+        return rules;
+    }
+
+    private List<Integer> dispatchSequentially(List<ParseRule> rules, String text) {
+        calls.clear();
+        for (ParseRule rule : rules) {
+            if (rule.doParse(null, new ParseRuleContext(), text)) {
+                break;
+            }
+        }
+        return new ArrayList<>(calls);
+    }
+
+    private List<Integer> dispatchCompiled(CompiledParseRules rules, String text) {
+        calls.clear();
+        rules.doParse(null, new ParseRuleContext(), text);
+        return new ArrayList<>(calls);
+    }
+
+    @Test
+    public void testOverlappingPrefixesAndOrder() {
+        String[] texts = {"", "P", "Pa", "Pause", "Pause ", "Pause Young", "Pause Young (Normal)",
+                          "Pause Young (Normal) 1.2ms", "Pause Young (Mixed)", "Pause oung", "PauseYoung",
+                          "Pause Remark 3ms", "Other", "Other 1ms", "pause"};
+        List<ParseRule> rules = rules();
+        List<ParseRule> reversed = new ArrayList<>(rules);
+        Collections.reverse(reversed);
+        for (List<ParseRule> order : List.of(rules, reversed, rules.subList(1, rules.size()))) {
+            CompiledParseRules compiled = CompiledParseRules.compile(order);
+            for (String text : texts) {
+                Assertions.assertEquals(dispatchSequentially(order, text), dispatchCompiled(compiled, text), text);
+            }
+        }
+    }
+
+    @Test
+    public void testLiteralPrefix() {
+        Assertions.assertEquals("Pause Young ", CompiledParseRules.literalPrefix("Pause Young \\((\\w+)\\).*"));
+        Assertions.assertEquals("Pause ", CompiledParseRules.literalPrefix("Pause Y?oung"));
+        Assertions.assertEquals("Pause", CompiledParseRules.literalPrefix("Pauses*"));
+        Assertions.assertEquals("Paus", CompiledParseRules.literalPrefix("Pause{0,2}"));
+        Assertions.assertEquals("", CompiledParseRules.literalPrefix("Other|Pause"));
+        Assertions.assertEquals("", CompiledParseRules.literalPrefix(".*"));
+    }
+
+    // every rule that may accept the text must be a candidate, and candidates keep the order of rules
+    private void assertSameDispatch(CompiledParseRules compiled, String text) {
+        List<ParseRule> rules = compiled.rules();
+        int[] candidates = compiled.candidates(text);
+        for (int i = 1; i < candidates.length; i++) {
+            Assertions.assertTrue(candidates[i - 1] < candidates[i], text);
+        }
+        for (int i = 0; i < rules.size(); i++) {
+            if (mayAccept(rules.get(i), text)) {
+                Assertions.assertTrue(Arrays.binarySearch(candidates, i) >= 0, "rule " + i + " skipped: " + text);
+            }
+        }
+        checkedTexts++;
+    }
+
+    private static boolean mayAccept(ParseRule rule, String text) {
+        if (rule instanceof PrefixAndValueParseRule prefixRule) {
+            return text.startsWith(prefixRule.getPrefix());
+        }
+        if (rule instanceof FixedContentParseRule fixedRule) {
+            return text.equals(fixedRule.getContent());
+        }
+        if (rule instanceof RegexParseRules regexRule) {
+            return regexRule.getPattern().matcher(text).matches();
+        }
+        // rules without a guard may accept anything
+        return true;
+    }
+
+    private final Map<Class<?>, Supplier<AbstractGCLogParser>> checkingParsers = Map.of(
+        PreUnifiedG1GCLogParser.class, () -> new PreUnifiedG1GCLogParser() {
+            @Override
+            protected boolean doParseUsingRules(AbstractGCLogParser parser, ParseRuleContext context, String text,
+                                                CompiledParseRules rules) {
+                assertSameDispatch(rules, text);
+                return super.doParseUsingRules(parser, context, text, rules);
+            }
+        },
+        PreUnifiedGenerationalGCLogParser.class, () -> new PreUnifiedGenerationalGCLogParser() {
+            @Override
+            protected boolean doParseUsingRules(AbstractGCLogParser parser, ParseRuleContext context, String text,
+                                                CompiledParseRules rules) {
+                assertSameDispatch(rules, text);
+                return super.doParseUsingRules(parser, context, text, rules);
+            }
+        },
+        UnifiedG1GCLogParser.class, () -> new UnifiedG1GCLogParser() {
+            @Override
+            protected boolean doParseUsingRules(AbstractGCLogParser parser, ParseRuleContext context, String text,
+                                                CompiledParseRules rules) {
+                assertSameDispatch(rules, text);
+                return super.doParseUsingRules(parser, context, text, rules);
+            }
+        },
+        UnifiedGenerationalGCLogParser.class, () -> new UnifiedGenerationalGCLogParser() {
+            @Override
+            protected boolean doParseUsingRules(AbstractGCLogParser parser, ParseRuleContext context, String text,
+                                                CompiledParseRules rules) {
+                assertSameDispatch(rules, text);
+                return super.doParseUsingRules(parser, context, text, rules);
+            }
+        },
+        UnifiedZGCLogParser.class, () -> new UnifiedZGCLogParser() {
+            @Override
+            protected boolean doParseUsingRules(AbstractGCLogParser parser, ParseRuleContext context, String text,
+                                                CompiledParseRules rules) {
+                assertSameDispatch(rules, text);
+                return super.doParseUsingRules(parser, context, text, rules);
+            }
+        });
+
+    @Test
+    public void testLogs() throws Exception {
+        String[] logs = {"11CMSGCParser.log", "11CMSPrintGC.log", "11CMSScavengeBeforeRemark.log", "11CMSUpTime.log",
+                         "11G1Parser.log", "11G1ParserDetectHeapRegionSize.log", "11G1PrintGC.log",
+                         "11G1PrintGC2.log", "11GenerationalGCInterleave.log", "11ParallelGCParser.log",
+                         "11SerialGCParser.log", "11ZGCParser.log", "17G1InferRegionSize.log", "17G1Parser.log",
+                         "17ParallelGCParser.log", "17SerialGCParser.log", "17ZGCParser.log", "8CMSCPUTime.log",
+                         "8CMSParser.log", "8CMSPrintGC.log", "8CMSPromotionFailed.log",
+                         "8CMSScavengeBeforeRemark.log", "8ConcurrentPrintDateTimeStamp.log", "8G1GCParser.log",
+                         "8G1GCParserAdaptiveSize.log", "8G1LogConcurrencyProblem.log", "8G1PrintGC.log",
+                         "8GenerationalGCInterleave.log", "8ParallelGCParser.log", "8SerialGCParser.log",
+                         "IncompleteGCLog.log"};
+        for (String log : logs) {
+            AbstractGCLogParser detected =
+                (AbstractGCLogParser) new GCLogParserFactory().getParser(TestUtil.getGCLog(log));
+            AbstractGCLogParser parser = checkingParsers.get(detected.getClass()).get();
+            parser.setMetadata(detected.getMetadata());
+            int before = checkedTexts;
+            parser.parse(TestUtil.getGCLog(log));
+            Assertions.assertTrue(checkedTexts > before, log);
+        }
+    }
+}
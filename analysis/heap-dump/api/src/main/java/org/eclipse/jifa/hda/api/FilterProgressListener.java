@@ -44,6 +44,16 @@ public class FilterProgressListener implements ProgressListener {
         listener.sendUserMessage(level, message, throwable);
     }
 
+    @Override
+    public void cancel() {
+        listener.cancel();
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return listener.isCanceled();
+    }
+
     @Override
     public void reset() {
         listener.reset();
@@ -12,20 +12,25 @@
  ********************************************************************************/
 package org.eclipse.jifa.hda.api;
 
+import org.eclipse.jifa.analysis.Measurable;
+import org.eclipse.jifa.analysis.Progress;
 import org.eclipse.jifa.analysis.annotation.ApiMeta;
 import org.eclipse.jifa.analysis.annotation.ApiParameterMeta;
 import org.eclipse.jifa.analysis.annotation.Exclude;
+import org.eclipse.jifa.analysis.cache.Persistent;
 import org.eclipse.jifa.analysis.listener.ProgressListener;
 import org.eclipse.jifa.common.domain.vo.PageView;
 
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import static org.eclipse.jifa.hda.api.Model.ClassLoader;
 import static org.eclipse.jifa.hda.api.Model.*;
 
-public interface HeapDumpAnalyzer {
+public interface HeapDumpAnalyzer extends Measurable {
 
     @Exclude
     void dispose();
@@ -36,6 +41,7 @@ public interface HeapDumpAnalyzer {
 
     Map<String, String> getEnvVariables();
 
+    @Persistent
     List<Overview.BigObject> getBiggestObjects();
 
     @ApiMeta(aliases = "object")
@@ -56,12 +62,15 @@ public interface HeapDumpAnalyzer {
     @ApiMeta(aliases = "inspector.value")
     String getObjectValue(int objectId);
 
+    @Persistent
     @ApiMeta(aliases = "classLoaderExplorer.summary")
     ClassLoader.Summary getSummaryOfClassLoaders();
 
+    @Persistent
     @ApiMeta(aliases = "classLoaderExplorer.classLoader")
     PageView<ClassLoader.Item> getClassLoaders(int page, int pageSize);
 
+    @Persistent
     @ApiMeta(aliases = "classLoaderExplorer.children")
     PageView<ClassLoader.Item> getChildrenOfClassLoader(int classLoaderId,
                                                         int page, int pageSize);
@@ -84,14 +93,17 @@ public interface HeapDumpAnalyzer {
     @ApiMeta(aliases = "inbounds")
     PageView<JavaObject> getInboundOfObject(int objectId, int page, int pageSize);
 
+    @Persistent
     List<GCRoot.Item> getGCRoots();
 
     @ApiMeta(aliases = "findStrings")
     PageView<TheString.Item> getStrings(String pattern, int page, int pageSize);
 
+    @Persistent
     @ApiMeta(aliases = "GCRoots.classes")
     PageView<GCRoot.Item> getClassesOfGCRoot(int rootTypeIndex, int page, int pageSize);
 
+    @Persistent
     @ApiMeta(aliases = "GCRoots.class.objects")
     PageView<JavaObject> getObjectsOfGCRoot(int rootTypeIndex, int classIndex, int page, int pageSize);
 
@@ -111,6 +123,18 @@ public interface HeapDumpAnalyzer {
 
     PageView<Comparison.Item> getItemsOfComparison(@ApiParameterMeta(comparisonTargetPath = true) Path other, int page, int pageSize);
 
+    /**
+     * @param baselines the baselines in chronological order, the analysis target is the latest one
+     */
+    Comparison.Summary getSummaryOfSeriesComparison(@ApiParameterMeta(comparisonTargetPath = true) List<Path> baselines);
+
+    /**
+     * @param baselines   the baselines in chronological order, the analysis target is the latest one
+     * @param growingOnly only the classes whose shallow size keeps growing across the series
+     */
+    PageView<Comparison.SeriesItem> getItemsOfSeriesComparison(@ApiParameterMeta(comparisonTargetPath = true) List<Path> baselines,
+                                                               boolean growingOnly, int page, int pageSize);
+
     @ApiMeta(aliases = "mergePathToGCRoots.roots.byClassId")
     PageView<GCRootPath.MergePathToGCRootsTreeNode> getRootsOfMergePathToGCRootsByClassId(int classId,
                                                                                           GCRootPath.Grouping grouping,
@@ -133,8 +157,18 @@ public interface HeapDumpAnalyzer {
                                                                                                GCRootPath.Grouping grouping,
                                                                                                int page, int pageSize);
 
-    GCRootPath.Item getPathToGCRoots(int objectId, int skip, int count);
-
+    /**
+     * @param objectId the object id
+     * @param cursor   the cursor returned by the previous page, which continues the paths computed by that page
+     *                 instead of computing the skipped paths again
+     * @param skip     the number of paths to skip, i.e. the number of paths already returned
+     * @param count    the max number of paths to return
+     * @return the paths
+     */
+    GCRootPath.Item getPathToGCRoots(int objectId, @ApiParameterMeta(required = false) String cursor,
+                                     int skip, int count);
+
+    @Persistent
     @ApiMeta(aliases = "leak.report")
     LeakReport getLeakReport();
 
@@ -155,10 +189,12 @@ public interface HeapDumpAnalyzer {
     @ApiMeta(aliases = "locals")
     List<Model.Thread.LocalVariable> getLocalVariables(int objectId, int depth, boolean firstNonNativeFrame);
 
+    @Persistent
     @ApiMeta(aliases = "duplicatedClasses.classes")
     PageView<DuplicatedClass.ClassItem> getDuplicatedClasses(String searchText, SearchType searchType,
                                                              int page, int pageSize);
 
+    @Persistent
     @ApiMeta(aliases = "duplicatedClasses.classLoaders")
     PageView<DuplicatedClass.ClassLoaderItem> getClassloadersOfDuplicatedClass(int index, int page,
                                                                                int pageSize);
@@ -168,6 +204,12 @@ public interface HeapDumpAnalyzer {
                                           String sortBy, boolean ascendingOrder,
                                           String searchText, SearchType searchType, int page, int pageSize);
 
+    /**
+     * @return the progress of the retained sizes being calculated for histograms, SUCCESS if none is running
+     */
+    @ApiMeta(aliases = "histogram.progress")
+    Progress getProgressOfHistogram();
+
     @ApiMeta(aliases = "histogram.objects")
     PageView<JavaObject> getHistogramObjects(int classId, int page, int pageSize);
 
@@ -190,7 +232,16 @@ public interface HeapDumpAnalyzer {
                                                                       int pageSize);
 
     interface Provider {
-        HeapDumpAnalyzer provide(Path path, Map<String, String> options, ProgressListener listener);
+        default HeapDumpAnalyzer provide(Path path, Map<String, String> options, ProgressListener listener) {
+            return provide(path, options, listener,
+                           other -> provide(other, Collections.emptyMap(), ProgressListener.NoOpProgressListener));
+        }
+
+        /**
+         * @param analyzers provides the analyzers of comparison targets
+         */
+        HeapDumpAnalyzer provide(Path path, Map<String, String> options, ProgressListener listener,
+                                 Function<Path, HeapDumpAnalyzer> analyzers);
     }
 
 }
@@ -579,6 +579,8 @@ public interface Model {
 
             public boolean hasMore;
 
+            // continues the paths on the next page, null if there are no more
+            public String cursor;
         }
 
         @Data
@@ -649,6 +651,19 @@ public interface Model {
 
             public long shallowSize;
         }
+
+        @Data
+        class SeriesItem {
+
+            public String className;
+
+            // in chronological order, the analysis target is the last one
+            public long[] objects;
+
+            public long[] shallowSizes;
+
+            public boolean growing;
+        }
     }
 
     interface TheString {
@@ -20,13 +20,17 @@ import org.eclipse.mat.query.refined.RefinedTable;
 import org.eclipse.mat.snapshot.ISnapshot;
 
 import java.lang.ref.SoftReference;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 public class AnalysisContext {
 
+    private static final int MAX_COMPARISON_TABLES = 4;
+
     final ISnapshot snapshot;
 
     volatile SoftReference<ClassLoaderExplorerData> classLoaderExplorerData = new SoftReference<>(null);
@@ -35,6 +39,28 @@ public class AnalysisContext {
 
     volatile SoftReference<LeakReportData> leakReportData= new SoftReference<>(null);
 
+    volatile HistogramIndex histogramIndex;
+
+    // held while the histogram index is built, which takes long, so that the other data of the context can be
+    // queried meanwhile
+    final Object histogramIndexLock = new Object();
+
+    volatile RetainedSizeCalculator retainedSizeCalculator;
+
+    volatile StringIndex stringIndex;
+
+    volatile SoftReference<ComparisonTable.Counts> classCounts = new SoftReference<>(null);
+
+    // baselines -> comparison table, only the recently used ones are kept
+    final Map<List<Path>, SoftReference<ComparisonTable>> comparisonTables = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Path>, SoftReference<ComparisonTable>> eldest) {
+            return size() > MAX_COMPARISON_TABLES;
+        }
+    };
+
+    final GCRootPathCursors gcRootPathCursors = new GCRootPathCursors();
+
     AnalysisContext(ISnapshot snapshot) {
         this.snapshot = snapshot;
     }
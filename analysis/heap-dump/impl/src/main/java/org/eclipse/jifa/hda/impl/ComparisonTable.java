@@ -0,0 +1,190 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.hda.impl;
+
+import org.eclipse.jifa.common.domain.request.PagingRequest;
+import org.eclipse.jifa.common.domain.vo.PageView;
+import org.eclipse.jifa.common.util.PageViewBuilder;
+import org.eclipse.jifa.hda.api.Model;
+import org.eclipse.mat.snapshot.ClassHistogramRecord;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Class histograms of a series of snapshots keyed by class name, in chronological order. The last one is the
+ * analysis target, and deltas are computed against the first one.
+ * <p>
+ * Rows are sorted by the delta of shallow size once, so pages never sort again.
+ */
+class ComparisonTable {
+
+    private final String[] classNames;
+
+    // [snapshot][row]
+    private final long[][] objects;
+
+    private final long[][] shallowSizes;
+
+    // rows sorted by the delta of shallow size in descending order
+    private final int[] order;
+
+    // rows in order whose shallow size keeps growing
+    private final int[] growing;
+
+    private final long totalObjects;
+
+    private final long totalShallowSize;
+
+    ComparisonTable(List<Counts> series) {
+        TreeMap<String, Integer> rows = new TreeMap<>();
+        for (Counts counts : series) {
+            for (String className : counts.classNames) {
+                rows.put(className, 0);
+            }
+        }
+        int size = rows.size();
+        classNames = rows.keySet().toArray(new String[0]);
+
+        int n = series.size();
+        objects = new long[n][size];
+        shallowSizes = new long[n][size];
+        for (int s = 0; s < n; s++) {
+            Counts counts = series.get(s);
+            for (int i = 0; i < counts.classNames.length; i++) {
+                int row = Arrays.binarySearch(classNames, counts.classNames[i]);
+                objects[s][row] = counts.objects[i];
+                shallowSizes[s][row] = counts.shallowSizes[i];
+            }
+        }
+
+        long totalObjects = 0;
+        long totalShallowSize = 0;
+        for (int row = 0; row < size; row++) {
+            totalObjects += objectsDelta(row);
+            totalShallowSize += shallowSizeDelta(row);
+        }
+        this.totalObjects = totalObjects;
+        this.totalShallowSize = totalShallowSize;
+
+        // ties keep the order of class names
+        order = IntStream.range(0, size)
+                         .boxed()
+                         .sorted((r1, r2) -> Long.compare(shallowSizeDelta(r2), shallowSizeDelta(r1)))
+                         .mapToInt(Integer::intValue)
+                         .toArray();
+        growing = Arrays.stream(order).filter(this::isGrowing).toArray();
+    }
+
+    int size() {
+        return classNames.length;
+    }
+
+    Model.Comparison.Summary summary() {
+        Model.Comparison.Summary summary = new Model.Comparison.Summary();
+        summary.setTotalSize(size());
+        summary.setObjects(totalObjects);
+        summary.setShallowSize(totalShallowSize);
+        return summary;
+    }
+
+    PageView<Model.Comparison.Item> items(PagingRequest paging) {
+        return PageViewBuilder.build(order, paging, row -> {
+            Model.Comparison.Item item = new Model.Comparison.Item();
+            item.setClassName(classNames[row]);
+            item.setObjects(objectsDelta(row));
+            item.setShallowSize(shallowSizeDelta(row));
+            return item;
+        });
+    }
+
+    PageView<Model.Comparison.SeriesItem> seriesItems(boolean growingOnly, PagingRequest paging) {
+        return PageViewBuilder.build(growingOnly ? growing : order, paging, row -> {
+            Model.Comparison.SeriesItem item = new Model.Comparison.SeriesItem();
+            item.setClassName(classNames[row]);
+            item.setObjects(column(objects, row));
+            item.setShallowSizes(column(shallowSizes, row));
+            item.setGrowing(isGrowing(row));
+            return item;
+        });
+    }
+
+    private static long[] column(long[][] values, int row) {
+        long[] column = new long[values.length];
+        for (int s = 0; s < values.length; s++) {
+            column[s] = values[s][row];
+        }
+        return column;
+    }
+
+    private long objectsDelta(int row) {
+        return objects[objects.length - 1][row] - objects[0][row];
+    }
+
+    private long shallowSizeDelta(int row) {
+        return shallowSizes[shallowSizes.length - 1][row] - shallowSizes[0][row];
+    }
+
+    private boolean isGrowing(int row) {
+        for (int s = 1; s < shallowSizes.length; s++) {
+            if (shallowSizes[s][row] < shallowSizes[s - 1][row]) {
+                return false;
+            }
+        }
+        return shallowSizeDelta(row) > 0;
+    }
+
+    /**
+     * Class histogram of a snapshot, records of classes with the same name are merged.
+     */
+    static class Counts {
+
+        // sorted
+        final String[] classNames;
+
+        final long[] objects;
+
+        final long[] shallowSizes;
+
+        Counts(String[] classNames, long[] objects, long[] shallowSizes) {
+            this.classNames = classNames;
+            this.objects = objects;
+            this.shallowSizes = shallowSizes;
+        }
+
+        static Counts of(Collection<ClassHistogramRecord> records) {
+            Map<String, long[]> merged = new TreeMap<>();
+            for (ClassHistogramRecord record : records) {
+                long[] values = merged.computeIfAbsent(record.getLabel(), ignored -> new long[2]);
+                values[0] += record.getNumberOfObjects();
+                values[1] += record.getUsedHeapSize();
+            }
+            int size = merged.size();
+            String[] classNames = new String[size];
+            long[] objects = new long[size];
+            long[] shallowSizes = new long[size];
+            int i = 0;
+            for (Map.Entry<String, long[]> entry : merged.entrySet()) {
+                classNames[i] = entry.getKey();
+                objects[i] = entry.getValue()[0];
+                shallowSizes[i] = entry.getValue()[1];
+                i++;
+            }
+            return new Counts(classNames, objects, shallowSizes);
+        }
+    }
+}
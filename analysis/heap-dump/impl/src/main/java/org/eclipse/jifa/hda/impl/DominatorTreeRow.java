@@ -0,0 +1,123 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.hda.impl;
+
+import org.eclipse.jifa.common.domain.exception.ShouldNotReachHereException;
+import org.eclipse.jifa.common.util.PageViewBuilder;
+import org.eclipse.jifa.hda.api.SearchPredicate;
+import org.eclipse.jifa.hda.api.SearchType;
+import org.eclipse.jifa.hda.api.Searchable;
+import org.eclipse.mat.query.Bytes;
+import org.eclipse.mat.query.IStructuredResult;
+
+import java.util.function.Predicate;
+
+import static org.eclipse.jifa.hda.api.Model.DominatorTree;
+
+/**
+ * Flyweight view of the rows of a dominator tree, used to filter and sort the rows
+ * without creating a Virtual*Item for each of them.
+ * <p>
+ * The columns follow {@link VirtualDefaultItem} for {@link DominatorTree.Grouping#NONE} and
+ * {@link VirtualClassItem} for the other groupings.
+ */
+class DominatorTreeRow implements Searchable {
+
+    private final IStructuredResult results;
+
+    private final int objectsColumn;
+
+    private final int shallowColumn;
+
+    private final int retainedColumn;
+
+    private final int percentColumn;
+
+    // package rows have no object, they are identified by the hash code of the label, see VirtualPackageItem
+    private final boolean labelAsId;
+
+    private Object e;
+
+    DominatorTreeRow(IStructuredResult results, DominatorTree.Grouping groupBy) {
+        this.results = results;
+        if (groupBy == DominatorTree.Grouping.NONE) {
+            objectsColumn = -1;
+            shallowColumn = VirtualDefaultItem.COLUMN_SHALLOW;
+            retainedColumn = VirtualDefaultItem.COLUMN_RETAINED;
+            percentColumn = VirtualDefaultItem.COLUMN_PERCENT;
+        } else {
+            objectsColumn = VirtualClassItem.COLUMN_OBJECTS;
+            shallowColumn = VirtualClassItem.COLUMN_SHALLOW;
+            retainedColumn = VirtualClassItem.COLUMN_RETAINED;
+            percentColumn = VirtualClassItem.COLUMN_PERCENT;
+        }
+        labelAsId = groupBy == DominatorTree.Grouping.BY_PACKAGE;
+    }
+
+    /**
+     * @return the filter of the rows, or null if there is nothing to search
+     */
+    Predicate<Object> filter(String searchText, SearchType searchType) {
+        if (searchText == null || searchType == null || searchText.isEmpty()) {
+            return null;
+        }
+        Predicate<DominatorTreeRow> predicate = SearchPredicate.createPredicate(searchText, searchType);
+        return e -> {
+            this.e = e;
+            return predicate.test(this);
+        };
+    }
+
+    /**
+     * @return the sort key of the field, or null if the field is unknown
+     */
+    PageViewBuilder.SortKey<Object> sortKey(String sortBy) {
+        if (sortBy == null) {
+            return null;
+        }
+        return switch (sortBy) {
+            case "id" -> labelAsId ? e -> label(e).hashCode() : e -> results.getContext(e).getObjectId();
+            case "shallowHeap" -> e -> bytes(e, shallowColumn);
+            case "retainedHeap" -> e -> bytes(e, retainedColumn);
+            case "percent" -> PageViewBuilder.doubleKey(e -> (Double) results.getColumnValue(e, percentColumn));
+            case "Objects" -> objectsColumn >= 0 ? e -> objects(e) : null;
+            default -> null;
+        };
+    }
+
+    @Override
+    public Object getBySearchType(SearchType type) {
+        return switch (type) {
+            case BY_NAME -> label(e);
+            case BY_PERCENT -> results.getColumnValue(e, percentColumn);
+            case BY_OBJ_NUM -> objectsColumn >= 0 ? objects(e) : null;
+            case BY_RETAINED_SIZE -> bytes(e, retainedColumn);
+            case BY_SHALLOW_SIZE -> bytes(e, shallowColumn);
+            default -> throw new ShouldNotReachHereException();
+        };
+    }
+
+    private long bytes(Object e, int column) {
+        return ((Bytes) results.getColumnValue(e, column)).getValue();
+    }
+
+    private String label(Object e) {
+        return EscapeUtil.unescapeLabel((String) results.getColumnValue(e, VirtualDefaultItem.COLUMN_LABEL));
+    }
+
+    // the column is empty for some rows of the class loader and package groupings
+    private long objects(Object e) {
+        Object objects = results.getColumnValue(e, objectsColumn);
+        return objects != null ? ((Number) objects).longValue() : 0;
+    }
+}
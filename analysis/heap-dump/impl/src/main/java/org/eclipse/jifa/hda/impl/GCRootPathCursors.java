@@ -0,0 +1,146 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.hda.impl;
+
+import org.eclipse.mat.SnapshotException;
+import org.eclipse.mat.snapshot.IPathsFromGCRootsComputer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Path computers kept between the pages of paths to GC roots, so that a page continues from where the previous
+ * one stopped instead of recomputing all the paths already returned.
+ * <p>
+ * A cursor is taken out while a page is computed and put back under a new token, so it is used by one request
+ * at a time and a token is valid for one page only. The least recently used cursors beyond {@link #MAX_CURSORS}
+ * and the ones idle for {@link #IDLE_TIMEOUT} are dropped.
+ */
+class GCRootPathCursors {
+
+    static final int MAX_CURSORS = 16;
+
+    static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+
+    private final Map<String, Cursor> cursors = new LinkedHashMap<>(MAX_CURSORS, 0.75f, true);
+
+    private final LongSupplier clock;
+
+    GCRootPathCursors() {
+        this(System::currentTimeMillis);
+    }
+
+    GCRootPathCursors(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @param token    the token returned by {@link #put(Cursor)}, may be null
+     * @param objectId the object whose paths are requested
+     * @param position the number of paths already returned
+     * @return the cursor, or null if the token is unknown or the cursor doesn't continue from the position
+     */
+    synchronized Cursor take(String token, int objectId, int position) {
+        expire();
+        if (token == null) {
+            return null;
+        }
+        Cursor cursor = cursors.remove(token);
+        if (cursor == null || cursor.objectId != objectId || cursor.position != position) {
+            return null;
+        }
+        return cursor;
+    }
+
+    /**
+     * @param cursor the cursor to continue later
+     * @return the token of the cursor
+     */
+    synchronized String put(Cursor cursor) {
+        expire();
+        String token = UUID.randomUUID().toString();
+        cursor.lastAccess = clock.getAsLong();
+        cursors.put(token, cursor);
+        if (cursors.size() > MAX_CURSORS) {
+            Iterator<Cursor> eldest = cursors.values().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        return token;
+    }
+
+    synchronized int size() {
+        expire();
+        return cursors.size();
+    }
+
+    private void expire() {
+        long now = clock.getAsLong();
+        cursors.values().removeIf(cursor -> now - cursor.lastAccess >= IDLE_TIMEOUT);
+    }
+
+    static class Cursor {
+
+        final int objectId;
+
+        private final IPathsFromGCRootsComputer computer;
+
+        // number of paths returned
+        private int position;
+
+        // the path after the returned ones, taken ahead to tell whether there are more
+        private int[] next;
+
+        private long lastAccess;
+
+        Cursor(int objectId, IPathsFromGCRootsComputer computer) throws SnapshotException {
+            this.objectId = objectId;
+            this.computer = computer;
+            next = computer.getNextShortestPath();
+        }
+
+        void skip(int count) throws SnapshotException {
+            while (count-- > 0 && next != null) {
+                advance();
+            }
+        }
+
+        List<int[]> next(int count) throws SnapshotException {
+            List<int[]> paths = new ArrayList<>();
+            while (paths.size() < count && next != null) {
+                paths.add(next);
+                advance();
+            }
+            return paths;
+        }
+
+        boolean hasMore() {
+            return next != null;
+        }
+
+        int position() {
+            return position;
+        }
+
+        private void advance() throws SnapshotException {
+            next = computer.getNextShortestPath();
+            position++;
+        }
+    }
+}
@@ -12,7 +12,9 @@
  ********************************************************************************/
 package org.eclipse.jifa.hda.impl;
 
+import org.eclipse.jifa.analysis.Progress;
 import org.eclipse.jifa.analysis.cache.Cacheable;
+import org.eclipse.jifa.analysis.listener.DefaultProgressListener;
 import org.eclipse.jifa.analysis.listener.ProgressListener;
 import org.eclipse.jifa.common.domain.exception.CommonException;
 import org.eclipse.jifa.common.domain.request.PagingRequest;
@@ -51,7 +53,6 @@ import org.eclipse.mat.report.Spec;
 import org.eclipse.mat.snapshot.ClassHistogramRecord;
 import org.eclipse.mat.snapshot.Histogram;
 import org.eclipse.mat.snapshot.HistogramRecord;
-import org.eclipse.mat.snapshot.IPathsFromGCRootsComputer;
 import org.eclipse.mat.snapshot.ISnapshot;
 import org.eclipse.mat.snapshot.SnapshotFactory;
 import org.eclipse.mat.snapshot.SnapshotInfo;
@@ -86,6 +87,7 @@ import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -119,10 +121,18 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
 
     private final AnalysisContext context;
 
+    // provides the analyzers of comparison targets
+    private final Function<Path, HeapDumpAnalyzer> analyzers;
+
     private final Cleaner.Cleanable cleaner;
 
     public HeapDumpAnalyzerImpl(AnalysisContext context) {
+        this(context, other -> PROVIDER.provide(other, Collections.emptyMap(), NoOpProgressListener));
+    }
+
+    public HeapDumpAnalyzerImpl(AnalysisContext context, Function<Path, HeapDumpAnalyzer> analyzers) {
         this.context = context;
+        this.analyzers = analyzers;
         this.cleaner = CLEANER.register(this, () -> $(() -> SnapshotFactory.dispose(context.snapshot)));
     }
 
@@ -222,9 +232,24 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
 
     @Override
     public void dispose() {
+        RetainedSizeCalculator calculator = context.retainedSizeCalculator;
+        if (calculator != null) {
+            calculator.cancel();
+        }
+        StringIndex stringIndex = context.stringIndex;
+        if (stringIndex != null) {
+            context.stringIndex = null;
+            stringIndex.close();
+        }
         cleaner.clean();
     }
 
+    @Override
+    public long footprint() {
+        // mostly the object to class index and the identifier index, which take an int and a long per object
+        return context.snapshot.getSnapshotInfo().getNumberOfObjects() * 16L;
+    }
+
     @Override
     public Overview.Details getDetails() {
         return $(() -> {
@@ -780,6 +805,20 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
 
     @Override
     public PageView<TheString.Item> getStrings(String pattern, int page, int pageSize) {
+        StringIndex index = context.stringIndex;
+        if (index != null) {
+            return $(() -> PageViewBuilder.build(index.search(pattern),
+                                                 new PagingRequest(page, pageSize),
+                                                 ordinal -> $(() -> {
+                                                     IObject o = context.snapshot.getObject(index.objectId(ordinal));
+                                                     TheString.Item item = new TheString.Item();
+                                                     item.setObjectId(o.getObjectId());
+                                                     item.setLabel(o.getDisplayName());
+                                                     item.setShallowSize(o.getUsedHeapSize());
+                                                     item.setRetainedSize(o.getRetainedHeapSize());
+                                                     return item;
+                                                 })));
+        }
         return $(() -> {
             IResultTree tree = queryByCommand(context, "find_strings java.lang.String -pattern " +
                                                        (pattern == null || pattern.equals("") ? ".*" : ".*" + pattern + ".*"));
@@ -903,52 +942,58 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
 
     @Override
     public Comparison.Summary getSummaryOfComparison(Path other) {
-        return $(() -> {
-            ISnapshot baselineSnapshot = ((HeapDumpAnalyzerImpl) PROVIDER.provide(other, Collections.emptyMap(),
-                                                                                  NoOpProgressListener)).context.snapshot;
-            ISnapshot targetSnapshot = context.snapshot;
-            Histogram targetHistogram = targetSnapshot.getHistogram(new ProgressListenerImpl(NoOpProgressListener));
-            Histogram baselineHistogram = baselineSnapshot.getHistogram(new ProgressListenerImpl(NoOpProgressListener));
-            final Histogram delta = targetHistogram.diffWithBaseline(baselineHistogram);
-
-            long totalObjects = 0;
-            long totalShallowHeap = 0;
-            for (Object r : delta.getClassHistogramRecords()) {
-                totalObjects += (long) delta.getColumnValue(r, 1);
-                totalShallowHeap += ((Bytes) delta.getColumnValue(r, 2)).getValue();
-            }
-
-            Comparison.Summary summary = new Comparison.Summary();
-            summary.setTotalSize(delta.getClassHistogramRecords().size());
-            summary.setObjects(totalObjects);
-            summary.setShallowSize(totalShallowHeap);
-            return summary;
-        });
+        return $(() -> queryComparisonTable(List.of(other)).summary());
     }
 
     @Override
     public PageView<Comparison.Item> getItemsOfComparison(Path other, int page, int pageSize) {
-        return $(() -> {
-            ISnapshot baselineSnapshot = ((HeapDumpAnalyzerImpl) PROVIDER.provide(other, Collections.emptyMap(),
-                                                                                  NoOpProgressListener)).context.snapshot;
-            ISnapshot targetSnapshot = context.snapshot;
-            Histogram targetHistogram = targetSnapshot.getHistogram(new ProgressListenerImpl(NoOpProgressListener));
-            Histogram baselineHistogram = baselineSnapshot.getHistogram(new ProgressListenerImpl(NoOpProgressListener));
-            final Histogram delta = targetHistogram.diffWithBaseline(baselineHistogram);
-
-            //noinspection
-            ((List<ClassHistogramRecord>) delta.getClassHistogramRecords()).sort((o1, o2) -> Long
-                    .compare(((Bytes) delta.getColumnValue(o2, 2)).getValue(),
-                             ((Bytes) delta.getColumnValue(o1, 2)).getValue()));
-
-            return PageViewBuilder.build(delta.getClassHistogramRecords(), new PagingRequest(page, pageSize), r -> {
-                Comparison.Item record = new Comparison.Item();
-                record.setClassName((String) delta.getColumnValue(r, 0));
-                record.setObjects((Long) delta.getColumnValue(r, 1));
-                record.setShallowSize(((Bytes) delta.getColumnValue(r, 2)).getValue());
-                return record;
-            });
-        });
+        return $(() -> queryComparisonTable(List.of(other)).items(new PagingRequest(page, pageSize)));
+    }
+
+    @Override
+    public Comparison.Summary getSummaryOfSeriesComparison(List<Path> baselines) {
+        return $(() -> queryComparisonTable(baselines).summary());
+    }
+
+    @Override
+    public PageView<Comparison.SeriesItem> getItemsOfSeriesComparison(List<Path> baselines, boolean growingOnly,
+                                                                      int page, int pageSize) {
+        return $(() -> queryComparisonTable(baselines).seriesItems(growingOnly, new PagingRequest(page, pageSize)));
+    }
+
+    private ComparisonTable queryComparisonTable(List<Path> baselines) throws SnapshotException {
+        synchronized (context.comparisonTables) {
+            SoftReference<ComparisonTable> ref = context.comparisonTables.get(baselines);
+            ComparisonTable table = ref != null ? ref.get() : null;
+            if (table != null) {
+                return table;
+            }
+        }
+        List<ComparisonTable.Counts> series = new ArrayList<>(baselines.size() + 1);
+        for (Path baseline : baselines) {
+            series.add(queryClassCounts(((HeapDumpAnalyzerImpl) analyzers.apply(baseline)).context));
+        }
+        series.add(queryClassCounts(context));
+        ComparisonTable table = new ComparisonTable(series);
+        synchronized (context.comparisonTables) {
+            context.comparisonTables.put(List.copyOf(baselines), new SoftReference<>(table));
+        }
+        return table;
+    }
+
+    private static ComparisonTable.Counts queryClassCounts(AnalysisContext context) throws SnapshotException {
+        ComparisonTable.Counts counts = context.classCounts.get();
+        if (counts == null) {
+            synchronized (context) {
+                counts = context.classCounts.get();
+                if (counts == null) {
+                    Histogram histogram = context.snapshot.getHistogram(new ProgressListenerImpl(NoOpProgressListener));
+                    counts = ComparisonTable.Counts.of(histogram.getClassHistogramRecords());
+                    context.classCounts = new SoftReference<>(counts);
+                }
+            }
+        }
+        return counts;
     }
 
     private IResultTree queryMultiplePath2GCRootsTreeByClassId(AnalysisContext context, int classId,
@@ -1036,28 +1081,23 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
     }
 
     @Override
-    public GCRootPath.Item getPathToGCRoots(int objectId, int skip, int count) {
+    public GCRootPath.Item getPathToGCRoots(int objectId, String cursor, int skip, int count) {
         return $(() -> {
             ISnapshot snapshot = context.snapshot;
-            Map<IClass, Set<String>> excludeMap = convert(context, GCRootPath.EXCLUDES);
-            IPathsFromGCRootsComputer computer = snapshot.getPathsFromGCRoots(objectId, excludeMap);
-            List<int[]> paths = new ArrayList<>();
-            int index = 0;
-            int[] current;
-            int get = 0;
-            while (get < count && (current = computer.getNextShortestPath()) != null) {
-                if (index < skip) {
-                    index++;
-                    continue;
-                }
-                paths.add(current);
-                get++;
+            GCRootPathCursors.Cursor c = context.gcRootPathCursors.take(cursor, objectId, skip);
+            if (c == null) {
+                Map<IClass, Set<String>> excludeMap = convert(context, GCRootPath.EXCLUDES);
+                c = new GCRootPathCursors.Cursor(objectId, snapshot.getPathsFromGCRoots(objectId, excludeMap));
+                c.skip(skip);
             }
+            List<int[]> paths = c.next(count);
 
-            boolean hasMore = computer.getNextShortestPath() != null;
             GCRootPath.Item item = new GCRootPath.Item();
             item.setCount(paths.size());
-            item.setHasMore(hasMore);
+            item.setHasMore(c.hasMore());
+            if (c.hasMore()) {
+                item.setCursor(context.gcRootPathCursors.put(c));
+            }
             GCRootPath.Node origin = new GCRootPath.Node();
             IObject object = snapshot.getObject(objectId);
             origin.setOrigin(true);
@@ -1076,7 +1116,7 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
 
             for (int[] path : paths) {
                 GCRootPath.Node parentNode = origin;
-                for (index = 1; index < path.length; index++) {
+                for (int index = 1; index < path.length; index++) {
                     int childId = path[index];
                     GCRootPath.Node childNode = parentNode.getChild(childId);
                     if (childNode == null) {
@@ -1522,12 +1562,65 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
         });
     }
 
+    private HistogramIndex queryHistogramIndex(AnalysisContext context, ProgressListener listener)
+            throws SnapshotException {
+        HistogramIndex index = context.histogramIndex;
+        if (index != null) {
+            return index;
+        }
+        synchronized (context.histogramIndexLock) {
+            index = context.histogramIndex;
+            if (index != null) {
+                return index;
+            }
+            SnapshotInfo snapshotInfo = context.snapshot.getSnapshotInfo();
+            index = HistogramIndex.load(snapshotInfo);
+            if (index == null) {
+                Histogram h = queryByCommand(context, "histogram -groupBy BY_CLASS", Collections.emptyMap());
+                List<ClassHistogramRecord> records = (List<ClassHistogramRecord>) h.getClassHistogramRecords();
+                calculateRetainedSizes(records, true, listener);
+                index = HistogramIndex.build(records);
+                index.save(snapshotInfo);
+            }
+            context.histogramIndex = index;
+            return index;
+        }
+    }
+
+    private RetainedSizeCalculator queryRetainedSizeCalculator(AnalysisContext context) throws SnapshotException {
+        RetainedSizeCalculator calculator = context.retainedSizeCalculator;
+        if (calculator != null) {
+            return calculator;
+        }
+        //noinspection SynchronizationOnLocalVariableOrMethodParameter
+        synchronized (context) {
+            calculator = context.retainedSizeCalculator;
+            if (calculator == null) {
+                calculator = new RetainedSizeCalculator(context.snapshot);
+                context.retainedSizeCalculator = calculator;
+            }
+            return calculator;
+        }
+    }
+
+    private void calculateRetainedSizes(List<? extends HistogramRecord> records, boolean wholeHeap,
+                                        ProgressListener listener) throws SnapshotException {
+        queryRetainedSizeCalculator(context).calculate(records, wholeHeap, listener);
+    }
+
     @Override
     public PageView<Model.Histogram.Item> getHistogram(Model.Histogram.Grouping groupingBy,
                                                        int[] ids, String sortBy, boolean ascendingOrder,
                                                        String searchText, SearchType searchType,
                                                        int page, int pageSize) {
+        // the listener of this request, its progress is reported by getProgressOfHistogram, and it is cancelled
+        // if the analyzer is disposed
+        ProgressListener listener = new DefaultProgressListener();
         return $(() -> {
+            if (groupingBy == Model.Histogram.Grouping.BY_CLASS && ids == null) {
+                return queryHistogramIndex(context, listener).page(sortBy, ascendingOrder, searchText, searchType,
+                                                         new PagingRequest(page, pageSize));
+            }
             Map<String, Object> args = new HashMap<>();
             if (ids != null) {
                 args.put("objects", Helper.buildHeapObjectArgument(ids));
@@ -1538,9 +1631,8 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
                     Histogram h = (Histogram) result;
                     List<ClassHistogramRecord> records =
                             (List<ClassHistogramRecord>) h.getClassHistogramRecords();
+                    calculateRetainedSizes(records, false, listener);
                     return PageViewBuilder.<ClassHistogramRecord, Model.Histogram.Item>fromList(records)
-                                          .beforeMap(record -> $(() -> record
-                                                  .calculateRetainedSize(context.snapshot, true, true, Helper.VOID_LISTENER)))
                                           .paging(new PagingRequest(page, pageSize))
                                           .map(record -> new Model.Histogram.Item(record.getClassId(), record.getLabel(),
                                                                                   Model.Histogram.ItemType.CLASS,
@@ -1552,12 +1644,12 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
                                           .done();
                 case BY_CLASSLOADER:
                     Histogram.ClassLoaderTree ct = (Histogram.ClassLoaderTree) result;
-                    @SuppressWarnings("unchecked")
+                    List<? extends XClassLoaderHistogramRecord> loaderRecords =
+                            (List<? extends XClassLoaderHistogramRecord>) ct.getElements();
+                    calculateRetainedSizes(loaderRecords, ids == null, listener);
                     PageViewBuilder<? extends XClassLoaderHistogramRecord, Model.Histogram.Item> builder =
-                            PageViewBuilder.fromList((List<? extends XClassLoaderHistogramRecord>) ct.getElements());
+                            PageViewBuilder.fromList(loaderRecords);
                     return builder
-                            .beforeMap(record -> $(() -> record.calculateRetainedSize(context.snapshot, true, true,
-                                                                                      Helper.VOID_LISTENER)))
                             .paging(new PagingRequest(page, pageSize))
                             .map(record ->
                                          new Model.Histogram.Item(record.getClassLoaderId(), record.getLabel(),
@@ -1651,10 +1743,23 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
         });
     }
 
+    @Override
+    public Progress getProgressOfHistogram() {
+        RetainedSizeCalculator calculator = context.retainedSizeCalculator;
+        if (calculator != null) {
+            return calculator.progress();
+        }
+        Progress progress = new Progress();
+        progress.setState(Progress.State.SUCCESS);
+        progress.setPercent(1);
+        return progress;
+    }
+
     @Override
     public PageView<Model.Histogram.Item> getChildrenOfHistogram(Model.Histogram.Grouping groupBy, int[] ids,
                                                                  String sortBy, boolean ascendingOrder,
                                                                  int parentObjectId, int page, int pageSize) {
+        ProgressListener listener = new DefaultProgressListener();
         return $(() -> {
             Map<String, Object> args = new HashMap<>();
             if (ids != null) {
@@ -1679,10 +1784,9 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
                         }
                     }
                     if (children != null) {
+                        calculateRetainedSizes(children, ids == null, listener);
                         return PageViewBuilder.<ClassHistogramRecord, Model.Histogram.Item>fromList(
                                                       (List<ClassHistogramRecord>) children)
-                                              .beforeMap(record -> $(() -> record
-                                                      .calculateRetainedSize(context.snapshot, true, true, Helper.VOID_LISTENER)))
                                               .paging(new PagingRequest(page, pageSize))
                                               .map(record -> new Model.Histogram.Item(record.getClassId(), record.getLabel(),
                                                                                       Model.Histogram.ItemType.CLASS,
@@ -1815,16 +1919,10 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
                                                                   boolean ascendingOrder, String sortBy,
                                                                   String searchText, SearchType searchType,
                                                                   PagingRequest pagingRequest, int parentObjectId) {
-        final AtomicInteger afterFilterCount = new AtomicInteger(0);
-        List<DominatorTree.DefaultItem> items = elements.stream()
-                                                        .map(e -> $(() -> new VirtualDefaultItem(snapshot, tree, e, parentObjectId)))
-                                                        .filter(SearchPredicate.createPredicate(searchText, searchType))
-                                                        .peek(filtered -> afterFilterCount.incrementAndGet())
-                                                        .sorted(DominatorTree.DefaultItem.sortBy(sortBy, ascendingOrder))
-                                                        .skip(pagingRequest.from())
-                                                        .limit(pagingRequest.getPageSize())
-                                                        .collect(Collectors.toList());
-        return new PageView<>(pagingRequest, afterFilterCount.get(), items);
+        DominatorTreeRow row = new DominatorTreeRow(tree, DominatorTree.Grouping.NONE);
+        return PageViewBuilder.build(elements, pagingRequest, row.filter(searchText, searchType),
+                                     row.sortKey(sortBy), ascendingOrder,
+                                     e -> $(() -> new VirtualDefaultItem(snapshot, tree, e, parentObjectId)));
     }
 
     private PageView<DominatorTree.ClassItem> buildClassItems(ISnapshot snapshot, IResultTree tree, List<?> elements,
@@ -1832,16 +1930,10 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
                                                               String sortBy,
                                                               String searchText, SearchType searchType,
                                                               PagingRequest pagingRequest) {
-        final AtomicInteger afterFilterCount = new AtomicInteger(0);
-        List<DominatorTree.ClassItem> items = elements.stream()
-                                                      .map(e -> $(() -> new VirtualClassItem(snapshot, tree, e)))
-                                                      .filter(SearchPredicate.createPredicate(searchText, searchType))
-                                                      .peek(filtered -> afterFilterCount.incrementAndGet())
-                                                      .sorted(DominatorTree.ClassItem.sortBy(sortBy, ascendingOrder))
-                                                      .skip(pagingRequest.from())
-                                                      .limit(pagingRequest.getPageSize())
-                                                      .collect(Collectors.toList());
-        return new PageView<>(pagingRequest, afterFilterCount.get(), items);
+        DominatorTreeRow row = new DominatorTreeRow(tree, DominatorTree.Grouping.BY_CLASS);
+        return PageViewBuilder.build(elements, pagingRequest, row.filter(searchText, searchType),
+                                     row.sortKey(sortBy), ascendingOrder,
+                                     e -> $(() -> new VirtualClassItem(snapshot, tree, e)));
     }
 
     private PageView<DominatorTree.ClassLoaderItem> buildClassLoaderItems(ISnapshot snapshot, IResultTree tree,
@@ -1849,16 +1941,10 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
                                                                           String sortBy,
                                                                           String searchText, SearchType searchType,
                                                                           PagingRequest pagingRequest) {
-        final AtomicInteger afterFilterCount = new AtomicInteger(0);
-        List<DominatorTree.ClassLoaderItem> items = elements.stream()
-                                                            .map(e -> $(() -> new VirtualClassLoaderItem(snapshot, tree, e)))
-                                                            .filter(SearchPredicate.createPredicate(searchText, searchType))
-                                                            .peek(filtered -> afterFilterCount.incrementAndGet())
-                                                            .sorted(DominatorTree.ClassLoaderItem.sortBy(sortBy, ascendingOrder))
-                                                            .skip(pagingRequest.from())
-                                                            .limit(pagingRequest.getPageSize())
-                                                            .collect(Collectors.toList());
-        return new PageView<>(pagingRequest, afterFilterCount.get(), items);
+        DominatorTreeRow row = new DominatorTreeRow(tree, DominatorTree.Grouping.BY_CLASSLOADER);
+        return PageViewBuilder.build(elements, pagingRequest, row.filter(searchText, searchType),
+                                     row.sortKey(sortBy), ascendingOrder,
+                                     e -> $(() -> new VirtualClassLoaderItem(snapshot, tree, e)));
     }
 
     private PageView<DominatorTree.PackageItem> buildPackageItems(ISnapshot snapshot, IResultTree tree,
@@ -1866,16 +1952,10 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
                                                                   boolean ascendingOrder, String sortBy,
                                                                   String searchText, SearchType searchType,
                                                                   PagingRequest pagingRequest) {
-        final AtomicInteger afterFilterCount = new AtomicInteger(0);
-        List<DominatorTree.PackageItem> items = elements.stream()
-                                                        .map(e -> $(() -> new VirtualPackageItem(snapshot, tree, e)))
-                                                        .filter(SearchPredicate.createPredicate(searchText, searchType))
-                                                        .peek(filtered -> afterFilterCount.incrementAndGet())
-                                                        .sorted(DominatorTree.PackageItem.sortBy(sortBy, ascendingOrder))
-                                                        .skip(pagingRequest.from())
-                                                        .limit(pagingRequest.getPageSize())
-                                                        .collect(Collectors.toList());
-        return new PageView<>(pagingRequest, afterFilterCount.get(), items);
+        DominatorTreeRow row = new DominatorTreeRow(tree, DominatorTree.Grouping.BY_PACKAGE);
+        return PageViewBuilder.build(elements, pagingRequest, row.filter(searchText, searchType),
+                                     row.sortKey(sortBy), ascendingOrder,
+                                     e -> $(() -> new VirtualPackageItem(snapshot, tree, e)));
     }
 
     @Override
@@ -2002,9 +2082,9 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
     private static class ProviderImpl implements HeapDumpAnalyzer.Provider {
         @Override
         public HeapDumpAnalyzer provide(Path path, Map<String, String> options,
-                                        ProgressListener listener) {
+                                        ProgressListener listener, Function<Path, HeapDumpAnalyzer> analyzers) {
             Map<String, String> finalOptions = options != null ? options : Collections.emptyMap();
-            return new HeapDumpAnalyzerImpl(new AnalysisContext(
+            AnalysisContext context = new AnalysisContext(
                     $(() ->
                       {
                           try {
@@ -2016,7 +2096,11 @@ public class HeapDumpAnalyzerImpl implements HeapDumpAnalyzer {
                               HprofPreferencesAccess.setStrictness(null);
                           }
                       })
-            ));
+            );
+            context.stringIndex = StringIndex.open(context.snapshot,
+                                                   "true".equals(finalOptions.get("build_string_index")),
+                                                   listener);
+            return new HeapDumpAnalyzerImpl(context, analyzers);
         }
     }
 }
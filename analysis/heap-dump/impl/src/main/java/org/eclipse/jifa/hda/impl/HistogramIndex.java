@@ -0,0 +1,305 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.hda.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jifa.common.domain.request.PagingRequest;
+import org.eclipse.jifa.common.domain.vo.PageView;
+import org.eclipse.jifa.hda.api.Model;
+import org.eclipse.jifa.hda.api.SearchPredicate;
+import org.eclipse.jifa.hda.api.SearchType;
+import org.eclipse.mat.snapshot.ClassHistogramRecord;
+import org.eclipse.mat.snapshot.SnapshotInfo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Materialized histogram (grouped by class) of a snapshot.
+ * <p>
+ * Columns are kept in parallel primitive arrays, and a permutation sorted by each sortable column is
+ * computed once, so that paging, sorting and filtering never touch the query results of MAT.
+ * The index is persisted next to the index files of the snapshot.
+ */
+@Slf4j
+class HistogramIndex {
+
+    static final String FILE_SUFFIX = "jifa.histogram.index";
+
+    private static final int MAGIC = 0x4A484958;
+
+    private static final int VERSION = 1;
+
+    private final int[] classIds;
+
+    private final String[] labels;
+
+    private final long[] objects;
+
+    private final long[] shallowSizes;
+
+    // negative value means the size is approximated, see ClassHistogramRecord#calculateRetainedSize
+    private final long[] retainedSizes;
+
+    // rows sorted by each sortable column
+    private final Permutation byId;
+
+    private final Permutation byObjects;
+
+    private final Permutation byShallowSize;
+
+    private final Permutation byRetainedSize;
+
+    HistogramIndex(int[] classIds, String[] labels, long[] objects, long[] shallowSizes, long[] retainedSizes) {
+        this.classIds = classIds;
+        this.labels = labels;
+        this.objects = objects;
+        this.shallowSizes = shallowSizes;
+        this.retainedSizes = retainedSizes;
+
+        int size = classIds.length;
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = classIds[i];
+        }
+        byId = new Permutation(keys);
+        byObjects = new Permutation(objects);
+        byShallowSize = new Permutation(shallowSizes);
+        for (int i = 0; i < size; i++) {
+            keys[i] = Math.abs(retainedSizes[i]);
+        }
+        byRetainedSize = new Permutation(keys);
+    }
+
+    static HistogramIndex build(List<ClassHistogramRecord> records) {
+        int size = records.size();
+        int[] classIds = new int[size];
+        String[] labels = new String[size];
+        long[] objects = new long[size];
+        long[] shallowSizes = new long[size];
+        long[] retainedSizes = new long[size];
+        for (int i = 0; i < size; i++) {
+            ClassHistogramRecord record = records.get(i);
+            classIds[i] = record.getClassId();
+            labels[i] = record.getLabel();
+            objects[i] = record.getNumberOfObjects();
+            shallowSizes[i] = record.getUsedHeapSize();
+            retainedSizes[i] = record.getRetainedHeapSize();
+        }
+        return new HistogramIndex(classIds, labels, objects, shallowSizes, retainedSizes);
+    }
+
+    static File file(SnapshotInfo snapshotInfo) {
+        return new File(snapshotInfo.getPrefix() + FILE_SUFFIX);
+    }
+
+    /**
+     * @param snapshotInfo the snapshot info
+     * @return the persisted index, or null if it doesn't exist or doesn't match the snapshot
+     */
+    static HistogramIndex load(SnapshotInfo snapshotInfo) {
+        File file = file(snapshotInfo);
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION ||
+                in.readLong() != snapshotInfo.getNumberOfObjects() ||
+                in.readInt() != snapshotInfo.getNumberOfClasses() ||
+                in.readLong() != snapshotInfo.getUsedHeapSize()) {
+                return null;
+            }
+            int size = in.readInt();
+            int[] classIds = new int[size];
+            String[] labels = new String[size];
+            long[] objects = new long[size];
+            long[] shallowSizes = new long[size];
+            long[] retainedSizes = new long[size];
+            for (int i = 0; i < size; i++) {
+                classIds[i] = in.readInt();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                labels[i] = new String(bytes, StandardCharsets.UTF_8);
+                objects[i] = in.readLong();
+                shallowSizes[i] = in.readLong();
+                retainedSizes[i] = in.readLong();
+            }
+            return new HistogramIndex(classIds, labels, objects, shallowSizes, retainedSizes);
+        } catch (IOException e) {
+            log.warn("Failed to load histogram index: {}", file.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    void save(SnapshotInfo snapshotInfo) {
+        File file = file(snapshotInfo);
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(snapshotInfo.getNumberOfObjects());
+            out.writeInt(snapshotInfo.getNumberOfClasses());
+            out.writeLong(snapshotInfo.getUsedHeapSize());
+            out.writeInt(size());
+            for (int i = 0; i < size(); i++) {
+                out.writeInt(classIds[i]);
+                byte[] bytes = labels[i].getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                out.writeLong(objects[i]);
+                out.writeLong(shallowSizes[i]);
+                out.writeLong(retainedSizes[i]);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to save histogram index: {}", file.getAbsolutePath(), e);
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            log.warn("Failed to rename histogram index: {}", temp.getAbsolutePath());
+        }
+    }
+
+    int size() {
+        return classIds.length;
+    }
+
+    PageView<Model.Histogram.Item> page(String sortBy, boolean ascendingOrder, String searchText,
+                                        SearchType searchType, PagingRequest paging) {
+        Permutation permutation = permutation(sortBy);
+        int size = size();
+
+        if (searchText == null || searchText.isEmpty() || searchType == null) {
+            int to = paging.to(size);
+            List<Model.Histogram.Item> items = new ArrayList<>(Math.max(0, to - paging.from()));
+            for (int i = paging.from(); i < to; i++) {
+                items.add(item(row(permutation, i, ascendingOrder)));
+            }
+            return new PageView<>(paging, size, items);
+        }
+
+        // the same item is refilled for each row, so filtering doesn't allocate per row
+        Predicate<Model.Histogram.Item> predicate = SearchPredicate.createPredicate(searchText, searchType);
+        Model.Histogram.Item flyweight = new Model.Histogram.Item();
+        List<Model.Histogram.Item> items = new ArrayList<>(paging.getPageSize());
+        int matched = 0;
+        for (int i = 0; i < size; i++) {
+            int row = row(permutation, i, ascendingOrder);
+            fill(flyweight, row);
+            if (predicate.test(flyweight)) {
+                if (matched >= paging.from() && items.size() < paging.getPageSize()) {
+                    items.add(item(row));
+                }
+                matched++;
+            }
+        }
+        return new PageView<>(paging, matched, items);
+    }
+
+    // unknown sort field keeps the order of the records
+    private static int row(Permutation permutation, int index, boolean ascendingOrder) {
+        return permutation != null ? permutation.get(index, ascendingOrder) : index;
+    }
+
+    private Permutation permutation(String sortBy) {
+        if (sortBy == null) {
+            return null;
+        }
+        return switch (sortBy) {
+            case "id" -> byId;
+            case "numberOfObjects" -> byObjects;
+            case "shallowSize" -> byShallowSize;
+            case "retainedSize" -> byRetainedSize;
+            default -> null;
+        };
+    }
+
+    private Model.Histogram.Item item(int row) {
+        Model.Histogram.Item item = new Model.Histogram.Item();
+        fill(item, row);
+        return item;
+    }
+
+    private void fill(Model.Histogram.Item item, int row) {
+        item.setObjectId(classIds[row]);
+        item.setLabel(labels[row]);
+        item.setType(Model.Histogram.ItemType.CLASS);
+        item.setNumberOfObjects(objects[row]);
+        item.setShallowSize(shallowSizes[row]);
+        item.setRetainedSize(retainedSizes[row]);
+    }
+
+    /**
+     * Rows sorted by a key. Ties keep the original order of the records in both directions,
+     * which is what a stable sort with a (reversed) comparator produces.
+     */
+    private static class Permutation {
+
+        private final int[] ascending;
+
+        private final int[] descending;
+
+        Permutation(long[] keys) {
+            ascending = sort(keys, false);
+            descending = sort(keys, true);
+        }
+
+        int get(int index, boolean ascendingOrder) {
+            return ascendingOrder ? ascending[index] : descending[index];
+        }
+
+        private static int[] sort(long[] keys, boolean descending) {
+            int size = keys.length;
+            int[] rows = new int[size];
+            for (int i = 0; i < size; i++) {
+                rows[i] = i;
+            }
+            mergeSort(rows, new int[size], 0, size, keys, descending);
+            return rows;
+        }
+
+        private static void mergeSort(int[] rows, int[] buffer, int from, int to, long[] keys, boolean descending) {
+            if (to - from < 2) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            mergeSort(rows, buffer, from, mid, keys, descending);
+            mergeSort(rows, buffer, mid, to, keys, descending);
+            System.arraycopy(rows, from, buffer, from, to - from);
+            int left = from, right = mid, i = from;
+            while (left < mid && right < to) {
+                long l = keys[buffer[left]];
+                long r = keys[buffer[right]];
+                boolean takeRight = descending ? r > l : r < l;
+                rows[i++] = takeRight ? buffer[right++] : buffer[left++];
+            }
+            while (left < mid) {
+                rows[i++] = buffer[left++];
+            }
+            while (right < to) {
+                rows[i++] = buffer[right++];
+            }
+        }
+    }
+}
@@ -18,7 +18,7 @@ import org.eclipse.jifa.hda.api.FilterProgressListener;
 import org.eclipse.mat.util.IProgressListener;
 
 public class ProgressListenerImpl extends FilterProgressListener implements IProgressListener {
-    private boolean cancelled = false;
+    private volatile boolean cancelled = false;
 
     public ProgressListenerImpl(ProgressListener listener) {
         super(listener);
@@ -30,12 +30,15 @@ public class ProgressListenerImpl extends FilterProgressListener implements IPro
 
     @Override
     public boolean isCanceled() {
-        return cancelled;
+        return cancelled || super.isCanceled();
     }
 
     @Override
     public void setCanceled(boolean b) {
         cancelled = b;
+        if (b) {
+            cancel();
+        }
     }
 
     @Override
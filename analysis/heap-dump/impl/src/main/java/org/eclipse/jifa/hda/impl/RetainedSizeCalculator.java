@@ -0,0 +1,204 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.hda.impl;
+
+import org.eclipse.jifa.analysis.Progress;
+import org.eclipse.jifa.analysis.listener.ProgressListener;
+import org.eclipse.jifa.common.util.ExecutorFactory;
+import org.eclipse.jifa.hda.api.AnalysisException;
+import org.eclipse.mat.SnapshotException;
+import org.eclipse.mat.collect.HashMapIntLong;
+import org.eclipse.mat.snapshot.ClassHistogramRecord;
+import org.eclipse.mat.snapshot.ClassLoaderHistogramRecord;
+import org.eclipse.mat.snapshot.HistogramRecord;
+import org.eclipse.mat.snapshot.ISnapshot;
+import org.eclipse.mat.snapshot.model.IClass;
+import org.eclipse.mat.util.IProgressListener;
+import org.eclipse.mat.util.VoidProgressListener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Calculates retained sizes of histogram records in parallel.
+ * <p>
+ * Sizes of records covering the whole heap are memoized per class (and per class loader),
+ * so that they are calculated once per snapshot no matter which grouping asks for them.
+ */
+class RetainedSizeCalculator {
+
+    private static final ForkJoinPool POOL = ExecutorFactory.newForkJoinPool("Heap Dump Retained Size");
+
+    // number of records calculated by a leaf task
+    private static final int BATCH_SIZE = 4;
+
+    // an empty class retains nothing, and an approximated size is negative, so neither 0 nor -1 can be the mark
+    private static final long NOT_CALCULATED = Long.MIN_VALUE;
+
+    private final ISnapshot snapshot;
+
+    // sorted ids of all classes, the index of a class id is the slot of its retained size
+    private final int[] classIds;
+
+    // NOT_CALCULATED means not calculated, other negative value means approximated
+    private final AtomicLongArray classRetainedSizes;
+
+    // guarded by itself
+    private final HashMapIntLong classLoaderRetainedSizes = new HashMapIntLong();
+
+    private final Set<ProgressListener> activeListeners = ConcurrentHashMap.newKeySet();
+
+    RetainedSizeCalculator(ISnapshot snapshot) throws SnapshotException {
+        this.snapshot = snapshot;
+        classIds = snapshot.getClasses().stream().mapToInt(IClass::getObjectId).sorted().toArray();
+        long[] sizes = new long[classIds.length];
+        Arrays.fill(sizes, NOT_CALCULATED);
+        classRetainedSizes = new AtomicLongArray(sizes);
+    }
+
+    /**
+     * Calculate the retained sizes of the records, the records are updated in place.
+     *
+     * @param records  ClassHistogramRecord or ClassLoaderHistogramRecord
+     * @param memoize  whether the records cover the whole heap, i.e. not a histogram of some selected objects
+     * @param listener reports a unit of work per record, and cancels the calculation
+     */
+    void calculate(List<? extends HistogramRecord> records, boolean memoize, ProgressListener listener) {
+        listener.beginTask("Calculating retained sizes", records.size());
+        activeListeners.add(listener);
+        try {
+            POOL.invoke(new Task(records, 0, records.size(), memoize, listener));
+        } catch (IProgressListener.OperationCanceledException e) {
+            throw new AnalysisException("Calculation of retained sizes is cancelled");
+        } finally {
+            activeListeners.remove(listener);
+        }
+    }
+
+    /**
+     * @return the progress of the running calculations, averaged over their listeners
+     */
+    Progress progress() {
+        Progress progress = new Progress();
+        double percent = 0;
+        int running = 0;
+        for (ProgressListener listener : activeListeners) {
+            percent += listener.percent();
+            running++;
+        }
+        if (running == 0) {
+            progress.setState(Progress.State.SUCCESS);
+            progress.setPercent(1);
+        } else {
+            progress.setState(Progress.State.IN_PROGRESS);
+            progress.setPercent(percent / running);
+            progress.setMessage("Calculating retained sizes, running calculations: " + running);
+        }
+        return progress;
+    }
+
+    /**
+     * Cancel all running calculations
+     */
+    void cancel() {
+        activeListeners.forEach(ProgressListener::cancel);
+    }
+
+    private void calculate(HistogramRecord record, boolean memoize, IProgressListener listener) throws SnapshotException {
+        if (record instanceof ClassHistogramRecord r) {
+            int slot = memoize ? Arrays.binarySearch(classIds, r.getClassId()) : -1;
+            long size = slot >= 0 ? classRetainedSizes.get(slot) : NOT_CALCULATED;
+            if (size != NOT_CALCULATED) {
+                r.setRetainedHeapSize(size);
+                return;
+            }
+            size = r.calculateRetainedSize(snapshot, true, true, listener);
+            if (slot >= 0) {
+                classRetainedSizes.set(slot, size);
+            }
+        } else if (record instanceof ClassLoaderHistogramRecord r) {
+            if (memoize) {
+                synchronized (classLoaderRetainedSizes) {
+                    if (classLoaderRetainedSizes.containsKey(r.getClassLoaderId())) {
+                        r.setRetainedHeapSize(classLoaderRetainedSizes.get(r.getClassLoaderId()));
+                        return;
+                    }
+                }
+            }
+            long size = r.calculateRetainedSize(snapshot, true, true, listener);
+            if (memoize) {
+                synchronized (classLoaderRetainedSizes) {
+                    classLoaderRetainedSizes.put(r.getClassLoaderId(), size);
+                }
+            }
+        } else {
+            throw new AnalysisException("Unsupported record: " + record.getClass());
+        }
+    }
+
+    private class Task extends RecursiveAction {
+
+        private final List<? extends HistogramRecord> records;
+
+        private final int from;
+
+        private final int to;
+
+        private final boolean memoize;
+
+        private final ProgressListener listener;
+
+        Task(List<? extends HistogramRecord> records, int from, int to, boolean memoize, ProgressListener listener) {
+            this.records = records;
+            this.from = from;
+            this.to = to;
+            this.memoize = memoize;
+            this.listener = listener;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Task(records, from, mid, memoize, listener),
+                          new Task(records, mid, to, memoize, listener));
+                return;
+            }
+            // MAT reports fine-grained progress of each record, only the cancellation is forwarded
+            IProgressListener matListener = new VoidProgressListener() {
+                @Override
+                public boolean isCanceled() {
+                    return listener.isCanceled();
+                }
+            };
+            for (int i = from; i < to; i++) {
+                if (listener.isCanceled()) {
+                    throw new IProgressListener.OperationCanceledException();
+                }
+                try {
+                    calculate(records.get(i), memoize, matListener);
+                } catch (SnapshotException e) {
+                    throw new AnalysisException(e);
+                }
+                synchronized (listener) {
+                    listener.worked(1);
+                }
+            }
+        }
+    }
+}
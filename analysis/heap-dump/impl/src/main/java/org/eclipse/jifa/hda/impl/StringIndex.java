@@ -0,0 +1,669 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.hda.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jifa.analysis.listener.ProgressListener;
+import org.eclipse.jifa.hda.api.AnalysisException;
+import org.eclipse.mat.SnapshotException;
+import org.eclipse.mat.snapshot.ISnapshot;
+import org.eclipse.mat.snapshot.SnapshotInfo;
+import org.eclipse.mat.snapshot.model.IClass;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index of the contents of all java.lang.String instances of a snapshot, for the search of strings.
+ * <p>
+ * The contents are the class specific names of the strings, which is what find_strings matches.
+ * They are stored in a memory-mapped file, together with a trigram posting list: each trigram is hashed
+ * to a bucket, and a bucket lists the strings containing any of its trigrams. A search narrows the
+ * candidates by the trigrams of the literals required by the pattern, and then verifies the candidates
+ * with the pattern.
+ * <p>
+ * File layout: header, object ids, content offsets, bucket offsets, postings, contents (chars).
+ */
+@Slf4j
+class StringIndex {
+
+    static final String FILE_SUFFIX = "jifa.strings.index";
+
+    private static final int MAGIC = 0x4A534958;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 48;
+
+    private static final int BUCKET_BITS = 20;
+
+    private static final int BUCKETS = 1 << BUCKET_BITS;
+
+    // number of recently searched patterns whose matches are kept for paging
+    private static final int RECENT_SEARCHES = 8;
+
+    private final MappedFile file;
+
+    private final int count;
+
+    private final long objectIdsPosition;
+
+    private final long contentOffsetsPosition;
+
+    private final long bucketOffsetsPosition;
+
+    private final long postingsPosition;
+
+    private final long contentPosition;
+
+    // searches hold the read lock while they access the mappings, close holds the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private boolean closed;
+
+    private final Map<String, int[]> recentSearches = new LinkedHashMap<>(RECENT_SEARCHES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+            return size() > RECENT_SEARCHES;
+        }
+    };
+
+    private StringIndex(MappedFile file, int count, long postings) {
+        this.file = file;
+        this.count = count;
+        objectIdsPosition = HEADER_SIZE;
+        contentOffsetsPosition = align(objectIdsPosition + 4L * count);
+        bucketOffsetsPosition = contentOffsetsPosition + 8L * (count + 1);
+        postingsPosition = bucketOffsetsPosition + 8L * (BUCKETS + 1);
+        contentPosition = align(postingsPosition + 4L * postings);
+    }
+
+    interface Contents {
+        /**
+         * @param objectId the object id of a string
+         * @return the content of the string, or null if unknown
+         */
+        String get(int objectId) throws SnapshotException;
+    }
+
+    static File file(SnapshotInfo snapshotInfo) {
+        return new File(snapshotInfo.getPrefix() + FILE_SUFFIX);
+    }
+
+    /**
+     * The index is built only if requested, later analyses of the same snapshot reuse it if it exists.
+     *
+     * @return the index, or null if it is not available
+     */
+    static StringIndex open(ISnapshot snapshot, boolean build, ProgressListener listener) {
+        StringIndex index = load(snapshot.getSnapshotInfo());
+        if (index != null || !build) {
+            return index;
+        }
+        try {
+            return build(snapshot, listener);
+        } catch (Throwable t) {
+            log.warn("Failed to build string index", t);
+            return null;
+        }
+    }
+
+    static StringIndex build(ISnapshot snapshot, ProgressListener listener) throws SnapshotException, IOException {
+        Collection<IClass> classes = snapshot.getClassesByName("java.lang.String", false);
+        int[] objectIds = classes == null || classes.isEmpty() ? new int[0] : classes.iterator().next().getObjectIds();
+        SnapshotInfo snapshotInfo = snapshot.getSnapshotInfo();
+        return build(file(snapshotInfo), snapshotInfo.getNumberOfObjects(), objectIds,
+                     objectId -> snapshot.getObject(objectId).getClassSpecificName(), listener);
+    }
+
+    static StringIndex build(File target, long numberOfObjects, int[] objectIds, Contents contents,
+                             ProgressListener listener) throws SnapshotException, IOException {
+        int count = objectIds.length;
+        listener.beginTask("Building string index", 2 * count);
+
+        // pass 1: write the contents to a temporary file, and count the postings of each bucket
+        File temp = new File(target.getPath() + ".tmp");
+        File contentTemp = new File(target.getPath() + ".content.tmp");
+        long[] contentOffsets = new long[count + 1];
+        long[] bucketOffsets = new long[BUCKETS + 1];
+        int[] buckets = new int[64];
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(contentTemp)))) {
+                for (int i = 0; i < count; i++) {
+                    String content = contents.get(objectIds[i]);
+                    if (content == null) {
+                        content = "";
+                    }
+                    out.writeChars(content);
+                    contentOffsets[i + 1] = contentOffsets[i] + content.length();
+                    buckets = ensureCapacity(buckets, content.length());
+                    int n = buckets(CharBuffer.wrap(content), buckets);
+                    for (int j = 0; j < n; j++) {
+                        bucketOffsets[buckets[j] + 1]++;
+                    }
+                    worked(listener, i);
+                }
+            }
+            for (int b = 0; b < BUCKETS; b++) {
+                bucketOffsets[b + 1] += bucketOffsets[b];
+            }
+            long postings = bucketOffsets[BUCKETS];
+
+            try (RandomAccessFile raf = new RandomAccessFile(temp, "rw")) {
+                long contentChars = contentOffsets[count];
+                long size = new StringIndex(null, count, postings).contentPosition + 2 * contentChars;
+                raf.setLength(size);
+                MappedFile mapped = new MappedFile(raf.getChannel(), FileChannel.MapMode.READ_WRITE, size);
+                StringIndex index = new StringIndex(mapped, count, postings);
+
+                mapped.putInt(0, MAGIC);
+                mapped.putInt(4, VERSION);
+                mapped.putLong(8, numberOfObjects);
+                mapped.putInt(16, count);
+                mapped.putInt(20, BUCKET_BITS);
+                mapped.putLong(24, contentChars);
+                mapped.putLong(32, postings);
+                for (int i = 0; i < count; i++) {
+                    mapped.putInt(index.objectIdsPosition + 4L * i, objectIds[i]);
+                }
+                for (int i = 0; i <= count; i++) {
+                    mapped.putLong(index.contentOffsetsPosition + 8L * i, contentOffsets[i]);
+                }
+                for (int b = 0; b <= BUCKETS; b++) {
+                    mapped.putLong(index.bucketOffsetsPosition + 8L * b, bucketOffsets[b]);
+                }
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(contentTemp)))) {
+                    for (long c = 0; c < contentChars; c++) {
+                        mapped.putChar(index.contentPosition + 2 * c, in.readChar());
+                    }
+                }
+
+                // pass 2: fill the postings, which are sorted since the strings are visited in order
+                long[] cursors = Arrays.copyOf(bucketOffsets, BUCKETS);
+                for (int i = 0; i < count; i++) {
+                    int n = buckets(index.content(i), buckets);
+                    for (int j = 0; j < n; j++) {
+                        mapped.putInt(index.postingsPosition + 4L * cursors[buckets[j]]++, i);
+                    }
+                    worked(listener, i);
+                }
+                mapped.force();
+            }
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            contentTemp.delete();
+        }
+        if (!temp.renameTo(target)) {
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            throw new IOException("Failed to rename string index: " + temp.getAbsolutePath());
+        }
+        return load(target, numberOfObjects);
+    }
+
+    /**
+     * @param snapshotInfo the snapshot info
+     * @return the persisted index, or null if it doesn't exist or doesn't match the snapshot
+     */
+    static StringIndex load(SnapshotInfo snapshotInfo) {
+        return load(file(snapshotInfo), snapshotInfo.getNumberOfObjects());
+    }
+
+    static StringIndex load(File file, long numberOfObjects) {
+        if (!file.exists()) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() < HEADER_SIZE) {
+                return null;
+            }
+            MappedFile mapped = new MappedFile(raf.getChannel(), FileChannel.MapMode.READ_ONLY, raf.length());
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION ||
+                mapped.getLong(8) != numberOfObjects || mapped.getInt(20) != BUCKET_BITS) {
+                return null;
+            }
+            StringIndex index = new StringIndex(mapped, mapped.getInt(16), mapped.getLong(32));
+            if (index.contentPosition + 2 * mapped.getLong(24) != raf.length()) {
+                return null;
+            }
+            return index;
+        } catch (IOException e) {
+            log.warn("Failed to load string index: {}", file.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    int size() {
+        return count;
+    }
+
+    int objectId(int ordinal) {
+        Lock readLock = lockIfOpen();
+        try {
+            return file.getInt(objectIdsPosition + 4L * ordinal);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Same semantics as find_strings with pattern .*pattern.*
+     *
+     * @param pattern the pattern, null or empty matches all strings
+     * @return ordinals of the matched strings, in the order of object ids of the class
+     */
+    int[] search(String pattern) {
+        Lock readLock = lockIfOpen();
+        try {
+            return doSearch(pattern == null ? "" : pattern);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private int[] doSearch(String key) {
+        synchronized (recentSearches) {
+            int[] matched = recentSearches.get(key);
+            if (matched != null) {
+                return matched;
+            }
+        }
+
+        int[] matched;
+        if (key.isEmpty()) {
+            matched = new int[count];
+            Arrays.setAll(matched, i -> i);
+        } else {
+            Pattern p = Pattern.compile(".*" + key + ".*");
+            int[] candidates = candidates(key);
+            int n = 0;
+            matched = new int[Math.min(count, 1024)];
+            for (int i = 0, size = candidates == null ? count : candidates.length; i < size; i++) {
+                int ordinal = candidates == null ? i : candidates[i];
+                if (p.matcher(content(ordinal)).matches()) {
+                    if (n == matched.length) {
+                        matched = Arrays.copyOf(matched, Math.min(count, n * 2));
+                    }
+                    matched[n++] = ordinal;
+                }
+            }
+            matched = Arrays.copyOf(matched, n);
+        }
+
+        synchronized (recentSearches) {
+            recentSearches.put(key, matched);
+        }
+        return matched;
+    }
+
+    /**
+     * Drop the recent searches and the mappings of the file, after the searches in progress complete.
+     * Later searches fail with {@link AnalysisException}.
+     */
+    void close() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            synchronized (recentSearches) {
+                recentSearches.clear();
+            }
+            file.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Lock lockIfOpen() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        if (closed) {
+            readLock.unlock();
+            throw new AnalysisException("String index is closed");
+        }
+        return readLock;
+    }
+
+    /**
+     * @return ordinals of the strings that contain the trigrams required by the pattern, or null if
+     * the pattern doesn't require any trigram
+     */
+    private int[] candidates(String pattern) {
+        int[] buckets = new int[0];
+        int n = 0;
+        for (String literal : requiredLiterals(pattern)) {
+            int[] scratch = new int[literal.length()];
+            int m = buckets(CharBuffer.wrap(literal), scratch);
+            buckets = ensureCapacity(buckets, n + m);
+            System.arraycopy(scratch, 0, buckets, n, m);
+            n += m;
+        }
+        if (n == 0) {
+            return null;
+        }
+        buckets = Arrays.stream(buckets, 0, n).distinct().toArray();
+
+        // drive by the shortest posting list, and probe the others
+        long[] from = new long[buckets.length];
+        long[] to = new long[buckets.length];
+        int driver = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            from[i] = file.getLong(bucketOffsetsPosition + 8L * buckets[i]);
+            to[i] = file.getLong(bucketOffsetsPosition + 8L * (buckets[i] + 1));
+            if (to[i] - from[i] < to[driver] - from[driver]) {
+                driver = i;
+            }
+        }
+        int[] candidates = new int[(int) (to[driver] - from[driver])];
+        int size = 0;
+        for (long p = from[driver]; p < to[driver]; p++) {
+            int ordinal = file.getInt(postingsPosition + 4L * p);
+            boolean all = true;
+            for (int i = 0; i < buckets.length && all; i++) {
+                if (i != driver) {
+                    all = contains(from[i], to[i], ordinal);
+                }
+            }
+            if (all) {
+                candidates[size++] = ordinal;
+            }
+        }
+        return Arrays.copyOf(candidates, size);
+    }
+
+    private boolean contains(long from, long to, int ordinal) {
+        long low = from, high = to - 1;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            int value = file.getInt(postingsPosition + 4L * mid);
+            if (value < ordinal) {
+                low = mid + 1;
+            } else if (value > ordinal) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CharSequence content(int ordinal) {
+        long from = file.getLong(contentOffsetsPosition + 8L * ordinal);
+        long to = file.getLong(contentOffsetsPosition + 8L * (ordinal + 1));
+        return file.chars(contentPosition + 2 * from, (int) (to - from));
+    }
+
+    /**
+     * Extract the literals that any string matching the pattern must contain.
+     * The extraction is conservative: alternations, inline flags and groups yield nothing.
+     *
+     * @param pattern the pattern
+     * @return the literals
+     */
+    static String[] requiredLiterals(String pattern) {
+        if (pattern.indexOf('|') >= 0 || pattern.contains("(?") || pattern.contains("\\Q")) {
+            return new String[0];
+        }
+        List<String> literals = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        int depth = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (depth > 0) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                }
+                continue;
+            }
+            switch (c) {
+                case '\\' -> {
+                    if (i + 1 < pattern.length() && !Character.isLetterOrDigit(pattern.charAt(i + 1))) {
+                        run.append(pattern.charAt(++i));
+                    } else {
+                        // any other escape, e.g. \d, \x41 or \cX, breaks the literal
+                        i = escapeEnd(pattern, i);
+                        flush(run, literals);
+                    }
+                }
+                case '*', '?', '{' -> {
+                    // the previous char is optional
+                    if (!run.isEmpty()) {
+                        run.setLength(run.length() - 1);
+                    }
+                    flush(run, literals);
+                    if (c == '{') {
+                        int end = pattern.indexOf('}', i);
+                        i = end < 0 ? pattern.length() : end;
+                    }
+                }
+                case '+' -> flush(run, literals);
+                case '[' -> {
+                    flush(run, literals);
+                    // skip the class, a ']' right after '[' or '[^' is a literal member
+                    int j = i + 1;
+                    if (j < pattern.length() && pattern.charAt(j) == '^') {
+                        j++;
+                    }
+                    if (j < pattern.length() && pattern.charAt(j) == ']') {
+                        j++;
+                    }
+                    while (j < pattern.length() && pattern.charAt(j) != ']') {
+                        if (pattern.charAt(j) == '\\') {
+                            j++;
+                        }
+                        j++;
+                    }
+                    i = j;
+                }
+                case '(' -> {
+                    flush(run, literals);
+                    depth++;
+                }
+                case '.', '^', '$', ')' -> flush(run, literals);
+                default -> run.append(c);
+            }
+        }
+        flush(run, literals);
+        return literals.toArray(new String[0]);
+    }
+
+    /**
+     * @param pattern the pattern
+     * @param i       the position of the backslash of an escape that starts with a letter or digit
+     * @return the position of the last char of the escape
+     */
+    private static int escapeEnd(String pattern, int i) {
+        int last = pattern.length() - 1;
+        if (i + 1 > last) {
+            return last;
+        }
+        int j = i + 1;
+        char c = pattern.charAt(j);
+        int end = switch (c) {
+            case 'x' -> j + 1 <= last && pattern.charAt(j + 1) == '{' ? closing(pattern, j + 1, '}') : j + 2;
+            case 'u' -> j + 4;
+            case 'c' -> j + 1;
+            case 'p', 'P' -> j + 1 <= last && pattern.charAt(j + 1) == '{' ? closing(pattern, j + 1, '}') : j + 1;
+            case 'N' -> closing(pattern, j + 1, '}');
+            case 'k' -> closing(pattern, j + 1, '>');
+            case '0' -> {
+                // up to 3 octal digits
+                int k = j;
+                while (k < last && k - j < 3 && pattern.charAt(k + 1) >= '0' && pattern.charAt(k + 1) <= '7') {
+                    k++;
+                }
+                yield k;
+            }
+            default -> {
+                // a back reference takes all following digits
+                int k = j;
+                if (Character.isDigit(c)) {
+                    while (k < last && Character.isDigit(pattern.charAt(k + 1))) {
+                        k++;
+                    }
+                }
+                yield k;
+            }
+        };
+        return Math.min(end, last);
+    }
+
+    private static int closing(String pattern, int from, char c) {
+        int end = pattern.indexOf(c, from);
+        return end < 0 ? pattern.length() - 1 : end;
+    }
+
+    private static void flush(StringBuilder run, List<String> literals) {
+        if (!run.isEmpty()) {
+            literals.add(run.toString());
+            run.setLength(0);
+        }
+    }
+
+    /**
+     * Compute the distinct buckets of the trigrams of a content
+     *
+     * @param content the content
+     * @param buckets receives the buckets, must be as long as the content
+     * @return the number of buckets
+     */
+    private static int buckets(CharSequence content, int[] buckets) {
+        int n = 0;
+        for (int i = 0; i + 2 < content.length(); i++) {
+            long trigram = ((long) content.charAt(i) << 32) | ((long) content.charAt(i + 1) << 16) | content.charAt(i + 2);
+            buckets[n++] = (int) ((trigram * 0x9E3779B97F4A7C15L) >>> (64 - BUCKET_BITS));
+        }
+        Arrays.sort(buckets, 0, n);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || buckets[i] != buckets[i - 1]) {
+                buckets[distinct++] = buckets[i];
+            }
+        }
+        return distinct;
+    }
+
+    private static int[] ensureCapacity(int[] array, int capacity) {
+        return array.length >= capacity ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+    }
+
+    private static void worked(ProgressListener listener, int i) {
+        if ((i & 0xFFFF) == 0xFFFF) {
+            listener.worked(0x10000);
+        }
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    /**
+     * A file mapped by segments, since a single mapping is limited to 2GB.
+     * Sections are 8-byte aligned, so a primitive never spans two segments.
+     */
+    private static class MappedFile {
+
+        private static final int SEGMENT_SHIFT = 30;
+
+        private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+        private final MappedByteBuffer[] segments;
+
+        MappedFile(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+            int n = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+            segments = new MappedByteBuffer[n];
+            for (int i = 0; i < n; i++) {
+                long position = (long) i << SEGMENT_SHIFT;
+                segments[i] = channel.map(mode, position, Math.min(SEGMENT_MASK + 1, size - position));
+            }
+        }
+
+        private ByteBuffer segment(long position) {
+            return segments[(int) (position >>> SEGMENT_SHIFT)];
+        }
+
+        int getInt(long position) {
+            return segment(position).getInt((int) (position & SEGMENT_MASK));
+        }
+
+        long getLong(long position) {
+            return segment(position).getLong((int) (position & SEGMENT_MASK));
+        }
+
+        void putInt(long position, int value) {
+            segment(position).putInt((int) (position & SEGMENT_MASK), value);
+        }
+
+        void putLong(long position, long value) {
+            segment(position).putLong((int) (position & SEGMENT_MASK), value);
+        }
+
+        void putChar(long position, char value) {
+            segment(position).putChar((int) (position & SEGMENT_MASK), value);
+        }
+
+        CharSequence chars(long position, int length) {
+            ByteBuffer segment = segment(position);
+            int offset = (int) (position & SEGMENT_MASK);
+            if (offset + 2L * length <= segment.limit()) {
+                return segment.slice(offset, 2 * length).asCharBuffer();
+            }
+            // spans two segments
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                long p = position + 2L * i;
+                chars[i] = segment(p).getChar((int) (p & SEGMENT_MASK));
+            }
+            return CharBuffer.wrap(chars);
+        }
+
+        void force() {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+
+        // the mappings are released once the buffers are collected
+        void close() {
+            Arrays.fill(segments, null);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.hda.impl;
+
+import org.eclipse.jifa.common.domain.request.PagingRequest;
+import org.eclipse.jifa.common.domain.vo.PageView;
+import org.eclipse.jifa.hda.api.Model;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestComparisonTable {
+
+    private static ComparisonTable.Counts counts(String[] classNames, long[] objects, long[] shallowSizes) {
+        return new ComparisonTable.Counts(classNames, objects, shallowSizes);
+    }
+
+    @Test
+    public void testComparison() {
+        ComparisonTable table = new ComparisonTable(List.of(
+                counts(new String[]{"A", "B"}, new long[]{2, 2}, new long[]{20, 20}),
+                counts(new String[]{"A", "C"}, new long[]{4, 1}, new long[]{40, 5})));
+
+        Model.Comparison.Summary summary = table.summary();
+        assertEquals(3, summary.getTotalSize());
+        assertEquals(1, summary.getObjects());
+        assertEquals(5, summary.getShallowSize());
+
+        PageView<Model.Comparison.Item> items = table.items(new PagingRequest(1, 2));
+        assertEquals(3, items.getTotalSize());
+        assertEquals("A", items.getData().get(0).getClassName());
+        assertEquals(20, items.getData().get(0).getShallowSize());
+        assertEquals("C", items.getData().get(1).getClassName());
+        items = table.items(new PagingRequest(2, 2));
+        assertEquals("B", items.getData().get(0).getClassName());
+        assertEquals(-2, items.getData().get(0).getObjects());
+    }
+
+    @Test
+    public void testSeries() {
+        ComparisonTable table = new ComparisonTable(List.of(
+                counts(new String[]{"A", "B"}, new long[]{2, 2}, new long[]{20, 20}),
+                counts(new String[]{"A", "C"}, new long[]{3, 1}, new long[]{30, 5}),
+                counts(new String[]{"A", "B", "C"}, new long[]{4, 1, 1}, new long[]{40, 10, 5})));
+
+        PageView<Model.Comparison.SeriesItem> items = table.seriesItems(false, new PagingRequest(1, 10));
+        assertEquals(3, items.getTotalSize());
+        Model.Comparison.SeriesItem b = items.getData().get(2);
+        assertEquals("B", b.getClassName());
+        assertArrayEquals(new long[]{20, 0, 10}, b.getShallowSizes());
+        assertFalse(b.isGrowing());
+
+        items = table.seriesItems(true, new PagingRequest(1, 10));
+        assertEquals(2, items.getTotalSize());
+        assertEquals("A", items.getData().get(0).getClassName());
+        assertArrayEquals(new long[]{2, 3, 4}, items.getData().get(0).getObjects());
+        assertTrue(items.getData().get(1).isGrowing());
+    }
+}
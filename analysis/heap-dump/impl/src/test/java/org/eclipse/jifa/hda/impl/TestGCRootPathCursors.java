@@ -0,0 +1,97 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.hda.impl;
+
+import org.eclipse.mat.SnapshotException;
+import org.eclipse.mat.snapshot.IPathsFromGCRootsComputer;
+import org.eclipse.mat.snapshot.PathsFromGCRootsTree;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestGCRootPathCursors {
+
+    // returns paths {0}, {1}, ..., {size - 1}
+    private static IPathsFromGCRootsComputer computer(int size) {
+        return new IPathsFromGCRootsComputer() {
+            int next;
+
+            @Override
+            public int[] getNextShortestPath() {
+                return next < size ? new int[]{next++} : null;
+            }
+
+            @Override
+            public PathsFromGCRootsTree getTree(Collection<int[]> paths) {
+                return null;
+            }
+        };
+    }
+
+    @Test
+    public void testContinue() throws SnapshotException {
+        GCRootPathCursors cursors = new GCRootPathCursors();
+        GCRootPathCursors.Cursor cursor = new GCRootPathCursors.Cursor(1, computer(5));
+        cursor.skip(1);
+        List<int[]> paths = cursor.next(2);
+        assertEquals(2, paths.size());
+        assertEquals(1, paths.get(0)[0]);
+        assertEquals(2, paths.get(1)[0]);
+        assertTrue(cursor.hasMore());
+
+        String token = cursors.put(cursor);
+        // another object or position doesn't continue the cursor, which is dropped
+        assertNull(cursors.take(token, 2, 3));
+        assertNull(cursors.take(token, 1, 3));
+
+        token = cursors.put(cursor);
+        assertSame(cursor, cursors.take(token, 1, 3));
+        // a token continues one page only
+        assertNull(cursors.take(token, 1, 3));
+
+        paths = cursor.next(10);
+        assertEquals(2, paths.size());
+        assertEquals(4, paths.get(1)[0]);
+        assertFalse(cursor.hasMore());
+        assertEquals(5, cursor.position());
+    }
+
+    @Test
+    public void testBoundAndExpiry() throws SnapshotException {
+        AtomicLong now = new AtomicLong();
+        GCRootPathCursors cursors = new GCRootPathCursors(now::get);
+
+        String first = cursors.put(new GCRootPathCursors.Cursor(0, computer(1)));
+        for (int i = 1; i <= GCRootPathCursors.MAX_CURSORS; i++) {
+            cursors.put(new GCRootPathCursors.Cursor(i, computer(1)));
+        }
+        assertEquals(GCRootPathCursors.MAX_CURSORS, cursors.size());
+        assertNull(cursors.take(first, 0, 0));
+
+        String last = cursors.put(new GCRootPathCursors.Cursor(0, computer(1)));
+        now.addAndGet(GCRootPathCursors.IDLE_TIMEOUT - 1);
+        assertNotNull(cursors.take(last, 0, 0));
+
+        now.addAndGet(1);
+        assertEquals(0, cursors.size());
+    }
+}
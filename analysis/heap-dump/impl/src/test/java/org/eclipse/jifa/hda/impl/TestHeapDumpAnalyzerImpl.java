@@ -31,6 +31,10 @@ import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
 @Slf4j
 public class TestHeapDumpAnalyzerImpl {
 
@@ -194,7 +198,19 @@ public class TestHeapDumpAnalyzerImpl {
 
     @Test
     public void testGetPathToGCRoots() {
-        ANALYZER.getPathToGCRoots(1, 1, 10);
+        ANALYZER.getPathToGCRoots(1, null, 1, 10);
+
+        // a page continued by the cursor has the same paths as a page computed from scratch
+        Model.GCRootPath.Item first = ANALYZER.getPathToGCRoots(1, null, 0, 1);
+        if (first.isHasMore()) {
+            assertNotNull(first.getCursor());
+            Model.GCRootPath.Item continued = ANALYZER.getPathToGCRoots(1, first.getCursor(), 1, 10);
+            Model.GCRootPath.Item skipped = ANALYZER.getPathToGCRoots(1, null, 1, 10);
+            assertEquals(skipped.getTree(), continued.getTree());
+            assertEquals(skipped.isHasMore(), continued.isHasMore());
+        } else {
+            assertNull(first.getCursor());
+        }
     }
 
     @Test
@@ -0,0 +1,77 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.hda.impl;
+
+import org.eclipse.jifa.common.domain.request.PagingRequest;
+import org.eclipse.jifa.common.domain.vo.PageView;
+import org.eclipse.jifa.hda.api.Model;
+import org.eclipse.jifa.hda.api.SearchType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestHistogramIndex {
+
+    private static HistogramIndex index() {
+        return new HistogramIndex(new int[]{3, 1, 2, 4},
+                                  new String[]{"java.lang.String", "byte[]", "java.lang.Object", "java.util.HashMap"},
+                                  new long[]{10, 20, 10, 5},
+                                  new long[]{240, 4000, 160, 240},
+                                  new long[]{-1000, 4000, 160, 2000});
+    }
+
+    @Test
+    public void testSort() {
+        HistogramIndex index = index();
+
+        PageView<Model.Histogram.Item> pv = index.page("retainedSize", false, null, null, new PagingRequest(1, 2));
+        assertEquals(4, pv.getTotalSize());
+        assertEquals(1, pv.getData().get(0).getObjectId());
+        assertEquals(4, pv.getData().get(1).getObjectId());
+
+        // ties keep the original order in both directions
+        pv = index.page("numberOfObjects", true, null, null, new PagingRequest(1, 4));
+        assertEquals(4, pv.getData().get(0).getObjectId());
+        assertEquals(3, pv.getData().get(1).getObjectId());
+        assertEquals(2, pv.getData().get(2).getObjectId());
+        pv = index.page("numberOfObjects", false, null, null, new PagingRequest(1, 4));
+        assertEquals(1, pv.getData().get(0).getObjectId());
+        assertEquals(3, pv.getData().get(1).getObjectId());
+        assertEquals(2, pv.getData().get(2).getObjectId());
+
+        pv = index.page("id", true, null, null, new PagingRequest(2, 3));
+        assertEquals(1, pv.getData().size());
+        assertEquals(4, pv.getData().get(0).getObjectId());
+
+        // unknown field keeps the original order
+        pv = index.page("shallowHeap", true, null, null, new PagingRequest(1, 1));
+        assertEquals(3, pv.getData().get(0).getObjectId());
+    }
+
+    @Test
+    public void testFilter() {
+        HistogramIndex index = index();
+
+        PageView<Model.Histogram.Item> pv =
+                index.page("shallowSize", false, "java\\.lang\\..*", SearchType.BY_NAME, new PagingRequest(1, 1));
+        assertEquals(2, pv.getTotalSize());
+        assertEquals(1, pv.getData().size());
+        assertEquals("java.lang.String", pv.getData().get(0).getLabel());
+        assertEquals(-1000, pv.getData().get(0).getRetainedSize());
+
+        pv = index.page("id", true, ">=10", SearchType.BY_OBJ_NUM, new PagingRequest(2, 2));
+        assertEquals(3, pv.getTotalSize());
+        assertEquals(1, pv.getData().size());
+        assertEquals(3, pv.getData().get(0).getObjectId());
+    }
+}
@@ -0,0 +1,89 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.hda.impl;
+
+import org.eclipse.jifa.analysis.listener.ProgressListener;
+import org.eclipse.jifa.hda.api.AnalysisException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestStringIndex {
+
+    @Test
+    public void testRequiredLiterals() {
+        assertArrayEquals(new String[]{"session-", "abc.def"}, StringIndex.requiredLiterals("session-[0-9]+abc\\.def"));
+        assertArrayEquals(new String[]{"a", "efgh", "ijk"}, StringIndex.requiredLiterals("a(bcd)efgh\\d+ijk"));
+        // optional characters are not required
+        assertArrayEquals(new String[]{"SELECT ", " FROM user"}, StringIndex.requiredLiterals("SELECT .* FROM users?"));
+        assertArrayEquals(new String[0], StringIndex.requiredLiterals("abc|def"));
+        // escapes other than of a literal char are consumed as a whole and break the literal
+        assertArrayEquals(new String[]{"BC"}, StringIndex.requiredLiterals("\\x41BC"));
+        assertArrayEquals(new String[]{"a", "bcd"}, StringIndex.requiredLiterals("a\\x{41}bcd"));
+        assertArrayEquals(new String[]{"ab", "cd"}, StringIndex.requiredLiterals("ab\\u0041cd"));
+        assertArrayEquals(new String[]{"x", "yz"}, StringIndex.requiredLiterals("x\\0101yz"));
+        assertArrayEquals(new String[]{"ab", "cd"}, StringIndex.requiredLiterals("ab\\cJcd"));
+        assertArrayEquals(new String[]{"foo", "bar"}, StringIndex.requiredLiterals("foo\\p{Lu}bar"));
+        assertArrayEquals(new String[]{"bc"}, StringIndex.requiredLiterals("(a)bc\\1"));
+    }
+
+    @Test
+    public void testSearch(@TempDir Path dir) throws Exception {
+        String[] contents = {"hello world", null, "jdbc:mysql://localhost", "Hello", "world hello", "", "abcabc"};
+        int[] objectIds = {10, 11, 12, 13, 14, 15, 16};
+        File file = dir.resolve("test.jifa.strings.index").toFile();
+
+        StringIndex index = StringIndex.build(file, 100, objectIds, id -> contents[id - 10],
+                                              ProgressListener.NoOpProgressListener);
+        assertEquals(7, index.size());
+        assertEquals(12, index.objectId(2));
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6}, index.search(""));
+        assertArrayEquals(new int[]{0, 4}, index.search("hello"));
+        assertArrayEquals(new int[]{0, 3, 4}, index.search("[hH]ello"));
+        assertArrayEquals(new int[]{2}, index.search("jdbc:.*//"));
+        assertArrayEquals(new int[]{6}, index.search("(abc){2}"));
+        assertArrayEquals(new int[0], index.search("xyz"));
+        assertArrayEquals(new int[]{2}, index.search("jdbc\\x3Amysql"));
+        assertArrayEquals(new int[]{0, 4}, index.search("\\u0068ello"));
+
+        assertNull(StringIndex.load(file, 101));
+        StringIndex loaded = StringIndex.load(file, 100);
+        assertNotNull(loaded);
+        assertArrayEquals(new int[]{3, 4}, loaded.search("hello|Hello$"));
+
+        index.close();
+        loaded.close();
+    }
+
+    @Test
+    public void testClose(@TempDir Path dir) throws Exception {
+        File file = dir.resolve("test.jifa.strings.index").toFile();
+        StringIndex index = StringIndex.build(file, 100, new int[]{10, 11}, id -> "string" + id,
+                                              ProgressListener.NoOpProgressListener);
+        assertArrayEquals(new int[]{1}, index.search("11"));
+
+        index.close();
+        assertThrows(AnalysisException.class, () -> index.search("11"));
+        assertThrows(AnalysisException.class, () -> index.objectId(0));
+        index.close();
+    }
+}
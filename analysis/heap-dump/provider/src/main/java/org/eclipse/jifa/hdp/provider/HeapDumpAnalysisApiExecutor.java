@@ -15,6 +15,7 @@ package org.eclipse.jifa.hdp.provider;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.eclipse.jifa.analysis.AbstractApiExecutor;
+import org.eclipse.jifa.analysis.MemoryEstimate;
 import org.eclipse.jifa.analysis.listener.ProgressListener;
 import org.eclipse.jifa.analysis.support.MethodNameConverter;
 import org.eclipse.jifa.hda.api.HeapDumpAnalyzer;
@@ -25,8 +26,11 @@ import org.osgi.framework.Constants;
 import org.osgi.framework.launch.Framework;
 import org.osgi.framework.launch.FrameworkFactory;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.DataInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URL;
 import java.nio.file.Files;
@@ -152,6 +156,24 @@ public class HeapDumpAnalysisApiExecutor extends AbstractApiExecutor<HeapDumpAna
 
     private static final HeapDumpAnalyzer.Provider PROVIDER;
 
+    // rough size of an object record besides the object id and class id: tag, stack serial, length and fields
+    private static final int OBJECT_RECORD_OVERHEAD = 41;
+
+    // rough memory per object while parsing, for the identifier, class, size and outbound indexes and the
+    // dominator tree
+    private static final int PARSING_BYTES_PER_OBJECT = 56;
+
+    // rough memory per object retained by an opened snapshot
+    private static final int RESIDENT_BYTES_PER_OBJECT = 16;
+
+    private static final int GZIP_COMPRESSION_RATIO = 4;
+
+    // see org.eclipse.jifa.hda.impl.HistogramIndex
+    private static final String HISTOGRAM_INDEX_SUFFIX = "jifa.histogram.index";
+
+    // see org.eclipse.jifa.hda.impl.StringIndex
+    private static final String STRING_INDEX_SUFFIX = "jifa.strings.index";
+
     @Override
     public String namespace() {
         return "heap-dump";
@@ -178,10 +200,13 @@ public class HeapDumpAnalysisApiExecutor extends AbstractApiExecutor<HeapDumpAna
     @Override
     public void clean(Path target) {
         super.clean(target);
-        File index = indexFile(target);
-        if (index.exists()) {
-            if (!index.delete()) {
-                log.warn("Failed to delete index file: {}", index.getAbsolutePath());
+        for (File index : new File[]{indexFile(target),
+                                     indexFile(target, HISTOGRAM_INDEX_SUFFIX),
+                                     indexFile(target, STRING_INDEX_SUFFIX)}) {
+            if (index.exists()) {
+                if (!index.delete()) {
+                    log.warn("Failed to delete index file: {}", index.getAbsolutePath());
+                }
             }
         }
     }
@@ -193,7 +218,44 @@ public class HeapDumpAnalysisApiExecutor extends AbstractApiExecutor<HeapDumpAna
 
     @Override
     protected HeapDumpAnalyzer buildAnalyzer(Path target, Map<String, String> options, ProgressListener listener) {
-        return PROVIDER.provide(target, options, listener);
+        return PROVIDER.provide(target, options, listener, this::analyzerOf);
+    }
+
+    @Override
+    protected boolean useMemoryBudget() {
+        return true;
+    }
+
+    /**
+     * The number of objects is estimated by the size of the dump, and the memory by the number of objects.
+     * An indexed dump is opened from its index files, which needs about the memory of an opened snapshot.
+     */
+    @Override
+    protected MemoryEstimate estimateMemory(Path target) {
+        long size = target.toFile().length();
+        int identifierSize = 8;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(target)))) {
+            int first = in.readUnsignedByte();
+            if (first == 0x1F && in.readUnsignedByte() == 0x8B) {
+                size *= GZIP_COMPRESSION_RATIO;
+            } else {
+                // "JAVA PROFILE 1.0.x", a zero byte, then the identifier size as u4
+                for (int i = 0, b = first; i < 32; i++, b = in.readUnsignedByte()) {
+                    if (b == 0) {
+                        int value = in.readInt();
+                        if (value == 4 || value == 8) {
+                            identifierSize = value;
+                        }
+                        break;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Failed to read the header of {}", target, e);
+        }
+        long objects = size / (2L * identifierSize + OBJECT_RECORD_OVERHEAD);
+        long resident = objects * RESIDENT_BYTES_PER_OBJECT;
+        return new MemoryEstimate(indexFile(target).exists() ? resident : objects * PARSING_BYTES_PER_OBJECT, resident);
     }
 
     @Override
@@ -204,6 +266,10 @@ public class HeapDumpAnalysisApiExecutor extends AbstractApiExecutor<HeapDumpAna
     }
 
     private File indexFile(Path target) {
+        return indexFile(target, "index");
+    }
+
+    private File indexFile(Path target, String suffix) {
         String indexFileNamePrefix;
         String dumpFileName = target.toFile().getName();
         int i = dumpFileName.lastIndexOf('.');
@@ -212,6 +278,6 @@ public class HeapDumpAnalysisApiExecutor extends AbstractApiExecutor<HeapDumpAna
         } else {
             indexFileNamePrefix = dumpFileName + '.';
         }
-        return target.resolveSibling(indexFileNamePrefix + "index").toFile();
+        return target.resolveSibling(indexFileNamePrefix + suffix).toFile();
     }
 }
@@ -14,14 +14,19 @@ package org.eclipse.jifa.analysis;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.github.benmanes.caffeine.cache.RemovalListener;
 import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Weigher;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jifa.analysis.annotation.ApiMeta;
 import org.eclipse.jifa.analysis.annotation.ApiParameterMeta;
 import org.eclipse.jifa.analysis.annotation.Exclude;
+import org.eclipse.jifa.analysis.cache.Persistent;
+import org.eclipse.jifa.analysis.cache.ResultStore;
 import org.eclipse.jifa.analysis.listener.DefaultProgressListener;
 import org.eclipse.jifa.analysis.listener.ProgressListener;
 import org.eclipse.jifa.analysis.support.MethodNameConverter;
@@ -37,12 +42,16 @@ import java.io.StringWriter;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -51,6 +60,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
 
 import static org.eclipse.jifa.analysis.enums.AnalysisErrorCode.FILE_NOT_FOUND;
 import static org.eclipse.jifa.analysis.listener.ProgressListener.NoOpProgressListener;
@@ -64,6 +74,13 @@ public abstract class AbstractApiExecutor<Analyzer> implements ApiExecutor {
 
     private final Set<String> predefinedApiNames = new HashSet<>();
 
+    private final Set<Method> persistentApiMethods = new HashSet<>();
+
+    // api method -> indexes of comparison target parameters
+    private final Map<Method, int[]> comparisonTargetParameters = new HashMap<>();
+
+    private final ResultStore resultStore = new ResultStore();
+
     private final Map<ExecutionContext, CompletableFuture<?>> activeContext = new ConcurrentHashMap<>();
 
     private final Map<Path, CompletableFuture<Analyzer>> buildingAnalyzer = new ConcurrentHashMap<>();
@@ -72,6 +89,20 @@ public abstract class AbstractApiExecutor<Analyzer> implements ApiExecutor {
 
     private final Cache<Path, Analyzer> cachedAnalyzer;
 
+    // targets of the api calls in progress, guarded by itself, see pin(List)
+    private final Map<Path, Pin> pins = new HashMap<>();
+
+    private final long idleNanos;
+
+    // bytes of memory that cached analyzers may retain
+    private volatile long cacheBudget;
+
+    // bytes of memory left by the analyses being built, see AdmissionController
+    private volatile long availableMemory = Long.MAX_VALUE;
+
+    // null if the executor doesn't estimate the memory of analyses
+    private final AdmissionController admissionController;
+
     private final java.util.concurrent.Executor executor;
 
     protected AbstractApiExecutor() {
@@ -79,12 +110,44 @@ public abstract class AbstractApiExecutor<Analyzer> implements ApiExecutor {
 
         executor = ExecutorFactory.newExecutor(this.getClass().getSimpleName() + " Executor");
 
+        cacheBudget = getCacheBudget();
+        idleNanos = TimeUnit.MINUTES.toNanos(getCacheDuration());
+        // idle analyzers are evicted by their footprint and how frequently they are used, analyzers in use weigh
+        // nothing and don't expire, so they are never evicted
         cachedAnalyzer = Caffeine.newBuilder()
                                  .scheduler(Scheduler.systemScheduler())
-                                 .softValues()
-                                 .expireAfterAccess(getCacheDuration(), TimeUnit.MINUTES)
-                                 .removalListener((RemovalListener<Object, Analyzer>) (key, analyzer, cause) -> cachedAnalyzerRemoved(analyzer))
+                                 .expireAfter(new Expiry<Object, Object>() {
+                                     @Override
+                                     public long expireAfterCreate(Object target, Object analyzer, long currentTime) {
+                                         return expiration((Path) target);
+                                     }
+
+                                     @Override
+                                     public long expireAfterUpdate(Object target, Object analyzer, long currentTime,
+                                                                   long currentDuration) {
+                                         return expiration((Path) target);
+                                     }
+
+                                     @Override
+                                     public long expireAfterRead(Object target, Object analyzer, long currentTime,
+                                                                 long currentDuration) {
+                                         return expiration((Path) target);
+                                     }
+                                 })
+                                 .maximumWeight(toWeight(cacheBudget))
+                                 .weigher((Weigher<Object, Analyzer>) (target, analyzer) -> weigh((Path) target, analyzer))
+                                 .removalListener((RemovalListener<Object, Analyzer>) (target, analyzer, cause) -> {
+                                     // explicitly removed analyzers are disposed by cleanAndDisposeAnalyzerCache
+                                     if (cause != RemovalCause.EXPLICIT) {
+                                         dispose((Path) target, analyzer);
+                                     }
+                                 })
                                  .build();
+
+        admissionController = useMemoryBudget()
+                ? new AdmissionController(getMemoryBudget(), getMaxPendingAnalyses(), this::memoryInUse,
+                                          this::limitCachedAnalyzers)
+                : null;
     }
 
     @Override
@@ -92,6 +155,21 @@ public abstract class AbstractApiExecutor<Analyzer> implements ApiExecutor {
         return apis;
     }
 
+    @Override
+    public final void setAnalyzerCacheBudget(long bytes) {
+        Validate.isTrue(bytes >= 0, "Cache budget must not be negative");
+        cacheBudget = bytes;
+        applyCacheLimit();
+    }
+
+    @Override
+    public final void setAnalysisMemoryBudget(long bytes) {
+        Validate.isTrue(bytes >= 0, "Memory budget must not be negative");
+        if (admissionController != null) {
+            admissionController.setBudget(bytes);
+        }
+    }
+
     @Override
     public final CompletableFuture<?> execute(ExecutionContext context) {
 
@@ -102,22 +180,188 @@ public abstract class AbstractApiExecutor<Analyzer> implements ApiExecutor {
         }
 
         return activeContext.computeIfAbsent(context, ignored -> {
-            boolean isPredefinedApi = predefinedApiNames.contains(context.api());
-            CompletableFuture<?> receiver = isPredefinedApi
-                    ? CompletableFuture.completedFuture(this)
-                    : buildAnalyzer(context.target(), Collections.emptyMap());
-            return receiver.thenApplyAsync(r -> {
-                try {
-                    return checkApiReturnValue(method.invoke(r, context.arguments()));
-                } catch (RuntimeException re) {
-                    throw re;
-                } catch (Throwable t) {
-                    throw new CompletionException(t);
-                } finally {
+            if (predefinedApiNames.contains(context.api())) {
+                return invoke(CompletableFuture.completedFuture(this), method, context, false);
+            }
+            List<Path> targets = targetsOf(method, context);
+            pin(targets);
+            CompletableFuture<Object> result;
+            try {
+                result = invoke(method, context, targets);
+            } catch (Throwable t) {
+                unpin(targets);
+                throw t;
+            }
+            return result.whenComplete((rv, t) -> unpin(targets));
+        });
+    }
+
+    private CompletableFuture<Object> invoke(Method method, ExecutionContext context, List<Path> targets) {
+        boolean persist = resultStore.isEnabled() && persistentApiMethods.contains(method);
+        if (persist && cachedAnalyzer.getIfPresent(context.target()) == null) {
+            // answer from the persisted result if any, the analyzer is not needed in that case
+            return CompletableFuture.supplyAsync(
+                    () -> resultStore.load(context.target(), context.api(), context.arguments(), method.getGenericReturnType()),
+                    executor).thenComposeAsync(stored -> {
+                if (stored != null) {
                     activeContext.remove(context);
+                    return CompletableFuture.completedFuture(stored);
                 }
+                return invoke(buildAnalyzers(targets), method, context, true);
             }, executor);
-        });
+        }
+        return invoke(buildAnalyzers(targets), method, context, persist);
+    }
+
+    // the target, then the comparison targets of the api
+    private List<Path> targetsOf(Method method, ExecutionContext context) {
+        List<Path> targets = new ArrayList<>();
+        targets.add(context.target());
+        int[] indexes = comparisonTargetParameters.get(method);
+        if (indexes != null) {
+            for (int index : indexes) {
+                Object argument = context.arguments()[index];
+                if (argument instanceof Path other) {
+                    targets.add(other);
+                } else if (argument instanceof List<?> others) {
+                    for (Object other : others) {
+                        targets.add((Path) other);
+                    }
+                }
+            }
+        }
+        return targets;
+    }
+
+    // comparison targets are analyzed through the cache too, so that the api can get them by analyzerOf
+    private CompletableFuture<Analyzer> buildAnalyzers(List<Path> targets) {
+        CompletableFuture<Analyzer> receiver = buildAnalyzer(targets.get(0), Collections.emptyMap());
+        if (targets.size() == 1) {
+            return receiver;
+        }
+        List<CompletableFuture<Analyzer>> futures = new ArrayList<>();
+        futures.add(receiver);
+        for (Path other : targets.subList(1, targets.size())) {
+            futures.add(buildAnalyzer(other, Collections.emptyMap()));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenCompose(ignored -> receiver);
+    }
+
+    /**
+     * Pin the targets of an api call until the call completes. The analyzer of a pinned target is neither evicted
+     * nor expired, and an analyzer removed from the cache while its target is pinned, e.g. released or replaced by
+     * a rebuilt one, is disposed after the last call on the target completes.
+     *
+     * @param targets the targets, may contain duplicates
+     */
+    private void pin(List<Path> targets) {
+        List<Path> pinned = new ArrayList<>();
+        synchronized (pins) {
+            for (Path target : targets) {
+                if (pins.computeIfAbsent(target, ignored -> new Pin()).count++ == 0) {
+                    pinned.add(target);
+                }
+            }
+        }
+        reweigh(pinned);
+        memoryInUseChanged();
+    }
+
+    private void unpin(List<Path> targets) {
+        List<Analyzer> removed = new ArrayList<>();
+        List<Path> idle = new ArrayList<>();
+        synchronized (pins) {
+            for (Path target : targets) {
+                Pin pin = pins.get(target);
+                if (--pin.count == 0) {
+                    pins.remove(target);
+                    removed.addAll(pin.removed.keySet());
+                    idle.add(target);
+                }
+            }
+        }
+        for (Analyzer analyzer : removed) {
+            cachedAnalyzerRemoved(analyzer);
+        }
+        reweigh(idle);
+        memoryInUseChanged();
+    }
+
+    // updated with the same analyzers, so that they are weighed and expire by whether they are pinned
+    private void reweigh(List<Path> targets) {
+        for (Path target : targets) {
+            cachedAnalyzer.asMap().computeIfPresent(target, (t, analyzer) -> analyzer);
+        }
+    }
+
+    private boolean isPinned(Path target) {
+        synchronized (pins) {
+            return pins.containsKey(target);
+        }
+    }
+
+    private void dispose(Path target, Analyzer analyzer) {
+        if (analyzer == null) {
+            return;
+        }
+        synchronized (pins) {
+            Pin pin = pins.get(target);
+            if (pin != null) {
+                pin.removed.put(analyzer, Boolean.TRUE);
+                return;
+            }
+        }
+        cachedAnalyzerRemoved(analyzer);
+    }
+
+    // bytes retained by the analyzers of the pinned targets, including the removed ones not disposed yet
+    private long memoryInUse() {
+        Map<Path, List<Analyzer>> removed = new HashMap<>();
+        synchronized (pins) {
+            for (Map.Entry<Path, Pin> entry : pins.entrySet()) {
+                removed.put(entry.getKey(), new ArrayList<>(entry.getValue().removed.keySet()));
+            }
+        }
+        long memory = 0;
+        for (Map.Entry<Path, List<Analyzer>> entry : removed.entrySet()) {
+            Path target = entry.getKey();
+            Analyzer analyzer = cachedAnalyzer.policy().getIfPresentQuietly(target);
+            if (analyzer != null) {
+                memory += footprint(target, analyzer);
+            }
+            for (Analyzer r : entry.getValue()) {
+                memory += footprint(target, r);
+            }
+        }
+        return memory;
+    }
+
+    private void memoryInUseChanged() {
+        if (admissionController != null) {
+            admissionController.recheck();
+        }
+    }
+
+    private long expiration(Path target) {
+        return isPinned(target) ? Long.MAX_VALUE : idleNanos;
+    }
+
+    private CompletableFuture<Object> invoke(CompletableFuture<?> receiver, Method method, ExecutionContext context, boolean persist) {
+        return receiver.thenApplyAsync(r -> {
+            try {
+                Object rv = checkApiReturnValue(method.invoke(r, context.arguments()));
+                if (persist && !resultStore.contains(context.target(), context.api(), context.arguments())) {
+                    resultStore.save(context.target(), context.api(), context.arguments(), rv);
+                }
+                return rv;
+            } catch (RuntimeException re) {
+                throw re;
+            } catch (Throwable t) {
+                throw new CompletionException(t);
+            } finally {
+                activeContext.remove(context);
+            }
+        }, executor);
     }
 
     private void loadApi() {
@@ -160,10 +404,22 @@ public abstract class AbstractApiExecutor<Analyzer> implements ApiExecutor {
             }
 
             ApiParameter[] apiParameters = buildApiParameters(method);
+            int[] comparisonTargets = IntStream.range(0, apiParameters.length)
+                                               .filter(i -> apiParameters[i].comparisonTargetPath())
+                                               .toArray();
+            if (comparisonTargets.length > 0) {
+                comparisonTargetParameters.put(method, comparisonTargets);
+            }
 
             Set<String> aliasesSet = aliases != null ? Set.of(aliases) : Collections.emptySet();
             Api api = new Api(name, aliasesSet, apiParameters);
 
+            if (method.isAnnotationPresent(Persistent.class)) {
+                Validate.isTrue(ResultStore.isPersistable(method.getGenericReturnType()),
+                                "Result of api cannot be persisted: " + name);
+                persistentApiMethods.add(method);
+            }
+
             apiMethodMap.put(name, method);
             for (String alias : aliasesSet) {
                 apiMethodMap.put(alias, method);
@@ -207,8 +463,13 @@ public abstract class AbstractApiExecutor<Analyzer> implements ApiExecutor {
                 comparisonTargetPath = apiParameterMeta.comparisonTargetPath();
             }
             Validate.isTrue(!(targetPath && comparisonTargetPath));
-            if (targetPath || comparisonTargetPath) {
+            if (targetPath) {
                 Validate.isTrue(type == Path.class);
+            }
+            if (comparisonTargetPath) {
+                Validate.isTrue(type == Path.class || isListOfPaths(type));
+            }
+            if (targetPath || comparisonTargetPath) {
                 required = true;
             }
             if (type == Path.class) {
@@ -220,28 +481,43 @@ public abstract class AbstractApiExecutor<Analyzer> implements ApiExecutor {
         return apiParameters;
     }
 
+    private static boolean isListOfPaths(Type type) {
+        return type instanceof ParameterizedType pt &&
+               pt.getRawType() == List.class &&
+               pt.getActualTypeArguments()[0] == Path.class;
+    }
+
     private CompletableFuture<Analyzer> buildAnalyzer(Path target, Map<String, String> options) {
         Analyzer analyzer = cachedAnalyzer.getIfPresent(target);
 
-        if (analyzer != null) {
+        if (analyzer != null && !isOutdated(target, analyzer)) {
             return CompletableFuture.completedFuture(analyzer);
         }
 
         AtomicBoolean puttedByMe = new AtomicBoolean(false);
         CompletableFuture<Analyzer> analyzerFuture = buildingAnalyzer.computeIfAbsent(target, ignored -> {
             CompletableFuture<Analyzer> f = new CompletableFuture<>();
-            executor.execute(() -> {
-                try {
-                    Analyzer r = cachedAnalyzer.getIfPresent(target);
-                    if (r == null) {
+            admit(target).thenAcceptAsync(reservation -> {
+                Analyzer r;
+                try (reservation) {
+                    r = cachedAnalyzer.getIfPresent(target);
+                    if (r == null || isOutdated(target, r)) {
                         ProgressListener listener = this.buildingAnalyzerListeners.get(target);
                         r = buildAnalyzer(target, options, listener != null ? listener : NoOpProgressListener);
-                        cachedAnalyzer.put(target, r);
                     }
-                    f.complete(r);
                 } catch (Throwable e) {
                     f.completeExceptionally(e);
+                    return;
+                }
+                // cached after the reservation is released, so that the cache may take the memory back
+                cachedAnalyzer.put(target, r);
+                if (isPinned(target)) {
+                    memoryInUseChanged();
                 }
+                f.complete(r);
+            }, executor).exceptionally(t -> {
+                f.completeExceptionally(t instanceof CompletionException ce && ce.getCause() != null ? ce.getCause() : t);
+                return null;
             });
             puttedByMe.set(true);
             return f;
@@ -252,6 +528,110 @@ public abstract class AbstractApiExecutor<Analyzer> implements ApiExecutor {
         return analyzerFuture;
     }
 
+    /**
+     * Get the analyzer of a comparison target. The comparison targets of an api are analyzed before the api is
+     * invoked, so the analyzer is usually cached.
+     *
+     * @param target the comparison target
+     * @return the analyzer
+     */
+    protected final Analyzer analyzerOf(Path target) {
+        Analyzer analyzer = cachedAnalyzer.getIfPresent(target);
+        if (analyzer != null) {
+            return analyzer;
+        }
+        checkExists(target);
+        return buildAnalyzer(target, Collections.emptyMap()).join();
+    }
+
+    private CompletableFuture<? extends AutoCloseable> admit(Path target) {
+        if (admissionController == null) {
+            return CompletableFuture.<AutoCloseable>completedFuture(() -> {
+            });
+        }
+        MemoryEstimate estimate = estimateMemory(target);
+        return admissionController.reserve(target, estimate.analysis());
+    }
+
+    private void limitCachedAnalyzers(long memory) {
+        availableMemory = memory;
+        applyCacheLimit();
+    }
+
+    private void applyCacheLimit() {
+        long limit = Math.min(cacheBudget, availableMemory);
+        cachedAnalyzer.policy().eviction().ifPresent(eviction -> eviction.setMaximum(toWeight(limit)));
+    }
+
+    // an analyzer larger than the whole budget is weighed as the budget, so that it is cached alone rather than
+    // evicted right away. Only analyzers in use weigh nothing, which excludes them from eviction.
+    private int weigh(Path target, Analyzer analyzer) {
+        if (isPinned(target)) {
+            return 0;
+        }
+        return Math.max(1, Math.min(toWeight(footprint(target, analyzer)), toWeight(cacheBudget)));
+    }
+
+    // in MiB
+    private static int toWeight(long bytes) {
+        return (int) Math.min(Integer.MAX_VALUE, (bytes + (1 << 20) - 1) >> 20);
+    }
+
+    /**
+     * @return true if the building of analyzers is admitted by their estimated memory, and the memory reserved
+     * for them is taken from the cached analyzers
+     * @see #estimateMemory(Path)
+     */
+    protected boolean useMemoryBudget() {
+        return false;
+    }
+
+    /**
+     * @return the bytes of memory shared by the analyses being built and the cached analyzers, may be changed by
+     * {@link #setAnalysisMemoryBudget(long)}
+     */
+    protected long getMemoryBudget() {
+        return Long.getLong("jifa.analysis.memory-budget", Runtime.getRuntime().maxMemory() / 10 * 8);
+    }
+
+    /**
+     * @return the max number of analyses waiting for memory, more analyses are rejected
+     */
+    protected int getMaxPendingAnalyses() {
+        return 16;
+    }
+
+    /**
+     * @return the bytes of memory that cached analyzers may retain, may be changed by
+     * {@link #setAnalyzerCacheBudget(long)}
+     */
+    protected long getCacheBudget() {
+        return Long.getLong("jifa.analysis." + namespace() + ".cache-budget", Runtime.getRuntime().maxMemory() / 4);
+    }
+
+    /**
+     * Used to admit the building of analyzers if {@link #useMemoryBudget()} returns true, and to weigh cached
+     * analyzers that are not {@link Measurable}. Default is the size of the target.
+     *
+     * @param target the analysis target
+     * @return the estimated memory of the analysis of the target
+     */
+    protected MemoryEstimate estimateMemory(Path target) {
+        long size = target.toFile().length();
+        return new MemoryEstimate(size, size);
+    }
+
+    /**
+     * Default is the footprint of a {@link Measurable} analyzer, or the resident memory estimated for the target.
+     *
+     * @param target   the analysis target
+     * @param analyzer the analyzer of the target
+     * @return bytes of memory retained by the analyzer
+     */
+    protected long footprint(Path target, Analyzer analyzer) {
+        return analyzer instanceof Measurable m ? m.footprint() : estimateMemory(target).resident();
+    }
+
     protected MethodNameConverter methodNameConverter() {
         return null;
     }
@@ -261,6 +641,18 @@ public abstract class AbstractApiExecutor<Analyzer> implements ApiExecutor {
     protected void cachedAnalyzerRemoved(Analyzer analyzer) {
     }
 
+    /**
+     * Used to rebuild a cached analyzer whose target has changed, e.g. a log that is still being written.
+     * The cached analyzer is replaced once the new one is built.
+     *
+     * @param target   the analysis target
+     * @param analyzer the cached analyzer of the target
+     * @return true if the analyzer should be rebuilt
+     */
+    protected boolean isOutdated(Path target, Analyzer analyzer) {
+        return false;
+    }
+
     private Object checkApiReturnValue(Object rv) {
         if (rv instanceof Future<?>) {
             throw new IllegalStateException("Analysis api must not return a Future");
@@ -280,7 +672,8 @@ public abstract class AbstractApiExecutor<Analyzer> implements ApiExecutor {
 
     public final void analyze(@ApiParameterMeta(targetPath = true) Path target,
                               @ApiParameterMeta(required = false) Map<String, String> options) {
-        if (cachedAnalyzer.getIfPresent(target) != null) {
+        Analyzer cached = cachedAnalyzer.getIfPresent(target);
+        if (cached != null && !isOutdated(target, cached)) {
             return;
         }
 
@@ -315,18 +708,30 @@ public abstract class AbstractApiExecutor<Analyzer> implements ApiExecutor {
     }
 
     public final Progress progressOfAnalysis(@ApiParameterMeta(targetPath = true) Path target) throws IOException {
-        if (cachedAnalyzer.getIfPresent(target) != null) {
+        // a cached analyzer being rebuilt, or to be rebuilt, is not the result of the latest analysis
+        ProgressListener listener = this.buildingAnalyzerListeners.get(target);
+        Analyzer cached = cachedAnalyzer.getIfPresent(target);
+        if (cached != null && listener == null) {
             Progress progress = new Progress();
-            progress.setPercent(1);
-            progress.setState(Progress.State.SUCCESS);
+            if (isOutdated(target, cached)) {
+                progress.setState(Progress.State.IN_PROGRESS);
+                progress.setPercent(0);
+            } else {
+                progress.setPercent(1);
+                progress.setState(Progress.State.SUCCESS);
+            }
             return progress;
         }
-        ProgressListener listener = this.buildingAnalyzerListeners.get(target);
         if (listener != null) {
             Progress progress = new Progress();
             progress.setState(Progress.State.IN_PROGRESS);
             progress.setMessage(listener.log());
             progress.setPercent(listener.percent());
+            int position = admissionController != null ? admissionController.positionOf(target) : 0;
+            if (position > 0) {
+                progress.setQueuePosition(position);
+                progress.setMessage(listener.log() + "[Waiting for memory] position in queue: " + position);
+            }
             return progress;
         }
         checkExists(target);
@@ -345,6 +750,7 @@ public abstract class AbstractApiExecutor<Analyzer> implements ApiExecutor {
 
     public void clean(@ApiParameterMeta(targetPath = true) Path target) {
         cleanAndDisposeAnalyzerCache(target);
+        resultStore.clean(target);
         File errorLog = errorLogFile(target);
         if (errorLog.exists()) {
             if (!errorLog.delete()) {
@@ -380,10 +786,17 @@ public abstract class AbstractApiExecutor<Analyzer> implements ApiExecutor {
 
     private void cleanAndDisposeAnalyzerCache(Path target) {
         // Dispose snapshot synchronized to prevent from some problem caused by data inconsistency.
+        // An analyzer still in use is disposed after its calls complete.
         Analyzer analyzer = cachedAnalyzer.getIfPresent(target);
         cachedAnalyzer.invalidate(target);
-        if (analyzer != null) {
-            cachedAnalyzerRemoved(analyzer);
-        }
+        dispose(target, analyzer);
+    }
+
+    private class Pin {
+
+        int count;
+
+        // analyzers of the target removed from the cache while pinned, by identity
+        final Map<Analyzer, Boolean> removed = new IdentityHashMap<>();
     }
 }
\ No newline at end of file
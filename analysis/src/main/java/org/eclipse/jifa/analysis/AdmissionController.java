@@ -0,0 +1,190 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.analysis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jifa.common.domain.exception.ErrorCodeException;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+import static org.eclipse.jifa.analysis.enums.AnalysisErrorCode.TOO_MANY_PENDING_ANALYSES;
+
+/**
+ * Admits the building of analyzers by the memory they are estimated to need, against a budget shared with the
+ * cached analyzers. Analyzers in use can't be evicted, so their memory counts against the budget as reserved
+ * memory does. Analyses that don't fit wait in FIFO order, an analysis that exceeds the whole budget runs alone.
+ * While memory is reserved or in use, the weight available to idle cached analyzers shrinks accordingly, so that
+ * they are evicted to make room.
+ */
+@Slf4j
+class AdmissionController {
+
+    private long budget;
+
+    private final int maxPending;
+
+    // supplies the memory retained by analyzers in use
+    private final LongSupplier inUse;
+
+    // receives the memory available to cached analyzers
+    private final LongConsumer cacheLimit;
+
+    private final Deque<Pending> pending = new ArrayDeque<>();
+
+    private long reserved;
+
+    private int running;
+
+    AdmissionController(long budget, int maxPending, LongSupplier inUse, LongConsumer cacheLimit) {
+        this.budget = budget;
+        this.maxPending = maxPending;
+        this.inUse = inUse;
+        this.cacheLimit = cacheLimit;
+    }
+
+    /**
+     * @param target   the analysis target
+     * @param estimate the estimated memory in bytes
+     * @return a future completed when the memory is reserved
+     */
+    CompletableFuture<Reservation> reserve(Path target, long estimate) {
+        synchronized (this) {
+            long used = inUse.getAsLong();
+            if (pending.isEmpty() && fits(used, estimate)) {
+                return CompletableFuture.completedFuture(grant(used, estimate));
+            }
+            if (pending.size() >= maxPending) {
+                return CompletableFuture.failedFuture(new ErrorCodeException(TOO_MANY_PENDING_ANALYSES));
+            }
+            log.info("Analysis of {} is waiting for memory, estimated: {} bytes, reserved: {} bytes, in use: {} bytes",
+                     target, estimate, reserved, used);
+            Pending p = new Pending(target, estimate, new CompletableFuture<>());
+            pending.add(p);
+            return p.future;
+        }
+    }
+
+    /**
+     * @param target the analysis target
+     * @return the 1-based position of the target in the queue, or 0 if it isn't waiting
+     */
+    synchronized int positionOf(Path target) {
+        int position = 1;
+        for (Pending p : pending) {
+            if (p.target.equals(target)) {
+                return position;
+            }
+            position++;
+        }
+        return 0;
+    }
+
+    synchronized long reserved() {
+        return reserved;
+    }
+
+    /**
+     * Changes the budget, admits the waiting analyses that fit now
+     */
+    void setBudget(long budget) {
+        synchronized (this) {
+            this.budget = budget;
+        }
+        recheck();
+    }
+
+    /**
+     * Called when the memory in use has changed, admits the waiting analyses that fit now
+     */
+    void recheck() {
+        List<CompletableFuture<Reservation>> admitted = new ArrayList<>();
+        List<Reservation> reservations = new ArrayList<>();
+        synchronized (this) {
+            long used = inUse.getAsLong();
+            limitCache(used);
+            for (Iterator<Pending> it = pending.iterator(); it.hasNext(); ) {
+                Pending p = it.next();
+                if (!fits(used, p.estimate)) {
+                    break;
+                }
+                it.remove();
+                admitted.add(p.future);
+                reservations.add(grant(used, p.estimate));
+            }
+        }
+        // completed outside the lock since dependent actions may run in this thread
+        for (int i = 0; i < admitted.size(); i++) {
+            admitted.get(i).complete(reservations.get(i));
+        }
+    }
+
+    // an analysis that runs alone is admitted even if analyzers in use leave no room, since they may wait for it
+    private boolean fits(long used, long estimate) {
+        return running == 0 || reserved + used + estimate <= budget;
+    }
+
+    private Reservation grant(long used, long estimate) {
+        reserved += estimate;
+        running++;
+        limitCache(used);
+        return new Reservation(estimate);
+    }
+
+    private void limitCache(long used) {
+        cacheLimit.accept(Math.max(0, budget - reserved - used));
+    }
+
+    private void release(long estimate) {
+        synchronized (this) {
+            reserved -= estimate;
+            running--;
+        }
+        recheck();
+    }
+
+    private record Pending(Path target, long estimate, CompletableFuture<Reservation> future) {
+    }
+
+    /**
+     * Reserved memory, released when closed
+     */
+    class Reservation implements AutoCloseable {
+
+        private final long estimate;
+
+        private boolean released;
+
+        private Reservation(long estimate) {
+            this.estimate = estimate;
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            release(estimate);
+        }
+    }
+}
@@ -39,6 +39,23 @@ public interface ApiExecutor {
      */
     CompletableFuture<?> execute(ExecutionContext context);
 
+    /**
+     * Set the bytes of memory that the analyzers cached by this executor may retain, default is ignored
+     *
+     * @param bytes the budget
+     */
+    default void setAnalyzerCacheBudget(long bytes) {
+    }
+
+    /**
+     * Set the bytes of memory shared by the analyses being built and the analyzers cached by this executor, default
+     * is ignored
+     *
+     * @param bytes the budget
+     */
+    default void setAnalysisMemoryBudget(long bytes) {
+    }
+
     /**
      * @return a matcher to tell the byte array is supported by this executor, default is null
      */
@@ -36,6 +36,19 @@ public interface ApiService {
      */
     CompletableFuture<?> execute(Path target, String namespace, String api, Object[] arguments);
 
+    /**
+     * @param namespace api namespace
+     * @param bytes     the bytes of memory that cached analyzers of the namespace may retain
+     */
+    void setAnalyzerCacheBudget(String namespace, long bytes);
+
+    /**
+     * @param namespace api namespace
+     * @param bytes     the bytes of memory shared by the analyses being built and the cached analyzers of the
+     *                  namespace
+     */
+    void setAnalysisMemoryBudget(String namespace, long bytes);
+
     /**
      * @return the instance of api service implementation
      */
@@ -73,6 +73,20 @@ public class ApiServiceImpl implements ApiService {
         return executor.execute(new ExecutionContext(target, api, arguments));
     }
 
+    @Override
+    public void setAnalyzerCacheBudget(String namespace, long bytes) {
+        ApiExecutor executor = this.executors.get(namespace);
+        Validate.notNull(executor, () -> "Unsupported namespace: " + namespace);
+        executor.setAnalyzerCacheBudget(bytes);
+    }
+
+    @Override
+    public void setAnalysisMemoryBudget(String namespace, long bytes) {
+        ApiExecutor executor = this.executors.get(namespace);
+        Validate.notNull(executor, () -> "Unsupported namespace: " + namespace);
+        executor.setAnalysisMemoryBudget(bytes);
+    }
+
     @Override
     public String deduceNamespaceByContent(byte[] content) {
         for (Map.Entry<String, Predicate<byte[]>> entry : matchers.entrySet()) {
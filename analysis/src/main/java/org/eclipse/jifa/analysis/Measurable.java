@@ -0,0 +1,30 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.analysis;
+
+import org.eclipse.jifa.analysis.annotation.Exclude;
+
+/**
+ * Implemented by analyzers that know how much memory they retain.
+ * Cached analyzers are weighed by their footprint, see {@link AbstractApiExecutor}.
+ */
+public interface Measurable {
+
+    /**
+     * Implementations in a class must also be annotated with {@link Exclude}, otherwise the method is an api.
+     *
+     * @return the estimated bytes of memory retained by this analyzer
+     */
+    @Exclude
+    long footprint();
+}
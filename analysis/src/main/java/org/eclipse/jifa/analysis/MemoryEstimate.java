@@ -0,0 +1,20 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.analysis;
+
+/**
+ * @param analysis the bytes of memory needed while building the analyzer
+ * @param resident the bytes of memory retained by the built analyzer
+ */
+public record MemoryEstimate(long analysis, long resident) {
+}
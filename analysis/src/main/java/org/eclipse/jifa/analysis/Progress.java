@@ -28,6 +28,9 @@ public class Progress {
 
     private String message;
 
+    // position in the queue of analyses waiting for memory, 0 if not waiting
+    private int queuePosition;
+
     public enum State {
 
         IN_PROGRESS,
@@ -0,0 +1,31 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.analysis.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Indicate that the result of the annotated analysis api should be persisted next to the target file,
+ * so that it can be answered without building the analyzer again.
+ * <p>
+ * The return type of the annotated method must be concrete (no wildcards or type variables) and
+ * deserializable by {@link org.eclipse.jifa.common.util.GsonHolder#GSON}.
+ */
+@Retention(value = RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Persistent {
+}
@@ -0,0 +1,265 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.analysis.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.eclipse.jifa.common.util.GsonHolder.GSON;
+
+/**
+ * Persistent store of analysis api results.
+ * <p>
+ * Results are kept in a directory next to the target file, one gzipped json entry per api name and arguments.
+ * The directory carries a manifest with the Jifa version and a fingerprint of the target, and is discarded
+ * as a whole if either of them changes.
+ */
+@Slf4j
+public class ResultStore {
+
+    private static final String DIRECTORY_SUFFIX = "-results";
+
+    private static final String MANIFEST = "manifest";
+
+    private static final String ENTRY_SUFFIX = ".json.gz";
+
+    private static final int FINGERPRINT_SAMPLE_SIZE = 1024 * 1024;
+
+    private final String version;
+
+    // target -> size and last modified time of the target when the manifest was verified
+    private final Map<Path, String> verified = new ConcurrentHashMap<>();
+
+    /**
+     * Create a store validated by the version of the jifa analysis module.
+     * The store is disabled if the version is unknown, i.e. the module is not loaded from a released jar.
+     */
+    public ResultStore() {
+        this(ResultStore.class.getPackage().getImplementationVersion());
+    }
+
+    ResultStore(String version) {
+        this.version = version;
+    }
+
+    /**
+     * @param type the return type of an api
+     * @return true if results of the type can be read back from the store
+     */
+    public static boolean isPersistable(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return clazz != void.class && clazz != Void.class;
+        }
+        if (type instanceof ParameterizedType parameterizedType) {
+            return Arrays.stream(parameterizedType.getActualTypeArguments()).allMatch(ResultStore::isPersistable);
+        }
+        if (type instanceof GenericArrayType arrayType) {
+            return isPersistable(arrayType.getGenericComponentType());
+        }
+        return false;
+    }
+
+    public boolean isEnabled() {
+        return version != null;
+    }
+
+    /**
+     * @param target the target file
+     * @param api    the api name
+     * @param args   the arguments
+     * @param type   the type of the result
+     * @return the persisted result, or null if absent
+     */
+    public Object load(Path target, String api, Object[] args, Type type) {
+        if (!isEnabled() || !verify(target, false)) {
+            return null;
+        }
+        String key = key(api, args);
+        File entry = entry(target, key);
+        if (!entry.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(entry.toPath()))))) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            if (!key.equals(new String(bytes, StandardCharsets.UTF_8))) {
+                return null;
+            }
+            return GSON.fromJson(new InputStreamReader(in, StandardCharsets.UTF_8), type);
+        } catch (Throwable t) {
+            log.warn("Failed to load persisted result: {}", entry.getAbsolutePath(), t);
+            return null;
+        }
+    }
+
+    /**
+     * @param target the target file
+     * @param api    the api name
+     * @param args   the arguments
+     * @return true if a result is persisted, without reading it
+     */
+    public boolean contains(Path target, String api, Object[] args) {
+        return isEnabled() && verify(target, false) && entry(target, key(api, args)).exists();
+    }
+
+    /**
+     * @param target the target file
+     * @param api    the api name
+     * @param args   the arguments
+     * @param result the result, null is not persisted
+     */
+    public void save(Path target, String api, Object[] args, Object result) {
+        if (!isEnabled() || result == null || !verify(target, true)) {
+            return;
+        }
+        String key = key(api, args);
+        File entry = entry(target, key);
+        File temp = new File(entry.getPath() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp.toPath()))))) {
+                byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                GSON.toJson(result, writer);
+                writer.flush();
+            }
+            Files.move(temp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Throwable t) {
+            log.warn("Failed to persist result: {}", entry.getAbsolutePath(), t);
+            FileUtils.deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Delete all persisted results of the target
+     *
+     * @param target the target file
+     */
+    public void clean(Path target) {
+        verified.remove(target);
+        File directory = directory(target);
+        if (directory.exists()) {
+            try {
+                FileUtils.deleteDirectory(directory);
+            } catch (IOException e) {
+                log.warn("Failed to delete persisted results: {}", directory.getAbsolutePath(), e);
+            }
+        }
+    }
+
+    File directory(Path target) {
+        return target.resolveSibling(target.getFileName() + DIRECTORY_SUFFIX).toFile();
+    }
+
+    private File entry(Path target, String key) {
+        return new File(directory(target), sha256(key) + ENTRY_SUFFIX);
+    }
+
+    private static String key(String api, Object[] args) {
+        // Path, enums and primitive arrays all have a stable textual form
+        return api + Arrays.deepToString(args);
+    }
+
+    /**
+     * @param target the target file
+     * @param create whether to (re)create the directory if it doesn't match the target
+     * @return true if the directory matches the target
+     */
+    private boolean verify(Path target, boolean create) {
+        File file = target.toFile();
+        String stamp = file.length() + ":" + file.lastModified();
+        if (stamp.equals(verified.get(target))) {
+            return true;
+        }
+        synchronized (this) {
+            if (stamp.equals(verified.get(target))) {
+                return true;
+            }
+            try {
+                String manifest = version + "\n" + stamp + ":" + checksum(file);
+                File directory = directory(target);
+                File manifestFile = new File(directory, MANIFEST);
+                if (manifestFile.exists() &&
+                    manifest.equals(FileUtils.readFileToString(manifestFile, StandardCharsets.UTF_8))) {
+                    verified.put(target, stamp);
+                    return true;
+                }
+                if (!create) {
+                    return false;
+                }
+                clean(target);
+                FileUtils.forceMkdir(directory);
+                FileUtils.writeStringToFile(manifestFile, manifest, StandardCharsets.UTF_8);
+                verified.put(target, stamp);
+                return true;
+            } catch (IOException e) {
+                log.warn("Failed to verify persisted results of {}", target, e);
+                return false;
+            }
+        }
+    }
+
+    // crc of the head and the tail of the file, reading whole dumps would defeat the purpose
+    private static long checksum(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long length = raf.length();
+            byte[] buffer = new byte[(int) Math.min(length, FINGERPRINT_SAMPLE_SIZE)];
+            raf.readFully(buffer);
+            crc.update(buffer);
+            if (length > FINGERPRINT_SAMPLE_SIZE) {
+                raf.seek(Math.max(FINGERPRINT_SAMPLE_SIZE, length - FINGERPRINT_SAMPLE_SIZE));
+                int n = raf.read(buffer);
+                crc.update(buffer, 0, Math.max(n, 0));
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static String sha256(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -17,6 +17,8 @@ import org.eclipse.jifa.common.domain.exception.ErrorCode;
 public enum AnalysisErrorCode implements ErrorCode {
 
     FILE_NOT_FOUND("File not found"),
+
+    TOO_MANY_PENDING_ANALYSES("Too many analyses are waiting for memory"),
     ;
 
     private final String message;
@@ -26,6 +26,8 @@ public class DefaultProgressListener implements ProgressListener {
 
     private String lastSubTask;
 
+    private volatile boolean canceled;
+
     private void append(String msg) {
         log.append(msg);
         log.append(System.lineSeparator());
@@ -70,6 +72,16 @@ public class DefaultProgressListener implements ProgressListener {
         append(sw.toString());
     }
 
+    @Override
+    public void cancel() {
+        canceled = true;
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled;
+    }
+
     @Override
     public void reset() {
         this.total = this.done = 0;
@@ -49,6 +49,19 @@ public interface ProgressListener {
      */
     void sendUserMessage(Level level, String message, Throwable throwable);
 
+    /**
+     * Request to cancel the task, it is up to the task to check {@link #isCanceled()}
+     */
+    default void cancel() {
+    }
+
+    /**
+     * @return true if the task is requested to be cancelled
+     */
+    default boolean isCanceled() {
+        return false;
+    }
+
     /**
      * reset the listener
      */
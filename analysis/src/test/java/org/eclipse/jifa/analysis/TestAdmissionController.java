@@ -0,0 +1,149 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.analysis;
+
+import org.eclipse.jifa.common.domain.exception.ErrorCodeException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestAdmissionController {
+
+    @Test
+    public void test() {
+        AtomicLong cacheLimit = new AtomicLong(-1);
+        AdmissionController controller = new AdmissionController(100, 2, () -> 0, cacheLimit::set);
+
+        CompletableFuture<AdmissionController.Reservation> a = controller.reserve(Path.of("a"), 60);
+        assertTrue(a.isDone());
+        assertEquals(40, cacheLimit.get());
+
+        CompletableFuture<AdmissionController.Reservation> b = controller.reserve(Path.of("b"), 60);
+        CompletableFuture<AdmissionController.Reservation> c = controller.reserve(Path.of("c"), 10);
+        // FIFO, c doesn't overtake b even if it fits
+        assertFalse(b.isDone());
+        assertFalse(c.isDone());
+        assertEquals(1, controller.positionOf(Path.of("b")));
+        assertEquals(2, controller.positionOf(Path.of("c")));
+        assertEquals(0, controller.positionOf(Path.of("a")));
+
+        CompletableFuture<AdmissionController.Reservation> d = controller.reserve(Path.of("d"), 10);
+        CompletionException e = assertThrows(CompletionException.class, d::join);
+        assertInstanceOf(ErrorCodeException.class, e.getCause());
+
+        a.join().close();
+        // closing twice releases once
+        a.join().close();
+        assertTrue(b.isDone());
+        assertTrue(c.isDone());
+        assertEquals(70, controller.reserved());
+        assertEquals(30, cacheLimit.get());
+
+        b.join().close();
+        c.join().close();
+        assertEquals(0, controller.reserved());
+        assertEquals(100, cacheLimit.get());
+    }
+
+    @Test
+    public void testSetBudget() {
+        AtomicLong cacheLimit = new AtomicLong(-1);
+        AdmissionController controller = new AdmissionController(100, 2, () -> 0, cacheLimit::set);
+
+        CompletableFuture<AdmissionController.Reservation> a = controller.reserve(Path.of("a"), 60);
+        CompletableFuture<AdmissionController.Reservation> b = controller.reserve(Path.of("b"), 60);
+        assertFalse(b.isDone());
+
+        // the waiting analysis fits in the larger budget
+        controller.setBudget(150);
+        assertTrue(b.isDone());
+        assertEquals(30, cacheLimit.get());
+
+        // nothing else fits in the smaller budget until released
+        controller.setBudget(100);
+        assertEquals(0, cacheLimit.get());
+        CompletableFuture<AdmissionController.Reservation> c = controller.reserve(Path.of("c"), 10);
+        assertFalse(c.isDone());
+        a.join().close();
+        b.join().close();
+        assertTrue(c.isDone());
+        assertEquals(90, cacheLimit.get());
+    }
+
+    @Test
+    public void testOversize() {
+        AdmissionController controller = new AdmissionController(100, 2, () -> 0, ignored -> {
+        });
+
+        // runs alone
+        CompletableFuture<AdmissionController.Reservation> a = controller.reserve(Path.of("a"), 200);
+        assertTrue(a.isDone());
+        CompletableFuture<AdmissionController.Reservation> b = controller.reserve(Path.of("b"), 1);
+        assertFalse(b.isDone());
+        a.join().close();
+        assertTrue(b.isDone());
+
+        CompletableFuture<AdmissionController.Reservation> c = controller.reserve(Path.of("c"), 200);
+        assertFalse(c.isDone());
+        b.join().close();
+        assertTrue(c.isDone());
+    }
+
+    @Test
+    public void testInUse() {
+        AtomicLong inUse = new AtomicLong(50);
+        AtomicLong cacheLimit = new AtomicLong(-1);
+        AdmissionController controller = new AdmissionController(100, 2, inUse::get, cacheLimit::set);
+
+        CompletableFuture<AdmissionController.Reservation> a = controller.reserve(Path.of("a"), 30);
+        assertTrue(a.isDone());
+        assertEquals(20, cacheLimit.get());
+
+        // waits rather than evicting analyzers in use
+        CompletableFuture<AdmissionController.Reservation> b = controller.reserve(Path.of("b"), 30);
+        assertFalse(b.isDone());
+
+        inUse.set(40);
+        controller.recheck();
+        assertTrue(b.isDone());
+        assertEquals(0, cacheLimit.get());
+
+        CompletableFuture<AdmissionController.Reservation> c = controller.reserve(Path.of("c"), 40);
+        assertFalse(c.isDone());
+        a.join().close();
+        assertFalse(c.isDone());
+        assertEquals(30, cacheLimit.get());
+
+        inUse.set(0);
+        controller.recheck();
+        assertTrue(c.isDone());
+        assertEquals(30, cacheLimit.get());
+
+        // runs alone even if analyzers in use leave no room
+        b.join().close();
+        c.join().close();
+        inUse.set(100);
+        CompletableFuture<AdmissionController.Reservation> d = controller.reserve(Path.of("d"), 10);
+        assertTrue(d.isDone());
+        assertEquals(0, cacheLimit.get());
+    }
+}
@@ -13,19 +13,25 @@
 package org.eclipse.jifa.analysis;
 
 import org.apache.commons.io.FileUtils;
+import org.eclipse.jifa.common.domain.exception.ValidationException;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestAnalysisApiExecutor {
@@ -61,4 +67,64 @@ public class TestAnalysisApiExecutor {
         line = (String) result.get();
         assertEquals("Hello Jifa", line);
     }
+
+    @Test
+    public void testAnalyzerCacheBudget() throws IOException, ExecutionException, InterruptedException {
+        ApiService service = ApiService.getInstance();
+        assertThrows(ValidationException.class, () -> service.setAnalyzerCacheBudget("unknown", 1 << 20));
+        assertThrows(ValidationException.class, () -> service.setAnalyzerCacheBudget("text", -1));
+
+        File tempFile = File.createTempFile("test", "txt");
+        tempFile.deleteOnExit();
+        FileUtils.writeStringToFile(tempFile, "Hello Jifa", StandardCharsets.UTF_8);
+
+        // an analyzer larger than the budget is still cached
+        service.setAnalyzerCacheBudget("text", 1);
+        assertEquals("Hello Jifa", service.execute(tempFile.toPath(), "text", "getLine", new Object[]{1}).get());
+        Progress progress = (Progress) service.execute(tempFile.toPath(), "text", "progressOfAnalysis",
+                                                       new Object[]{tempFile.toPath()}).get();
+        assertEquals(Progress.State.SUCCESS, progress.getState());
+        service.setAnalyzerCacheBudget("text", 1 << 20);
+    }
+
+    @Test
+    public void testAnalysisMemoryBudget() {
+        ApiService service = ApiService.getInstance();
+        assertThrows(ValidationException.class, () -> service.setAnalysisMemoryBudget("unknown", 1 << 20));
+        assertThrows(ValidationException.class, () -> service.setAnalysisMemoryBudget("text", -1));
+        // ignored by executors that don't admit analyses by memory
+        service.setAnalysisMemoryBudget("text", 1 << 20);
+    }
+
+    @Test
+    public void testAnalyzerInUse() throws IOException, ExecutionException, InterruptedException {
+        File tempFile = File.createTempFile("test", "txt");
+        tempFile.deleteOnExit();
+        FileUtils.writeStringToFile(tempFile, "Hello Jifa", StandardCharsets.UTF_8);
+        Path target = tempFile.toPath();
+
+        TextAnalysisApiExecutor executor = new TextAnalysisApiExecutor();
+        assertEquals("Hello Jifa", executor.execute(new ExecutionContext(target, "getLine", new Object[]{1})).get());
+        TextAnalyzer analyzer = executor.analyzerOf(target);
+
+        TextAnalyzer.gate = new CountDownLatch(1);
+        CompletableFuture<?> inUse;
+        try {
+            inUse = executor.execute(new ExecutionContext(target, "awaitLine", new Object[]{1}));
+
+            // neither evicted nor disposed while in use
+            executor.setAnalyzerCacheBudget(0);
+            assertTrue(executor.isActive(target));
+            executor.release(target);
+            assertFalse(executor.isActive(target));
+            assertTrue(executor.disposed.isEmpty());
+        } finally {
+            TextAnalyzer.gate.countDown();
+        }
+
+        // disposed once the call completes
+        assertEquals("Hello Jifa", inUse.get());
+        assertEquals(1, executor.disposed.size());
+        assertSame(analyzer, executor.disposed.get(0));
+    }
 }
@@ -15,15 +15,24 @@ package org.eclipse.jifa.analysis;
 import org.eclipse.jifa.analysis.listener.ProgressListener;
 
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class TextAnalysisApiExecutor extends AbstractApiExecutor<TextAnalyzer> {
 
+    final List<TextAnalyzer> disposed = new CopyOnWriteArrayList<>();
+
     @Override
     protected TextAnalyzer buildAnalyzer(Path target, Map<String, String> options, ProgressListener listener) throws Throwable {
         return new TextAnalyzer(target, listener);
     }
 
+    @Override
+    protected void cachedAnalyzerRemoved(TextAnalyzer analyzer) {
+        disposed.add(analyzer);
+    }
+
     @Override
     public String namespace() {
         return "text";
@@ -21,9 +21,13 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 public class TextAnalyzer {
 
+    // holds the calls of awaitLine until opened, so that an analyzer stays in use
+    static volatile CountDownLatch gate = new CountDownLatch(0);
+
     private final List<String> lines;
 
     public TextAnalyzer(Path path, ProgressListener listener) throws IOException {
@@ -39,6 +43,11 @@ public class TextAnalyzer {
         return lines.get(lineNumber - 1);
     }
 
+    public String awaitLine(int lineNumber) throws InterruptedException {
+        gate.await();
+        return getLine(lineNumber);
+    }
+
     @ApiMeta(aliases = "totalLines")
     public long getTotalLines() {
         return lines.size();
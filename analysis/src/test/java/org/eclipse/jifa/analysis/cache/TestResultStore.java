@@ -0,0 +1,83 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.analysis.cache;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestResultStore {
+
+    @SuppressWarnings("unused")
+    private static List<Map<String, Integer>> concrete() {
+        return null;
+    }
+
+    @SuppressWarnings("unused")
+    private static List<? extends Number> wildcard() {
+        return null;
+    }
+
+    @Test
+    public void testPersistable() throws NoSuchMethodException {
+        assertTrue(ResultStore.isPersistable(TestResultStore.class.getDeclaredMethod("concrete").getGenericReturnType()));
+        assertFalse(ResultStore.isPersistable(TestResultStore.class.getDeclaredMethod("wildcard").getGenericReturnType()));
+        assertFalse(ResultStore.isPersistable(void.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLoadAndSave() throws IOException, NoSuchMethodException {
+        File tempFile = File.createTempFile("test", "txt");
+        tempFile.deleteOnExit();
+        FileUtils.writeStringToFile(tempFile, "Hello Jifa", StandardCharsets.UTF_8);
+        Path target = tempFile.toPath();
+        Type type = TestResultStore.class.getDeclaredMethod("concrete").getGenericReturnType();
+
+        ResultStore store = new ResultStore("1.0");
+        Object[] args = new Object[]{1, new int[]{2, 3}};
+        assertNull(store.load(target, "api", args, type));
+        assertFalse(store.contains(target, "api", args));
+
+        store.save(target, "api", args, List.of(Map.of("jifa", 1)));
+        assertTrue(store.contains(target, "api", args));
+        List<Map<String, Integer>> result = (List<Map<String, Integer>>) store.load(target, "api", new Object[]{1, new int[]{2, 3}}, type);
+        assertEquals(1, result.get(0).get("jifa"));
+        assertNull(store.load(target, "api", new Object[]{1, new int[]{2, 4}}, type));
+
+        // survives the store instance, but not a version change
+        assertEquals(result, new ResultStore("1.0").load(target, "api", args, type));
+        assertNull(new ResultStore("2.0").load(target, "api", args, type));
+
+        // a modified target invalidates all results
+        FileUtils.writeStringToFile(tempFile, "Hello World", StandardCharsets.UTF_8);
+        assertNull(store.load(target, "api", args, type));
+
+        store.save(target, "api", args, List.of(Map.of("jifa", 2)));
+        assertTrue(store.directory(target).exists());
+        store.clean(target);
+        assertFalse(store.directory(target).exists());
+    }
+}
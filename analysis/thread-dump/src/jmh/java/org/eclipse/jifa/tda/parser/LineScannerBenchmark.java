@@ -0,0 +1,146 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.tda.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Scanning the thread headers, frames and monitors of the test dumps by {@link LineScanner}, compared with
+ * matching them by the patterns of jstack_pattern.properties.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LineScannerBenchmark {
+
+    private static final String[] MONITOR_HEADS = {
+            LineScanner.LOCKED,
+            LineScanner.WAITING_TO_LOCK,
+            LineScanner.WAITING_ON,
+            LineScanner.WAITING_TO_RE_LOCK,
+            LineScanner.ELIMINATED,
+    };
+
+    private static final Pattern[] MONITOR_PATTERNS = {
+            JStackParser.PATTERNS.LOCKED,
+            JStackParser.PATTERNS.WAITING_TO_LOCK,
+            JStackParser.PATTERNS.WAITING_ON,
+            JStackParser.PATTERNS.WAITING_TO_RE_LOCK,
+            JStackParser.PATTERNS.ELIMINATED,
+    };
+
+    @Param({"jstack_8.log", "jstack_11_with_deadlocks.log"})
+    private String dump;
+
+    private String[] headers;
+
+    private String[] frames;
+
+    private String[] monitors;
+
+    // index of MONITOR_HEADS and MONITOR_PATTERNS for each monitor
+    private int[] monitorKinds;
+
+    @Setup
+    public void setup() throws IOException {
+        List<String> headers = new ArrayList<>();
+        List<String> frames = new ArrayList<>();
+        List<String> monitors = new ArrayList<>();
+        List<Integer> monitorKinds = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(getClass().getClassLoader().getResourceAsStream(dump), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // the same as Input#readLine
+                line = line.trim();
+                if (line.startsWith("\"") && line.endsWith("]")) {
+                    headers.add(line);
+                } else if (line.startsWith("at")) {
+                    frames.add(line);
+                } else {
+                    for (int i = 0; i < MONITOR_HEADS.length; i++) {
+                        if (line.startsWith(MONITOR_HEADS[i])) {
+                            monitors.add(line);
+                            monitorKinds.add(i);
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        this.headers = headers.toArray(new String[0]);
+        this.frames = frames.toArray(new String[0]);
+        this.monitors = monitors.toArray(new String[0]);
+        this.monitorKinds = monitorKinds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Benchmark
+    public void scanner(Blackhole blackhole) {
+        LineScanner scanner = new LineScanner();
+        for (String header : headers) {
+            blackhole.consume(scanner.scanJavaThread(header));
+            blackhole.consume(scanner.tid);
+        }
+        for (String frame : frames) {
+            blackhole.consume(scanner.scanFrame(frame));
+            blackhole.consume(scanner.clazz);
+            blackhole.consume(scanner.source);
+        }
+        for (int i = 0; i < monitors.length; i++) {
+            blackhole.consume(scanner.scanMonitor(monitors[i], MONITOR_HEADS[monitorKinds[i]]));
+            blackhole.consume(scanner.address);
+        }
+    }
+
+    @Benchmark
+    public void patterns(Blackhole blackhole) {
+        LineScanner scanner = new LineScanner();
+        for (String header : headers) {
+            Matcher m = JStackParser.PATTERNS.JAVA_THREAD.matcher(header);
+            blackhole.consume(m.matches());
+            scanner.javaThread(m);
+            blackhole.consume(scanner.tid);
+        }
+        for (String frame : frames) {
+            Matcher m = JStackParser.PATTERNS.JAVA_FRAME.matcher(frame);
+            blackhole.consume(m.matches());
+            scanner.frame(m);
+            blackhole.consume(scanner.clazz);
+            blackhole.consume(scanner.source);
+        }
+        for (int i = 0; i < monitors.length; i++) {
+            Matcher m = MONITOR_PATTERNS[monitorKinds[i]].matcher(monitors[i]);
+            blackhole.consume(m.matches());
+            scanner.monitor(m);
+            blackhole.consume(scanner.address);
+        }
+    }
+}
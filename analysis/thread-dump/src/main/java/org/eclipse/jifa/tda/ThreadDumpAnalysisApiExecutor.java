@@ -32,10 +32,13 @@ public class ThreadDumpAnalysisApiExecutor extends AbstractApiExecutor<ThreadDum
     @Override
     public void clean(Path target) {
         super.clean(target);
-        File kryo = target.resolveSibling(target.toFile().getName() + ".kryo").toFile();
-        if (kryo.exists()) {
-            if (!kryo.delete()) {
-                log.warn("Failed to delete kryo file: {}", kryo.getAbsolutePath());
+        // the serialized snapshot and the line index
+        for (String suffix : new String[]{".kryo", ".lines"}) {
+            File file = target.resolveSibling(target.toFile().getName() + suffix).toFile();
+            if (file.exists()) {
+                if (!file.delete()) {
+                    log.warn("Failed to delete {} file: {}", suffix.substring(1), file.getAbsolutePath());
+                }
             }
         }
     }
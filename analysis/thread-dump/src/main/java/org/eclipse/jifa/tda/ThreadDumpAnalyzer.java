@@ -14,7 +14,9 @@
 package org.eclipse.jifa.tda;
 
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jifa.analysis.Measurable;
 import org.eclipse.jifa.analysis.annotation.ApiParameterMeta;
+import org.eclipse.jifa.analysis.annotation.Exclude;
 import org.eclipse.jifa.analysis.cache.Cacheable;
 import org.eclipse.jifa.analysis.cache.ProxyBuilder;
 import org.eclipse.jifa.analysis.listener.ProgressListener;
@@ -31,6 +33,7 @@ import org.eclipse.jifa.tda.model.Monitor;
 import org.eclipse.jifa.tda.model.RawMonitor;
 import org.eclipse.jifa.tda.model.Snapshot;
 import org.eclipse.jifa.tda.model.Thread;
+import org.eclipse.jifa.tda.parser.LineIndex;
 import org.eclipse.jifa.tda.parser.ParserFactory;
 import org.eclipse.jifa.tda.util.CollectionUtil;
 import org.eclipse.jifa.tda.vo.Content;
@@ -39,6 +42,7 @@ import org.eclipse.jifa.tda.vo.VFrame;
 import org.eclipse.jifa.tda.vo.VMonitor;
 import org.eclipse.jifa.tda.vo.VThread;
 
+import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.LineNumberReader;
@@ -52,12 +56,18 @@ import java.util.Map;
 /**
  * Thread dump analyzer
  */
-public class ThreadDumpAnalyzer {
+public class ThreadDumpAnalyzer implements Measurable {
 
     private final Snapshot snapshot;
 
+    // null if the raw content can only be read sequentially
+    private final LineIndex lineIndex;
+
     ThreadDumpAnalyzer(Path path, ProgressListener listener) {
         snapshot = ParserFactory.buildParser(path).parse(path, listener);
+        // a deserialized snapshot has no index, the persisted one is loaded
+        LineIndex index = snapshot.getLineIndex();
+        lineIndex = index != null ? index : LineIndex.of(path);
     }
 
     /**
@@ -73,7 +83,16 @@ public class ThreadDumpAnalyzer {
                                   new Object[]{path, listener});
     }
 
-    private void computeThreadState(Overview o, Thread thread) {
+    @Exclude
+    @Override
+    public long footprint() {
+        // symbols and frames take about the size of the dump, threads with their traces are counted separately
+        int threads = snapshot.getJavaThreads().size() + snapshot.getNonJavaThreads().size();
+        return new File(snapshot.getPath()).length() + threads * 256L +
+               (lineIndex != null ? lineIndex.footprint() : 0);
+    }
+
+    private static void computeThreadState(Overview o, Thread thread) {
         ThreadType type = thread.getType();
         switch (type) {
             case JAVA:
@@ -102,6 +121,10 @@ public class ThreadDumpAnalyzer {
      */
     @Cacheable
     public Overview overview() {
+        return overviewOf(snapshot);
+    }
+
+    static Overview overviewOf(Snapshot snapshot) {
         Overview o = new Overview();
         CollectionUtil.forEach(t -> computeThreadState(o, t), snapshot.getJavaThreads(), snapshot.getNonJavaThreads());
 
@@ -129,43 +152,49 @@ public class ThreadDumpAnalyzer {
      * @return the call site tree by parent id
      */
     public PageView<VFrame> callSiteTree(int parentId, PagingRequest paging) {
-        CallSiteTree tree = snapshot.getCallSiteTree();
+        return callSiteTreeOf(snapshot.getCallSiteTree(), parentId, paging);
+    }
+
+    static PageView<VFrame> callSiteTreeOf(CallSiteTree tree, int parentId, PagingRequest paging) {
         if (parentId < 0 || parentId >= tree.getId2Node().length) {
             throw new IllegalArgumentException("Illegal parent id: " + parentId);
         }
         CallSiteTree.Node node = tree.getId2Node()[parentId];
         List<CallSiteTree.Node> children = node.getChildren() != null ? node.getChildren() : Collections.emptyList();
         return PageViewBuilder.build(children, paging, n -> {
-            VFrame vFrame = new VFrame();
+            VFrame vFrame = buildVFrame(n.getFrame());
             vFrame.setId(n.getId());
             vFrame.setWeight(n.getWeight());
             vFrame.setEnd(n.getChildren() == null);
-
-            Frame frame = n.getFrame();
-            vFrame.setClazz(frame.getClazz());
-            vFrame.setMethod(frame.getMethod());
-            vFrame.setModule(frame.getModule());
-            vFrame.setSourceType(frame.getSourceType());
-            vFrame.setSource(frame.getSource());
-
-            vFrame.setLine(frame.getLine());
-
-            if (frame.getMonitors() != null) {
-                List<VMonitor> vMonitors = new ArrayList<>();
-                for (Monitor monitor : frame.getMonitors()) {
-                    String clazz = null;
-                    RawMonitor rm = monitor.getRawMonitor();
-                    clazz = rm.getClazz();
-                    vMonitors.add(new VMonitor(rm.getId(), rm.getAddress(), rm.isClassInstance(),
-                                               clazz,
-                                               monitor.getState()));
-                }
-                vFrame.setMonitors(vMonitors);
-            }
             return vFrame;
         });
     }
 
+    static VFrame buildVFrame(Frame frame) {
+        VFrame vFrame = new VFrame();
+        vFrame.setClazz(frame.getClazz());
+        vFrame.setMethod(frame.getMethod());
+        vFrame.setModule(frame.getModule());
+        vFrame.setSourceType(frame.getSourceType());
+        vFrame.setSource(frame.getSource());
+
+        vFrame.setLine(frame.getLine());
+
+        if (frame.getMonitors() != null) {
+            List<VMonitor> vMonitors = new ArrayList<>();
+            for (Monitor monitor : frame.getMonitors()) {
+                String clazz = null;
+                RawMonitor rm = monitor.getRawMonitor();
+                clazz = rm.getClazz();
+                vMonitors.add(new VMonitor(rm.getId(), rm.getAddress(), rm.isClassInstance(),
+                                           clazz,
+                                           monitor.getState()));
+            }
+            vFrame.setMonitors(vMonitors);
+        }
+        return vFrame;
+    }
+
     private PageView<VThread> buildVThreadPageView(List<Thread> threads, PagingRequest paging) {
         return PageViewBuilder.build(threads, paging, thread -> {
             VThread vThread = new VThread();
@@ -213,13 +242,14 @@ public class ThreadDumpAnalyzer {
         if (thread == null) {
             throw new IllegalArgumentException("Thread id is illegal: " + id);
         }
-        String path = snapshot.getPath();
-
         int start = thread.getLineStart();
         int end = thread.getLineEnd();
-        List<String> content = new ArrayList<>();
+        if (lineIndex != null) {
+            return lineIndex.lines(start, end - start + 1);
+        }
 
-        try (LineNumberReader lnr = new LineNumberReader(new FileReader(path))) {
+        List<String> content = new ArrayList<>();
+        try (LineNumberReader lnr = new LineNumberReader(new FileReader(snapshot.getPath()))) {
             for (int i = 1; i < start; i++) {
                 lnr.readLine();
             }
@@ -239,13 +269,16 @@ public class ThreadDumpAnalyzer {
      * @throws IOException
      */
     public Content content(int lineNo, int lineLimit) throws IOException {
-        String path = snapshot.getPath();
+        if (lineIndex != null) {
+            return new Content(lineIndex.lines(lineNo, lineLimit),
+                               lineNo - 1 + Math.max(lineLimit, 0) >= lineIndex.lineCount());
+        }
 
         int end = lineNo + lineLimit - 1;
         List<String> content = new ArrayList<>();
         boolean reachEnd;
 
-        try (LineNumberReader lnr = new LineNumberReader(new FileReader(path))) {
+        try (LineNumberReader lnr = new LineNumberReader(new FileReader(snapshot.getPath()))) {
             for (int i = 1; i < lineNo; i++) {
                 String line = lnr.readLine();
                 if (line == null) {
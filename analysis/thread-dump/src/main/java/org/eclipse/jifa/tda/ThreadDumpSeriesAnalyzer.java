@@ -0,0 +1,368 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.tda;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jifa.analysis.listener.ProgressListener;
+import org.eclipse.jifa.common.domain.request.PagingRequest;
+import org.eclipse.jifa.common.domain.vo.PageView;
+import org.eclipse.jifa.common.util.PageViewBuilder;
+import org.eclipse.jifa.tda.enums.JavaThreadState;
+import org.eclipse.jifa.tda.enums.MonitorState;
+import org.eclipse.jifa.tda.enums.OSTreadState;
+import org.eclipse.jifa.tda.enums.ThreadType;
+import org.eclipse.jifa.tda.model.CallSiteTree;
+import org.eclipse.jifa.tda.model.ConstantPools;
+import org.eclipse.jifa.tda.model.Frame;
+import org.eclipse.jifa.tda.model.JavaThread;
+import org.eclipse.jifa.tda.model.Monitor;
+import org.eclipse.jifa.tda.model.RawMonitor;
+import org.eclipse.jifa.tda.model.Snapshot;
+import org.eclipse.jifa.tda.model.Thread;
+import org.eclipse.jifa.tda.model.Trace;
+import org.eclipse.jifa.tda.parser.JStackParser;
+import org.eclipse.jifa.tda.util.CollectionUtil;
+import org.eclipse.jifa.tda.vo.Overview;
+import org.eclipse.jifa.tda.vo.VFrame;
+import org.eclipse.jifa.tda.vo.VMonitorContention;
+import org.eclipse.jifa.tda.vo.VStuckThread;
+import org.eclipse.jifa.tda.vo.VThreadTimeline;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analyzer of a series of thread dumps of the same process, typically taken seconds apart to diagnose a hang.
+ * <p>
+ * The dumps are parsed with shared constant pools, and only the state and the trace of each thread in each dump
+ * are kept after parsing, so the memory grows with the unique frames and traces rather than with the dumps.
+ * Threads are tracked across the dumps by tid and nid, and monitors by address and class.
+ */
+public class ThreadDumpSeriesAnalyzer {
+
+    private final int dumps;
+
+    private final List<Overview> overviews;
+
+    // in the order of first appearance
+    private final List<Timeline> timelines;
+
+    // sorted by the number of blocked threads of all dumps
+    private final List<Contention> contentions;
+
+    // weights are the number of threads in all dumps
+    private final CallSiteTree callSiteTree;
+
+    ThreadDumpSeriesAnalyzer(List<Path> paths, ProgressListener listener) {
+        dumps = paths.size();
+        overviews = new ArrayList<>(dumps);
+        callSiteTree = new CallSiteTree();
+        Map<ThreadKey, Timeline> timelineMap = new LinkedHashMap<>();
+        Map<RawMonitor, Contention> contentionMap = new LinkedHashMap<>();
+
+        ConstantPools pools = new ConstantPools();
+        JStackParser parser = new JStackParser();
+        listener.beginTask("Parsing thread dumps", dumps);
+        for (int i = 0; i < dumps; i++) {
+            Path path = paths.get(i);
+            listener.subTask("Parsing " + path.getFileName());
+            Snapshot snapshot = parser.parse(path, ProgressListener.NoOpProgressListener, pools);
+            overviews.add(ThreadDumpAnalyzer.overviewOf(snapshot));
+            callSiteTree.merge(snapshot.getCallSiteTree());
+
+            int dump = i;
+            Map<RawMonitor, String> owners = new HashMap<>();
+            CollectionUtil.forEach(t -> {
+                timelineMap.computeIfAbsent(new ThreadKey(t.getTid(), t.getNid()),
+                                            k -> new Timeline(timelineMap.size() + 1, dumps))
+                           .record(dump, t);
+                if (t instanceof JavaThread && ((JavaThread) t).getTrace() != null) {
+                    recordMonitors(dump, (JavaThread) t, contentionMap, owners);
+                }
+            }, snapshot.getJavaThreads(), snapshot.getNonJavaThreads());
+            for (Map.Entry<RawMonitor, Contention> entry : contentionMap.entrySet()) {
+                if (entry.getValue().blocked[dump] > 0) {
+                    entry.getValue().owners[dump] = owners.get(entry.getKey());
+                }
+            }
+            listener.worked(1);
+        }
+        callSiteTree.freeze();
+
+        timelines = new ArrayList<>(timelineMap.values());
+        contentions = new ArrayList<>(contentionMap.values());
+        contentions.sort(Comparator.comparingInt(Contention::totalBlocked).reversed());
+    }
+
+    /**
+     * @param paths    the paths of thread dumps, in the order they are taken
+     * @param listener progress listener
+     * @return analyzer
+     */
+    public static ThreadDumpSeriesAnalyzer build(List<Path> paths, ProgressListener listener) {
+        return new ThreadDumpSeriesAnalyzer(paths, listener);
+    }
+
+    private void recordMonitors(int dump, JavaThread thread, Map<RawMonitor, Contention> contentions,
+                                       Map<RawMonitor, String> owners) {
+        // a thread waiting on a monitor has released it although the monitor is listed as locked by a lower frame
+        List<RawMonitor> released = null;
+        for (Frame frame : thread.getTrace().getFrames()) {
+            if (frame.getMonitors() == null) {
+                continue;
+            }
+            for (Monitor monitor : frame.getMonitors()) {
+                RawMonitor rm = monitor.getRawMonitor();
+                MonitorState state = monitor.getState();
+                if (state == MonitorState.LOCKED) {
+                    if (released == null || !released.contains(rm)) {
+                        owners.put(rm, thread.getName());
+                    }
+                    continue;
+                }
+                // waiting to re-lock a monitor the thread is waiting on is not a contention yet
+                if (released != null && released.contains(rm)) {
+                    continue;
+                }
+                if (released == null) {
+                    released = new ArrayList<>();
+                }
+                released.add(rm);
+                if (state == MonitorState.WAITING_TO_LOCK || state == MonitorState.WAITING_TO_RE_LOCK) {
+                    contentions.computeIfAbsent(rm, k -> new Contention(rm, dumps))
+                            .blocked[dump]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of thread dumps
+     */
+    public int dumps() {
+        return dumps;
+    }
+
+    /**
+     * @return the overview of each thread dump
+     */
+    public List<Overview> overviews() {
+        return Collections.unmodifiableList(overviews);
+    }
+
+    /**
+     * @param name   the thread name
+     * @param type   the thread type
+     * @param paging paging request
+     * @return the state timelines of the threads filtered by name and type
+     */
+    public PageView<VThreadTimeline> threadTimelines(String name, ThreadType type, PagingRequest paging) {
+        List<Timeline> filtered = new ArrayList<>();
+        for (Timeline timeline : timelines) {
+            if (type != null && timeline.type != type) {
+                continue;
+            }
+            if (StringUtils.isNotBlank(name) && !timeline.name.contains(name)) {
+                continue;
+            }
+            filtered.add(timeline);
+        }
+        return PageViewBuilder.build(filtered, paging, Timeline::toVThreadTimeline);
+    }
+
+    /**
+     * @param minDumps the min number of consecutive dumps
+     * @param paging   paging request
+     * @return the threads staying in the same top frame for at least minDumps consecutive dumps,
+     * sorted by the number of dumps
+     */
+    public PageView<VStuckThread> stuckThreads(int minDumps, PagingRequest paging) {
+        List<VStuckThread> stuck = new ArrayList<>();
+        for (Timeline timeline : timelines) {
+            VStuckThread s = timeline.longestStay(Math.max(minDumps, 1));
+            if (s != null) {
+                stuck.add(s);
+            }
+        }
+        stuck.sort(Comparator.comparingInt(VStuckThread::getDumps).reversed());
+        return PageViewBuilder.build(stuck, paging);
+    }
+
+    /**
+     * @param paging paging request
+     * @return the monitors some threads are blocked on, sorted by the number of blocked threads of all dumps
+     */
+    public PageView<VMonitorContention> monitorContentions(PagingRequest paging) {
+        return PageViewBuilder.build(contentions, paging, Contention::toVMonitorContention);
+    }
+
+    /**
+     * Monitors in the frames are only meaningful by address since their ids are assigned by each dump.
+     *
+     * @return the call site tree merged from all dumps by parent id
+     */
+    public PageView<VFrame> callSiteTree(int parentId, PagingRequest paging) {
+        return ThreadDumpAnalyzer.callSiteTreeOf(callSiteTree, parentId, paging);
+    }
+
+    private record ThreadKey(long tid, long nid) {
+    }
+
+    private static class Timeline {
+
+        private final int id;
+
+        private String name;
+
+        private ThreadType type;
+
+        private long tid;
+
+        private long nid;
+
+        // ordinal + 1 of the state in each dump, 0 means the thread doesn't exist in the dump
+        private final byte[] osStates;
+
+        private final byte[] javaStates;
+
+        // interned, so the same trace in different dumps is the same object
+        private final Trace[] traces;
+
+        Timeline(int id, int dumps) {
+            this.id = id;
+            osStates = new byte[dumps];
+            javaStates = new byte[dumps];
+            traces = new Trace[dumps];
+        }
+
+        void record(int dump, Thread thread) {
+            // the latest name wins since a thread may be renamed
+            name = thread.getName();
+            type = thread.getType();
+            tid = thread.getTid();
+            nid = thread.getNid();
+            osStates[dump] = (byte) (thread.getOsThreadState().ordinal() + 1);
+            if (thread instanceof JavaThread) {
+                JavaThread jt = (JavaThread) thread;
+                javaStates[dump] = (byte) (jt.getJavaThreadState().ordinal() + 1);
+                traces[dump] = jt.getTrace();
+            }
+        }
+
+        Frame topFrame(int dump) {
+            Trace trace = traces[dump];
+            return trace != null && trace.getFrames().length > 0 ? trace.getFrames()[0] : null;
+        }
+
+        VStuckThread longestStay(int minDumps) {
+            int first = -1;
+            int length = 0;
+            int start = 0;
+            for (int d = 0; d < traces.length; d++) {
+                Frame top = topFrame(d);
+                if (top == null) {
+                    start = d + 1;
+                    continue;
+                }
+                // frames are interned, so the same frame is the same object
+                if (d > start && top != topFrame(d - 1)) {
+                    start = d;
+                }
+                if (d - start + 1 > length) {
+                    first = start;
+                    length = d - start + 1;
+                }
+            }
+            if (length < minDumps) {
+                return null;
+            }
+
+            int last = first + length - 1;
+            boolean sameTrace = true;
+            for (int d = first + 1; d <= last; d++) {
+                sameTrace &= traces[d] == traces[first];
+            }
+            VStuckThread s = new VStuckThread();
+            s.setId(id);
+            s.setName(name);
+            s.setFrame(ThreadDumpAnalyzer.buildVFrame(topFrame(first)));
+            s.setFirstDump(first);
+            s.setDumps(length);
+            s.setSameTrace(sameTrace);
+            s.setState(JavaThreadState.values()[javaStates[last] - 1]);
+            return s;
+        }
+
+        VThreadTimeline toVThreadTimeline() {
+            VThreadTimeline v = new VThreadTimeline();
+            v.setId(id);
+            v.setName(name);
+            v.setType(type);
+            v.setTid(tid);
+            v.setNid(nid);
+            List<OSTreadState> os = new ArrayList<>(osStates.length);
+            List<JavaThreadState> java = new ArrayList<>(javaStates.length);
+            for (int d = 0; d < osStates.length; d++) {
+                os.add(osStates[d] > 0 ? OSTreadState.values()[osStates[d] - 1] : null);
+                java.add(javaStates[d] > 0 ? JavaThreadState.values()[javaStates[d] - 1] : null);
+            }
+            v.setOsStates(os);
+            v.setJavaStates(java);
+            return v;
+        }
+    }
+
+    private static class Contention {
+
+        private final RawMonitor monitor;
+
+        private final int[] blocked;
+
+        private final String[] owners;
+
+        Contention(RawMonitor monitor, int dumps) {
+            this.monitor = monitor;
+            blocked = new int[dumps];
+            owners = new String[dumps];
+        }
+
+        int totalBlocked() {
+            int total = 0;
+            for (int b : blocked) {
+                total += b;
+            }
+            return total;
+        }
+
+        VMonitorContention toVMonitorContention() {
+            VMonitorContention v = new VMonitorContention();
+            v.setAddress(monitor.getAddress());
+            v.setClassInstance(monitor.isClassInstance());
+            v.setClazz(monitor.getClazz());
+            List<Integer> b = new ArrayList<>(blocked.length);
+            for (int count : blocked) {
+                b.add(count);
+            }
+            v.setBlockedThreads(b);
+            v.setOwners(Arrays.asList(owners.clone()));
+            return v;
+        }
+    }
+}
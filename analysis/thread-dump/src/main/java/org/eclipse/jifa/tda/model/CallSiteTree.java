@@ -15,8 +15,10 @@ package org.eclipse.jifa.tda.model;
 
 import lombok.Data;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
 
@@ -36,12 +38,30 @@ public class CallSiteTree {
         allChildren = new ArrayList<>();
     }
 
-    public synchronized void add(Trace trace) {
+    // not thread safe, threads parsing a dump build their own trees, which are merged before freezing
+    public void add(Trace trace) {
         Frame[] frames = trace.getFrames();
         root.weight++;
         Node parent = root;
         for (Frame frame : frames) {
-            parent = addChildren(parent, frame);
+            parent = addChildren(parent, frame, 1);
+        }
+    }
+
+    public void merge(CallSiteTree other) {
+        root.weight += other.root.weight;
+        // pairs of a node of this tree and the node of the other tree merged into it
+        Deque<Node[]> pending = new ArrayDeque<>();
+        pending.push(new Node[]{root, other.root});
+        while (!pending.isEmpty()) {
+            Node[] pair = pending.pop();
+            List<Node> children = pair[1].children;
+            if (children == null) {
+                continue;
+            }
+            for (Node child : children) {
+                pending.push(new Node[]{addChildren(pair[0], child.frame, child.weight), child});
+            }
         }
     }
 
@@ -63,10 +83,11 @@ public class CallSiteTree {
         allChildren = null;
     }
 
-    private Node addChildren(Node parent, Frame frame) {
+    private Node addChildren(Node parent, Frame frame, int weight) {
         List<Node> children = parent.children;
         if (children == null) {
             Node node = new Node(frame);
+            node.weight = weight;
             count++;
             children = new ArrayList<>();
             children.add(node);
@@ -81,7 +102,7 @@ public class CallSiteTree {
             int mid = low + (high - low) / 2;
             Node node = children.get(mid);
             if (node.frame.equals(frame)) {
-                node.weight++;
+                node.weight += weight;
                 return node;
             } else if (node.frame.hashCode() < frame.hashCode()) {
                 low = mid + 1;
@@ -90,6 +111,7 @@ public class CallSiteTree {
             }
         }
         Node node = new Node(frame);
+        node.weight = weight;
         count++;
         children.add(low, node);
         return node;
@@ -0,0 +1,35 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.tda.model;
+
+import lombok.Getter;
+
+/**
+ * Constant pools shared by the snapshots of a series of thread dumps, so that the symbols, frames, traces and
+ * monitors appearing in many dumps are interned only once.
+ * <p>
+ * Raw monitors are not shared since their ids are assigned by each snapshot.
+ */
+@Getter
+public class ConstantPools {
+
+    private final Pool<String> symbols = new Pool<>();
+
+    private final Pool<Frame> frames = new Pool<>();
+
+    private final Pool<Trace> traces = new Pool<>();
+
+    private final Pool<Monitor> monitors = new Pool<>();
+
+    private final Pool<ConcurrentLock> concurrentLocks = new Pool<>();
+}
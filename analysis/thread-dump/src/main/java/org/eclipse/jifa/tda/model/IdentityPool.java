@@ -60,6 +60,30 @@ public class IdentityPool<O extends Identity> extends Pool<O> {
         return objects;
     }
 
+    /**
+     * @return the last assigned id
+     */
+    public int lastId() {
+        return id.get();
+    }
+
+    /**
+     * Restore a frozen pool, see {@link #freeze()}
+     *
+     * @param objects the objects sorted by reference count
+     * @param lastId  the last assigned id
+     * @param <O>     object type
+     * @return the frozen pool
+     */
+    public static <O extends Identity> IdentityPool<O> frozen(List<O> objects, int lastId) {
+        IdentityPool<O> pool = new IdentityPool<>();
+        pool.id.set(lastId);
+        pool.objects = objects;
+        pool.map = null;
+        pool.refCountMap = null;
+        return pool;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -15,6 +15,7 @@ package org.eclipse.jifa.tda.model;
 
 import lombok.Data;
 import org.eclipse.jifa.tda.enums.MonitorState;
+import org.eclipse.jifa.tda.parser.LineIndex;
 import org.eclipse.jifa.tda.util.CollectionUtil;
 
 import java.util.ArrayList;
@@ -75,6 +76,9 @@ public class Snapshot {
     // parse error
     private final List<Error> errors = new ArrayList<>();
 
+    // built by the parser to read raw content by line number, not serialized
+    private transient LineIndex lineIndex;
+
     private static final Pattern GROUP_NAME_PATTERN = Pattern.compile("(?<prefix>.*)[-#]\\d+( .+)?");
 
     private void assignThreadIdAndComputeThreadGroupInfo() {
@@ -98,6 +102,19 @@ public class Snapshot {
         }
     }
 
+    /**
+     * Intern the constants into the given pools, which may be shared with other snapshots.
+     *
+     * @param pools the constant pools
+     */
+    public void usePools(ConstantPools pools) {
+        symbols = pools.getSymbols();
+        frames = pools.getFrames();
+        traces = pools.getTraces();
+        monitors = pools.getMonitors();
+        concurrentLocks = pools.getConcurrentLocks();
+    }
+
     public void post() {
         symbols = null;
         frames = null;
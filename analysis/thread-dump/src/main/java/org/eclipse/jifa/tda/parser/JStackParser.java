@@ -16,12 +16,15 @@ package org.eclipse.jifa.tda.parser;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jifa.analysis.listener.ProgressListener;
+import org.eclipse.jifa.common.util.ExecutorFactory;
 import org.eclipse.jifa.tda.enums.JavaThreadState;
 import org.eclipse.jifa.tda.enums.MonitorState;
 import org.eclipse.jifa.tda.enums.OSTreadState;
 import org.eclipse.jifa.tda.enums.SourceType;
 import org.eclipse.jifa.tda.enums.ThreadType;
+import org.eclipse.jifa.tda.model.CallSiteTree;
 import org.eclipse.jifa.tda.model.ConcurrentLock;
+import org.eclipse.jifa.tda.model.ConstantPools;
 import org.eclipse.jifa.tda.model.Frame;
 import org.eclipse.jifa.tda.model.JavaThread;
 import org.eclipse.jifa.tda.model.Monitor;
@@ -41,10 +44,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -52,36 +53,26 @@ import java.util.regex.Pattern;
 @Slf4j
 public class JStackParser implements Parser {
 
-    private static final BlockingDeque<ParserImpl.RawJavaThread> QUEUE;
-
-    private static final ExecutorService ES;
-
-    static {
-        QUEUE = new LinkedBlockingDeque<>(128);
-
-        int count = Math.max(2, Runtime.getRuntime().availableProcessors());
-        ES = Executors.newFixedThreadPool(count);
-        assert count >= 2;
-
-        for (int i = 0; i < count; i++) {
-            ES.submit(() -> {
-                //noinspection InfiniteLoopStatement
-                while (true) {
-                    try {
-                        QUEUE.take().parse();
-                    } catch (Throwable t) {
-                        log.error("Parse one thread error", t);
-                    }
-                }
-            });
-        }
-    }
+    // raw threads waiting to be parsed by a parse, which bounds the memory of lines read ahead
+    private static final int MAX_PENDING_THREADS = 128;
 
     @Override
     public Snapshot parse(Path path, ProgressListener listener) {
+        return parse(path, listener, null);
+    }
+
+    /**
+     * @param path     the path of thread dump
+     * @param listener progress listener
+     * @param pools    the constant pools shared with the snapshots of other dumps, null means not shared
+     * @return the snapshot
+     */
+    public Snapshot parse(Path path, ProgressListener listener, ConstantPools pools) {
         try {
-            Snapshot snapshot = new ParserImpl(path, listener).parse();
+            Snapshot snapshot = new ParserImpl(path, listener, pools).parse();
             snapshot.post();
+            // raw content is read by line number from the nearest indexed line
+            snapshot.setLineIndex(LineIndex.of(path));
             return snapshot;
         } catch (Throwable t) {
             if (t instanceof ParserException) {
@@ -185,18 +176,49 @@ public class JStackParser implements Parser {
 
         private final ProgressListener listener;
 
-        ParserImpl(Path path, ProgressListener listener) throws IOException {
+        // java threads are parsed by the workers of each parse, so that parses don't wait for each other
+        private final ForkJoinPool pool;
+
+        private final Semaphore pendingThreads;
+
+        // each worker adds the traces it parses to its own tree, and the trees are merged at last
+        private final List<CallSiteTree> callSiteTrees;
+
+        private final ThreadLocal<CallSiteTree> callSiteTree;
+
+        ParserImpl(Path path, ProgressListener listener, ConstantPools pools) throws IOException {
             this.input = new Input(path);
             this.listener = listener;
             snapshot = new Snapshot();
             snapshot.setPath(path.toAbsolutePath().toString());
+            if (pools != null) {
+                snapshot.usePools(pools);
+            }
             processing = new AtomicInteger(0);
             errors = new ArrayList<>();
+            pool = ExecutorFactory.newForkJoinPool("Thread Dump Parser");
+            pendingThreads = new Semaphore(MAX_PENDING_THREADS);
+            callSiteTrees = new ArrayList<>();
+            callSiteTree = ThreadLocal.withInitial(() -> {
+                CallSiteTree tree = new CallSiteTree();
+                synchronized (callSiteTrees) {
+                    callSiteTrees.add(tree);
+                }
+                return tree;
+            });
 
             step();
         }
 
         Snapshot parse() throws Exception {
+            try {
+                return doParse();
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        Snapshot doParse() throws Exception {
             listener.beginTask("Parsing thread dump", 100);
             listener.subTask("Parsing timestamp and version");
             parseTimeStamp();
@@ -222,6 +244,9 @@ public class JStackParser implements Parser {
                     this.wait();
                 }
             }
+            for (CallSiteTree tree : callSiteTrees) {
+                snapshot.getCallSiteTree().merge(tree);
+            }
             listener.worked(90);
 
             return snapshot;
@@ -378,10 +403,18 @@ public class JStackParser implements Parser {
         void enroll(RawJavaThread tp) {
             processing.incrementAndGet();
             try {
-                QUEUE.put(tp);
+                pendingThreads.acquire();
             } catch (Throwable t) {
                 processing.decrementAndGet();
+                return;
             }
+            pool.execute(() -> {
+                try {
+                    tp.parse();
+                } finally {
+                    pendingThreads.release();
+                }
+            });
         }
 
         ThreadType typeOf(String name, boolean javaThread) {
@@ -401,16 +434,26 @@ public class JStackParser implements Parser {
         }
 
         void fillThread(Thread thread, Matcher m) {
+            fillThread(thread, m.group("name"), m.group("osPriority"), m.group("cpu"), m.group("elapsed"),
+                       m.group("tid"), m.group("nid"), m.group("state"));
+        }
+
+        void fillThread(Thread thread, LineScanner scanner) {
+            fillThread(thread, scanner.name, scanner.osPriority, scanner.cpu, scanner.elapsed, scanner.tid,
+                       scanner.nid, scanner.state);
+        }
+
+        private void fillThread(Thread thread, String name, String osPriority, String cpu, String elapsed,
+                                String tid, String nid, String state) {
             Pool<String> symbols = snapshot.getSymbols();
-            String name = m.group("name");
             thread.setName(symbols.add(name));
             thread.setType(typeOf(name, thread instanceof JavaThread));
-            thread.setOsPriority(Integer.parseInt(m.group("osPriority")));
-            thread.setCpu(Converter.str2TimeMillis(m.group("cpu")));
-            thread.setElapsed(Converter.str2TimeMillis(m.group("elapsed")));
-            thread.setTid(Long.decode(m.group("tid")));
-            thread.setNid(Long.decode(m.group("nid")));
-            thread.setOsThreadState(OSTreadState.getByDescription(m.group("state").trim()));
+            thread.setOsPriority(Integer.parseInt(osPriority));
+            thread.setCpu(Converter.str2TimeMillis(cpu));
+            thread.setElapsed(Converter.str2TimeMillis(elapsed));
+            thread.setTid(Long.decode(tid));
+            thread.setNid(Long.decode(nid));
+            thread.setOsThreadState(OSTreadState.getByDescription(state.trim()));
         }
 
         void parseThreads() throws Exception {
@@ -560,13 +603,18 @@ public class JStackParser implements Parser {
             List<Frame> frames = new ArrayList<>();
             List<Monitor> monitors = new ArrayList<>();
             Frame last = null;
+            // the common shapes of frames and monitors are scanned without the patterns
+            LineScanner scanner = new LineScanner();
             for (int i = 0; i < stackTraces.size(); i++) {
                 Matcher m;
                 String line = stackTraces.get(i);
                 if (line.startsWith("at")) {
-                    m = PATTERNS.JAVA_FRAME.matcher(line);
-                    if (!m.matches()) {
-                        throw new ParserException("Illegal java frame: " + line);
+                    if (!scanner.scanFrame(line)) {
+                        m = PATTERNS.JAVA_FRAME.matcher(line);
+                        if (!m.matches()) {
+                            throw new ParserException("Illegal java frame: " + line);
+                        }
+                        scanner.frame(m);
                     }
 
                     if (!monitors.isEmpty()) {
@@ -580,14 +628,12 @@ public class JStackParser implements Parser {
                     }
 
                     last = new Frame();
-                    last.setClazz(symbolPool.add(m.group("class")));
-                    last.setMethod(symbolPool.add(m.group("method")));
-                    String module = m.group("module");
-                    if (module != null) {
-                        // strip '/'
-                        last.setModule(symbolPool.add(module.substring(0, module.length() - 1)));
+                    last.setClazz(symbolPool.add(scanner.clazz));
+                    last.setMethod(symbolPool.add(scanner.method));
+                    if (scanner.module != null) {
+                        last.setModule(symbolPool.add(scanner.module));
                     }
-                    String source = m.group("source");
+                    String source = scanner.source;
                     SourceType sourceType = SourceType.judge(source);
                     last.setSourceType(sourceType);
                     if (sourceType == SourceType.SOURCE_FILE_WITH_LINE_NUMBER) {
@@ -617,27 +663,33 @@ public class JStackParser implements Parser {
                                                      MonitorState.WAITING_ON_NO_OBJECT_REFERENCE_AVAILABLE,
                                                      -1, false, null));
                         } else {
-                            m = PATTERNS.WAITING_ON.matcher(line);
-                            if (!m.matches()) {
-                                throw new ParserException("Illegal waiting line: " + line);
+                            if (!scanner.scanMonitor(line, LineScanner.WAITING_ON)) {
+                                m = PATTERNS.WAITING_ON.matcher(line);
+                                if (!m.matches()) {
+                                    throw new ParserException("Illegal waiting line: " + line);
+                                }
+                                scanner.monitor(m);
                             }
                             monitors
                                 .add(assembleMonitor(thread, !deadLockThread, MonitorState.WAITING_ON,
-                                                     Long.decode(m.group("address")),
-                                                     m.group("isClass") != null,
-                                                     symbolPool.add(m.group("class"))));
+                                                     Long.decode(scanner.address),
+                                                     scanner.isClass,
+                                                     symbolPool.add(scanner.clazz)));
                         }
                     } else if (line.startsWith(MonitorState.WAITING_TO_RE_LOCK.prefix())) {
                         assert last != null;
-                        m = PATTERNS.WAITING_TO_RE_LOCK.matcher(line);
-                        if (!m.matches()) {
-                            throw new ParserException("Illegal waiting to re-lock line: " + line);
+                        if (!scanner.scanMonitor(line, LineScanner.WAITING_TO_RE_LOCK)) {
+                            m = PATTERNS.WAITING_TO_RE_LOCK.matcher(line);
+                            if (!m.matches()) {
+                                throw new ParserException("Illegal waiting to re-lock line: " + line);
+                            }
+                            scanner.monitor(m);
                         }
                         monitors
                             .add(assembleMonitor(thread, !deadLockThread, MonitorState.WAITING_TO_RE_LOCK,
-                                                 Long.decode(m.group("address")),
-                                                 m.group("isClass") != null,
-                                                 symbolPool.add(m.group("class"))));
+                                                 Long.decode(scanner.address),
+                                                 scanner.isClass,
+                                                 symbolPool.add(scanner.clazz)));
                     } else if (line.startsWith(MonitorState.WAITING_ON_CLASS_INITIALIZATION.prefix())) {
                         assert last != null;
                         m = PATTERNS.WAITING_ON_CLASS_INITIALIZATION.matcher(line);
@@ -651,34 +703,43 @@ public class JStackParser implements Parser {
                                                  -1, true, symbolPool.add(m.group("class"))));
                     } else if (line.startsWith(MonitorState.LOCKED.prefix())) {
                         checkLastFrameNotNull(last, line);
-                        m = PATTERNS.LOCKED.matcher(line);
-                        if (!m.matches()) {
-                            throw new ParserException("Illegal locked line: " + line);
+                        if (!scanner.scanMonitor(line, LineScanner.LOCKED)) {
+                            m = PATTERNS.LOCKED.matcher(line);
+                            if (!m.matches()) {
+                                throw new ParserException("Illegal locked line: " + line);
+                            }
+                            scanner.monitor(m);
                         }
                         monitors.add(assembleMonitor(thread, !deadLockThread, MonitorState.LOCKED,
-                                                     Long.decode(m.group("address")),
-                                                     m.group("isClass") != null,
-                                                     symbolPool.add(m.group("class"))));
+                                                     Long.decode(scanner.address),
+                                                     scanner.isClass,
+                                                     symbolPool.add(scanner.clazz)));
                     } else if (line.startsWith(MonitorState.WAITING_TO_LOCK.prefix())) {
                         checkLastFrameNotNull(last, line);
-                        m = PATTERNS.WAITING_TO_LOCK.matcher(line);
-                        if (!m.matches()) {
-                            throw new ParserException("Illegal waiting to lock line: " + line);
+                        if (!scanner.scanMonitor(line, LineScanner.WAITING_TO_LOCK)) {
+                            m = PATTERNS.WAITING_TO_LOCK.matcher(line);
+                            if (!m.matches()) {
+                                throw new ParserException("Illegal waiting to lock line: " + line);
+                            }
+                            scanner.monitor(m);
                         }
                         monitors.add(assembleMonitor(thread, !deadLockThread, MonitorState.WAITING_TO_LOCK,
-                                                     Long.decode(m.group("address")),
-                                                     m.group("isClass") != null,
-                                                     symbolPool.add(m.group("class"))));
+                                                     Long.decode(scanner.address),
+                                                     scanner.isClass,
+                                                     symbolPool.add(scanner.clazz)));
                     } else if (line.startsWith(MonitorState.ELIMINATED.prefix())) {
                         checkLastFrameNotNull(last, line);
-                        m = PATTERNS.ELIMINATED.matcher(line);
-                        if (!m.matches()) {
-                            throw new ParserException("Illegal eliminated lock line: " + line);
+                        if (!scanner.scanMonitor(line, LineScanner.ELIMINATED)) {
+                            m = PATTERNS.ELIMINATED.matcher(line);
+                            if (!m.matches()) {
+                                throw new ParserException("Illegal eliminated lock line: " + line);
+                            }
+                            scanner.monitor(m);
                         }
                         monitors.add(assembleMonitor(thread, !deadLockThread, MonitorState.ELIMINATED,
-                                                     Long.decode(m.group("address")),
-                                                     m.group("isClass") != null,
-                                                     symbolPool.add(m.group("class"))));
+                                                     Long.decode(scanner.address),
+                                                     scanner.isClass,
+                                                     symbolPool.add(scanner.clazz)));
                     } else if (line.startsWith(MonitorState.ELIMINATED_SCALAR_REPLACED.prefix())) {
                         checkLastFrameNotNull(last, line);
                         m = PATTERNS.ELIMINATED_SCALAR_REPLACED.matcher(line);
@@ -745,22 +806,26 @@ public class JStackParser implements Parser {
                 assert contents.size() >= 2;
 
                 String line = contents.get(0);
-                Matcher m = PATTERNS.JAVA_THREAD.matcher(contents.get(0));
-                if (!m.matches()) {
-                    throw new ParserException("Illegal java thread: " + line);
+                LineScanner scanner = new LineScanner();
+                if (!scanner.scanJavaThread(line)) {
+                    Matcher m = PATTERNS.JAVA_THREAD.matcher(line);
+                    if (!m.matches()) {
+                        throw new ParserException("Illegal java thread: " + line);
+                    }
+                    scanner.javaThread(m);
                 }
                 JavaThread thread = new JavaThread();
-                fillThread(thread, m);
+                fillThread(thread, scanner);
                 thread.setLineStart(rjt.lineStart);
                 thread.setLineEnd(rjt.lineEnd);
-                thread.setJid(Long.parseLong(m.group("id")));
-                thread.setDaemon(m.group("daemon") != null);
-                thread.setPriority(Integer.parseInt(m.group("priority")));
-                thread.setLastJavaSP(Long.decode(m.group("lastJavaSP")));
+                thread.setJid(Long.parseLong(scanner.id));
+                thread.setDaemon(scanner.daemon);
+                thread.setPriority(Integer.parseInt(scanner.priority));
+                thread.setLastJavaSP(Long.decode(scanner.lastJavaSP));
 
                 // java thread state
                 line = contents.get(1);
-                m = PATTERNS.JAVA_STATE.matcher(line);
+                Matcher m = PATTERNS.JAVA_STATE.matcher(line);
                 if (!m.matches()) {
                     throw new ParserException("Illegal java thread state: " + line);
                 }
@@ -769,7 +834,7 @@ public class JStackParser implements Parser {
                 if (contents.size() > 2 && thread.getType() == ThreadType.JAVA /* skip jit */) {
                     // trace
                     Trace trace = parseStackTrace(thread, false, contents.subList(2, contents.size()));
-                    snapshot.getCallSiteTree().add(trace);
+                    callSiteTree.get().add(trace);
                     thread.setTrace(snapshot.getTraces().add(trace));
                 }
                 synchronized (this) {
@@ -0,0 +1,286 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.tda.parser;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Byte offsets of every {@link #INTERVAL}-th line of a thread dump, so that raw content can be read
+ * from the nearest indexed line instead of from the first line.
+ * <p>
+ * Lines are numbered and split the same way as {@link java.io.LineNumberReader} does, and decoded
+ * with the default charset as {@link java.io.FileReader} does. The index is persisted next to the
+ * serialized snapshot.
+ */
+@Slf4j
+public class LineIndex {
+
+    static final int INTERVAL = 256;
+
+    static final String FILE_SUFFIX = ".lines";
+
+    private static final int MAGIC = 0x4A544C49;
+
+    private static final int VERSION = 1;
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    // a block of INTERVAL lines usually fits in a read
+    private static final int READ_SIZE = 64 * 1024;
+
+    private final Path path;
+
+    private final long fileSize;
+
+    private final long lastModified;
+
+    private final int lineCount;
+
+    // offsets[i] is the offset of line i * INTERVAL + 1
+    private final long[] offsets;
+
+    LineIndex(Path path, long fileSize, long lastModified, int lineCount, long[] offsets) {
+        this.path = path;
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+        this.lineCount = lineCount;
+        this.offsets = offsets;
+    }
+
+    /**
+     * @return true if line terminators are single bytes in the default charset, which the byte offsets rely on
+     */
+    static boolean supported() {
+        Charset charset = Charset.defaultCharset();
+        return Arrays.equals("\n".getBytes(charset), new byte[]{'\n'}) &&
+               Arrays.equals("\r".getBytes(charset), new byte[]{'\r'});
+    }
+
+    /**
+     * Load the persisted index of a thread dump, or build and persist it if it doesn't exist or is stale.
+     *
+     * @param path the path of thread dump
+     * @return the index, or null if the index isn't available
+     */
+    public static LineIndex of(Path path) {
+        if (!supported()) {
+            return null;
+        }
+        LineIndex index = load(path);
+        if (index != null) {
+            return index;
+        }
+        try {
+            index = build(path);
+        } catch (IOException e) {
+            log.warn("Failed to build line index: {}", path, e);
+            return null;
+        }
+        index.save();
+        return index;
+    }
+
+    static LineIndex build(Path path) throws IOException {
+        File file = path.toFile();
+        long lastModified = file.lastModified();
+        long[] offsets = new long[16];
+        int lines = 0;
+        long lineStart = 0;
+        boolean afterCR = false;
+        long position = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    position++;
+                    if (b == '\n' && afterCR) {
+                        // '\r\n' terminates the line ended at '\r'
+                        afterCR = false;
+                        lineStart = position;
+                        if (lines % INTERVAL == 0) {
+                            offsets[lines / INTERVAL] = position;
+                        }
+                        continue;
+                    }
+                    afterCR = b == '\r';
+                    if (b == '\n' || b == '\r') {
+                        lines++;
+                        lineStart = position;
+                        if (lines % INTERVAL == 0) {
+                            int i = lines / INTERVAL;
+                            if (i == offsets.length) {
+                                offsets = Arrays.copyOf(offsets, i * 2);
+                            }
+                            offsets[i] = position;
+                        }
+                    }
+                }
+                buffer.clear();
+            }
+        }
+        if (position > lineStart) {
+            lines++;
+        }
+        return new LineIndex(path, position, lastModified, lines,
+                             Arrays.copyOf(offsets, (lines - 1) / INTERVAL + 1));
+    }
+
+    static File file(Path path) {
+        return new File(path.toFile().getAbsoluteFile() + FILE_SUFFIX);
+    }
+
+    /**
+     * @param path the path of thread dump
+     * @return the persisted index, or null if it doesn't exist or doesn't match the thread dump
+     */
+    static LineIndex load(Path path) {
+        File file = file(path);
+        if (!file.exists()) {
+            return null;
+        }
+        File dump = path.toFile();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION ||
+                in.readLong() != dump.length() ||
+                in.readLong() != dump.lastModified()) {
+                return null;
+            }
+            int lineCount = in.readInt();
+            long[] offsets = new long[in.readInt()];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = in.readLong();
+            }
+            return new LineIndex(path, dump.length(), dump.lastModified(), lineCount, offsets);
+        } catch (IOException e) {
+            log.warn("Failed to load line index: {}", file.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    void save() {
+        File file = file(path);
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fileSize);
+            out.writeLong(lastModified);
+            out.writeInt(lineCount);
+            out.writeInt(offsets.length);
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to save line index: {}", file.getAbsolutePath(), e);
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            log.warn("Failed to rename line index: {}", temp.getAbsolutePath());
+        }
+    }
+
+    public int lineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @param lineNo    the first line number, starting from 1
+     * @param lineLimit the max number of lines
+     * @return the lines, fewer than lineLimit if the end of the thread dump is reached
+     * @throws IOException if the thread dump can't be read
+     */
+    public List<String> lines(int lineNo, int lineLimit) throws IOException {
+        lineNo = Math.max(lineNo, 1);
+        int count = Math.min(lineLimit, lineCount - lineNo + 1);
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+        int block = (lineNo - 1) / INTERVAL;
+        int skip = lineNo - 1 - block * INTERVAL;
+        List<String> lines = new ArrayList<>(count);
+        Charset charset = Charset.defaultCharset();
+        // the content is read from the indexed line in windows, only as far as the requested lines
+        ByteBuffer buffer = ByteBuffer.allocate(READ_SIZE);
+        byte[] line = new byte[256];
+        int length = 0;
+        boolean afterCR = false;
+        long position = offsets[block];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            read:
+            while (position < fileSize) {
+                buffer.clear();
+                buffer.limit((int) Math.min(READ_SIZE, fileSize - position));
+                int n = channel.read(buffer, position);
+                if (n < 0) {
+                    break;
+                }
+                position += n;
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n' && afterCR) {
+                        afterCR = false;
+                        continue;
+                    }
+                    afterCR = b == '\r';
+                    if (b == '\n' || b == '\r') {
+                        if (skip > 0) {
+                            skip--;
+                        } else {
+                            lines.add(new String(line, 0, length, charset));
+                            if (lines.size() == count) {
+                                break read;
+                            }
+                        }
+                        length = 0;
+                    } else if (skip == 0) {
+                        if (length == line.length) {
+                            line = Arrays.copyOf(line, length * 2);
+                        }
+                        line[length++] = b;
+                    }
+                }
+            }
+        }
+        if (lines.size() < count && skip == 0 && length > 0) {
+            // the last line without terminator
+            lines.add(new String(line, 0, length, charset));
+        }
+        return lines;
+    }
+
+    public long footprint() {
+        return (long) offsets.length * Long.BYTES;
+    }
+}
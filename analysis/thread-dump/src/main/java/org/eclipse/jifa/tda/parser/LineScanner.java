@@ -0,0 +1,353 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.tda.parser;
+
+import java.util.regex.Matcher;
+
+/**
+ * Hand-written scanner of the most frequent lines of a jstack dump: java thread headers, java frames and the
+ * monitors of java frames.
+ * <p>
+ * A scan either fills the fields with exactly the groups that the corresponding pattern of
+ * jstack_pattern.properties captures, or returns false without looking further, in which case the caller falls
+ * back to the pattern and fills the fields from the matcher. Only the usual shapes are accepted, so that every
+ * accepted line is matched by the pattern in the same way.
+ */
+class LineScanner {
+
+    static final String LOCKED = "- locked <";
+
+    static final String WAITING_TO_LOCK = "- waiting to lock <";
+
+    static final String WAITING_ON = "- waiting on <";
+
+    static final String WAITING_TO_RE_LOCK = "- waiting to re-lock in wait() <";
+
+    static final String ELIMINATED = "- eliminated <";
+
+    // the dots of " java.lang.Class for" in the patterns match any character
+    private static final String CLASS_FOR = " java.lang.Class for ";
+
+    // thread
+    String name;
+
+    String osPriority;
+
+    String cpu;
+
+    String elapsed;
+
+    String tid;
+
+    String nid;
+
+    String state;
+
+    // java thread
+    String id;
+
+    boolean daemon;
+
+    String priority;
+
+    String lastJavaSP;
+
+    // java frame
+    String clazz;
+
+    String method;
+
+    String module;
+
+    String source;
+
+    // monitor, the class is kept in clazz
+    String address;
+
+    boolean isClass;
+
+    /**
+     * @param line the header of a java thread, e.g.
+     *             "main" #1 prio=5 os_prio=31 cpu=1.2ms elapsed=3.4s tid=0x00007f nid=0x2803 waiting on condition [0x000070]
+     * @return true if scanned
+     */
+    boolean scanJavaThread(String line) {
+        int length = line.length();
+        if (length < 2 || line.charAt(0) != '"' || line.charAt(length - 1) != ']') {
+            return false;
+        }
+        int pos = line.indexOf("\" #", 2);
+        if (pos < 0) {
+            return false;
+        }
+        String name = line.substring(1, pos);
+
+        pos += 3;
+        int end = digits(line, pos);
+        if (end == pos) {
+            return false;
+        }
+        String id = line.substring(pos, end);
+        pos = end;
+
+        // the optional [os thread id] printed since JDK 19
+        int bracket = pos;
+        while (bracket < length && line.charAt(bracket) == ' ') {
+            bracket++;
+        }
+        if (bracket < length && line.charAt(bracket) == '[') {
+            end = digits(line, bracket + 1);
+            if (end == bracket + 1 || end >= length || line.charAt(end) != ']') {
+                return false;
+            }
+            pos = end + 1;
+        }
+
+        boolean daemon = line.startsWith(" daemon", pos);
+        if (daemon) {
+            pos += 7;
+        }
+
+        if (!line.startsWith(" prio=", pos)) {
+            return false;
+        }
+        pos += 6;
+        end = digits(line, pos);
+        if (end == pos) {
+            return false;
+        }
+        String priority = line.substring(pos, end);
+        pos = end;
+
+        if (!line.startsWith(" os_prio=", pos)) {
+            return false;
+        }
+        pos += 9;
+        end = digits(line, pos);
+        if (end == pos) {
+            return false;
+        }
+        String osPriority = line.substring(pos, end);
+        pos = end;
+
+        // optional values must be in the order of the pattern, each one is a single token
+        String cpu = null;
+        String elapsed = null;
+        if (line.startsWith(" cpu=", pos)) {
+            end = token(line, pos + 5);
+            if (end == pos + 5) {
+                return false;
+            }
+            cpu = line.substring(pos + 5, end);
+            pos = end;
+        }
+        if (line.startsWith(" elapsed=", pos)) {
+            end = token(line, pos + 9);
+            if (end == pos + 9) {
+                return false;
+            }
+            elapsed = line.substring(pos + 9, end);
+            pos = end;
+        }
+        if (line.startsWith(" allocated=", pos)) {
+            end = token(line, pos + 11);
+            if (end == pos + 11) {
+                return false;
+            }
+            pos = end;
+        }
+        if (line.startsWith(" defined_classes=", pos)) {
+            end = token(line, pos + 17);
+            if (end == pos + 17) {
+                return false;
+            }
+            pos = end;
+        }
+
+        if (!line.startsWith(" tid=", pos)) {
+            return false;
+        }
+        pos += 5;
+        end = token(line, pos);
+        if (end == pos) {
+            return false;
+        }
+        String tid = line.substring(pos, end);
+        pos = end;
+
+        if (!line.startsWith(" nid=", pos)) {
+            return false;
+        }
+        pos += 5;
+        end = pos;
+        while (end < length && isNid(line.charAt(end))) {
+            end++;
+        }
+        if (end == pos || end >= length || line.charAt(end) != ' ') {
+            return false;
+        }
+        String nid = line.substring(pos, end);
+        pos = end + 1;
+
+        // the state ends at the first '[' and the last java sp is the rest except the trailing ']'
+        if (pos >= length || line.charAt(pos) == ' ' || line.charAt(pos) == '[') {
+            return false;
+        }
+        bracket = line.indexOf('[', pos);
+        if (bracket < 0 || bracket + 2 >= length) {
+            return false;
+        }
+        end = bracket;
+        while (line.charAt(end - 1) == ' ') {
+            end--;
+        }
+
+        this.name = name;
+        this.id = id;
+        this.daemon = daemon;
+        this.priority = priority;
+        this.osPriority = osPriority;
+        this.cpu = cpu;
+        this.elapsed = elapsed;
+        this.tid = tid;
+        this.nid = nid;
+        this.state = line.substring(pos, end);
+        this.lastJavaSP = line.substring(bracket + 1, length - 1);
+        return true;
+    }
+
+    void javaThread(Matcher m) {
+        name = m.group("name");
+        osPriority = m.group("osPriority");
+        cpu = m.group("cpu");
+        elapsed = m.group("elapsed");
+        tid = m.group("tid");
+        nid = m.group("nid");
+        state = m.group("state");
+        id = m.group("id");
+        daemon = m.group("daemon") != null;
+        priority = m.group("priority");
+        lastJavaSP = m.group("lastJavaSP");
+    }
+
+    /**
+     * @param line a java frame, e.g. at java.lang.Thread.run(java.base@11.0.1/Thread.java:834)
+     * @return true if scanned
+     */
+    boolean scanFrame(String line) {
+        int length = line.length();
+        if (!line.startsWith("at ") || line.charAt(length - 1) != ')') {
+            return false;
+        }
+        int open = line.indexOf('(', 3);
+        if (open < 0 || line.indexOf('(', open + 1) >= 0 || line.indexOf(')', open + 1) != length - 1) {
+            return false;
+        }
+        int dot = line.lastIndexOf('.', open - 1);
+        if (dot <= 3 || dot == open - 1) {
+            return false;
+        }
+
+        // the module ends at the first '/' which is not the first character
+        String module = null;
+        int from = open + 1;
+        int slash = line.indexOf('/', open + 2);
+        if (slash >= 0) {
+            if (slash + 1 == length - 1) {
+                return false;
+            }
+            module = line.substring(from, slash);
+            from = slash + 1;
+        } else if (from == length - 1) {
+            return false;
+        }
+
+        this.clazz = line.substring(3, dot);
+        this.method = line.substring(dot + 1, open);
+        this.module = module;
+        this.source = line.substring(from, length - 1);
+        return true;
+    }
+
+    void frame(Matcher m) {
+        clazz = m.group("class");
+        method = m.group("method");
+        String module = m.group("module");
+        // strip '/'
+        this.module = module != null ? module.substring(0, module.length() - 1) : null;
+        source = m.group("source");
+    }
+
+    /**
+     * @param line a monitor of java frame, e.g. - locked &lt;0x000000076ab62208&gt; (a java.lang.Object)
+     * @param head the head of the monitor line till '&lt;', e.g. {@link #LOCKED}
+     * @return true if scanned
+     */
+    boolean scanMonitor(String line, String head) {
+        int length = line.length();
+        if (!line.startsWith(head) || line.charAt(length - 1) != ')') {
+            return false;
+        }
+        int from = head.length();
+        int end = line.indexOf('>', from);
+        if (end <= from || !line.startsWith(" (a", end + 1)) {
+            return false;
+        }
+        int pos = end + 4;
+        boolean isClass = isClassFor(line, pos) && pos + CLASS_FOR.length() < length - 1;
+        if (isClass) {
+            pos += CLASS_FOR.length();
+        } else if (pos + 1 < length - 1 && line.charAt(pos) == ' ') {
+            pos++;
+        } else {
+            return false;
+        }
+
+        this.address = line.substring(from, end);
+        this.isClass = isClass;
+        this.clazz = line.substring(pos, length - 1);
+        return true;
+    }
+
+    void monitor(Matcher m) {
+        address = m.group("address");
+        isClass = m.group("isClass") != null;
+        clazz = m.group("class");
+    }
+
+    private static boolean isClassFor(String line, int from) {
+        return line.startsWith(" java", from) && line.startsWith("lang", from + 6) &&
+               line.startsWith("Class for ", from + 11);
+    }
+
+    private static int digits(String line, int from) {
+        int length = line.length();
+        while (from < length) {
+            char c = line.charAt(from);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            from++;
+        }
+        return from;
+    }
+
+    private static int token(String line, int from) {
+        int end = line.indexOf(' ', from);
+        return end < 0 ? line.length() : end;
+    }
+
+    private static boolean isNid(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || c == 'x';
+    }
+}
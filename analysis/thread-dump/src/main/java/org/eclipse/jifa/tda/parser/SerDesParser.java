@@ -13,17 +13,10 @@
 
 package org.eclipse.jifa.tda.parser;
 
-import com.esotericsoftware.kryo.Kryo;
-import com.esotericsoftware.kryo.io.Input;
-import com.esotericsoftware.kryo.io.Output;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.jifa.analysis.listener.ProgressListener;
 import org.eclipse.jifa.tda.model.Snapshot;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -31,32 +24,36 @@ import java.nio.file.Paths;
 @Slf4j
 public class SerDesParser implements Parser {
 
-    private static final ThreadLocal<Kryo> KRYO;
-
-    static {
-        KRYO = ThreadLocal.withInitial(() -> {
-            Kryo kryo = new Kryo();
-            kryo.setRegistrationRequired(false);
-            return kryo;
-        });
-    }
-
     private final Parser parser;
 
+    private final boolean compress;
+
     public SerDesParser(Parser parser) {
+        this(parser, true);
+    }
+
+    /**
+     * @param parser   the parser used if the serialized snapshot doesn't exist or is stale
+     * @param compress whether to compress the sections of the serialized snapshot
+     */
+    public SerDesParser(Parser parser, boolean compress) {
         this.parser = parser;
+        this.compress = compress;
     }
 
     @Override
     public Snapshot parse(Path path, ProgressListener listener) {
-        // TODO: multi-threads support
         Path serializedDataPath = resolveSerializedDataPath(path);
         if (Files.exists(serializedDataPath)) {
             try {
                 listener.beginTask("Deserializing thread dump", 100);
-                Snapshot snapshot = deserialize(serializedDataPath);
-                listener.worked(100);
-                return snapshot;
+                Snapshot snapshot = SnapshotSerializer.deserialize(serializedDataPath, path);
+                if (snapshot != null) {
+                    listener.worked(100);
+                    return snapshot;
+                }
+                log.info("Serialized thread dump is stale: {}", serializedDataPath);
+                listener.reset();
             } catch (Throwable t) {
                 log.error("Failed to deserialize thread dump: {}", t.getMessage());
                 listener.sendUserMessage(ProgressListener.Level.WARNING, "Deserialize thread dump failed", t);
@@ -67,7 +64,7 @@ public class SerDesParser implements Parser {
         Snapshot snapshot = parser.parse(path, listener);
         try {
             listener.beginTask("Serializing thread dump", 5);
-            serialize(snapshot, serializedDataPath);
+            SnapshotSerializer.serialize(snapshot, path, serializedDataPath, compress);
         } catch (Throwable t) {
             log.warn("Failed to serialize thread dump: {}", t.getMessage());
         } finally {
@@ -79,18 +76,4 @@ public class SerDesParser implements Parser {
     private Path resolveSerializedDataPath(Path source) {
         return Paths.get(source.toFile().getAbsoluteFile() + ".kryo");
     }
-
-    private void serialize(Snapshot snapshot, Path path) throws FileNotFoundException {
-        Kryo kryo = KRYO.get();
-        try (Output out = new Output(new FileOutputStream(path.toFile()))) {
-            kryo.writeObject(out, snapshot);
-        }
-    }
-
-    private Snapshot deserialize(Path path) throws IOException {
-        Kryo kryo = KRYO.get();
-        try (Input input = new Input(new FileInputStream(path.toFile()))) {
-            return kryo.readObject(input, Snapshot.class);
-        }
-    }
 }
@@ -0,0 +1,897 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.tda.parser;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.eclipse.jifa.common.util.ExecutorFactory;
+import org.eclipse.jifa.tda.enums.JavaThreadState;
+import org.eclipse.jifa.tda.enums.MonitorState;
+import org.eclipse.jifa.tda.enums.OSTreadState;
+import org.eclipse.jifa.tda.enums.SourceType;
+import org.eclipse.jifa.tda.enums.ThreadType;
+import org.eclipse.jifa.tda.model.CallSiteTree;
+import org.eclipse.jifa.tda.model.ConcurrentLock;
+import org.eclipse.jifa.tda.model.Error;
+import org.eclipse.jifa.tda.model.Frame;
+import org.eclipse.jifa.tda.model.IdentityPool;
+import org.eclipse.jifa.tda.model.JavaThread;
+import org.eclipse.jifa.tda.model.Monitor;
+import org.eclipse.jifa.tda.model.RawMonitor;
+import org.eclipse.jifa.tda.model.Snapshot;
+import org.eclipse.jifa.tda.model.Thread;
+import org.eclipse.jifa.tda.model.Trace;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary format of the serialized snapshot of a thread dump.
+ * <p>
+ * Symbols, raw monitors, frames, traces and threads are written as tables and referenced by index, instead of
+ * walking the object graph. Each table is split into sections of at most {@link #SECTION_SIZE} entries, which are
+ * encoded, optionally compressed and decoded in parallel. Classes are registered explicitly with the serializers
+ * below, so no class name is written.
+ * <p>
+ * The file records the size and the modification time of the thread dump, a file of another version or of a
+ * modified thread dump is ignored.
+ */
+class SnapshotSerializer {
+
+    private static final int MAGIC = 0x4A544453;
+
+    private static final int VERSION = 1;
+
+    static final int SECTION_SIZE = 16384;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<Kryo> KRYO = ThreadLocal.withInitial(SnapshotSerializer::newKryo);
+
+    private static Kryo newKryo() {
+        Kryo kryo = new Kryo();
+        kryo.setRegistrationRequired(true);
+        kryo.setReferences(false);
+        kryo.register(RawMonitor.class, new RawMonitorSerializer());
+        kryo.register(Frame.class, new FrameSerializer());
+        kryo.register(Trace.class, new TraceSerializer());
+        kryo.register(Thread.class, new ThreadSerializer());
+        kryo.register(JavaThread.class, new ThreadSerializer());
+        kryo.register(CallSiteTree.class, new CallSiteTreeSerializer());
+        kryo.register(Error.class);
+        return kryo;
+    }
+
+    /**
+     * Tables are decoded in the order of the stages, the sections of the same stage are decoded in parallel
+     */
+    private enum Table {
+
+        SYMBOL(0),
+
+        RAW_MONITOR(1),
+
+        FRAME(2),
+
+        TRACE(3),
+
+        CALL_SITE_TREE(3),
+
+        JAVA_THREAD(4),
+
+        NON_JAVA_THREAD(4),
+
+        OTHERS(5);
+
+        private final int stage;
+
+        Table(int stage) {
+            this.stage = stage;
+        }
+    }
+
+    static void serialize(Snapshot snapshot, Path source, Path target, boolean compress) throws Exception {
+        Tables tables = Tables.collect(snapshot);
+
+        List<Section> sections = new ArrayList<>();
+        addSections(sections, Table.SYMBOL, tables.symbolList.size());
+        addSections(sections, Table.RAW_MONITOR, tables.rawMonitorList.size());
+        addSections(sections, Table.FRAME, tables.frameList.size());
+        addSections(sections, Table.TRACE, tables.traceList.size());
+        sections.add(new Section(Table.CALL_SITE_TREE, 0, 1));
+        addSections(sections, Table.JAVA_THREAD, snapshot.getJavaThreads().size());
+        addSections(sections, Table.NON_JAVA_THREAD, snapshot.getNonJavaThreads().size());
+        sections.add(new Section(Table.OTHERS, 0, 1));
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (Section section : sections) {
+            tasks.add(() -> {
+                section.encode(snapshot, tables, compress);
+                return null;
+            });
+        }
+        invokeAll(tasks);
+
+        File file = target.toFile();
+        File temp = new File(file.getPath() + ".tmp");
+        try (Output out = new Output(new FileOutputStream(temp), BUFFER_SIZE)) {
+            File dump = source.toFile();
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(dump.length());
+            out.writeLong(dump.lastModified());
+
+            out.writeString(snapshot.getPath());
+            out.writeLong(snapshot.getTimestamp());
+            out.writeString(snapshot.getVmInfo());
+            out.writeInt(snapshot.getJniRefs());
+            out.writeInt(snapshot.getJniWeakRefs());
+            out.writeVarInt(snapshot.getNextThreadId(), true);
+            out.writeVarInt(snapshot.getRawMonitors().lastId(), true);
+            out.writeVarInt(tables.pooledRawMonitors, true);
+            out.writeVarInt(tables.symbolList.size(), true);
+            out.writeVarInt(tables.rawMonitorList.size(), true);
+            out.writeVarInt(tables.frameList.size(), true);
+            out.writeVarInt(tables.traceList.size(), true);
+            out.writeVarInt(snapshot.getJavaThreads().size(), true);
+            out.writeVarInt(snapshot.getNonJavaThreads().size(), true);
+
+            out.writeVarInt(sections.size(), true);
+            for (Section section : sections) {
+                out.writeByte(section.table.ordinal());
+                out.writeVarInt(section.from, true);
+                out.writeVarInt(section.count, true);
+                out.writeBoolean(section.compressed);
+                out.writeVarInt(section.rawLength, true);
+                out.writeVarInt(section.data.length, true);
+                out.writeBytes(section.data);
+            }
+        } catch (Throwable t) {
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            throw t;
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Failed to rename " + temp.getAbsolutePath());
+        }
+    }
+
+    /**
+     * @param path   the path of the serialized snapshot
+     * @param source the path of thread dump
+     * @return the snapshot, or null if the file is of another version or the thread dump is modified
+     */
+    static Snapshot deserialize(Path path, Path source) throws Exception {
+        Snapshot snapshot = new Snapshot();
+        Tables tables = new Tables();
+        List<Section> sections = new ArrayList<>();
+        int lastRawMonitorId;
+        int pooledRawMonitors;
+        try (Input in = new Input(new FileInputStream(path.toFile()), BUFFER_SIZE)) {
+            File dump = source.toFile();
+            if (in.readInt() != MAGIC || in.readInt() != VERSION ||
+                in.readLong() != dump.length() || in.readLong() != dump.lastModified()) {
+                return null;
+            }
+
+            snapshot.setPath(in.readString());
+            snapshot.setTimestamp(in.readLong());
+            snapshot.setVmInfo(in.readString());
+            snapshot.setJniRefs(in.readInt());
+            snapshot.setJniWeakRefs(in.readInt());
+            snapshot.setNextThreadId(in.readVarInt(true));
+            lastRawMonitorId = in.readVarInt(true);
+            pooledRawMonitors = in.readVarInt(true);
+            tables.symbols = new String[in.readVarInt(true)];
+            tables.rawMonitors = new RawMonitor[in.readVarInt(true)];
+            tables.frames = new Frame[in.readVarInt(true)];
+            tables.traces = new Trace[in.readVarInt(true)];
+            tables.javaThreads = new JavaThread[in.readVarInt(true)];
+            tables.nonJavaThreads = new Thread[in.readVarInt(true)];
+
+            int count = in.readVarInt(true);
+            for (int i = 0; i < count; i++) {
+                Section section = new Section(Table.values()[in.readByte()], in.readVarInt(true), in.readVarInt(true));
+                section.compressed = in.readBoolean();
+                section.rawLength = in.readVarInt(true);
+                section.data = in.readBytes(in.readVarInt(true));
+                sections.add(section);
+            }
+        }
+
+        Map<Integer, List<Callable<Void>>> stages = new HashMap<>();
+        for (Section section : sections) {
+            stages.computeIfAbsent(section.table.stage, s -> new ArrayList<>()).add(() -> {
+                section.decode(snapshot, tables);
+                return null;
+            });
+        }
+        for (int stage = 0; stage <= Table.OTHERS.stage; stage++) {
+            invokeAll(stages.getOrDefault(stage, List.of()));
+        }
+
+        // constant pools are dropped by Snapshot#post
+        snapshot.setSymbols(null);
+        snapshot.setFrames(null);
+        snapshot.setTraces(null);
+        snapshot.setMonitors(null);
+        snapshot.setConcurrentLocks(null);
+        snapshot.setRawMonitors(IdentityPool.frozen(
+            new ArrayList<>(Arrays.asList(tables.rawMonitors).subList(0, pooledRawMonitors)), lastRawMonitorId));
+        snapshot.getJavaThreads().addAll(Arrays.asList(tables.javaThreads));
+        snapshot.getNonJavaThreads().addAll(Arrays.asList(tables.nonJavaThreads));
+        return snapshot;
+    }
+
+    private static void addSections(List<Section> sections, Table table, int size) {
+        for (int from = 0; from < size; from += SECTION_SIZE) {
+            sections.add(new Section(table, from, Math.min(SECTION_SIZE, size - from)));
+        }
+    }
+
+    private static void invokeAll(List<Callable<Void>> tasks) throws Exception {
+        if (tasks.size() == 1) {
+            tasks.get(0).call();
+            return;
+        }
+        for (Future<Void> future : SharedPool.INSTANCE.invokeAll(tasks)) {
+            future.get();
+        }
+    }
+
+    private static class Section {
+
+        private final Table table;
+
+        private final int from;
+
+        private final int count;
+
+        private boolean compressed;
+
+        private int rawLength;
+
+        private byte[] data;
+
+        Section(Table table, int from, int count) {
+            this.table = table;
+            this.from = from;
+            this.count = count;
+        }
+
+        void encode(Snapshot snapshot, Tables tables, boolean compress) {
+            Kryo kryo = KRYO.get();
+            kryo.getContext().put(Tables.class, tables);
+            try {
+                doEncode(kryo, snapshot, tables, compress);
+            } finally {
+                kryo.getContext().remove(Tables.class);
+            }
+        }
+
+        void decode(Snapshot snapshot, Tables tables) throws DataFormatException {
+            Kryo kryo = KRYO.get();
+            kryo.getContext().put(Tables.class, tables);
+            try {
+                doDecode(kryo, snapshot, tables);
+            } finally {
+                kryo.getContext().remove(Tables.class);
+            }
+        }
+
+        private void doEncode(Kryo kryo, Snapshot snapshot, Tables tables, boolean compress) {
+            Output out = new Output(BUFFER_SIZE, -1);
+            int to = from + count;
+            switch (table) {
+                case SYMBOL -> {
+                    for (int i = from; i < to; i++) {
+                        out.writeString(tables.symbolList.get(i));
+                    }
+                }
+                case RAW_MONITOR -> {
+                    for (int i = from; i < to; i++) {
+                        kryo.writeObject(out, tables.rawMonitorList.get(i));
+                    }
+                }
+                case FRAME -> {
+                    for (int i = from; i < to; i++) {
+                        kryo.writeObject(out, tables.frameList.get(i));
+                    }
+                }
+                case TRACE -> {
+                    for (int i = from; i < to; i++) {
+                        kryo.writeObject(out, tables.traceList.get(i));
+                    }
+                }
+                case CALL_SITE_TREE -> kryo.writeObject(out, snapshot.getCallSiteTree());
+                case JAVA_THREAD -> {
+                    for (int i = from; i < to; i++) {
+                        kryo.writeObject(out, snapshot.getJavaThreads().get(i));
+                    }
+                }
+                case NON_JAVA_THREAD -> {
+                    for (int i = from; i < to; i++) {
+                        kryo.writeObject(out, snapshot.getNonJavaThreads().get(i));
+                    }
+                }
+                case OTHERS -> writeOthers(kryo, out, snapshot);
+            }
+            byte[] bytes = out.toBytes();
+            rawLength = bytes.length;
+            compressed = compress && rawLength > 0;
+            data = compressed ? deflate(bytes) : bytes;
+        }
+
+        private void doDecode(Kryo kryo, Snapshot snapshot, Tables tables) throws DataFormatException {
+            Input in = new Input(compressed ? inflate(data, rawLength) : data);
+            int to = from + count;
+            switch (table) {
+                case SYMBOL -> {
+                    for (int i = from; i < to; i++) {
+                        tables.symbols[i] = in.readString();
+                    }
+                }
+                case RAW_MONITOR -> {
+                    for (int i = from; i < to; i++) {
+                        tables.rawMonitors[i] = kryo.readObject(in, RawMonitor.class);
+                    }
+                }
+                case FRAME -> {
+                    for (int i = from; i < to; i++) {
+                        tables.frames[i] = kryo.readObject(in, Frame.class);
+                    }
+                }
+                case TRACE -> {
+                    for (int i = from; i < to; i++) {
+                        tables.traces[i] = kryo.readObject(in, Trace.class);
+                    }
+                }
+                case CALL_SITE_TREE -> snapshot.setCallSiteTree(kryo.readObject(in, CallSiteTree.class));
+                case JAVA_THREAD -> {
+                    for (int i = from; i < to; i++) {
+                        tables.javaThreads[i] = kryo.readObject(in, JavaThread.class);
+                    }
+                }
+                case NON_JAVA_THREAD -> {
+                    for (int i = from; i < to; i++) {
+                        tables.nonJavaThreads[i] = kryo.readObject(in, Thread.class);
+                    }
+                }
+                case OTHERS -> readOthers(kryo, in, snapshot, tables);
+            }
+        }
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, bytes.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int rawLength) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            byte[] result = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength) {
+                int n = inflater.inflate(result, length, rawLength - length);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new DataFormatException("Truncated section");
+                }
+                length += n;
+            }
+            return result;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // threads are referenced by the ids assigned in Snapshot#post
+    private static void writeOthers(Kryo kryo, Output out, Snapshot snapshot) {
+        List<List<JavaThread>> deadLockThreads = snapshot.getDeadLockThreads();
+        out.writeVarInt(deadLockThreads != null ? deadLockThreads.size() + 1 : 0, true);
+        if (deadLockThreads != null) {
+            for (List<JavaThread> threads : deadLockThreads) {
+                out.writeVarInt(threads.size(), true);
+                for (JavaThread thread : threads) {
+                    kryo.writeObject(out, thread);
+                }
+            }
+        }
+
+        Map<Integer, Map<MonitorState, List<Thread>>> monitorThreads = snapshot.getMonitorThreads();
+        out.writeVarInt(monitorThreads.size(), true);
+        for (Map.Entry<Integer, Map<MonitorState, List<Thread>>> entry : monitorThreads.entrySet()) {
+            out.writeVarInt(entry.getKey(), true);
+            out.writeVarInt(entry.getValue().size(), true);
+            for (Map.Entry<MonitorState, List<Thread>> threads : entry.getValue().entrySet()) {
+                out.writeVarInt(threads.getKey().ordinal(), true);
+                writeThreadIds(out, threads.getValue());
+            }
+        }
+
+        Map<String, List<Thread>> threadGroup = snapshot.getThreadGroup();
+        out.writeVarInt(threadGroup.size(), true);
+        for (Map.Entry<String, List<Thread>> entry : threadGroup.entrySet()) {
+            out.writeString(entry.getKey());
+            writeThreadIds(out, entry.getValue());
+        }
+
+        out.writeVarInt(snapshot.getErrors().size(), true);
+        for (Error error : snapshot.getErrors()) {
+            kryo.writeObject(out, error);
+        }
+    }
+
+    private static void writeThreadIds(Output out, List<Thread> threads) {
+        out.writeVarInt(threads.size(), true);
+        for (Thread thread : threads) {
+            out.writeVarInt(thread.getId(), true);
+        }
+    }
+
+    private static void readOthers(Kryo kryo, Input in, Snapshot snapshot, Tables tables) {
+        Map<Integer, Thread> threadMap = snapshot.getThreadMap();
+        for (Thread thread : tables.javaThreads) {
+            threadMap.put(thread.getId(), thread);
+        }
+        for (Thread thread : tables.nonJavaThreads) {
+            threadMap.put(thread.getId(), thread);
+        }
+
+        int deadLocks = in.readVarInt(true) - 1;
+        if (deadLocks >= 0) {
+            List<List<JavaThread>> deadLockThreads = new ArrayList<>(deadLocks);
+            for (int i = 0; i < deadLocks; i++) {
+                int count = in.readVarInt(true);
+                List<JavaThread> threads = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    threads.add(kryo.readObject(in, JavaThread.class));
+                }
+                deadLockThreads.add(threads);
+            }
+            snapshot.setDeadLockThreads(deadLockThreads);
+        }
+
+        Map<Integer, Map<MonitorState, List<Thread>>> monitorThreads = snapshot.getMonitorThreads();
+        int monitors = in.readVarInt(true);
+        for (int i = 0; i < monitors; i++) {
+            int id = in.readVarInt(true);
+            int states = in.readVarInt(true);
+            Map<MonitorState, List<Thread>> map = new HashMap<>();
+            for (int j = 0; j < states; j++) {
+                MonitorState state = MonitorState.values()[in.readVarInt(true)];
+                map.put(state, readThreads(in, threadMap));
+            }
+            monitorThreads.put(id, map);
+        }
+
+        int groups = in.readVarInt(true);
+        Map<String, List<Thread>> threadGroup = new HashMap<>();
+        for (int i = 0; i < groups; i++) {
+            String prefix = in.readString();
+            threadGroup.put(prefix, readThreads(in, threadMap));
+        }
+        snapshot.setThreadGroup(threadGroup);
+
+        int errors = in.readVarInt(true);
+        for (int i = 0; i < errors; i++) {
+            snapshot.getErrors().add(kryo.readObject(in, Error.class));
+        }
+    }
+
+    private static List<Thread> readThreads(Input in, Map<Integer, Thread> threadMap) {
+        int count = in.readVarInt(true);
+        List<Thread> threads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            threads.add(threadMap.get(in.readVarInt(true)));
+        }
+        return threads;
+    }
+
+    // null is written as 0, others as index + 1
+    private static int indexOf(Map<?, Integer> map, Object o) {
+        return o != null ? map.get(o) + 1 : 0;
+    }
+
+    private static <T> T get(T[] table, int index) {
+        return index > 0 ? table[index - 1] : null;
+    }
+
+    private static int ordinalOf(Enum<?> e) {
+        return e != null ? e.ordinal() + 1 : 0;
+    }
+
+    private static <E extends Enum<E>> E enumOf(E[] values, int ordinal) {
+        return ordinal > 0 ? values[ordinal - 1] : null;
+    }
+
+    private static Tables tables(Kryo kryo) {
+        return (Tables) kryo.getContext().get(Tables.class);
+    }
+
+    /**
+     * Index of the tables, the lists and the maps are used by encoding, the arrays by decoding
+     */
+    private static class Tables {
+
+        private final List<String> symbolList = new ArrayList<>();
+
+        private final Map<String, Integer> symbolIndex = new HashMap<>();
+
+        // raw monitors of the pool first, then the ones referenced by frames only
+        private final List<RawMonitor> rawMonitorList = new ArrayList<>();
+
+        private final Map<RawMonitor, Integer> rawMonitorIndex = new IdentityHashMap<>();
+
+        private int pooledRawMonitors;
+
+        private final List<Frame> frameList = new ArrayList<>();
+
+        private final Map<Frame, Integer> frameIndex = new IdentityHashMap<>();
+
+        private final List<Trace> traceList = new ArrayList<>();
+
+        private final Map<Trace, Integer> traceIndex = new IdentityHashMap<>();
+
+        private String[] symbols;
+
+        private RawMonitor[] rawMonitors;
+
+        private Frame[] frames;
+
+        private Trace[] traces;
+
+        private JavaThread[] javaThreads;
+
+        private Thread[] nonJavaThreads;
+
+        static Tables collect(Snapshot snapshot) {
+            Tables tables = new Tables();
+            for (RawMonitor rm : snapshot.getRawMonitors().objects()) {
+                tables.addRawMonitor(rm);
+            }
+            tables.pooledRawMonitors = tables.rawMonitorList.size();
+            for (JavaThread thread : snapshot.getJavaThreads()) {
+                tables.addThread(thread);
+            }
+            for (Thread thread : snapshot.getNonJavaThreads()) {
+                tables.addThread(thread);
+            }
+            if (snapshot.getDeadLockThreads() != null) {
+                for (List<JavaThread> threads : snapshot.getDeadLockThreads()) {
+                    for (JavaThread thread : threads) {
+                        tables.addThread(thread);
+                    }
+                }
+            }
+            CallSiteTree.Node[] nodes = snapshot.getCallSiteTree().getId2Node();
+            for (int i = 1; i < nodes.length; i++) {
+                tables.addFrame(nodes[i].getFrame());
+            }
+            return tables;
+        }
+
+        void addSymbol(String symbol) {
+            if (symbol != null && !symbolIndex.containsKey(symbol)) {
+                symbolIndex.put(symbol, symbolList.size());
+                symbolList.add(symbol);
+            }
+        }
+
+        void addRawMonitor(RawMonitor rm) {
+            if (!rawMonitorIndex.containsKey(rm)) {
+                rawMonitorIndex.put(rm, rawMonitorList.size());
+                rawMonitorList.add(rm);
+                addSymbol(rm.getClazz());
+            }
+        }
+
+        void addFrame(Frame frame) {
+            if (frameIndex.containsKey(frame)) {
+                return;
+            }
+            frameIndex.put(frame, frameList.size());
+            frameList.add(frame);
+            addSymbol(frame.getClazz());
+            addSymbol(frame.getMethod());
+            addSymbol(frame.getModule());
+            addSymbol(frame.getSource());
+            if (frame.getMonitors() != null) {
+                for (Monitor monitor : frame.getMonitors()) {
+                    addRawMonitor(monitor.getRawMonitor());
+                }
+            }
+        }
+
+        void addTrace(Trace trace) {
+            if (trace == null || traceIndex.containsKey(trace)) {
+                return;
+            }
+            traceIndex.put(trace, traceList.size());
+            traceList.add(trace);
+            for (Frame frame : trace.getFrames()) {
+                addFrame(frame);
+            }
+            if (trace.getConcurrentLocks() != null) {
+                for (ConcurrentLock lock : trace.getConcurrentLocks()) {
+                    addSymbol(lock.getClazz());
+                }
+            }
+        }
+
+        void addThread(Thread thread) {
+            addSymbol(thread.getName());
+            if (thread instanceof JavaThread) {
+                addTrace(((JavaThread) thread).getTrace());
+            }
+        }
+    }
+
+    private static class RawMonitorSerializer extends Serializer<RawMonitor> {
+
+        @Override
+        public void write(Kryo kryo, Output output, RawMonitor rm) {
+            output.writeVarInt(rm.getId(), true);
+            output.writeVarLong(rm.getAddress(), false);
+            output.writeBoolean(rm.isClassInstance());
+            output.writeVarInt(indexOf(tables(kryo).symbolIndex, rm.getClazz()), true);
+        }
+
+        @Override
+        public RawMonitor read(Kryo kryo, Input input, Class<? extends RawMonitor> type) {
+            RawMonitor rm = new RawMonitor();
+            rm.setId(input.readVarInt(true));
+            rm.setAddress(input.readVarLong(false));
+            rm.setClassInstance(input.readBoolean());
+            rm.setClazz(get(tables(kryo).symbols, input.readVarInt(true)));
+            return rm;
+        }
+    }
+
+    private static class FrameSerializer extends Serializer<Frame> {
+
+        @Override
+        public void write(Kryo kryo, Output output, Frame frame) {
+            Tables tables = tables(kryo);
+            output.writeVarInt(indexOf(tables.symbolIndex, frame.getClazz()), true);
+            output.writeVarInt(indexOf(tables.symbolIndex, frame.getMethod()), true);
+            output.writeVarInt(indexOf(tables.symbolIndex, frame.getModule()), true);
+            output.writeVarInt(ordinalOf(frame.getSourceType()), true);
+            output.writeVarInt(indexOf(tables.symbolIndex, frame.getSource()), true);
+            output.writeVarInt(frame.getLine(), false);
+            Monitor[] monitors = frame.getMonitors();
+            output.writeVarInt(monitors != null ? monitors.length + 1 : 0, true);
+            if (monitors != null) {
+                for (Monitor monitor : monitors) {
+                    output.writeVarInt(tables.rawMonitorIndex.get(monitor.getRawMonitor()), true);
+                    output.writeVarInt(ordinalOf(monitor.getState()), true);
+                }
+            }
+        }
+
+        @Override
+        public Frame read(Kryo kryo, Input input, Class<? extends Frame> type) {
+            Tables tables = tables(kryo);
+            Frame frame = new Frame();
+            frame.setClazz(get(tables.symbols, input.readVarInt(true)));
+            frame.setMethod(get(tables.symbols, input.readVarInt(true)));
+            frame.setModule(get(tables.symbols, input.readVarInt(true)));
+            frame.setSourceType(enumOf(SourceType.values(), input.readVarInt(true)));
+            frame.setSource(get(tables.symbols, input.readVarInt(true)));
+            frame.setLine(input.readVarInt(false));
+            int monitors = input.readVarInt(true) - 1;
+            if (monitors >= 0) {
+                Monitor[] array = new Monitor[monitors];
+                for (int i = 0; i < monitors; i++) {
+                    Monitor monitor = new Monitor();
+                    monitor.setRawMonitor(tables.rawMonitors[input.readVarInt(true)]);
+                    monitor.setState(enumOf(MonitorState.values(), input.readVarInt(true)));
+                    array[i] = monitor;
+                }
+                frame.setMonitors(array);
+            }
+            return frame;
+        }
+    }
+
+    private static class TraceSerializer extends Serializer<Trace> {
+
+        @Override
+        public void write(Kryo kryo, Output output, Trace trace) {
+            Tables tables = tables(kryo);
+            Frame[] frames = trace.getFrames();
+            output.writeVarInt(frames.length, true);
+            for (Frame frame : frames) {
+                output.writeVarInt(tables.frameIndex.get(frame), true);
+            }
+            ConcurrentLock[] locks = trace.getConcurrentLocks();
+            output.writeVarInt(locks != null ? locks.length + 1 : 0, true);
+            if (locks != null) {
+                for (ConcurrentLock lock : locks) {
+                    output.writeVarLong(lock.getAddress(), false);
+                    output.writeVarInt(indexOf(tables.symbolIndex, lock.getClazz()), true);
+                }
+            }
+        }
+
+        @Override
+        public Trace read(Kryo kryo, Input input, Class<? extends Trace> type) {
+            Tables tables = tables(kryo);
+            Trace trace = new Trace();
+            Frame[] frames = new Frame[input.readVarInt(true)];
+            for (int i = 0; i < frames.length; i++) {
+                frames[i] = tables.frames[input.readVarInt(true)];
+            }
+            trace.setFrames(frames);
+            int locks = input.readVarInt(true) - 1;
+            if (locks >= 0) {
+                ConcurrentLock[] array = new ConcurrentLock[locks];
+                for (int i = 0; i < locks; i++) {
+                    ConcurrentLock lock = new ConcurrentLock();
+                    lock.setAddress(input.readVarLong(false));
+                    lock.setClazz(get(tables.symbols, input.readVarInt(true)));
+                    array[i] = lock;
+                }
+                trace.setConcurrentLocks(array);
+            }
+            return trace;
+        }
+    }
+
+    private static class ThreadSerializer extends Serializer<Thread> {
+
+        @Override
+        public void write(Kryo kryo, Output output, Thread thread) {
+            Tables tables = tables(kryo);
+            output.writeVarInt(thread.getId(), true);
+            output.writeVarInt(indexOf(tables.symbolIndex, thread.getName()), true);
+            output.writeVarInt(thread.getOsPriority(), false);
+            output.writeDouble(thread.getCpu());
+            output.writeDouble(thread.getElapsed());
+            output.writeVarLong(thread.getTid(), false);
+            output.writeVarLong(thread.getNid(), false);
+            output.writeVarInt(ordinalOf(thread.getOsThreadState()), true);
+            output.writeVarInt(ordinalOf(thread.getType()), true);
+            output.writeVarInt(thread.getLineStart(), true);
+            output.writeVarInt(thread.getLineEnd(), true);
+            if (thread instanceof JavaThread) {
+                JavaThread jt = (JavaThread) thread;
+                output.writeVarLong(jt.getJid(), true);
+                output.writeBoolean(jt.isDaemon());
+                output.writeVarInt(jt.getPriority(), false);
+                output.writeVarLong(jt.getLastJavaSP(), false);
+                output.writeVarInt(ordinalOf(jt.getJavaThreadState()), true);
+                output.writeVarInt(indexOf(tables.traceIndex, jt.getTrace()), true);
+            }
+        }
+
+        @Override
+        public Thread read(Kryo kryo, Input input, Class<? extends Thread> type) {
+            Tables tables = tables(kryo);
+            Thread thread = type == JavaThread.class ? new JavaThread() : new Thread();
+            thread.setId(input.readVarInt(true));
+            thread.setName(get(tables.symbols, input.readVarInt(true)));
+            thread.setOsPriority(input.readVarInt(false));
+            thread.setCpu(input.readDouble());
+            thread.setElapsed(input.readDouble());
+            thread.setTid(input.readVarLong(false));
+            thread.setNid(input.readVarLong(false));
+            thread.setOsThreadState(enumOf(OSTreadState.values(), input.readVarInt(true)));
+            thread.setType(enumOf(ThreadType.values(), input.readVarInt(true)));
+            thread.setLineStart(input.readVarInt(true));
+            thread.setLineEnd(input.readVarInt(true));
+            if (thread instanceof JavaThread) {
+                JavaThread jt = (JavaThread) thread;
+                jt.setJid(input.readVarLong(true));
+                jt.setDaemon(input.readBoolean());
+                jt.setPriority(input.readVarInt(false));
+                jt.setLastJavaSP(input.readVarLong(false));
+                jt.setJavaThreadState(enumOf(JavaThreadState.values(), input.readVarInt(true)));
+                jt.setTrace(get(tables.traces, input.readVarInt(true)));
+            }
+            return thread;
+        }
+    }
+
+    /**
+     * Nodes are written in the order of their ids, children of a node have consecutive ids, see
+     * {@link CallSiteTree#freeze()}
+     */
+    private static class CallSiteTreeSerializer extends Serializer<CallSiteTree> {
+
+        @Override
+        public void write(Kryo kryo, Output output, CallSiteTree tree) {
+            Tables tables = tables(kryo);
+            CallSiteTree.Node[] nodes = tree.getId2Node();
+            output.writeVarInt(nodes.length, true);
+            for (int i = 0; i < nodes.length; i++) {
+                CallSiteTree.Node node = nodes[i];
+                if (i > 0) {
+                    output.writeVarInt(tables.frameIndex.get(node.getFrame()), true);
+                }
+                output.writeVarInt(node.getWeight(), true);
+                List<CallSiteTree.Node> children = node.getChildren();
+                output.writeVarInt(children != null ? children.size() : 0, true);
+                if (children != null) {
+                    output.writeVarInt(children.get(0).getId(), true);
+                }
+            }
+        }
+
+        @Override
+        public CallSiteTree read(Kryo kryo, Input input, Class<? extends CallSiteTree> type) {
+            Tables tables = tables(kryo);
+            CallSiteTree tree = new CallSiteTree();
+            CallSiteTree.Node[] nodes = new CallSiteTree.Node[input.readVarInt(true)];
+            int[] firstChildren = new int[nodes.length];
+            int[] childCounts = new int[nodes.length];
+            for (int i = 0; i < nodes.length; i++) {
+                CallSiteTree.Node node = i > 0 ? new CallSiteTree.Node(tables.frames[input.readVarInt(true)])
+                                               : tree.getRoot();
+                node.setId(i);
+                node.setWeight(input.readVarInt(true));
+                childCounts[i] = input.readVarInt(true);
+                if (childCounts[i] > 0) {
+                    firstChildren[i] = input.readVarInt(true);
+                }
+                nodes[i] = node;
+            }
+            for (int i = 0; i < nodes.length; i++) {
+                if (childCounts[i] > 0) {
+                    nodes[i].setChildren(new ArrayList<>(
+                        Arrays.asList(nodes).subList(firstChildren[i], firstChildren[i] + childCounts[i])));
+                }
+            }
+            tree.setId2Node(nodes);
+            tree.setCount(nodes.length - 1);
+            tree.setAllChildren(null);
+            return tree;
+        }
+    }
+
+    private static class SharedPool {
+        static final ForkJoinPool INSTANCE = ExecutorFactory.newForkJoinPool("Thread Dump Serializer");
+    }
+}
@@ -0,0 +1,35 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.tda.vo;
+
+import com.google.gson.annotations.SerializedName;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class VMonitorContention {
+
+    private long address;
+
+    private boolean classInstance;
+
+    @SerializedName("class")
+    private String clazz;
+
+    // the number of threads waiting to (re-)lock the monitor in each dump
+    private List<Integer> blockedThreads;
+
+    // the name of the thread holding the monitor in each dump, null means unknown or no thread is blocked
+    private List<String> owners;
+}
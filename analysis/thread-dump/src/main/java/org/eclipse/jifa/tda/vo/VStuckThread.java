@@ -0,0 +1,39 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.tda.vo;
+
+import lombok.Data;
+import org.eclipse.jifa.tda.enums.JavaThreadState;
+
+@Data
+public class VStuckThread {
+
+    private int id;
+
+    private String name;
+
+    // the top frame the thread stays in
+    private VFrame frame;
+
+    // index of the first dump in which the thread is in the frame
+    private int firstDump;
+
+    // the number of consecutive dumps in which the thread is in the frame
+    private int dumps;
+
+    // true if the whole trace is the same in these dumps
+    private boolean sameTrace;
+
+    // state in the last of these dumps
+    private JavaThreadState state;
+}
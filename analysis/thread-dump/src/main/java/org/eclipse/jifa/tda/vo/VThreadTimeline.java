@@ -0,0 +1,40 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.tda.vo;
+
+import lombok.Data;
+import org.eclipse.jifa.tda.enums.JavaThreadState;
+import org.eclipse.jifa.tda.enums.OSTreadState;
+import org.eclipse.jifa.tda.enums.ThreadType;
+
+import java.util.List;
+
+@Data
+public class VThreadTimeline {
+
+    private int id;
+
+    private String name;
+
+    private ThreadType type;
+
+    private long tid;
+
+    private long nid;
+
+    // one state per dump, null means the thread doesn't exist in the dump
+    private List<OSTreadState> osStates;
+
+    // one state per dump, null means the thread doesn't exist in the dump or is not a java thread
+    private List<JavaThreadState> javaStates;
+}
@@ -0,0 +1,67 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.tda;
+
+import org.eclipse.jifa.tda.model.CallSiteTree;
+import org.eclipse.jifa.tda.model.Frame;
+import org.eclipse.jifa.tda.model.Trace;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestCallSiteTree extends TestBase {
+
+    private static Trace trace(String... methods) {
+        Frame[] frames = new Frame[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            frames[i] = new Frame();
+            frames[i].setClazz("A");
+            frames[i].setMethod(methods[i]);
+        }
+        Trace trace = new Trace();
+        trace.setFrames(frames);
+        return trace;
+    }
+
+    @Test
+    public void testMerge() {
+        Trace[] traces = {
+                trace("run", "a", "b"),
+                trace("run", "a", "c"),
+                trace("run", "d"),
+                trace("main"),
+                trace("run", "a", "b"),
+                trace("main", "e"),
+        };
+
+        CallSiteTree expected = new CallSiteTree();
+        for (Trace trace : traces) {
+            expected.add(trace);
+        }
+        expected.freeze();
+
+        CallSiteTree merged = new CallSiteTree();
+        CallSiteTree[] partialTrees = {new CallSiteTree(), new CallSiteTree()};
+        for (int i = 0; i < traces.length; i++) {
+            partialTrees[i % 2].add(traces[i]);
+        }
+        for (CallSiteTree tree : partialTrees) {
+            merged.merge(tree);
+        }
+        merged.freeze();
+
+        Assertions.assertEquals(expected.getRoot(), merged.getRoot());
+        Assertions.assertEquals(expected.getCount(), merged.getCount());
+        Assertions.assertEquals(6, merged.getRoot().getWeight());
+        Assertions.assertEquals(4, merged.getRoot().getChildren().get(0).getWeight());
+    }
+}
@@ -0,0 +1,88 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.tda;
+
+import org.eclipse.jifa.tda.parser.LineIndex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileReader;
+import java.io.LineNumberReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.eclipse.jifa.analysis.listener.ProgressListener.NoOpProgressListener;
+
+public class TestLineIndex extends TestBase {
+
+    private static List<String> readSequentially(Path path) throws Exception {
+        List<String> lines = new ArrayList<>();
+        try (LineNumberReader lnr = new LineNumberReader(new FileReader(path.toFile()))) {
+            String line;
+            while ((line = lnr.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private void check(String content) throws Exception {
+        Path path = createTempFile(content);
+        List<String> expected = readSequentially(path);
+        LineIndex index = LineIndex.of(path);
+        Assertions.assertNotNull(index);
+        Assertions.assertEquals(expected.size(), index.lineCount());
+        for (int lineNo = 1; lineNo <= expected.size() + 1; lineNo += 7) {
+            int to = Math.min(expected.size(), lineNo + 299);
+            List<String> sub = lineNo <= to ? expected.subList(lineNo - 1, to) : List.of();
+            Assertions.assertEquals(sub, index.lines(lineNo, 300));
+        }
+
+        // the persisted index is loaded when the thread dump is unchanged
+        LineIndex loaded = LineIndex.of(path);
+        Assertions.assertEquals(expected.size(), loaded.lineCount());
+        Assertions.assertEquals(expected, loaded.lines(1, expected.size()));
+    }
+
+    @Test
+    public void test() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        String[] terminators = {"\n", "\r\n", "\r", "\n\n", "\r\r\n"};
+        for (int i = 0; i < 2000; i++) {
+            sb.append("line ").append(i).append(" \u7ebf\u7a0b").append(terminators[i % terminators.length]);
+        }
+        check(sb.toString());
+        check(sb.append("last line without terminator").toString());
+        check("");
+
+        // lines crossing the windows read from the dump, and a line longer than a window
+        sb.setLength(0);
+        for (int i = 0; i < 600; i++) {
+            sb.append(String.valueOf(i).repeat(i == 300 ? 40000 : 300)).append(terminators[i % terminators.length]);
+        }
+        check(sb.toString());
+    }
+
+    @Test
+    public void testAnalyzer() throws Exception {
+        Path path = pathOfResource("jstack_8.log");
+        List<String> expected = readSequentially(path);
+        ThreadDumpAnalyzer tda = new ThreadDumpAnalyzer(path, NoOpProgressListener);
+        Assertions.assertEquals(expected.subList(1, 2), tda.content(2, 1).getContent());
+        Assertions.assertFalse(tda.content(2, 1).isEnd());
+        Assertions.assertEquals(expected.subList(expected.size() - 2, expected.size()),
+                                tda.content(expected.size() - 1, 10).getContent());
+        Assertions.assertTrue(tda.content(expected.size() - 1, 2).isEnd());
+    }
+}
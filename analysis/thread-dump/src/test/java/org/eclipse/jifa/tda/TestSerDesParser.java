@@ -32,4 +32,14 @@ public class TestSerDesParser extends TestBase {
         Snapshot second = serDesAnalyzer.parse(pathOfResource("jstack_8.log"), NoOpProgressListener);
         Assertions.assertEquals(first, second);
     }
+
+    @Test
+    public void testUncompressed() throws ParserException, URISyntaxException {
+        SerDesParser serDesAnalyzer = new SerDesParser(analyzer, false);
+        Snapshot first = analyzer.parse(pathOfResource("jstack_11_with_deadlocks.log"), NoOpProgressListener);
+        serDesAnalyzer.parse(pathOfResource("jstack_11_with_deadlocks.log"), NoOpProgressListener);
+        Snapshot second = serDesAnalyzer.parse(pathOfResource("jstack_11_with_deadlocks.log"), NoOpProgressListener);
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(2, second.getDeadLockThreads().get(0).size());
+    }
 }
@@ -0,0 +1,85 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.tda;
+
+import org.eclipse.jifa.common.domain.request.PagingRequest;
+import org.eclipse.jifa.common.domain.vo.PageView;
+import org.eclipse.jifa.tda.enums.JavaThreadState;
+import org.eclipse.jifa.tda.enums.ThreadType;
+import org.eclipse.jifa.tda.vo.VFrame;
+import org.eclipse.jifa.tda.vo.VMonitorContention;
+import org.eclipse.jifa.tda.vo.VStuckThread;
+import org.eclipse.jifa.tda.vo.VThreadTimeline;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.eclipse.jifa.analysis.listener.ProgressListener.NoOpProgressListener;
+
+public class TestThreadDumpSeriesAnalyzer extends TestBase {
+
+    private static int rootWeight(PageView<VFrame> roots) {
+        return roots.getData().stream().mapToInt(VFrame::getWeight).sum();
+    }
+
+    @Test
+    public void test() throws Exception {
+        ThreadDumpSeriesAnalyzer analyzer = new ThreadDumpSeriesAnalyzer(
+            List.of(pathOfResource("jstack_8.log"), pathOfResource("jstack_8.log"),
+                    pathOfResource("jstack_11_with_deadlocks.log")), NoOpProgressListener);
+        Assertions.assertEquals(3, analyzer.dumps());
+        Assertions.assertEquals(3, analyzer.overviews().size());
+        Assertions.assertEquals(analyzer.overviews().get(0), analyzer.overviews().get(1));
+
+        // the threads of the same dump are tracked as the same threads
+        PageView<VThreadTimeline> main = analyzer.threadTimelines("main", ThreadType.JAVA, new PagingRequest(1, 8));
+        VThreadTimeline first = main.getData().get(0);
+        Assertions.assertNotNull(first.getJavaStates().get(0));
+        Assertions.assertEquals(first.getJavaStates().get(0), first.getJavaStates().get(1));
+        Assertions.assertEquals(first.getOsStates().get(0), first.getOsStates().get(1));
+
+        PageView<VStuckThread> stuck = analyzer.stuckThreads(2, new PagingRequest(1, 100));
+        Assertions.assertTrue(stuck.getTotalSize() > 0);
+        for (VStuckThread s : stuck.getData()) {
+            Assertions.assertEquals(0, s.getFirstDump());
+            Assertions.assertEquals(2, s.getDumps());
+            // traces are interned across the dumps
+            Assertions.assertTrue(s.isSameTrace());
+        }
+        Assertions.assertEquals(0, analyzer.stuckThreads(3, new PagingRequest(1, 100)).getTotalSize());
+
+        // the main thread and Thread-0 of the last dump are dead locked
+        PageView<VMonitorContention> contentions = analyzer.monitorContentions(new PagingRequest(1, 8));
+        Assertions.assertEquals(2, contentions.getTotalSize());
+        for (VMonitorContention c : contentions.getData()) {
+            Assertions.assertEquals(Arrays.asList(0, 0, 1), c.getBlockedThreads());
+            Assertions.assertNotNull(c.getOwners().get(2));
+        }
+
+        // the main thread of the last dump is another thread
+        VThreadTimeline last = main.getData().get(1);
+        Assertions.assertNull(last.getJavaStates().get(0));
+        Assertions.assertEquals(JavaThreadState.BLOCKED_ON_MONITOR_ENTER, last.getJavaStates().get(2));
+
+        // weights of the merged call site tree are the sum of the weights of all dumps
+        int weight = rootWeight(analyzer.callSiteTree(0, new PagingRequest(1, 1024)));
+        int weight8 = rootWeight(ThreadDumpAnalyzer.build(pathOfResource("jstack_8.log"), NoOpProgressListener)
+                                                   .callSiteTree(0, new PagingRequest(1, 1024)));
+        int weight11 = rootWeight(
+            ThreadDumpAnalyzer.build(pathOfResource("jstack_11_with_deadlocks.log"), NoOpProgressListener)
+                              .callSiteTree(0, new PagingRequest(1, 1024)));
+        Assertions.assertEquals(2 * weight8 + weight11, weight);
+    }
+}
@@ -0,0 +1,188 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.jifa.tda.parser;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class TestLineScanner {
+
+    private static final Map<String, Pattern> MONITORS = Map.of(LineScanner.LOCKED, JStackParser.PATTERNS.LOCKED,
+                                                                LineScanner.WAITING_TO_LOCK,
+                                                                JStackParser.PATTERNS.WAITING_TO_LOCK,
+                                                                LineScanner.WAITING_ON,
+                                                                JStackParser.PATTERNS.WAITING_ON,
+                                                                LineScanner.WAITING_TO_RE_LOCK,
+                                                                JStackParser.PATTERNS.WAITING_TO_RE_LOCK,
+                                                                LineScanner.ELIMINATED,
+                                                                JStackParser.PATTERNS.ELIMINATED);
+
+    private static List<Object> threadFields(LineScanner s) {
+        return Arrays.asList(s.name, s.id, s.daemon, s.priority, s.osPriority, s.cpu, s.elapsed, s.tid, s.nid,
+                             s.state, s.lastJavaSP);
+    }
+
+    private static List<Object> frameFields(LineScanner s) {
+        return Arrays.asList(s.clazz, s.method, s.module, s.source);
+    }
+
+    private static List<Object> monitorFields(LineScanner s) {
+        return Arrays.asList(s.address, s.isClass, s.clazz);
+    }
+
+    /**
+     * @return true if the line is scanned, in which case the pattern must match it with the same groups
+     */
+    private static boolean check(String line, BiPredicate<LineScanner, String> scan, Pattern pattern,
+                                 BiFunction<LineScanner, Matcher, List<Object>> fill) {
+        LineScanner scanner = new LineScanner();
+        boolean scanned = scan.test(scanner, line);
+        Matcher m = pattern.matcher(line);
+        boolean matched = m.matches();
+        if (scanned) {
+            Assertions.assertTrue(matched, line);
+            Assertions.assertEquals(fill.apply(new LineScanner(), m), fill.apply(scanner, null), line);
+        }
+        return scanned;
+    }
+
+    private static boolean checkJavaThread(String line) {
+        return check(line, LineScanner::scanJavaThread, JStackParser.PATTERNS.JAVA_THREAD, (s, m) -> {
+            if (m != null) {
+                s.javaThread(m);
+            }
+            return threadFields(s);
+        });
+    }
+
+    private static boolean checkFrame(String line) {
+        return check(line, LineScanner::scanFrame, JStackParser.PATTERNS.JAVA_FRAME, (s, m) -> {
+            if (m != null) {
+                s.frame(m);
+            }
+            return frameFields(s);
+        });
+    }
+
+    private static boolean checkMonitor(String line, String head) {
+        return check(line, (s, l) -> s.scanMonitor(l, head), MONITORS.get(head), (s, m) -> {
+            if (m != null) {
+                s.monitor(m);
+            }
+            return monitorFields(s);
+        });
+    }
+
+    private void checkDump(String name) throws Exception {
+        Path path = Paths.get(getClass().getClassLoader().getResource(name).toURI());
+        int headers = 0, frames = 0, monitors = 0;
+        for (String line : Files.readAllLines(path)) {
+            // lines are trimmed by the parser
+            line = line.trim();
+            if (line.startsWith("\"") && line.endsWith("]")) {
+                Assertions.assertTrue(checkJavaThread(line), line);
+                headers++;
+            } else if (line.startsWith("at ")) {
+                Assertions.assertTrue(checkFrame(line), line);
+                frames++;
+            } else {
+                for (String head : MONITORS.keySet()) {
+                    if (line.startsWith(head)) {
+                        Assertions.assertTrue(checkMonitor(line, head), line);
+                        monitors++;
+                    }
+                }
+            }
+        }
+        Assertions.assertTrue(headers > 0 && frames > 0 && monitors > 0);
+    }
+
+    @Test
+    public void testDumps() throws Exception {
+        checkDump("jstack_8.log");
+        checkDump("jstack_11_with_deadlocks.log");
+    }
+
+    @Test
+    public void testJavaThread() {
+        // os thread id printed since JDK 19
+        Assertions.assertTrue(checkJavaThread(
+            "\"main\" #1 [5123] prio=5 os_prio=0 cpu=10.20ms elapsed=1.03s tid=0x00007f0c3c02a000 nid=5123 " +
+            "waiting on condition  [0x00007f0c43bfe000]"));
+        Assertions.assertTrue(checkJavaThread(
+            "\"pool-1-thread-1\" #23 [24067] daemon prio=5 os_prio=0 cpu=0.17ms elapsed=0.80s allocated=1024B " +
+            "defined_classes=3 tid=0x00007f0c3c1f8000 nid=24067 in Object.wait()  [0x00007f0c1a7fd000]"));
+        Assertions.assertTrue(checkJavaThread(
+            "\"a [b]\" #2 daemon prio=10 os_prio=31 tid=0x00007fcefc02b800 nid=0x4b03 runnable [0x0]"));
+
+        // names containing '" #' and malformed values are left to the pattern
+        Assertions.assertFalse(checkJavaThread(
+            "\"a\" #1 b\" #2 prio=5 os_prio=0 tid=0x00007f0c3c02a000 nid=0x1 runnable  [0x0]"));
+        Assertions.assertFalse(checkJavaThread(
+            "\"main\" #1 [] prio=5 os_prio=0 tid=0x00007f0c3c02a000 nid=0x1 runnable  [0x0]"));
+        Assertions.assertFalse(checkJavaThread(
+            "\"main\" #1 prio=5 os_prio=0 tid=0x00007f0c3c02a000 nid=0x1 runnable  []"));
+    }
+
+    @Test
+    public void testFrame() {
+        Assertions.assertTrue(checkFrame("at java.lang.Thread.run(java.base@17.0.2/Thread.java:833)"));
+        Assertions.assertTrue(checkFrame("at jdk.internal.misc.Unsafe.park(java.base@17.0.2/Native Method)"));
+        Assertions.assertTrue(checkFrame("at com.example.Main.lambda$main$0(Unknown Source)"));
+        Assertions.assertTrue(checkFrame("at com.example.Main.main(app//Main.java:5)"));
+
+        // a leading '/' belongs to the source rather than the module
+        Assertions.assertTrue(checkFrame("at com.example.Main.main(/tmp/Main.java:5)"));
+        Assertions.assertTrue(checkFrame("at com.example.Main.main(//Main.java:5)"));
+
+        Assertions.assertFalse(checkFrame("at com.example.Main.main(Main.java:5) (nested)"));
+        Assertions.assertFalse(checkFrame("at main(Main.java:5)"));
+        Assertions.assertFalse(checkFrame("at com.example.Main.main(java.base/)"));
+    }
+
+    @Test
+    public void testMonitor() {
+        String address = "<0x000000076ab62208>";
+        Assertions.assertTrue(checkMonitor("- locked " + address + " (a java.lang.Object)", LineScanner.LOCKED));
+        Assertions.assertTrue(checkMonitor("- waiting on " + address + " (a java.lang.ref.ReferenceQueue$Lock)",
+                                           LineScanner.WAITING_ON));
+        Assertions.assertTrue(checkMonitor("- waiting to re-lock in wait() " + address + " (a java.lang.Object)",
+                                           LineScanner.WAITING_TO_RE_LOCK));
+
+        // monitors of classes
+        Assertions.assertTrue(checkMonitor("- waiting to lock " + address + " (a java.lang.Class for com.example.A)",
+                                           LineScanner.WAITING_TO_LOCK));
+        Assertions.assertTrue(checkMonitor("- eliminated " + address + " (a java.lang.Class for java.lang.String)",
+                                           LineScanner.ELIMINATED));
+        // the dots of the pattern match any character
+        Assertions.assertTrue(checkMonitor("- locked " + address + " (a java_lang-Class for com.example.A)",
+                                           LineScanner.LOCKED));
+        // no class after "java.lang.Class for", so it is the class itself
+        Assertions.assertTrue(checkMonitor("- locked " + address + " (a java.lang.Class for )", LineScanner.LOCKED));
+
+        Assertions.assertFalse(checkMonitor("- locked <> (a java.lang.Object)", LineScanner.LOCKED));
+        Assertions.assertFalse(checkMonitor("- locked " + address + " (an java.lang.Object)", LineScanner.LOCKED));
+        Assertions.assertFalse(checkMonitor("- locked " + address + " (a )", LineScanner.LOCKED));
+    }
+}
@@ -17,6 +17,8 @@ import lombok.extern.slf4j.Slf4j;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -123,6 +125,44 @@ public class ExecutorFactory {
 
     }
 
+    /**
+     * Create a new fork join pool with a specified name prefix for cpu bound tasks.
+     * The parallelism is the number of processors, bounded by the common thread pool size.
+     *
+     * @param namePrefix the thread name prefix
+     * @return a new fork join pool
+     */
+    public static ForkJoinPool newForkJoinPool(String namePrefix) {
+        ensureInitialized();
+        return newForkJoinPool(namePrefix,
+                               Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), COMMON_THREAD_POOL_SIZE)));
+    }
+
+    /**
+     * Create a new fork join pool with a specified name prefix and parallelism
+     *
+     * @param namePrefix  the thread name prefix
+     * @param parallelism the parallelism
+     * @return a new fork join pool
+     */
+    public static ForkJoinPool newForkJoinPool(String namePrefix, int parallelism) {
+        ensureInitialized();
+
+        if (namePrefix == null || parallelism <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        AtomicInteger counter = new AtomicInteger(1);
+        return new ForkJoinPool(parallelism,
+                                pool -> {
+                                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                                    thread.setName(namePrefix + " - " + counter.getAndIncrement());
+                                    thread.setDaemon(true);
+                                    return thread;
+                                },
+                                null, false);
+    }
+
     /**
      * Print the statistic of all executors created by this factory
      *
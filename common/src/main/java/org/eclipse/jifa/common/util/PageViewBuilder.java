@@ -15,17 +15,22 @@ package org.eclipse.jifa.common.util;
 import org.eclipse.jifa.common.domain.request.PagingRequest;
 import org.eclipse.jifa.common.domain.vo.PageView;
 
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.IntFunction;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * Page view builder.
@@ -91,12 +96,141 @@ public class PageViewBuilder<ST, TT> {
         return new PageView<>(paging, total.length, result);
     }
 
+    /**
+     * Build a page of the elements that match the filter, ordered by a primitive sort key.
+     * <p>
+     * Keys are read once into a primitive array, and the page is selected by a bounded heap of
+     * (page * pageSize) indices instead of sorting all the elements. Only the elements of the page are mapped.
+     * Elements with the same key keep their order, as a stable sort would do.
+     *
+     * @param elements       the elements
+     * @param paging         the paging request
+     * @param filter         the filter, null means all elements match
+     * @param sortKey        the sort key, null means the order of the elements is kept
+     * @param ascendingOrder the order
+     * @param mapper         maps an element of the page to the data of the page view
+     * @param <S>            element type
+     * @param <T>            data type
+     * @return the page view
+     */
+    public static <S, T> PageView<T> build(List<S> elements, PagingRequest paging, Predicate<? super S> filter,
+                                           SortKey<? super S> sortKey, boolean ascendingOrder,
+                                           Function<? super S, ? extends T> mapper) {
+        int size = elements.size();
+        int[] matched = new int[size];
+        long[] keys = sortKey != null ? new long[size] : null;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            S element = elements.get(i);
+            if (filter == null || filter.test(element)) {
+                if (keys != null) {
+                    long key = sortKey.get(element);
+                    // ~key reverses the order without overflow
+                    keys[count] = ascendingOrder ? key : ~key;
+                }
+                matched[count++] = i;
+            }
+        }
+
+        int from = paging.from();
+        int to = paging.to(count);
+        if (from >= to) {
+            return new PageView<>(paging, count, Collections.emptyList());
+        }
+        int[] positions = keys != null ? selectFirst(keys, count, to) : null;
+        List<T> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(mapper.apply(elements.get(matched[positions != null ? positions[i] : i])));
+        }
+        return new PageView<>(paging, count, result);
+    }
+
+    /**
+     * @return a sort key of floating point values that keeps their order
+     */
+    public static <S> SortKey<S> doubleKey(ToDoubleFunction<? super S> key) {
+        return element -> {
+            long bits = Double.doubleToLongBits(key.applyAsDouble(element));
+            return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        };
+    }
+
+    /**
+     * Select the positions of the k smallest keys, ordered by key and then by position.
+     */
+    private static int[] selectFirst(long[] keys, int count, int k) {
+        // max heap, the root is the greatest of the selected positions
+        int[] heap = new int[k];
+        int heapSize = 0;
+        for (int p = 0; p < count; p++) {
+            if (heapSize < k) {
+                heap[heapSize] = p;
+                siftUp(heap, heapSize++, keys);
+            } else if (keys[p] < keys[heap[0]]) {
+                // p is greater than any selected position, so only a strictly smaller key replaces the root
+                heap[0] = p;
+                siftDown(heap, 0, heapSize, keys);
+            }
+        }
+        // heap sort in place, the greatest goes last
+        for (int end = heapSize - 1; end > 0; end--) {
+            int root = heap[0];
+            heap[0] = heap[end];
+            heap[end] = root;
+            siftDown(heap, 0, end, keys);
+        }
+        return heap;
+    }
+
+    private static boolean greater(int a, int b, long[] keys) {
+        return keys[a] > keys[b] || (keys[a] == keys[b] && a > b);
+    }
+
+    private static void siftUp(int[] heap, int i, long[] keys) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!greater(heap[i], heap[parent], keys)) {
+                return;
+            }
+            int t = heap[i];
+            heap[i] = heap[parent];
+            heap[parent] = t;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int i, int size, long[] keys) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && greater(heap[child + 1], heap[child], keys)) {
+                child++;
+            }
+            if (!greater(heap[child], heap[i], keys)) {
+                return;
+            }
+            int t = heap[i];
+            heap[i] = heap[child];
+            heap[child] = t;
+            i = child;
+        }
+    }
+
     public interface Callback<O> {
         int totalSize();
 
         O get(int index);
     }
 
+    /**
+     * Primitive sort key of an element, see {@link #doubleKey(ToDoubleFunction)} for floating point values
+     */
+    public interface SortKey<O> {
+        long get(O element);
+    }
+
     // complex builder
     private List<ST> list;
     private Function<ST, TT> mapper;
@@ -139,23 +273,46 @@ public class PageViewBuilder<ST, TT> {
     }
 
     public PageView<TT> done() {
-        Stream<TT> stream = list.stream().map(mapper);
+        int from = paging.from();
+        // paging must exist since this is PageView builder.
+        int limit = from + paging.getPageSize();
 
-        if (filter != null) {
-            stream = stream.filter(filter);
-        }
+        // (item, sequence) pairs, the sequence keeps the order of equal items as a stable sort does
+        PriorityQueue<Map.Entry<TT, Integer>> selected = null;
+        Comparator<Map.Entry<TT, Integer>> order = null;
+        List<TT> page = new ArrayList<>(paging.getPageSize());
         if (comparator != null) {
-            stream = stream.sorted(comparator);
+            order = Map.Entry.<TT, Integer>comparingByKey(comparator).thenComparing(Map.Entry.<TT, Integer>comparingByValue());
+            selected = new PriorityQueue<>(Math.min(limit, 1024), order.reversed());
         }
 
-        List<TT> processedList = stream.toList();
+        int count = 0;
+        for (ST element : list) {
+            TT item = mapper.apply(element);
+            if (filter != null && !filter.test(item)) {
+                continue;
+            }
+            if (selected != null) {
+                Map.Entry<TT, Integer> entry = new AbstractMap.SimpleImmutableEntry<>(item, count);
+                if (selected.size() < limit) {
+                    selected.add(entry);
+                } else if (order.compare(entry, selected.peek()) < 0) {
+                    selected.poll();
+                    selected.add(entry);
+                }
+            } else if (count >= from && count < limit) {
+                page.add(item);
+            }
+            count++;
+        }
 
-        // paging must exist since this is PageView builder.
-        List<TT> finalList = processedList
-                .stream()
-                .skip(paging.from())
-                .limit(paging.getPageSize())
-                .collect(Collectors.toList());
-        return new PageView<>(paging, processedList.size(), finalList);
+        if (selected != null) {
+            List<Map.Entry<TT, Integer>> sorted = new ArrayList<>(selected);
+            sorted.sort(order);
+            for (int i = from; i < sorted.size(); i++) {
+                page.add(sorted.get(i).getKey());
+            }
+        }
+        return new PageView<>(paging, count, page);
     }
 }
@@ -136,5 +136,36 @@ public class TestPageViewBuilder {
             assertEquals("cc", pv.getData().get(0));
             assertEquals("bb", pv.getData().get(1));
         }
+
+        {
+            List<String> list = Lists.newArrayList("a", "ccc", "bb", "dd", "e", "ffff");
+            // ties keep the order of the elements in both directions
+            PageView<String> pv = PageViewBuilder.build(list, new PagingRequest(1, 3), null,
+                                                        String::length, false, s -> s + s);
+            assertEquals(6, pv.getTotalSize());
+            assertEquals("ffffffff", pv.getData().get(0));
+            assertEquals("cccccc", pv.getData().get(1));
+            assertEquals("bbbb", pv.getData().get(2));
+
+            pv = PageViewBuilder.build(list, new PagingRequest(2, 2), s -> !s.equals("a"),
+                                       String::length, true, s -> s);
+            assertEquals(5, pv.getTotalSize());
+            assertEquals(2, pv.getData().size());
+            assertEquals("dd", pv.getData().get(0));
+            assertEquals("ccc", pv.getData().get(1));
+
+            pv = PageViewBuilder.build(list, new PagingRequest(1, 2), null,
+                                       PageViewBuilder.doubleKey(s -> -s.length() / 2.0), true, s -> s);
+            assertEquals("ffff", pv.getData().get(0));
+            assertEquals("ccc", pv.getData().get(1));
+
+            pv = PageViewBuilder.build(list, new PagingRequest(3, 2), null, null, true, s -> s);
+            assertEquals("e", pv.getData().get(0));
+            assertEquals("ffff", pv.getData().get(1));
+
+            pv = PageViewBuilder.build(list, new PagingRequest(4, 2), null, String::length, true, s -> s);
+            assertEquals(6, pv.getTotalSize());
+            assertEquals(0, pv.getData().size());
+        }
     }
 }
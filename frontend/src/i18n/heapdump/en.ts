@@ -20,6 +20,8 @@ export default {
     descOfStopStrictness: 'Throw an error and stop analyzing the dump',
     descOfWarnStrictness: 'Raise a warning and continue',
     descOfPermissiveStrictness: 'Raise a warning and try to "fix" it',
+    labelOfBuildStringIndex: 'Build String Index',
+    descOfBuildStringIndex: 'Index the contents of strings while analyzing, so that searching strings is fast. It takes extra time and disk space.',
     labelOfDiscardObjects: 'Discard objects',
     descOfDiscardObjects: 'Discard some objects to reduce memory consume while analyse',
     descOfDiscardObjectsDetail: 'Sometimes a heap dump is generated with more objects than Memory Analyzer can handle, either from lack of heap to run Memory Analyzer itself, or because the number exceeds the Memory Analyzer limit of 2,147,483,639 objects. This option controls some experimental settings to help analyze such huge dumps, by purposely discarding objects in the original heap dump.',
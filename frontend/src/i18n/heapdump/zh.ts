@@ -20,6 +20,8 @@ export default {
     descOfStopStrictness: '终止分析',
     descOfWarnStrictness: '报告警告信息并继续分析',
     descOfPermissiveStrictness: '报告警告信息，尝试修复错误并继续分析',
+    labelOfBuildStringIndex: '构建字符串索引',
+    descOfBuildStringIndex: '分析时为字符串内容建立索引以加快字符串搜索，会占用额外的分析时间与磁盘空间',
     labelOfDiscardObjects: '丢弃部分对象',
     descOfDiscardObjects: '分析的时候丢弃部分对象，以减少 jifa 的堆内存占用，防止 OOM',
     descOfDiscardObjectsDetail: '如果堆内存特别巨大的话，其中某一类 objects 的数量可能会超过 2,147,483,639 这个限制，从而导致 1. analyze 无法为其创建索引数组而解析失败, 2. jifa 本身OOM 而解析失败. 这个选项可以通过指定丢弃类和丢弃比例的方式来丢弃一部分 objects，从而避免这些问题（如果堆内存特别巨大，建议开启此选项）',
@@ -24,11 +24,13 @@ import org.eclipse.jifa.common.util.Validate;
 import org.eclipse.jifa.server.enums.FileTransferMethod;
 import org.eclipse.jifa.server.enums.Role;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 import static org.eclipse.jifa.server.Constant.DEFAULT_CLUSTER_NAMESPACE;
@@ -173,6 +175,21 @@ public class Configuration {
      */
     private boolean securityFiltersEnabled = true;
 
+    /**
+     * The memory that cached analyzers may retain, by api namespace, e.g. jifa.analyzer-cache-budgets.heap-dump=8GB.
+     * Idle analyzers are evicted by their footprint once the budget of their namespace is exceeded.
+     * The default budget of a namespace is a quarter of the max heap.
+     */
+    private Map<String, DataSize> analyzerCacheBudgets = Collections.emptyMap();
+
+    /**
+     * The memory shared by the analyses being built and the cached analyzers, by api namespace, e.g.
+     * jifa.analysis-memory-budgets.heap-dump=24GB. Analyses are admitted by their estimated memory against it, and
+     * wait in order when it's used up. Only heap dump analyses are admitted this way now.
+     * The default budget of a namespace is 80% of the max heap.
+     */
+    private Map<String, DataSize> analysisMemoryBudgets = Collections.emptyMap();
+
     @PostConstruct
     private void init() {
         if (role == Role.MASTER) {
@@ -78,6 +78,8 @@ public class AnalysisApiServiceImpl extends ConfigurationAccessor implements Ana
     private void init() {
         if (isWorker()) {
             apiService = ApiService.getInstance();
+            config.getAnalyzerCacheBudgets().forEach((namespace, budget) -> apiService.setAnalyzerCacheBudget(namespace, budget.toBytes()));
+            config.getAnalysisMemoryBudgets().forEach((namespace, budget) -> apiService.setAnalysisMemoryBudget(namespace, budget.toBytes()));
             apis = new HashMap<>();
             Map<String, Set<Api>> supportedApis = apiService.supportedApis();
             for (Map.Entry<String, Set<Api>> entry : supportedApis.entrySet()) {
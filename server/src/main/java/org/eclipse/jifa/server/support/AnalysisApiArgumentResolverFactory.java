@@ -24,8 +24,10 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -120,7 +122,9 @@ public class AnalysisApiArgumentResolverFactory {
         return LEAF_RESOLVERS.computeIfAbsent
                                      (parameter,
                                       k -> {
-                                          if (type == boolean.class || type == Boolean.class) {
+                                          if (comparisonTargetPath && type != Path.class) {
+                                              return new ComparisonPathsResolver(name);
+                                          } else if (type == boolean.class || type == Boolean.class) {
                                               return new BooleanResolver(name, required);
                                           } else if (type == int.class || type == Integer.class) {
                                               return new IntResolver(name, required);
@@ -355,7 +359,11 @@ public class AnalysisApiArgumentResolverFactory {
             if (element == null) {
                 throw new IllegalArgumentException(key + " is required");
             }
-            if (!element.isJsonPrimitive() || element.getAsJsonPrimitive().isString()) {
+            return locationOf(context, element, key);
+        }
+
+        static Path locationOf(AnalysisApiArgumentContext context, JsonElement element, String key) {
+            if (!element.isJsonPrimitive() || !element.getAsJsonPrimitive().isString()) {
                 throw new IllegalArgumentException(key + " must be the name of a comparison target");
             }
             String name = element.getAsString();
@@ -364,6 +372,29 @@ public class AnalysisApiArgumentResolverFactory {
         }
     }
 
+    static class ComparisonPathsResolver extends LeafResolver<List<Path>> {
+
+        ComparisonPathsResolver(String name) {
+            super(name, true);
+        }
+
+        @Override
+        List<Path> resolve(AnalysisApiArgumentContext context) {
+            JsonElement element = context.paramJson().get(key);
+            if (element == null) {
+                throw new IllegalArgumentException(key + " is required");
+            }
+            if (!element.isJsonArray() || element.getAsJsonArray().isEmpty()) {
+                throw new IllegalArgumentException(key + " must be the names of comparison targets");
+            }
+            List<Path> paths = new ArrayList<>();
+            for (JsonElement e : element.getAsJsonArray()) {
+                paths.add(ComparisonPathResolver.locationOf(context, e, key));
+            }
+            return paths;
+        }
+    }
+
     static class ObjectResolver extends LeafResolver<Object> {
 
         private final Type type;